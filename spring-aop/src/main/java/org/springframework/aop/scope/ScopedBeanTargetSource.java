@@ -0,0 +1,135 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.scope;
+
+import org.springframework.aop.target.SimpleBeanTargetSource;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.config.Scope;
+import org.springframework.beans.factory.support.AbstractBeanFactory;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StringUtils;
+
+/**
+ * {@link SimpleBeanTargetSource} variant for the target of a scoped proxy,
+ * obtaining the target object straight from the target bean's {@link Scope}.
+ *
+ * <p>Once the target object has been created for the current scope (e.g. the
+ * current request or session), subsequent method calls on the proxy get it
+ * from the scope's own storage without going through the full
+ * {@link BeanFactory#getBean} algorithm every time. Creation of the target
+ * object is still delegated to the bean factory, through
+ * {@link AbstractBeanFactory#createScopedBean}.
+ *
+ * <p>Only applies to target beans with a custom scope that are locally defined
+ * in an {@link AbstractBeanFactory} and are not
+ * {@link org.springframework.beans.factory.FactoryBean FactoryBeans};
+ * behaves like a plain {@link SimpleBeanTargetSource} otherwise.
+ *
+ * @since 5.1
+ * @see ScopedProxyFactoryBean
+ * @see org.springframework.beans.factory.config.ConfigurableBeanFactory#getRegisteredScope
+ */
+@SuppressWarnings("serial")
+public class ScopedBeanTargetSource extends SimpleBeanTargetSource {
+
+	@Nullable
+	private transient volatile Scope targetScope;
+
+	@Nullable
+	private transient volatile AbstractBeanFactory targetFactory;
+
+	private transient volatile boolean targetScopeResolved;
+
+
+	@Override
+	public Object getTarget() throws Exception {
+		if (!this.targetScopeResolved) {
+			resolveTargetScope();
+		}
+		Scope scope = this.targetScope;
+		AbstractBeanFactory factory = this.targetFactory;
+		if (scope != null && factory != null) {
+			TargetObjectFactory objectFactory = new TargetObjectFactory(factory, getTargetBeanName());
+			try {
+				return scope.get(getTargetBeanName(), objectFactory);
+			}
+			catch (IllegalStateException ex) {
+				if (objectFactory.invoked) {
+					// Target object created within an active scope already:
+					// falling back would create it a second time.
+					throw ex;
+				}
+				// Scope not active for the current thread: let the bean factory
+				// raise its regular exception with the full context.
+			}
+		}
+		return super.getTarget();
+	}
+
+	/**
+	 * Determine the registered {@link Scope} of the target bean, if suitable
+	 * for retrieving the target object from it directly.
+	 */
+	private void resolveTargetScope() {
+		BeanFactory beanFactory = getBeanFactory();
+		String beanName = getTargetBeanName();
+		if (beanFactory instanceof ConfigurableListableBeanFactory && beanFactory instanceof AbstractBeanFactory) {
+			ConfigurableListableBeanFactory clbf = (ConfigurableListableBeanFactory) beanFactory;
+			if (clbf.containsBeanDefinition(beanName) && !clbf.isFactoryBean(beanName)) {
+				String scopeName = clbf.getMergedBeanDefinition(beanName).getScope();
+				if (StringUtils.hasLength(scopeName)) {
+					// Singleton and prototype are never registered as custom scopes.
+					Scope scope = clbf.getRegisteredScope(scopeName);
+					if (scope != null) {
+						this.targetFactory = (AbstractBeanFactory) beanFactory;
+						this.targetScope = scope;
+					}
+				}
+			}
+		}
+		this.targetScopeResolved = true;
+	}
+
+
+	/**
+	 * ObjectFactory for a single {@link Scope#get} call, creating the target
+	 * object without going through the scope again and tracking whether it
+	 * has been invoked.
+	 */
+	private static class TargetObjectFactory implements ObjectFactory<Object> {
+
+		private final AbstractBeanFactory beanFactory;
+
+		private final String beanName;
+
+		boolean invoked;
+
+		public TargetObjectFactory(AbstractBeanFactory beanFactory, String beanName) {
+			this.beanFactory = beanFactory;
+			this.beanName = beanName;
+		}
+
+		@Override
+		public Object getObject() {
+			this.invoked = true;
+			return this.beanFactory.createScopedBean(this.beanName);
+		}
+	}
+
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.scope;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.beans.factory.BeanCreationException;
+import org.springframework.beans.factory.BeanCurrentlyInCreationException;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.beans.factory.config.Scope;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.tests.sample.beans.TestBean;
+import org.springframework.util.ReflectionUtils;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link ScopedBeanTargetSource}.
+ *
+ * @since 5.1
+ */
+public class ScopedBeanTargetSourceTests {
+
+	private final MapScope scope = new MapScope();
+
+	private final CountingBeanFactory beanFactory = new CountingBeanFactory();
+
+	private final ScopedBeanTargetSource targetSource = new ScopedBeanTargetSource();
+
+
+	@Before
+	public void setup() {
+		this.beanFactory.registerScope("map", this.scope);
+		RootBeanDefinition bd = new RootBeanDefinition(TestBean.class);
+		bd.setScope("map");
+		this.beanFactory.registerBeanDefinition("scopedTarget", bd);
+		this.targetSource.setTargetBeanName("scopedTarget");
+		this.targetSource.setBeanFactory(this.beanFactory);
+	}
+
+
+	@Test
+	public void targetObtainedFromScopeAfterCreation() throws Exception {
+		Object target = this.targetSource.getTarget();
+		assertTrue(target instanceof TestBean);
+		assertSame(target, this.scope.objects.get("scopedTarget"));
+		assertEquals(1, this.scope.getCount);
+		assertTrue(this.beanFactory.isCreated("scopedTarget"));
+		int count = this.beanFactory.getBeanCount;
+
+		assertSame(target, this.targetSource.getTarget());
+		assertSame(target, this.targetSource.getTarget());
+		assertEquals(count, this.beanFactory.getBeanCount);
+		assertEquals(3, this.scope.getCount);
+	}
+
+	@Test
+	public void newTargetAfterRemovalFromScope() throws Exception {
+		Object target = this.targetSource.getTarget();
+		this.beanFactory.destroyScopedBean("scopedTarget");
+		Object newTarget = this.targetSource.getTarget();
+		assertNotSame(target, newTarget);
+		assertSame(newTarget, this.scope.objects.get("scopedTarget"));
+	}
+
+	@Test
+	public void inactiveScopeReportedByBeanFactory() throws Exception {
+		this.scope.active = false;
+		try {
+			this.targetSource.getTarget();
+			fail("Should have thrown BeanCreationException");
+		}
+		catch (BeanCreationException ex) {
+			assertTrue(ex.getCause() instanceof IllegalStateException);
+		}
+	}
+
+	@Test
+	public void failureAfterCreationNotRetriedThroughBeanFactory() throws Exception {
+		this.scope.failAfterCreation = true;
+		int count = this.beanFactory.getBeanCount;
+		try {
+			this.targetSource.getTarget();
+			fail("Should have thrown IllegalStateException");
+		}
+		catch (IllegalStateException ex) {
+			assertEquals("Scope failed after creation", ex.getMessage());
+		}
+		assertEquals(count, this.beanFactory.getBeanCount);
+	}
+
+	@Test
+	public void circularReferenceThroughTargetSourceRejected() throws Exception {
+		RootBeanDefinition bd = new RootBeanDefinition(TestBean.class, () -> {
+			TestBean tb = new TestBean();
+			try {
+				tb.setSpouse((TestBean) this.targetSource.getTarget());
+			}
+			catch (Exception ex) {
+				ReflectionUtils.rethrowRuntimeException(ex);
+			}
+			return tb;
+		});
+		bd.setScope("map");
+		this.beanFactory.registerBeanDefinition("scopedTarget", bd);
+		try {
+			this.targetSource.getTarget();
+			fail("Should have thrown BeanCreationException");
+		}
+		catch (BeanCreationException ex) {
+			assertTrue(ex.contains(BeanCurrentlyInCreationException.class));
+		}
+	}
+
+	@Test
+	public void singletonTargetObtainedFromBeanFactory() throws Exception {
+		this.beanFactory.registerBeanDefinition("singletonTarget", new RootBeanDefinition(TestBean.class));
+		ScopedBeanTargetSource singletonTargetSource = new ScopedBeanTargetSource();
+		singletonTargetSource.setTargetBeanName("singletonTarget");
+		singletonTargetSource.setBeanFactory(this.beanFactory);
+
+		int count = this.beanFactory.getBeanCount;
+		assertSame(this.beanFactory.getBean("singletonTarget"), singletonTargetSource.getTarget());
+		assertEquals(count + 2, this.beanFactory.getBeanCount);
+	}
+
+
+	@SuppressWarnings("serial")
+	private static class CountingBeanFactory extends DefaultListableBeanFactory {
+
+		int getBeanCount;
+
+		@Override
+		public Object getBean(String name) {
+			this.getBeanCount++;
+			return super.getBean(name);
+		}
+
+		boolean isCreated(String name) {
+			return isBeanEligibleForMetadataCaching(name);
+		}
+	}
+
+
+	private static class MapScope implements Scope {
+
+		final Map<String, Object> objects = new HashMap<>();
+
+		boolean active = true;
+
+		boolean failAfterCreation;
+
+		int getCount;
+
+		@Override
+		public Object get(String name, ObjectFactory<?> objectFactory) {
+			this.getCount++;
+			if (!this.active) {
+				throw new IllegalStateException("Scope not active");
+			}
+			Object object = this.objects.get(name);
+			if (object == null) {
+				object = objectFactory.getObject();
+				if (this.failAfterCreation) {
+					throw new IllegalStateException("Scope failed after creation");
+				}
+				this.objects.put(name, object);
+			}
+			return object;
+		}
+
+		@Override
+		public Object remove(String name) {
+			return this.objects.remove(name);
+		}
+
+		@Override
+		public void registerDestructionCallback(String name, Runnable callback) {
+		}
+
+		@Override
+		public Object resolveContextualObject(String key) {
+			return null;
+		}
+
+		@Override
+		public String getConversationId() {
+			return null;
+		}
+	}
+
+}
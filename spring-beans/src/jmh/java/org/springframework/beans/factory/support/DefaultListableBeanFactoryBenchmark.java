@@ -0,0 +1,142 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+
+/**
+ * Benchmarks for {@link DefaultListableBeanFactory#getBean}, covering cached
+ * singleton lookups as well as prototype creation with property injection,
+ * with reflective or {@link GeneratedInstantiationStrategy generated} instantiation.
+ *
+ * @since 5.1
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+@State(Scope.Benchmark)
+public class DefaultListableBeanFactoryBenchmark {
+
+	@Param({"reflective", "generated"})
+	public String instantiation;
+
+	public DefaultListableBeanFactory beanFactory;
+
+
+	@Setup
+	public void setup() {
+		this.beanFactory = new DefaultListableBeanFactory();
+		if ("generated".equals(this.instantiation)) {
+			this.beanFactory.setInstantiationStrategy(new GeneratedInstantiationStrategy());
+		}
+
+		RootBeanDefinition dependency = new RootBeanDefinition(Dependency.class);
+		this.beanFactory.registerBeanDefinition("dependency", dependency);
+
+		RootBeanDefinition singleton = new RootBeanDefinition(Consumer.class);
+		singleton.getPropertyValues().add("name", "singleton");
+		singleton.getPropertyValues().add("dependency", new RuntimeBeanReference("dependency"));
+		this.beanFactory.registerBeanDefinition("singleton", singleton);
+
+		RootBeanDefinition prototype = new RootBeanDefinition(Consumer.class);
+		prototype.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+		prototype.getPropertyValues().add("name", "prototype");
+		prototype.getPropertyValues().add("dependency", new RuntimeBeanReference("dependency"));
+		this.beanFactory.registerBeanDefinition("prototype", prototype);
+
+		RootBeanDefinition constructorPrototype = new RootBeanDefinition(Consumer.class);
+		constructorPrototype.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+		constructorPrototype.getConstructorArgumentValues().addGenericArgumentValue(new RuntimeBeanReference("dependency"));
+		this.beanFactory.registerBeanDefinition("constructorPrototype", constructorPrototype);
+
+		this.beanFactory.preInstantiateSingletons();
+	}
+
+
+	@Benchmark
+	public Object singletonByName() {
+		return this.beanFactory.getBean("singleton");
+	}
+
+	@Benchmark
+	public Object singletonByType() {
+		return this.beanFactory.getBean(Dependency.class);
+	}
+
+	@Benchmark
+	public Object prototypeWithPropertyInjection() {
+		return this.beanFactory.getBean("prototype");
+	}
+
+	@Benchmark
+	public Object prototypeWithConstructorInjection() {
+		return this.beanFactory.getBean("constructorPrototype");
+	}
+
+
+	public static class Dependency {
+	}
+
+
+	public static class Consumer {
+
+		private String name;
+
+		private Dependency dependency;
+
+		public Consumer() {
+		}
+
+		public Consumer(Dependency dependency) {
+			this.dependency = dependency;
+		}
+
+		public String getName() {
+			return this.name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+		public Dependency getDependency() {
+			return this.dependency;
+		}
+
+		public void setDependency(Dependency dependency) {
+			this.dependency = dependency;
+		}
+	}
+
+}
@@ -25,6 +25,8 @@ import org.springframework.core.convert.ConverterNotFoundException;
 import org.springframework.core.convert.TypeDescriptor;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
+import org.springframework.util.CacheRegistry;
+import org.springframework.util.ConcurrentLruCache;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.StringUtils;
 
@@ -64,6 +66,15 @@ public abstract class AbstractNestablePropertyAccessor extends AbstractPropertyA
      */
     private static final Log logger = LogFactory.getLog(AbstractNestablePropertyAccessor.class);
 
+    /**
+     * Size-bounded cache of parsed property paths, shared across all accessors
+     * since the parsing result does not depend on the target class.
+     *
+     * @see org.springframework.util.CacheRegistry
+     */
+    private static final ConcurrentLruCache<String, PropertyPath> propertyPathCache =
+            CacheRegistry.createCache("AbstractNestablePropertyAccessor.propertyPaths", 1024);
+
     private int autoGrowCollectionLimit = Integer.MAX_VALUE;
 
     @Nullable
@@ -234,6 +245,7 @@ public abstract class AbstractNestablePropertyAccessor extends AbstractPropertyA
 
     @Override
     public void setPropertyValue(String propertyName, @Nullable Object value) throws BeansException {
+        PropertyPath path = getPropertyPath(propertyName);
         AbstractNestablePropertyAccessor nestedPa;
         try {
             nestedPa = getPropertyAccessorForPropertyPath(propertyName);
@@ -241,8 +253,7 @@ public abstract class AbstractNestablePropertyAccessor extends AbstractPropertyA
             throw new NotWritablePropertyException(getRootClass(), this.nestedPath + propertyName,
                     "Nested property in path '" + propertyName + "' does not exist", ex);
         }
-        PropertyTokenHolder tokens = getPropertyNameTokens(getFinalPath(nestedPa, propertyName));
-        nestedPa.setPropertyValue(tokens, new PropertyValue(propertyName, value));
+        nestedPa.setPropertyValue(path.finalTokens, new PropertyValue(propertyName, value));
     }
 
     @Override
@@ -250,6 +261,7 @@ public abstract class AbstractNestablePropertyAccessor extends AbstractPropertyA
         PropertyTokenHolder tokens = (PropertyTokenHolder) pv.resolvedTokens;
         if (tokens == null) {
             String propertyName = pv.getName();
+            PropertyPath path = getPropertyPath(propertyName);
             AbstractNestablePropertyAccessor nestedPa;
             try {
                 nestedPa = getPropertyAccessorForPropertyPath(propertyName);
@@ -257,7 +269,7 @@ public abstract class AbstractNestablePropertyAccessor extends AbstractPropertyA
                 throw new NotWritablePropertyException(getRootClass(), this.nestedPath + propertyName,
                         "Nested property in path '" + propertyName + "' does not exist", ex);
             }
-            tokens = getPropertyNameTokens(getFinalPath(nestedPa, propertyName));
+            tokens = path.finalTokens;
             if (nestedPa == this) {
                 pv.getOriginalPropertyValue().resolvedTokens = tokens;
             }
@@ -513,9 +525,9 @@ public abstract class AbstractNestablePropertyAccessor extends AbstractPropertyA
     @Nullable
     public TypeDescriptor getPropertyTypeDescriptor(String propertyName) throws BeansException {
         try {
+            PropertyPath path = getPropertyPath(propertyName);
             AbstractNestablePropertyAccessor nestedPa = getPropertyAccessorForPropertyPath(propertyName);
-            String finalPath = getFinalPath(nestedPa, propertyName);
-            PropertyTokenHolder tokens = getPropertyNameTokens(finalPath);
+            PropertyTokenHolder tokens = path.finalTokens;
             PropertyHandler ph = nestedPa.getLocalPropertyHandler(tokens.actualName);
             if (ph != null) {
                 if (tokens.keys != null) {
@@ -598,9 +610,9 @@ public abstract class AbstractNestablePropertyAccessor extends AbstractPropertyA
     @Override
     @Nullable
     public Object getPropertyValue(String propertyName) throws BeansException {
+        PropertyPath path = getPropertyPath(propertyName);
         AbstractNestablePropertyAccessor nestedPa = getPropertyAccessorForPropertyPath(propertyName);
-        PropertyTokenHolder tokens = getPropertyNameTokens(getFinalPath(nestedPa, propertyName));
-        return nestedPa.getPropertyValue(tokens);
+        return nestedPa.getPropertyValue(path.finalTokens);
     }
 
     @SuppressWarnings("unchecked")
@@ -706,8 +718,9 @@ public abstract class AbstractNestablePropertyAccessor extends AbstractPropertyA
     @Nullable
     protected PropertyHandler getPropertyHandler(String propertyName) throws BeansException {
         Assert.notNull(propertyName, "Property name must not be null");
+        PropertyPath path = getPropertyPath(propertyName);
         AbstractNestablePropertyAccessor nestedPa = getPropertyAccessorForPropertyPath(propertyName);
-        return nestedPa.getLocalPropertyHandler(getFinalPath(nestedPa, propertyName));
+        return nestedPa.getLocalPropertyHandler(path.finalPath);
     }
 
     /**
@@ -790,22 +803,35 @@ public abstract class AbstractNestablePropertyAccessor extends AbstractPropertyA
 
     /**
      * Recursively navigate to return a property accessor for the nested property path.
+     * <p>All property access by name goes through this method, so overriding it affects
+     * nested property resolution; the parsed path itself is cached across accessors.
      *
      * @param propertyPath property path, which may be nested
      * @return a property accessor for the target bean
      */
     @SuppressWarnings("unchecked")  // avoid nested generic
     protected AbstractNestablePropertyAccessor getPropertyAccessorForPropertyPath(String propertyPath) {
-        int pos = PropertyAccessorUtils.getFirstNestedPropertySeparatorIndex(propertyPath);
-        // Handle nested properties recursively.
-        if (pos > -1) {
-            String nestedProperty = propertyPath.substring(0, pos);
-            String nestedPath = propertyPath.substring(pos + 1);
-            AbstractNestablePropertyAccessor nestedPa = getNestedPropertyAccessor(nestedProperty);
-            return nestedPa.getPropertyAccessorForPropertyPath(nestedPath);
-        } else {
-            return this;
+        AbstractNestablePropertyAccessor nestedPa = this;
+        for (PropertyTokenHolder nestedTokens : getPropertyPath(propertyPath).nestedTokens) {
+            nestedPa = nestedPa.getNestedPropertyAccessor(nestedTokens);
+        }
+        return nestedPa;
+    }
+
+    /**
+     * Obtain the parsed representation of the given property path,
+     * either from the shared cache or freshly parsed.
+     *
+     * @param propertyPath property path, which may be nested
+     * @return the parsed property path
+     */
+    private PropertyPath getPropertyPath(String propertyPath) {
+        PropertyPath path = propertyPathCache.get(propertyPath);
+        if (path == null) {
+            path = new PropertyPath(propertyPath);
+            propertyPathCache.put(propertyPath, path);
         }
+        return path;
     }
 
     /**
@@ -814,15 +840,14 @@ public abstract class AbstractNestablePropertyAccessor extends AbstractPropertyA
      * <p>Note: Caching nested PropertyAccessors is necessary now,
      * to keep registered custom editors for nested properties.
      *
-     * @param nestedProperty property to create the PropertyAccessor for
+     * @param tokens the parsed tokens of the property to create the PropertyAccessor for
      * @return the PropertyAccessor instance, either cached or newly created
      */
-    private AbstractNestablePropertyAccessor getNestedPropertyAccessor(String nestedProperty) {
+    private AbstractNestablePropertyAccessor getNestedPropertyAccessor(PropertyTokenHolder tokens) {
         if (this.nestedPropertyAccessors == null) {
             this.nestedPropertyAccessors = new HashMap<>();
         }
         // Get value of bean property.
-        PropertyTokenHolder tokens = getPropertyNameTokens(nestedProperty);
         String canonicalName = tokens.canonicalName;
         Object value = getPropertyValue(tokens);
         if (value == null || (value instanceof Optional && !((Optional) value).isPresent())) {
@@ -907,7 +932,7 @@ public abstract class AbstractNestablePropertyAccessor extends AbstractPropertyA
      * @param propertyName the property name to parse
      * @return representation of the parsed property tokens
      */
-    private PropertyTokenHolder getPropertyNameTokens(String propertyName) {
+    private static PropertyTokenHolder getPropertyNameTokens(String propertyName) {
         String actualName = null;
         List<String> keys = new ArrayList<>(2);
         int searchIndex = 0;
@@ -1007,6 +1032,35 @@ public abstract class AbstractNestablePropertyAccessor extends AbstractPropertyA
     }
 
 
+    /**
+     * Parsed representation of a (potentially nested) property path: the tokens
+     * of each nested property to navigate through, plus the final property.
+     * Shared across accessor instances, so the tokens must not be modified.
+     */
+    private static final class PropertyPath {
+
+        final PropertyTokenHolder[] nestedTokens;
+
+        final String finalPath;
+
+        final PropertyTokenHolder finalTokens;
+
+        PropertyPath(String propertyPath) {
+            List<PropertyTokenHolder> nestedTokens = new ArrayList<>(2);
+            String remainingPath = propertyPath;
+            int pos = PropertyAccessorUtils.getFirstNestedPropertySeparatorIndex(remainingPath);
+            while (pos > -1) {
+                nestedTokens.add(getPropertyNameTokens(remainingPath.substring(0, pos)));
+                remainingPath = remainingPath.substring(pos + 1);
+                pos = PropertyAccessorUtils.getFirstNestedPropertySeparatorIndex(remainingPath);
+            }
+            this.nestedTokens = nestedTokens.toArray(new PropertyTokenHolder[0]);
+            this.finalPath = remainingPath;
+            this.finalTokens = getPropertyNameTokens(remainingPath);
+        }
+    }
+
+
     protected static class PropertyTokenHolder {
 
         public PropertyTokenHolder(String name) {
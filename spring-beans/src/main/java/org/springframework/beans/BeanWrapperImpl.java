@@ -17,6 +17,7 @@
 package org.springframework.beans;
 
 import org.springframework.core.ResolvableType;
+import org.springframework.core.SpringProperties;
 import org.springframework.core.convert.Property;
 import org.springframework.core.convert.TypeDescriptor;
 import org.springframework.lang.Nullable;
@@ -58,6 +59,20 @@ import java.security.*;
  */
 public class BeanWrapperImpl extends AbstractNestablePropertyAccessor implements BeanWrapper {
 
+    /**
+     * System property that switches on {@link #setUseGeneratedAccessors generated
+     * accessors} for all BeanWrapperImpl instances by default, including those created
+     * internally for data binding and row mapping: "spring.beans.generatedAccessors".
+     * <p>The default is "false", using reflection unless requested per instance.
+     *
+     * @since 5.1
+     */
+    public static final String USE_GENERATED_ACCESSORS_PROPERTY_NAME = "spring.beans.generatedAccessors";
+
+    private static final boolean defaultUseGeneratedAccessors =
+            SpringProperties.getFlag(USE_GENERATED_ACCESSORS_PROPERTY_NAME);
+
+
     /**
      * Cached introspections results for this object, to prevent encountering
      * the cost of JavaBeans introspection every time.
@@ -71,6 +86,11 @@ public class BeanWrapperImpl extends AbstractNestablePropertyAccessor implements
     @Nullable
     private AccessControlContext acc;
 
+    /**
+     * Whether to invoke property methods through generated accessors
+     */
+    private boolean useGeneratedAccessors = defaultUseGeneratedAccessors;
+
 
     /**
      * Create a new empty BeanWrapperImpl. Wrapped instance needs to be set afterwards.
@@ -134,6 +154,7 @@ public class BeanWrapperImpl extends AbstractNestablePropertyAccessor implements
     private BeanWrapperImpl(Object object, String nestedPath, BeanWrapperImpl parent) {
         super(object, nestedPath, parent);
         setSecurityContext(parent.acc);
+        setUseGeneratedAccessors(parent.useGeneratedAccessors);
     }
 
 
@@ -197,6 +218,30 @@ public class BeanWrapperImpl extends AbstractNestablePropertyAccessor implements
         return this.acc;
     }
 
+    /**
+     * Set whether to invoke the read and write methods of public properties through
+     * accessors generated with ASM rather than through reflection. Default is "false",
+     * unless the {@link #USE_GENERATED_ACCESSORS_PROPERTY_NAME} property is set.
+     * <p>Worth switching on for frequently wrapped classes, e.g. prototype beans,
+     * to avoid the overhead of reflective invocation; not applied when running
+     * under a SecurityManager.
+     *
+     * @see GeneratedAccessors
+     * @since 5.1
+     */
+    public void setUseGeneratedAccessors(boolean useGeneratedAccessors) {
+        this.useGeneratedAccessors = useGeneratedAccessors;
+    }
+
+    /**
+     * Return whether to invoke property methods through generated accessors.
+     *
+     * @since 5.1
+     */
+    public boolean isUseGeneratedAccessors() {
+        return this.useGeneratedAccessors;
+    }
+
 
     /**
      * Convert the given value for the specified property to the latter's type.
@@ -312,6 +357,12 @@ public class BeanWrapperImpl extends AbstractNestablePropertyAccessor implements
                 }
             } else {
                 ReflectionUtils.makeAccessible(readMethod);
+                if (useGeneratedAccessors) {
+                    GeneratedAccessors.Accessor accessor = (this.pd instanceof GenericTypeAwarePropertyDescriptor ?
+                            ((GenericTypeAwarePropertyDescriptor) this.pd).getReadAccessor() :
+                            GeneratedAccessors.forMethod(readMethod));
+                    return accessor.invoke(getWrappedInstance(), null);
+                }
                 return readMethod.invoke(getWrappedInstance(), (Object[]) null);
             }
         }
@@ -335,7 +386,14 @@ public class BeanWrapperImpl extends AbstractNestablePropertyAccessor implements
                 }
             } else {
                 ReflectionUtils.makeAccessible(writeMethod);
-                writeMethod.invoke(getWrappedInstance(), value);
+                if (useGeneratedAccessors) {
+                    GeneratedAccessors.Accessor accessor = (this.pd instanceof GenericTypeAwarePropertyDescriptor ?
+                            ((GenericTypeAwarePropertyDescriptor) this.pd).getWriteAccessorForActualAccess() :
+                            GeneratedAccessors.forMethod(writeMethod));
+                    accessor.invoke(getWrappedInstance(), new Object[] {value});
+                } else {
+                    writeMethod.invoke(getWrappedInstance(), value);
+                }
             }
         }
     }
@@ -16,10 +16,12 @@
 
 package org.springframework.beans;
 
+import java.beans.BeanDescriptor;
 import java.beans.BeanInfo;
 import java.beans.IntrospectionException;
 import java.beans.Introspector;
 import java.beans.PropertyDescriptor;
+import java.beans.SimpleBeanInfo;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
@@ -36,7 +38,9 @@ import org.springframework.core.SpringProperties;
 import org.springframework.core.convert.TypeDescriptor;
 import org.springframework.core.io.support.SpringFactoriesLoader;
 import org.springframework.lang.Nullable;
+import org.springframework.util.CacheRegistry;
 import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentLruCache;
 import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.StringUtils;
 
@@ -61,9 +65,10 @@ import org.springframework.util.StringUtils;
  * in case of a multi-ClassLoader layout, which will allow for effective caching as well.
  *
  * <p>In case of a non-clean ClassLoader arrangement without a cleanup listener having
- * been set up, this class will fall back to a weak-reference-based caching model that
- * recreates much-requested entries every time the garbage collector removed them. In
- * such a scenario, consider the {@link #IGNORE_BEANINFO_PROPERTY_NAME} system property.
+ * been set up, this class will fall back to a size-bounded caching model that
+ * recreates much-requested entries every time they got evicted; the size limit can be
+ * tuned through the {@link org.springframework.util.CacheRegistry}. In such a scenario,
+ * also consider the {@link #IGNORE_BEANINFO_PROPERTY_NAME} system property.
  *
  * @author Rod Johnson
  * @author Juergen Hoeller
@@ -93,10 +98,28 @@ public class CachedIntrospectionResults {
 	 */
 	public static final String IGNORE_BEANINFO_PROPERTY_NAME = "spring.beaninfo.ignore";
 
+	/**
+	 * System property that instructs Spring to determine bean properties through plain
+	 * reflection on public methods rather than through the JavaBeans {@link Introspector}:
+	 * "spring.introspector.ignore".
+	 * <p>The default is "false", using the Introspector. Consider switching this flag to
+	 * "true" to avoid the Introspector's cost on startup, in particular its search for
+	 * {@code BeanInfo} classes, if no such classes and no indexed property methods are
+	 * being relied on. Setter methods with a non-void return type are supported in this
+	 * mode as well, as with {@link ExtendedBeanInfoFactory}; custom {@link BeanInfoFactory}
+	 * implementations still take precedence.
+	 * @since 5.1
+	 * @see PropertyDescriptorUtils#determineBasicProperties(Class)
+	 */
+	public static final String IGNORE_INTROSPECTOR_PROPERTY_NAME = "spring.introspector.ignore";
+
 
 	private static final boolean shouldIntrospectorIgnoreBeaninfoClasses =
 			SpringProperties.getFlag(IGNORE_BEANINFO_PROPERTY_NAME);
 
+	private static final boolean shouldIgnoreIntrospector =
+			SpringProperties.getFlag(IGNORE_INTROSPECTOR_PROPERTY_NAME);
+
 	/** Stores the BeanInfoFactory instances */
 	private static List<BeanInfoFactory> beanInfoFactories = SpringFactoriesLoader.loadFactories(
 			BeanInfoFactory.class, CachedIntrospectionResults.class.getClassLoader());
@@ -118,11 +141,14 @@ public class CachedIntrospectionResults {
 			new ConcurrentHashMap<>(64);
 
 	/**
-	 * Map keyed by Class containing CachedIntrospectionResults, softly held.
-	 * This variant is being used for non-cache-safe bean classes.
+	 * Size-bounded cache keyed by Class containing CachedIntrospectionResults,
+	 * softly referencing its entries. This variant is being used for non-cache-safe
+	 * bean classes.
+	 * @see org.springframework.util.CacheRegistry
 	 */
-	static final ConcurrentMap<Class<?>, CachedIntrospectionResults> softClassCache =
-			new ConcurrentReferenceHashMap<>(64);
+	static final ConcurrentLruCache<Class<?>, CachedIntrospectionResults> softClassCache =
+			CacheRegistry.createCache("CachedIntrospectionResults", 256,
+				ConcurrentReferenceHashMap.ReferenceType.SOFT);
 
 
 	/**
@@ -162,12 +188,7 @@ public class CachedIntrospectionResults {
 				it.remove();
 			}
 		}
-		for (Iterator<Class<?>> it = softClassCache.keySet().iterator(); it.hasNext();) {
-			Class<?> beanClass = it.next();
-			if (isUnderneathClassLoader(beanClass.getClassLoader(), classLoader)) {
-				it.remove();
-			}
-		}
+		softClassCache.removeIf(beanClass -> isUnderneathClassLoader(beanClass.getClassLoader(), classLoader));
 	}
 
 	/**
@@ -188,20 +209,19 @@ public class CachedIntrospectionResults {
 		}
 
 		results = new CachedIntrospectionResults(beanClass);
-		ConcurrentMap<Class<?>, CachedIntrospectionResults> classCacheToUse;
+		CachedIntrospectionResults existing;
 
 		if (ClassUtils.isCacheSafe(beanClass, CachedIntrospectionResults.class.getClassLoader()) ||
 				isClassLoaderAccepted(beanClass.getClassLoader())) {
-			classCacheToUse = strongClassCache;
+			existing = strongClassCache.putIfAbsent(beanClass, results);
 		}
 		else {
 			if (logger.isDebugEnabled()) {
 				logger.debug("Not strongly caching class [" + beanClass.getName() + "] because it is not cache-safe");
 			}
-			classCacheToUse = softClassCache;
+			existing = softClassCache.putIfAbsent(beanClass, results);
 		}
 
-		CachedIntrospectionResults existing = classCacheToUse.putIfAbsent(beanClass, results);
 		return (existing != null ? existing : results);
 	}
 
@@ -268,6 +288,10 @@ public class CachedIntrospectionResults {
 
 			BeanInfo beanInfo = null;
 			for (BeanInfoFactory beanInfoFactory : beanInfoFactories) {
+				if (shouldIgnoreIntrospector && beanInfoFactory instanceof ExtendedBeanInfoFactory) {
+					// Non-void setter methods are covered by reflective introspection as well
+					continue;
+				}
 				beanInfo = beanInfoFactory.getBeanInfo(beanClass);
 				if (beanInfo != null) {
 					break;
@@ -275,7 +299,8 @@ public class CachedIntrospectionResults {
 			}
 			if (beanInfo == null) {
 				// If none of the factories supported the class, fall back to the default
-				beanInfo = (shouldIntrospectorIgnoreBeaninfoClasses ?
+				beanInfo = (shouldIgnoreIntrospector ? new BasicBeanInfo(beanClass) :
+						shouldIntrospectorIgnoreBeaninfoClasses ?
 						Introspector.getBeanInfo(beanClass, Introspector.IGNORE_ALL_BEANINFO) :
 						Introspector.getBeanInfo(beanClass));
 			}
@@ -310,7 +335,8 @@ public class CachedIntrospectionResults {
 			while (clazz != null) {
 				Class<?>[] ifcs = clazz.getInterfaces();
 				for (Class<?> ifc : ifcs) {
-					BeanInfo ifcInfo = Introspector.getBeanInfo(ifc, Introspector.IGNORE_ALL_BEANINFO);
+					BeanInfo ifcInfo = (shouldIgnoreIntrospector ? new BasicBeanInfo(ifc) :
+							Introspector.getBeanInfo(ifc, Introspector.IGNORE_ALL_BEANINFO));
 					PropertyDescriptor[] ifcPds = ifcInfo.getPropertyDescriptors();
 					for (PropertyDescriptor pd : ifcPds) {
 						if (!this.propertyDescriptorCache.containsKey(pd.getName())) {
@@ -382,4 +408,33 @@ public class CachedIntrospectionResults {
 		return this.typeDescriptorCache.get(pd);
 	}
 
+
+	/**
+	 * {@link BeanInfo} with the basic properties of a class as determined
+	 * through reflection, for use instead of the {@link Introspector}.
+	 * @see PropertyDescriptorUtils#determineBasicProperties(Class)
+	 */
+	private static class BasicBeanInfo extends SimpleBeanInfo {
+
+		private final BeanDescriptor beanDescriptor;
+
+		private final PropertyDescriptor[] propertyDescriptors;
+
+		public BasicBeanInfo(Class<?> beanClass) throws IntrospectionException {
+			this.beanDescriptor = new BeanDescriptor(beanClass);
+			this.propertyDescriptors = PropertyDescriptorUtils.determineBasicProperties(beanClass)
+					.toArray(new PropertyDescriptor[0]);
+		}
+
+		@Override
+		public BeanDescriptor getBeanDescriptor() {
+			return this.beanDescriptor;
+		}
+
+		@Override
+		public PropertyDescriptor[] getPropertyDescriptors() {
+			return this.propertyDescriptors;
+		}
+	}
+
 }
@@ -0,0 +1,351 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.Type;
+import org.springframework.cglib.core.ReflectUtils;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Invocation of constructors and methods through accessor classes generated with
+ * ASM, avoiding the overhead of {@link Constructor#newInstance} and
+ * {@link Method#invoke} for frequently invoked members such as the constructors
+ * and setters of prototype beans.
+ *
+ * <p>An {@link Accessor} is generated once per member, on first request, and is
+ * meant to be kept by the caller next to the member it has been obtained for. Generation
+ * is only supported for public members of public classes with public parameter
+ * types, loaded by a ClassLoader that can see the {@link Invoker} interface; all
+ * other members, as well as arguments that do not match the parameter types, are
+ * transparently handled through reflection. Exceptions thrown by the member are
+ * wrapped in an {@link InvocationTargetException}, just like with reflection.
+ *
+ * @since 5.1
+ * @see org.springframework.beans.factory.support.GeneratedInstantiationStrategy
+ * @see BeanWrapperImpl#setUseGeneratedAccessors
+ */
+public abstract class GeneratedAccessors {
+
+	private static final String CLASS_NAME_INFIX = "$$GeneratedAccessor$$";
+
+	private static final String INVOKER_NAME = Type.getInternalName(Invoker.class);
+
+	private static final String INVOKE_DESCRIPTOR =
+			"(Ljava/lang/Object;[Ljava/lang/Object;)Ljava/lang/Object;";
+
+	private static final Object[] EMPTY_ARGS = new Object[0];
+
+	private static final Log logger = LogFactory.getLog(GeneratedAccessors.class);
+
+	/**
+	 * Accessors per declaring class, strongly held for each member so that every
+	 * member gets exactly one generated class, while still allowing the declaring
+	 * class (and its generated accessor classes) to be unloaded along with its ClassLoader.
+	 */
+	private static final ClassValue<Map<Member, Accessor>> accessorCache = new ClassValue<Map<Member, Accessor>>() {
+		@Override
+		protected Map<Member, Accessor> computeValue(Class<?> type) {
+			return new ConcurrentHashMap<>(16);
+		}
+	};
+
+	private static final AtomicInteger classCounter = new AtomicInteger();
+
+
+	/**
+	 * Return the accessor for the given constructor, generating it if necessary.
+	 * @param ctor the constructor
+	 * @return the accessor (never {@code null}, possibly using reflection)
+	 */
+	public static Accessor forConstructor(Constructor<?> ctor) {
+		return getAccessor(ctor);
+	}
+
+	/**
+	 * Return the accessor for the given method, generating it if necessary.
+	 * @param method the method
+	 * @return the accessor (never {@code null}, possibly using reflection)
+	 */
+	public static Accessor forMethod(Method method) {
+		return getAccessor(method);
+	}
+
+	private static Accessor getAccessor(Member member) {
+		return accessorCache.get(member.getDeclaringClass()).computeIfAbsent(member, GeneratedAccessors::generateAccessor);
+	}
+
+	private static Accessor generateAccessor(Member member) {
+		Class<?> declaringClass = member.getDeclaringClass();
+		Class<?>[] parameterTypes = (member instanceof Constructor ?
+				((Constructor<?>) member).getParameterTypes() : ((Method) member).getParameterTypes());
+		if (!isAccessible(member, parameterTypes)) {
+			return new Accessor(member, null, parameterTypes);
+		}
+		ClassLoader classLoader = declaringClass.getClassLoader();
+		if (classLoader == null || !ClassUtils.isVisible(Invoker.class, classLoader)) {
+			return new Accessor(member, null, parameterTypes);
+		}
+		String className = declaringClass.getName() + CLASS_NAME_INFIX + classCounter.incrementAndGet();
+		try {
+			byte[] bytes = generateClass(className.replace('.', '/'), member, parameterTypes);
+			Class<?> accessorClass = ReflectUtils.defineClass(
+					className, bytes, classLoader, declaringClass.getProtectionDomain());
+			return new Accessor(member, (Invoker) accessorClass.newInstance(), parameterTypes);
+		}
+		catch (Throwable ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Failed to generate accessor for " + member + " - using reflection", ex);
+			}
+			return new Accessor(member, null, parameterTypes);
+		}
+	}
+
+	private static boolean isAccessible(Member member, Class<?>[] parameterTypes) {
+		Class<?> declaringClass = member.getDeclaringClass();
+		if (!Modifier.isPublic(member.getModifiers()) || !isPublic(declaringClass) ||
+				declaringClass.isArray() || declaringClass.isPrimitive()) {
+			return false;
+		}
+		if (member instanceof Constructor &&
+				(declaringClass.isInterface() || Modifier.isAbstract(declaringClass.getModifiers()))) {
+			return false;
+		}
+		for (Class<?> parameterType : parameterTypes) {
+			if (!isPublic(parameterType)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isPublic(Class<?> clazz) {
+		while (clazz.isArray()) {
+			clazz = clazz.getComponentType();
+		}
+		return (clazz.isPrimitive() || Modifier.isPublic(clazz.getModifiers()));
+	}
+
+	private static byte[] generateClass(String internalName, Member member, Class<?>[] parameterTypes) {
+		ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+		cw.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER | Opcodes.ACC_SYNTHETIC,
+				internalName, null, "java/lang/Object", new String[] {INVOKER_NAME});
+
+		MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+		mv.visitCode();
+		mv.visitVarInsn(Opcodes.ALOAD, 0);
+		mv.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+		mv.visitInsn(Opcodes.RETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+
+		mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "invoke", INVOKE_DESCRIPTOR, null, null);
+		mv.visitCode();
+		String owner = Type.getInternalName(member.getDeclaringClass());
+		if (member instanceof Constructor) {
+			mv.visitTypeInsn(Opcodes.NEW, owner);
+			mv.visitInsn(Opcodes.DUP);
+			loadArguments(mv, parameterTypes);
+			mv.visitMethodInsn(Opcodes.INVOKESPECIAL, owner, "<init>",
+					Type.getConstructorDescriptor((Constructor<?>) member), false);
+		}
+		else {
+			Method method = (Method) member;
+			boolean isInterface = method.getDeclaringClass().isInterface();
+			int opcode;
+			if (Modifier.isStatic(method.getModifiers())) {
+				opcode = Opcodes.INVOKESTATIC;
+			}
+			else {
+				opcode = (isInterface ? Opcodes.INVOKEINTERFACE : Opcodes.INVOKEVIRTUAL);
+				mv.visitVarInsn(Opcodes.ALOAD, 1);
+				mv.visitTypeInsn(Opcodes.CHECKCAST, owner);
+			}
+			loadArguments(mv, parameterTypes);
+			mv.visitMethodInsn(opcode, owner, method.getName(), Type.getMethodDescriptor(method), isInterface);
+			Class<?> returnType = method.getReturnType();
+			if (returnType == void.class) {
+				mv.visitInsn(Opcodes.ACONST_NULL);
+			}
+			else if (returnType.isPrimitive()) {
+				Class<?> wrapperType = ClassUtils.resolvePrimitiveIfNecessary(returnType);
+				mv.visitMethodInsn(Opcodes.INVOKESTATIC, Type.getInternalName(wrapperType), "valueOf",
+						"(" + Type.getDescriptor(returnType) + ")" + Type.getDescriptor(wrapperType), false);
+			}
+		}
+		mv.visitInsn(Opcodes.ARETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+
+		cw.visitEnd();
+		return cw.toByteArray();
+	}
+
+	private static void loadArguments(MethodVisitor mv, Class<?>[] parameterTypes) {
+		for (int i = 0; i < parameterTypes.length; i++) {
+			Class<?> parameterType = parameterTypes[i];
+			mv.visitVarInsn(Opcodes.ALOAD, 2);
+			if (i <= 5) {
+				mv.visitInsn(Opcodes.ICONST_0 + i);
+			}
+			else if (i <= Byte.MAX_VALUE) {
+				mv.visitIntInsn(Opcodes.BIPUSH, i);
+			}
+			else {
+				mv.visitIntInsn(Opcodes.SIPUSH, i);
+			}
+			mv.visitInsn(Opcodes.AALOAD);
+			if (parameterType.isPrimitive()) {
+				Class<?> wrapperType = ClassUtils.resolvePrimitiveIfNecessary(parameterType);
+				String wrapperName = Type.getInternalName(wrapperType);
+				mv.visitTypeInsn(Opcodes.CHECKCAST, wrapperName);
+				mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, wrapperName, parameterType.getName() + "Value",
+						"()" + Type.getDescriptor(parameterType), false);
+			}
+			else if (parameterType != Object.class) {
+				mv.visitTypeInsn(Opcodes.CHECKCAST, Type.getInternalName(parameterType));
+			}
+		}
+	}
+
+
+	/**
+	 * Contract for generated accessors: not intended to be implemented or
+	 * invoked by application code.
+	 */
+	public interface Invoker {
+
+		/**
+		 * Invoke the constructor or method that this accessor has been generated for.
+		 * @param target the target instance, or {@code null} for a constructor or static method
+		 * @param args the arguments, matching the parameter types
+		 * @return the new instance, or the (boxed) method result
+		 */
+		@Nullable
+		Object invoke(@Nullable Object target, Object[] args) throws Throwable;
+	}
+
+
+	/**
+	 * Accessor for a constructor or method, either through a generated
+	 * {@link Invoker} or through reflection.
+	 */
+	public static final class Accessor {
+
+		private final Member member;
+
+		@Nullable
+		private final Invoker invoker;
+
+		private final Class<?>[] parameterTypes;
+
+		Accessor(Member member, @Nullable Invoker invoker, Class<?>[] parameterTypes) {
+			this.member = member;
+			this.invoker = invoker;
+			this.parameterTypes = parameterTypes;
+		}
+
+		/**
+		 * Return whether this accessor invokes its member through generated code.
+		 */
+		public boolean isGenerated() {
+			return (this.invoker != null);
+		}
+
+		/**
+		 * Create a new instance through the constructor of this accessor.
+		 * @param args the arguments for the constructor
+		 * @return the new instance
+		 * @see Constructor#newInstance
+		 */
+		public Object newInstance(@Nullable Object[] args)
+				throws InstantiationException, IllegalAccessException, InvocationTargetException {
+
+			Assert.state(this.member instanceof Constructor, "Not a constructor accessor");
+			if (this.invoker == null || !matches(args)) {
+				return ((Constructor<?>) this.member).newInstance(args);
+			}
+			return invoke(this.invoker, null, args);
+		}
+
+		/**
+		 * Invoke the method of this accessor on the given target.
+		 * @param target the target to invoke the method on ({@code null} for a static method)
+		 * @param args the arguments for the method
+		 * @return the result of the method, or {@code null} for a void method
+		 * @see Method#invoke
+		 */
+		@Nullable
+		public Object invoke(@Nullable Object target, @Nullable Object[] args)
+				throws IllegalAccessException, InvocationTargetException {
+
+			Assert.state(this.member instanceof Method, "Not a method accessor");
+			if (this.invoker == null || !matches(args) || (!Modifier.isStatic(this.member.getModifiers()) &&
+					!this.member.getDeclaringClass().isInstance(target))) {
+				return ((Method) this.member).invoke(target, args);
+			}
+			return invoke(this.invoker, target, args);
+		}
+
+		private boolean matches(@Nullable Object[] args) {
+			int length = (args != null ? args.length : 0);
+			if (length != this.parameterTypes.length) {
+				return false;
+			}
+			for (int i = 0; i < length; i++) {
+				if (!ClassUtils.isAssignableValue(this.parameterTypes[i], args[i])) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		@Nullable
+		private static Object invoke(Invoker invoker, @Nullable Object target, @Nullable Object[] args)
+				throws InvocationTargetException {
+
+			try {
+				return invoker.invoke(target, (args != null ? args : EMPTY_ARGS));
+			}
+			catch (Throwable ex) {
+				throw new InvocationTargetException(ex);
+			}
+		}
+
+		@Override
+		public String toString() {
+			return (isGenerated() ? "Generated accessor for " : "Reflective accessor for ") + this.member;
+		}
+	}
+
+}
@@ -62,6 +62,12 @@ final class GenericTypeAwarePropertyDescriptor extends PropertyDescriptor {
 
 	private final Class<?> propertyEditorClass;
 
+	@Nullable
+	private volatile GeneratedAccessors.Accessor readAccessor;
+
+	@Nullable
+	private volatile GeneratedAccessors.Accessor writeAccessor;
+
 
 	public GenericTypeAwarePropertyDescriptor(Class<?> beanClass, String propertyName,
 			@Nullable Method readMethod, @Nullable Method writeMethod, Class<?> propertyEditorClass)
@@ -145,6 +151,35 @@ final class GenericTypeAwarePropertyDescriptor extends PropertyDescriptor {
 		return this.writeMethod;
 	}
 
+	/**
+	 * Return the accessor for the read method, generated on first access.
+	 * @since 5.1
+	 */
+	public GeneratedAccessors.Accessor getReadAccessor() {
+		Assert.state(this.readMethod != null, "No read method available");
+		GeneratedAccessors.Accessor accessor = this.readAccessor;
+		if (accessor == null) {
+			accessor = GeneratedAccessors.forMethod(this.readMethod);
+			this.readAccessor = accessor;
+		}
+		return accessor;
+	}
+
+	/**
+	 * Return the accessor for the write method to use for actual access,
+	 * generated on first access.
+	 * @since 5.1
+	 * @see #getWriteMethodForActualAccess()
+	 */
+	public GeneratedAccessors.Accessor getWriteAccessorForActualAccess() {
+		GeneratedAccessors.Accessor accessor = this.writeAccessor;
+		if (accessor == null) {
+			accessor = GeneratedAccessors.forMethod(getWriteMethodForActualAccess());
+			this.writeAccessor = accessor;
+		}
+		return accessor;
+	}
+
 	public MethodParameter getWriteMethodParameter() {
 		Assert.state(this.writeMethodParameter != null, "No write method available");
 		return this.writeMethodParameter;
@@ -17,9 +17,16 @@
 package org.springframework.beans;
 
 import java.beans.IntrospectionException;
+import java.beans.Introspector;
 import java.beans.PropertyDescriptor;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 import org.springframework.lang.Nullable;
 import org.springframework.util.ObjectUtils;
@@ -32,6 +39,86 @@ import org.springframework.util.ObjectUtils;
  */
 class PropertyDescriptorUtils {
 
+	/**
+	 * Determine the basic JavaBeans properties of the given class through
+	 * reflection on its public methods, without the {@link Introspector}:
+	 * that is, without {@code BeanInfo} class lookup, indexed properties
+	 * and the Introspector's own caching.
+	 * <p>Getters are non-static "get" methods without parameters and a
+	 * non-void return type, or "is" methods returning {@code boolean}, the
+	 * latter taking precedence. Setters are non-static "set" methods with a
+	 * single parameter and any return type, static ones included as with
+	 * {@link ExtendedBeanInfo}, resolved against the getter's type in case
+	 * of overloads. Bridge methods are only used where no regular method is
+	 * available, e.g. for public methods inherited from a non-public class.
+	 * @param beanClass the class to introspect
+	 * @return the property descriptors, sorted by property name
+	 * @throws IntrospectionException if a descriptor could not be built
+	 * @since 5.1
+	 */
+	public static Collection<PropertyDescriptor> determineBasicProperties(Class<?> beanClass)
+			throws IntrospectionException {
+
+		Map<String, Method> readMethods = new TreeMap<>();
+		Map<String, List<Method>> writeMethods = new TreeMap<>();
+		for (Method method : beanClass.getMethods()) {
+			String methodName = method.getName();
+			int paramCount = method.getParameterCount();
+			if (methodName.startsWith("set") && paramCount == 1) {
+				String propertyName = Introspector.decapitalize(methodName.substring(3));
+				if (!propertyName.isEmpty()) {
+					writeMethods.computeIfAbsent(propertyName, key -> new ArrayList<>(1)).add(method);
+				}
+			}
+			else if (paramCount == 0 && !Modifier.isStatic(method.getModifiers()) &&
+					(methodName.startsWith("get") && method.getReturnType() != void.class ||
+					methodName.startsWith("is") && method.getReturnType() == boolean.class)) {
+				String propertyName = Introspector.decapitalize(methodName.substring(methodName.startsWith("is") ? 2 : 3));
+				Method existing = readMethods.get(propertyName);
+				if (!propertyName.isEmpty() && (existing == null || isPreferredReadMethod(method, existing))) {
+					readMethods.put(propertyName, method);
+				}
+			}
+		}
+
+		Map<String, PropertyDescriptor> pds = new TreeMap<>();
+		for (Map.Entry<String, Method> entry : readMethods.entrySet()) {
+			Method readMethod = entry.getValue();
+			List<Method> candidates = writeMethods.remove(entry.getKey());
+			Method writeMethod = (candidates != null ? findWriteMethod(readMethod.getReturnType(), candidates) : null);
+			pds.put(entry.getKey(), new PropertyDescriptor(entry.getKey(), readMethod, writeMethod));
+		}
+		for (Map.Entry<String, List<Method>> entry : writeMethods.entrySet()) {
+			pds.put(entry.getKey(), new PropertyDescriptor(entry.getKey(), null, findWriteMethod(null, entry.getValue())));
+		}
+		return new ArrayList<>(pds.values());
+	}
+
+	private static boolean isPreferredReadMethod(Method candidate, Method existing) {
+		if (candidate.isBridge() != existing.isBridge()) {
+			return existing.isBridge();
+		}
+		return candidate.getName().startsWith("is");
+	}
+
+	@Nullable
+	private static Method findWriteMethod(@Nullable Class<?> propertyType, List<Method> candidates) {
+		Method matchingMethod = null;
+		for (Method candidate : candidates) {
+			Class<?> paramType = candidate.getParameterTypes()[0];
+			if (propertyType != null && !paramType.isAssignableFrom(propertyType)) {
+				continue;
+			}
+			if (paramType == propertyType && !candidate.isBridge()) {
+				return candidate;
+			}
+			if (matchingMethod == null || (matchingMethod.isBridge() && !candidate.isBridge())) {
+				matchingMethod = candidate;
+			}
+		}
+		return matchingMethod;
+	}
+
 	/**
 	 * See {@link java.beans.FeatureDescriptor}.
 	 */
@@ -25,7 +25,10 @@ import org.springframework.beans.TypeConverter;
 import org.springframework.beans.factory.*;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
 import org.springframework.beans.factory.config.DependencyDescriptor;
+import org.springframework.beans.factory.config.DependencyDeterminingBeanPostProcessor;
 import org.springframework.beans.factory.config.InstantiationAwareBeanPostProcessorAdapter;
+import org.springframework.beans.factory.support.AutowireCandidateResolver;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
 import org.springframework.beans.factory.support.LookupOverride;
 import org.springframework.beans.factory.support.MergedBeanDefinitionPostProcessor;
 import org.springframework.beans.factory.support.RootBeanDefinition;
@@ -33,6 +36,7 @@ import org.springframework.core.BridgeMethodResolver;
 import org.springframework.core.MethodParameter;
 import org.springframework.core.Ordered;
 import org.springframework.core.PriorityOrdered;
+import org.springframework.core.ResolvableType;
 import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.core.annotation.AnnotationAttributes;
 import org.springframework.lang.Nullable;
@@ -98,7 +102,7 @@ import java.util.concurrent.ConcurrentHashMap;
  * @since 2.5
  */
 public class AutowiredAnnotationBeanPostProcessor extends InstantiationAwareBeanPostProcessorAdapter
-        implements MergedBeanDefinitionPostProcessor, PriorityOrdered, BeanFactoryAware {
+        implements MergedBeanDefinitionPostProcessor, DependencyDeterminingBeanPostProcessor, PriorityOrdered, BeanFactoryAware {
 
     protected final Log logger = LogFactory.getLog(getClass());
 
@@ -424,6 +428,84 @@ public class AutowiredAnnotationBeanPostProcessor extends InstantiationAwareBean
     }
 
 
+    /**
+     * Determine the beans that may be injected into the autowired constructors,
+     * fields and methods of the given bean class: all candidates for their
+     * declared dependency types, for {@code Optional}, {@code ObjectFactory} and
+     * {@code Provider} declarations as well as for the elements of collections,
+     * maps and arrays.
+     * <p>Returns {@code null} for {@code @Value} expressions, which may refer to
+     * arbitrary beans.
+     *
+     * @since 5.1
+     */
+    @Override
+    @Nullable
+    public Set<String> determineInjectedDependencies(Class<?> beanClass, String beanName) throws BeansException {
+        if (!(this.beanFactory instanceof DefaultListableBeanFactory)) {
+            return null;
+        }
+        AutowireCandidateResolver resolver = ((DefaultListableBeanFactory) this.beanFactory).getAutowireCandidateResolver();
+        List<DependencyDescriptor> descriptors = new ArrayList<>();
+        Constructor<?>[] candidateConstructors = determineCandidateConstructors(beanClass, beanName);
+        if (candidateConstructors != null) {
+            for (Constructor<?> candidate : candidateConstructors) {
+                for (int i = 0; i < candidate.getParameterCount(); i++) {
+                    descriptors.add(new DependencyDescriptor(new MethodParameter(candidate, i), false));
+                }
+            }
+        }
+        InjectionMetadata metadata = findAutowiringMetadata(beanName, beanClass, null);
+        for (InjectionMetadata.InjectedElement element : metadata.getInjectedElements()) {
+            Member member = element.getMember();
+            if (member instanceof Field) {
+                descriptors.add(new DependencyDescriptor((Field) member, false));
+            } else if (member instanceof Method) {
+                Method method = (Method) member;
+                for (int i = 0; i < method.getParameterCount(); i++) {
+                    descriptors.add(new DependencyDescriptor(new MethodParameter(method, i), false));
+                }
+            }
+        }
+
+        Set<String> dependencies = new LinkedHashSet<>();
+        for (DependencyDescriptor descriptor : descriptors) {
+            descriptor.setContainingClass(beanClass);
+            Object value = resolver.getSuggestedValue(descriptor);
+            if (value != null) {
+                if (!(value instanceof String) || ((String) value).contains("#{")) {
+                    return null;
+                }
+                continue;
+            }
+            ResolvableType dependencyType = descriptor.getResolvableType();
+            Class<?> rawType = dependencyType.resolve(Object.class);
+            while (rawType == Optional.class || rawType == ObjectFactory.class || rawType == ObjectProvider.class ||
+                    "javax.inject.Provider".equals(rawType.getName())) {
+                dependencyType = dependencyType.getGeneric();
+                rawType = dependencyType.resolve(Object.class);
+            }
+            addCandidateNames(rawType, dependencies);
+            if (rawType.isArray()) {
+                addCandidateNames(dependencyType.getComponentType().resolve(Object.class), dependencies);
+            } else if (Collection.class.isAssignableFrom(rawType)) {
+                addCandidateNames(dependencyType.asCollection().resolveGeneric(), dependencies);
+            } else if (Map.class.isAssignableFrom(rawType)) {
+                addCandidateNames(dependencyType.asMap().resolveGeneric(1), dependencies);
+            }
+        }
+        // Self references are resolved within the bean's own creation
+        dependencies.remove(beanName);
+        return dependencies;
+    }
+
+    private void addCandidateNames(@Nullable Class<?> type, Set<String> names) {
+        Assert.state(this.beanFactory != null, "No BeanFactory available");
+        // No eager initialization of FactoryBeans while determining dependencies
+        Collections.addAll(names, BeanFactoryUtils.beanNamesForTypeIncludingAncestors(
+                this.beanFactory, (type != null ? type : Object.class), true, false));
+    }
+
     /**
      * 获取给定类的autowire相关注解元信息
      *
@@ -30,6 +30,7 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Member;
 import java.lang.reflect.Method;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.Set;
 
@@ -106,6 +107,16 @@ public class InjectionMetadata {
         }
     }
 
+    /**
+     * Return all elements to inject, including those that may end up
+     * being skipped for a specific bean definition.
+     *
+     * @since 5.1
+     */
+    public Collection<InjectedElement> getInjectedElements() {
+        return Collections.unmodifiableCollection(this.injectedElements);
+    }
+
 
     public static boolean needsRefresh(@Nullable InjectionMetadata metadata, Class<?> clazz) {
         return (metadata == null || metadata.targetClass != clazz);
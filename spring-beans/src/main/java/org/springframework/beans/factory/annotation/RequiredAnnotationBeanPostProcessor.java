@@ -23,6 +23,7 @@ import org.springframework.beans.factory.BeanFactoryAware;
 import org.springframework.beans.factory.BeanInitializationException;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.config.DependencyDeterminingBeanPostProcessor;
 import org.springframework.beans.factory.config.InstantiationAwareBeanPostProcessorAdapter;
 import org.springframework.beans.factory.support.MergedBeanDefinitionPostProcessor;
 import org.springframework.beans.factory.support.RootBeanDefinition;
@@ -74,7 +75,7 @@ import java.util.concurrent.ConcurrentHashMap;
  * @since 2.0
  */
 public class RequiredAnnotationBeanPostProcessor extends InstantiationAwareBeanPostProcessorAdapter
-        implements MergedBeanDefinitionPostProcessor, PriorityOrdered, BeanFactoryAware {
+        implements DependencyDeterminingBeanPostProcessor, MergedBeanDefinitionPostProcessor, PriorityOrdered, BeanFactoryAware {
 
     /**
      * Bean definition attribute that may indicate whether a given bean is supposed
@@ -141,6 +142,16 @@ public class RequiredAnnotationBeanPostProcessor extends InstantiationAwareBeanP
     public void postProcessMergedBeanDefinition(RootBeanDefinition beanDefinition, Class<?> beanType, String beanName) {
     }
 
+    /**
+     * This processor only checks properties, without injecting any beans.
+     *
+     * @since 5.1
+     */
+    @Override
+    public Set<String> determineInjectedDependencies(Class<?> beanClass, String beanName) {
+        return Collections.emptySet();
+    }
+
     /**
      * 注入属性
      *
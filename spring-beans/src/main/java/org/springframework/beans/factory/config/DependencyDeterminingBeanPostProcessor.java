@@ -0,0 +1,56 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.config;
+
+import org.springframework.beans.BeansException;
+import org.springframework.lang.Nullable;
+
+import java.util.Set;
+
+/**
+ * Extension of the {@link InstantiationAwareBeanPostProcessor} interface,
+ * adding a callback for determining the beans that this processor injects
+ * into a given bean, before the bean is instantiated.
+ *
+ * <p>Used for ordering the {@link org.springframework.beans.factory.support.DefaultListableBeanFactory#setBootstrapExecutor
+ * parallel pre-instantiation} of singletons: a bean factory can only create
+ * a singleton in parallel with others if all of its dependencies are known
+ * upfront, including those injected by instantiation-aware post-processors.
+ *
+ * <p><b>NOTE:</b> This interface is a special purpose interface, mainly for
+ * internal use within the framework.
+ *
+ * @since 5.1
+ * @see org.springframework.beans.factory.support.DefaultListableBeanFactory#determineStaticDependencies
+ */
+public interface DependencyDeterminingBeanPostProcessor extends InstantiationAwareBeanPostProcessor {
+
+    /**
+     * Determine the names of the beans that this processor may inject into
+     * a bean of the given class, typically a superset of the beans actually
+     * injected (e.g. all candidates for an autowired injection point).
+     *
+     * @param beanClass the raw class of the bean (never {@code null})
+     * @param beanName  the name of the bean
+     * @return the names of the beans to be injected (possibly empty),
+     * or {@code null} if they cannot be determined before instantiation
+     * @throws org.springframework.beans.BeansException in case of errors
+     */
+    @Nullable
+    Set<String> determineInjectedDependencies(Class<?> beanClass, String beanName) throws BeansException;
+
+}
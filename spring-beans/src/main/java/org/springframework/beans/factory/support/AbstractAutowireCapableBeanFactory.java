@@ -197,8 +197,11 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
 	/**
 	 * Set the instantiation strategy to use for creating bean instances.
 	 * Default is CglibSubclassingInstantiationStrategy.
+	 * <p>With a {@link GeneratedInstantiationStrategy}, bean properties are
+	 * populated through generated accessors as well.
 	 *
 	 * @see CglibSubclassingInstantiationStrategy
+	 * @see GeneratedInstantiationStrategy
 	 */
 	public void setInstantiationStrategy(InstantiationStrategy instantiationStrategy) {
 		this.instantiationStrategy = instantiationStrategy;
@@ -211,6 +214,20 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
 		return this.instantiationStrategy;
 	}
 
+	/**
+	 * Additionally switches on generated property accessors for a
+	 * {@link GeneratedInstantiationStrategy}.
+	 *
+	 * @see BeanWrapperImpl#setUseGeneratedAccessors
+	 */
+	@Override
+	protected void initBeanWrapper(BeanWrapper bw) {
+		super.initBeanWrapper(bw);
+		if (bw instanceof BeanWrapperImpl && this.instantiationStrategy instanceof GeneratedInstantiationStrategy) {
+			((BeanWrapperImpl) bw).setUseGeneratedAccessors(true);
+		}
+	}
+
 	/**
 	 * Set the ParameterNameDiscoverer to use for resolving method parameter
 	 * names if needed (e.g. for constructor names).
@@ -347,24 +347,7 @@ public abstract class AbstractBeanFactory extends FactoryBeanRegistrySupport imp
                 checkMergedBeanDefinition(mbd, beanName, args);
 
                 // Guarantee initialization of beans that the current bean depends on.
-                // 获取当前Bean所有依赖Bean的名称
-                String[] dependsOn = mbd.getDependsOn();
-                // 如果当前Bean有依赖Bean，先要处理依赖 bean
-                // 大部分 bean 没有 @DependsOn 这个注解的，依赖 bean 在注入的时候 实时使用 getBean()递归获取
-                if (dependsOn != null) {
-                    for (String dep : dependsOn) {
-                        if (isDependent(beanName, dep)) {
-                            throw new BeanCreationException(mbd.getResourceDescription(), beanName,
-                                    "Circular depends-on relationship between '" + beanName + "' and '" + dep + "'");
-                        }
-                        // 注册 bean 之间的依赖关系，没有其他处理
-                        // dep 被 beanName 依赖.或者说beanName依赖dep
-                        registerDependentBean(dep, beanName);
-                        // 把被依赖Bean注册给当前依赖的Bean
-                        // 递归调用getBean方法，获取当前Bean的依赖Bean
-                        getBean(dep);
-                    }
-                }
+                initDependsOnBeans(beanName, mbd);
 
 
                 // Create bean instance.
@@ -1167,11 +1150,78 @@ public abstract class AbstractBeanFactory extends FactoryBeanRegistrySupport imp
         }
     }
 
+    /**
+     * Create a new instance of the given bean in a custom scope, without
+     * registering it in the scope itself: to be used as the {@link ObjectFactory}
+     * for a {@link Scope#get} call on the caller's side, e.g. by a scoped proxy
+     * which keeps a reference to the target bean's {@link Scope}.
+     *
+     * @param beanName the name of the locally defined bean
+     * @return the new bean instance
+     * @throws BeansException if the bean could not be created
+     * @see #getRegisteredScope
+     * @since 5.1
+     */
+    public Object createScopedBean(String beanName) throws BeansException {
+        // Fail on a circular reference instead of recursing through the scope
+        if (isPrototypeCurrentlyInCreation(beanName)) {
+            throw new BeanCurrentlyInCreationException(beanName);
+        }
+        markBeanAsCreated(beanName);
+        RootBeanDefinition mbd = getMergedLocalBeanDefinition(beanName);
+        if (mbd.isSingleton() || mbd.isPrototype()) {
+            throw new IllegalArgumentException(
+                    "Bean name '" + beanName + "' does not correspond to an object in a mutable scope");
+        }
+        try {
+            checkMergedBeanDefinition(mbd, beanName, null);
+            initDependsOnBeans(beanName, mbd);
+            Object scopedInstance;
+            beforePrototypeCreation(beanName);
+            try {
+                scopedInstance = createBean(beanName, mbd, null);
+            } finally {
+                afterPrototypeCreation(beanName);
+            }
+            return getObjectForBeanInstance(scopedInstance, beanName, beanName, mbd);
+        } catch (BeansException ex) {
+            cleanupAfterBeanCreationFailure(beanName);
+            throw ex;
+        }
+    }
+
 
     //---------------------------------------------------------------------
     // Implementation methods
     //---------------------------------------------------------------------
 
+    /**
+     * Guarantee initialization of the beans that the given bean depends on.
+     *
+     * @param beanName the name of the bean
+     * @param mbd      the merged bean definition for the bean
+     */
+    private void initDependsOnBeans(String beanName, RootBeanDefinition mbd) {
+        // 获取当前Bean所有依赖Bean的名称
+        String[] dependsOn = mbd.getDependsOn();
+        // 如果当前Bean有依赖Bean，先要处理依赖 bean
+        // 大部分 bean 没有 @DependsOn 这个注解的，依赖 bean 在注入的时候 实时使用 getBean()递归获取
+        if (dependsOn != null) {
+            for (String dep : dependsOn) {
+                if (isDependent(beanName, dep)) {
+                    throw new BeanCreationException(mbd.getResourceDescription(), beanName,
+                            "Circular depends-on relationship between '" + beanName + "' and '" + dep + "'");
+                }
+                // 注册 bean 之间的依赖关系，没有其他处理
+                // dep 被 beanName 依赖.或者说beanName依赖dep
+                registerDependentBean(dep, beanName);
+                // 把被依赖Bean注册给当前依赖的Bean
+                // 递归调用getBean方法，获取当前Bean的依赖Bean
+                getBean(dep);
+            }
+        }
+    }
+
     /**
      * Return the bean name, stripping out the factory dereference prefix if necessary,
      * and resolving aliases to canonical names.
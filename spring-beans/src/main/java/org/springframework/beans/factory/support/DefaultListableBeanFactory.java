@@ -18,6 +18,7 @@ package org.springframework.beans.factory.support;
 
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.BeansException;
+import org.springframework.beans.PropertyValue;
 import org.springframework.beans.TypeConverter;
 import org.springframework.beans.factory.*;
 import org.springframework.beans.factory.config.*;
@@ -33,10 +34,13 @@ import java.lang.annotation.Annotation;
 import java.lang.ref.Reference;
 import java.lang.ref.WeakReference;
 import java.lang.reflect.Method;
+import java.lang.reflect.TypeVariable;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * 这才是我们默认的 IOC 容器工厂，其他诸如 ApplicationContext 什么的几乎都是靠持有这个对象来干活
@@ -121,6 +125,12 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
     @Nullable
     private Comparator<Object> dependencyComparator;
 
+    /**
+     * Optional Executor for pre-instantiating singletons in parallel
+     */
+    @Nullable
+    private Executor bootstrapExecutor;
+
     /**
      * Resolver to use for checking if a bean definition is an autowire candidate
      */
@@ -147,6 +157,23 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
      */
     private final Map<Class<?>, String[]> singletonBeanNamesByType = new ConcurrentHashMap<>(64);
 
+    /**
+     * Map of singleton and non-singleton bean names, keyed by generic dependency type
+     */
+    private final Map<ResolvableType, String[]> allBeanNamesByGenericType = new ConcurrentHashMap<>(64);
+
+    /**
+     * Map of autowire candidate names for collection, map, Optional and ObjectProvider
+     * injection points, keyed by requesting bean and dependency, in case of frozen configuration
+     */
+    private final Map<AutowireCandidatesKey, CachedCandidateNames> autowireCandidateNamesCache =
+            new ConcurrentHashMap<>(64);
+
+    /**
+     * Number of times the by-type caches have been cleared, for detecting changes in parent factories
+     */
+    private final AtomicLong byTypeCacheModificationCount = new AtomicLong();
+
     /**
      * List of bean definition names, in registration order
      */
@@ -278,6 +305,37 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
         return this.dependencyComparator;
     }
 
+    /**
+     * Set an {@link Executor} for pre-instantiating non-lazy singletons in parallel.
+     * <p>Default is none, instantiating all singletons one after the other in the
+     * calling thread. With an Executor, singletons whose dependencies are statically
+     * known from their bean definitions are instantiated on the Executor, each one
+     * after its known dependencies; all others follow in the calling thread, in
+     * registration order. {@link SmartInitializingSingleton} callbacks are invoked
+     * in the calling thread once all singletons have been instantiated.
+     * <p>Parallel instantiation requires {@link #setStripedSingletonLocking striped
+     * singleton locking} to be switched on as well, since singletons would otherwise
+     * still be created one at a time. Without it, the Executor is not used and all
+     * singletons are instantiated in the calling thread.
+     *
+     * @see #preInstantiateSingletons()
+     * @see #determineStaticDependencies
+     * @since 5.1
+     */
+    public void setBootstrapExecutor(@Nullable Executor bootstrapExecutor) {
+        this.bootstrapExecutor = bootstrapExecutor;
+    }
+
+    /**
+     * Return the Executor for pre-instantiating singletons in parallel, if any.
+     *
+     * @since 5.1
+     */
+    @Nullable
+    public Executor getBootstrapExecutor() {
+        return this.bootstrapExecutor;
+    }
+
     /**
      * Set a custom autowire candidate resolver for this BeanFactory to use
      * when deciding whether a bean definition should be considered as a
@@ -296,6 +354,7 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
             }
         }
         this.autowireCandidateResolver = autowireCandidateResolver;
+        this.autowireCandidateNamesCache.clear();
     }
 
     /**
@@ -314,6 +373,10 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
             this.allowBeanDefinitionOverriding = otherListableFactory.allowBeanDefinitionOverriding;
             this.allowEagerClassLoading = otherListableFactory.allowEagerClassLoading;
             this.dependencyComparator = otherListableFactory.dependencyComparator;
+            setBootstrapExecutor(otherListableFactory.bootstrapExecutor);
+            if (otherListableFactory.isStripedSingletonLocking() && !isStripedSingletonLocking()) {
+                setStripedSingletonLocking(true);
+            }
             // A clone of the AutowireCandidateResolver since it is potentially BeanFactoryAware...
             setAutowireCandidateResolver(BeanUtils.instantiateClass(getAutowireCandidateResolver().getClass()));
             // Make resolvable dependencies (e.g. ResourceLoader) available here as well...
@@ -372,7 +435,42 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 
     @Override
     public String[] getBeanNamesForType(ResolvableType type) {
-        return doGetBeanNamesForType(type, true, true);
+        if (!isConfigurationFrozen() || type.resolve() == null) {
+            return doGetBeanNamesForType(type, true, true);
+        }
+        String[] resolvedBeanNames = this.allBeanNamesByGenericType.get(type);
+        if (resolvedBeanNames != null) {
+            return resolvedBeanNames;
+        }
+        resolvedBeanNames = doGetBeanNamesForType(type, true, true);
+        if (isCacheSafe(type)) {
+            this.allBeanNamesByGenericType.put(type, resolvedBeanNames);
+        }
+        return resolvedBeanNames;
+    }
+
+    /**
+     * Determine whether the given type, including its generics, only refers
+     * to classes that are cache-safe with respect to the bean ClassLoader.
+     */
+    private boolean isCacheSafe(ResolvableType type) {
+        Class<?> resolved = type.resolve();
+        if (resolved != null && !ClassUtils.isCacheSafe(resolved, getBeanClassLoader())) {
+            return false;
+        }
+        if (type.getType() instanceof TypeVariable) {
+            // Bounds may refer to the variable itself: checking the resolved class is enough.
+            return true;
+        }
+        if (type.isArray()) {
+            return isCacheSafe(type.getComponentType());
+        }
+        for (ResolvableType generic : type.getGenerics()) {
+            if (!isCacheSafe(generic)) {
+                return false;
+            }
+        }
+        return true;
     }
 
     @Override
@@ -599,6 +697,7 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
                         "] does not implement specified dependency type [" + dependencyType.getName() + "]");
             }
             this.resolvableDependencies.put(dependencyType, autowiredValue);
+            this.autowireCandidateNamesCache.clear();
         }
     }
 
@@ -733,34 +832,21 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
         List<String> beanNames = new ArrayList<>(this.beanDefinitionNames);
 
         // Trigger initialization of all non-lazy singleton beans...
+        List<String> singletonNames = new ArrayList<>(beanNames.size());
         for (String beanName : beanNames) {
             //获取指定名称的Bean定义
             RootBeanDefinition bd = getMergedLocalBeanDefinition(beanName);
             //Bean不是抽象的，是单例模式的，且lazy-init属性配置为false
             if (!bd.isAbstract() && bd.isSingleton() && !bd.isLazyInit()) {
-                //如果指定名称的bean是创建容器的Bean
-                if (isFactoryBean(beanName)) {
-                    //FACTORY_BEAN_PREFIX=”&”，当Bean名称前面加”&”符号时，获取的是产生容器对象本身，而不是容器产生的Bean.
-                    //调用getBean方法，触发容器对Bean实例化和依赖注入过程
-                    final FactoryBean<?> factory = (FactoryBean<?>) getBean(FACTORY_BEAN_PREFIX + beanName);
-                    //标识是否需要预实例化
-                    boolean isEagerInit;
-                    if (System.getSecurityManager() != null && factory instanceof SmartFactoryBean) {
-                        //一个匿名内部类
-                        isEagerInit = AccessController.doPrivileged((PrivilegedAction<Boolean>) () ->
-                                        ((SmartFactoryBean<?>) factory).isEagerInit(),
-                                getAccessControlContext());
-                    } else {
-                        isEagerInit = (factory instanceof SmartFactoryBean &&
-                                ((SmartFactoryBean<?>) factory).isEagerInit());
-                    }
-                    if (isEagerInit) {
-                        //调用getBean方法，触发容器对Bean实例化和依赖注入过程
-                        getBean(beanName);
-                    }
-                } else {
-                    getBean(beanName);
-                }
+                singletonNames.add(beanName);
+            }
+        }
+        Executor executor = this.bootstrapExecutor;
+        if (executor != null && isStripedSingletonLocking()) {
+            new ParallelSingletonPreInstantiator(this, executor).preInstantiate(singletonNames);
+        } else {
+            for (String beanName : singletonNames) {
+                preInstantiateSingleton(beanName);
             }
         }
 
@@ -782,6 +868,147 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
     }
 
 
+    /**
+     * Pre-instantiate the given non-lazy singleton, including the object exposed
+     * by a {@link SmartFactoryBean} that asks for eager initialization.
+     *
+     * @param beanName the name of the singleton
+     */
+    void preInstantiateSingleton(String beanName) {
+        //如果指定名称的bean是创建容器的Bean
+        if (isFactoryBean(beanName)) {
+            //FACTORY_BEAN_PREFIX=”&”，当Bean名称前面加”&”符号时，获取的是产生容器对象本身，而不是容器产生的Bean.
+            //调用getBean方法，触发容器对Bean实例化和依赖注入过程
+            final FactoryBean<?> factory = (FactoryBean<?>) getBean(FACTORY_BEAN_PREFIX + beanName);
+            //标识是否需要预实例化
+            boolean isEagerInit;
+            if (System.getSecurityManager() != null && factory instanceof SmartFactoryBean) {
+                //一个匿名内部类
+                isEagerInit = AccessController.doPrivileged((PrivilegedAction<Boolean>) () ->
+                                ((SmartFactoryBean<?>) factory).isEagerInit(),
+                        getAccessControlContext());
+            } else {
+                isEagerInit = (factory instanceof SmartFactoryBean &&
+                        ((SmartFactoryBean<?>) factory).isEagerInit());
+            }
+            if (isEagerInit) {
+                //调用getBean方法，触发容器对Bean实例化和依赖注入过程
+                getBean(beanName);
+            }
+        } else {
+            getBean(beanName);
+        }
+    }
+
+    /**
+     * Determine the names of the beans that the given bean statically depends on,
+     * as far as known before its instantiation: beans it explicitly depends on,
+     * its factory bean, bean references in its constructor arguments and
+     * property values, including inner bean definitions, and the beans injected
+     * by {@link DependencyDeterminingBeanPostProcessor DependencyDeterminingBeanPostProcessors},
+     * e.g. for {@code @Autowired} injection points.
+     * <p>Used for the order of {@link #setBootstrapExecutor parallel pre-instantiation}.
+     * The default implementation returns {@code null} for beans with an autowire
+     * mode, for beans created through a factory method if instantiation-aware
+     * post-processors are registered, and for beans processed by an
+     * instantiation-aware post-processor that cannot determine the dependencies
+     * it injects, since their dependencies can only be determined on instantiation.
+     *
+     * @param beanName the name of the bean
+     * @param mbd      the merged bean definition of the bean
+     * @return the names of the beans the given bean depends on,
+     * or {@code null} if they cannot be statically determined
+     * @since 5.1
+     */
+    @Nullable
+    protected Set<String> determineStaticDependencies(String beanName, RootBeanDefinition mbd) {
+        if (mbd.getResolvedAutowireMode() != AUTOWIRE_NO) {
+            return null;
+        }
+        Set<String> dependencies = new LinkedHashSet<>();
+        collectStaticDependencies(mbd, dependencies);
+        Collections.addAll(dependencies, getDependenciesForBean(beanName));
+        if (hasInstantiationAwareBeanPostProcessors()) {
+            if (mbd.getFactoryMethodName() != null) {
+                return null;
+            }
+            Class<?> beanClass;
+            try {
+                beanClass = resolveBeanClass(mbd, beanName);
+            } catch (CannotLoadBeanClassException ex) {
+                return null;
+            }
+            if (beanClass == null) {
+                return null;
+            }
+            for (BeanPostProcessor bp : getBeanPostProcessors()) {
+                if (bp instanceof InstantiationAwareBeanPostProcessor) {
+                    if (!(bp instanceof DependencyDeterminingBeanPostProcessor)) {
+                        return null;
+                    }
+                    Set<String> injectedDependencies =
+                            ((DependencyDeterminingBeanPostProcessor) bp).determineInjectedDependencies(beanClass, beanName);
+                    if (injectedDependencies == null) {
+                        return null;
+                    }
+                    for (String dependency : injectedDependencies) {
+                        dependencies.add(canonicalName(BeanFactoryUtils.transformedBeanName(dependency)));
+                    }
+                }
+            }
+        }
+        return dependencies;
+    }
+
+    private void collectStaticDependencies(BeanDefinition bd, Set<String> dependencies) {
+        String[] dependsOn = bd.getDependsOn();
+        if (dependsOn != null) {
+            for (String dependency : dependsOn) {
+                dependencies.add(canonicalName(dependency));
+            }
+        }
+        if (bd.getFactoryBeanName() != null) {
+            dependencies.add(canonicalName(bd.getFactoryBeanName()));
+        }
+        ConstructorArgumentValues argumentValues = bd.getConstructorArgumentValues();
+        for (ConstructorArgumentValues.ValueHolder valueHolder : argumentValues.getIndexedArgumentValues().values()) {
+            collectStaticDependencies(valueHolder.getValue(), dependencies);
+        }
+        for (ConstructorArgumentValues.ValueHolder valueHolder : argumentValues.getGenericArgumentValues()) {
+            collectStaticDependencies(valueHolder.getValue(), dependencies);
+        }
+        for (PropertyValue propertyValue : bd.getPropertyValues().getPropertyValues()) {
+            collectStaticDependencies(propertyValue.getValue(), dependencies);
+        }
+    }
+
+    private void collectStaticDependencies(@Nullable Object value, Set<String> dependencies) {
+        if (value instanceof RuntimeBeanReference) {
+            RuntimeBeanReference reference = (RuntimeBeanReference) value;
+            if (!reference.isToParent()) {
+                dependencies.add(canonicalName(reference.getBeanName()));
+            }
+        } else if (value instanceof BeanDefinitionHolder) {
+            collectStaticDependencies(((BeanDefinitionHolder) value).getBeanDefinition(), dependencies);
+        } else if (value instanceof BeanDefinition) {
+            collectStaticDependencies((BeanDefinition) value, dependencies);
+        } else if (value instanceof Collection) {
+            for (Object element : (Collection<?>) value) {
+                collectStaticDependencies(element, dependencies);
+            }
+        } else if (value instanceof Map) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                collectStaticDependencies(entry.getKey(), dependencies);
+                collectStaticDependencies(entry.getValue(), dependencies);
+            }
+        } else if (value instanceof Object[]) {
+            for (Object element : (Object[]) value) {
+                collectStaticDependencies(element, dependencies);
+            }
+        }
+    }
+
+
     //---------------------------------------------------------------------
     // Implementation of BeanDefinitionRegistry interface
     //---------------------------------------------------------------------
@@ -869,6 +1096,8 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
         if (oldBeanDefinition != null || containsSingleton(beanName)) {
             //重置所有已经注册过的BeanDefinition的缓存
             resetBeanDefinition(beanName);
+        } else if (isConfigurationFrozen()) {
+            clearByTypeCache();
         }
     }
 
@@ -976,8 +1205,11 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
      * Remove any assumptions about by-type mappings.
      */
     private void clearByTypeCache() {
+        this.byTypeCacheModificationCount.incrementAndGet();
         this.allBeanNamesByType.clear();
         this.singletonBeanNamesByType.clear();
+        this.allBeanNamesByGenericType.clear();
+        this.autowireCandidateNamesCache.clear();
     }
 
 
@@ -1254,6 +1486,12 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
     /**
      * Find bean instances that match the required type.
      * Called during autowiring for the specified bean.
+     * <p>Once the configuration is frozen, the matching candidate names for
+     * collection, map, Optional and ObjectProvider injection points are cached,
+     * so that repeated creation of prototype or scoped beans only resolves
+     * the candidate instances themselves. Candidates from parent factories are
+     * cached as well if all of them are frozen DefaultListableBeanFactories,
+     * resolving the injection point again once any of them has been modified.
      *
      * @param beanName     the name of the bean that is about to be wired
      * @param requiredType the actual type of bean to look for
@@ -1268,6 +1506,23 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
     protected Map<String, Object> findAutowireCandidates(
             @Nullable String beanName, Class<?> requiredType, DependencyDescriptor descriptor) {
 
+        AutowireCandidatesKey cacheKey = null;
+        long parentModificationCount = -1;
+        if (descriptor instanceof NestedDependencyDescriptor && descriptor.isEager() && isConfigurationFrozen()) {
+            parentModificationCount = getParentModificationCount();
+        }
+        if (parentModificationCount >= 0) {
+            cacheKey = new AutowireCandidatesKey(beanName, requiredType, descriptor);
+            CachedCandidateNames cachedNames = this.autowireCandidateNamesCache.get(cacheKey);
+            if (cachedNames != null && cachedNames.parentModificationCount == parentModificationCount) {
+                Map<String, Object> result = new LinkedHashMap<>(cachedNames.names.length);
+                for (String candidate : cachedNames.names) {
+                    addCandidateEntry(result, candidate, descriptor, requiredType);
+                }
+                return result;
+            }
+        }
+
         String[] candidateNames = BeanFactoryUtils.beanNamesForTypeIncludingAncestors(
                 this, requiredType, true, descriptor.isEager());
         Map<String, Object> result = new LinkedHashMap<>(candidateNames.length);
@@ -1277,6 +1532,8 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
                 autowiringValue = AutowireUtils.resolveAutowiringValue(autowiringValue, requiredType);
                 if (requiredType.isInstance(autowiringValue)) {
                     result.put(ObjectUtils.identityToString(autowiringValue), autowiringValue);
+                    // Not a bean name: resolve the injection point again next time.
+                    cacheKey = null;
                     break;
                 }
             }
@@ -1306,9 +1563,36 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
                 }
             }
         }
+        if (cacheKey != null) {
+            this.autowireCandidateNamesCache.put(cacheKey,
+                    new CachedCandidateNames(StringUtils.toStringArray(result.keySet()), parentModificationCount));
+        }
         return result;
     }
 
+    /**
+     * Determine the combined modification count of all parent factories, if they
+     * are DefaultListableBeanFactories with a frozen configuration, i.e. whether
+     * candidates from ancestors can be cached along with local ones. The count
+     * increases with any change to the candidates in an ancestor.
+     *
+     * @return the modification count, or {@code -1} if candidates cannot be cached
+     */
+    private long getParentModificationCount() {
+        long modificationCount = 0;
+        BeanFactory parent = getParentBeanFactory();
+        while (parent != null) {
+            if (!(parent instanceof DefaultListableBeanFactory) ||
+                    !((DefaultListableBeanFactory) parent).isConfigurationFrozen()) {
+                return -1;
+            }
+            DefaultListableBeanFactory parentFactory = (DefaultListableBeanFactory) parent;
+            modificationCount += parentFactory.byTypeCacheModificationCount.get();
+            parent = parentFactory.getParentBeanFactory();
+        }
+        return modificationCount;
+    }
+
     /**
      * Add an entry to the candidate map: a bean instance if available or just the resolved
      * type, preventing early bean initialization ahead of primary candidate selection.
@@ -1800,4 +2084,61 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
         }
     }
 
+
+    /**
+     * Cached autowire candidate names, along with the modification count
+     * of the parent factories they have been determined for.
+     */
+    private static final class CachedCandidateNames {
+
+        final String[] names;
+
+        final long parentModificationCount;
+
+        CachedCandidateNames(String[] names, long parentModificationCount) {
+            this.names = names;
+            this.parentModificationCount = parentModificationCount;
+        }
+    }
+
+
+    /**
+     * Cache key for the autowire candidate names of a specific injection point,
+     * as requested by a specific bean (which is excluded as a self reference).
+     */
+    private static final class AutowireCandidatesKey {
+
+        @Nullable
+        private final String beanName;
+
+        private final Class<?> requiredType;
+
+        private final DependencyDescriptor descriptor;
+
+        public AutowireCandidatesKey(@Nullable String beanName, Class<?> requiredType, DependencyDescriptor descriptor) {
+            this.beanName = beanName;
+            this.requiredType = requiredType;
+            this.descriptor = descriptor;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof AutowireCandidatesKey)) {
+                return false;
+            }
+            AutowireCandidatesKey otherKey = (AutowireCandidatesKey) other;
+            return (ObjectUtils.nullSafeEquals(this.beanName, otherKey.beanName) &&
+                    this.requiredType == otherKey.requiredType && this.descriptor.equals(otherKey.descriptor));
+        }
+
+        @Override
+        public int hashCode() {
+            return (ObjectUtils.nullSafeHashCode(this.beanName) * 29 + this.requiredType.hashCode()) * 29 +
+                    this.descriptor.hashCode();
+        }
+    }
+
 }
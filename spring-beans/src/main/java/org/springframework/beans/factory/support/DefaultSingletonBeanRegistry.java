@@ -20,6 +20,7 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.springframework.beans.factory.*;
 import org.springframework.beans.factory.config.SingletonBeanRegistry;
+import org.springframework.core.NamedThreadLocal;
 import org.springframework.core.SimpleAliasRegistry;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
@@ -27,6 +28,7 @@ import org.springframework.util.StringUtils;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Generic registry for shared bean instances, implementing the
@@ -52,6 +54,11 @@ import java.util.concurrent.ConcurrentHashMap;
  * (which inherit from it). Can alternatively also be used as a nested
  * helper to delegate to.
  *
+ * <p>By default, the creation of a singleton holds the {@link #getSingletonMutex()
+ * singleton mutex} throughout, serializing all singleton creation in this registry.
+ * With {@link #setStripedSingletonLocking striped singleton locking}, singletons
+ * are created under a lock per bean name instead.
+ *
  * @author Juergen Hoeller
  * @see #registerSingleton
  * @see #registerDisposableBean
@@ -106,9 +113,29 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 
     /**
      * List of suppressed Exceptions, available for associating related causes
+     * (per creating thread)
+     */
+    private final ThreadLocal<Set<Exception>> suppressedExceptions =
+            new NamedThreadLocal<>("Suppressed exceptions of singleton creation");
+
+    /**
+     * Names of singletons in creation by other threads whose early references have been
+     * exposed to the current thread (per thread within its outermost singleton creation)
+     */
+    private final ThreadLocal<Set<String>> foreignEarlySingletons =
+            new NamedThreadLocal<>("Early references to singletons in creation by other threads");
+
+    /**
+     * Locks for singleton creation: bean name --> lock, if striped locking is active
      */
     @Nullable
-    private Set<Exception> suppressedExceptions;
+    private volatile Map<String, SingletonCreationLock> singletonCreationLocks;
+
+    /**
+     * Creation locks that threads are waiting for: thread --> lock. Together with
+     * the lock owners, forms the waits-for graph between threads creating singletons
+     */
+    private final Map<Thread, SingletonCreationLock> awaitedCreationLocks = new HashMap<>(16);
 
     /**
      * Flag that indicates whether we're currently within destroySingletons
@@ -144,10 +171,64 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
     private final Map<String, Set<String>> dependenciesForBeanMap = new ConcurrentHashMap<>(64);
 
 
+    /**
+     * Specify whether to create singletons under a lock per bean name rather than
+     * under the global {@link #getSingletonMutex() singleton mutex}. Default is "false".
+     * <p>Switch this flag to "true" so that lazily created singletons, e.g. behind
+     * {@code @Lazy} injection points, do not block each other when requested
+     * concurrently. A thread requesting a singleton that is being created by another
+     * thread waits for its creation to complete. If waiting would deadlock, since
+     * the creating thread in turn waits for the requesting thread (e.g. for a circular
+     * reference requested from both ends concurrently), the circular reference is
+     * resolved through the early reference to the singleton, just like within a
+     * single thread. The outermost singleton creation in the requesting thread then
+     * waits for that singleton to be fully initialized before returning, so callers
+     * never obtain a partially initialized graph of singletons.
+     * <p>Note that collaborators synchronizing on the singleton mutex, such as the
+     * creation of objects exposed by a {@code FactoryBean}, are still serialized.
+     * Waiting for the singleton mutex is not part of the deadlock check, which only
+     * covers threads waiting for singletons in creation by other threads.
+     * <p>This flag needs to be set before any singletons are created.
+     *
+     * @since 5.1
+     */
+    public void setStripedSingletonLocking(boolean stripedSingletonLocking) {
+        this.singletonCreationLocks = (stripedSingletonLocking ? new ConcurrentHashMap<>(256) : null);
+    }
+
+    /**
+     * Return whether singletons are created under a lock per bean name.
+     *
+     * @since 5.1
+     */
+    public boolean isStripedSingletonLocking() {
+        return (this.singletonCreationLocks != null);
+    }
+
+
     @Override
     public void registerSingleton(String beanName, Object singletonObject) throws IllegalStateException {
         Assert.notNull(beanName, "Bean name must not be null");
         Assert.notNull(singletonObject, "Singleton object must not be null");
+        Map<String, SingletonCreationLock> creationLocks = this.singletonCreationLocks;
+        if (creationLocks == null) {
+            doRegisterSingleton(beanName, singletonObject);
+            return;
+        }
+        // Serialized with the creation of a singleton of the same name
+        SingletonCreationLock lock = creationLocks.computeIfAbsent(beanName, name -> new SingletonCreationLock());
+        if (!acquireCreationLock(beanName, lock)) {
+            throw new IllegalStateException("Could not register object [" + singletonObject +
+                    "] under bean name '" + beanName + "': singleton currently in creation");
+        }
+        try {
+            doRegisterSingleton(beanName, singletonObject);
+        } finally {
+            releaseCreationLock(beanName, lock, creationLocks);
+        }
+    }
+
+    private void doRegisterSingleton(String beanName, Object singletonObject) {
         synchronized (this.singletonObjects) {
             Object oldObject = this.singletonObjects.get(beanName);
             if (oldObject != null) {
@@ -215,24 +296,46 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
         // 1. 在已创建的 bean 里面找
         Object singletonObject = this.singletonObjects.get(beanName);
         if (singletonObject == null && isSingletonCurrentlyInCreation(beanName)) {
-            // 2. 没找到，但是这个 bean 正在被创建
-            synchronized (this.singletonObjects) {
-                singletonObject = this.singletonObjects.get(beanName);
-                if (singletonObject == null && allowEarlyReference) {
-                    // 3. 从singletonFactory里面取，通常正在创建的 bean 会尽早将引用放到缓存
-                    // ObjectFactoy.getObject() 获取到的 正是这个正在创建的 bean，刚好 new 但是还未属性注入
-                    ObjectFactory<?> singletonFactory = this.singletonFactories.get(beanName);
-                    if (singletonFactory != null) {
-                        singletonObject = singletonFactory.getObject();
-                        this.earlySingletonObjects.put(beanName, singletonObject);
-                        this.singletonFactories.remove(beanName);
+            Map<String, SingletonCreationLock> creationLocks = this.singletonCreationLocks;
+            if (creationLocks != null) {
+                SingletonCreationLock lock = creationLocks.get(beanName);
+                if (lock != null && lock.isLocked() && !lock.isHeldByCurrentThread()) {
+                    // In creation by another thread: wait for it rather than exposing an early reference
+                    if (!allowEarlyReference) {
+                        return null;
                     }
+                    if (acquireCreationLock(beanName, lock)) {
+                        lock.unlock();
+                        return this.singletonObjects.get(beanName);
+                    }
+                    // Waiting would deadlock -> resolve like a circular reference
+                    return getForeignEarlySingleton(beanName);
                 }
             }
+            // 2. 没找到，但是这个 bean 正在被创建
+            singletonObject = getEarlySingleton(beanName, allowEarlyReference);
         }
         return singletonObject;
     }
 
+    @Nullable
+    private Object getEarlySingleton(String beanName, boolean allowEarlyReference) {
+        synchronized (this.singletonObjects) {
+            Object singletonObject = this.singletonObjects.get(beanName);
+            if (singletonObject == null && allowEarlyReference) {
+                // 3. 从singletonFactory里面取，通常正在创建的 bean 会尽早将引用放到缓存
+                // ObjectFactoy.getObject() 获取到的 正是这个正在创建的 bean，刚好 new 但是还未属性注入
+                ObjectFactory<?> singletonFactory = this.singletonFactories.get(beanName);
+                if (singletonFactory != null) {
+                    singletonObject = singletonFactory.getObject();
+                    this.earlySingletonObjects.put(beanName, singletonObject);
+                    this.singletonFactories.remove(beanName);
+                }
+            }
+            return singletonObject;
+        }
+    }
+
     /**
      * Return the (raw) singleton object registered under the given name,
      * creating and registering a new one if none registered yet.
@@ -244,70 +347,228 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
      */
     public Object getSingleton(String beanName, ObjectFactory<?> singletonFactory) {
         Assert.notNull(beanName, "Bean name must not be null");
-        synchronized (this.singletonObjects) {
-            // 先从缓存中取
-            Object singletonObject = this.singletonObjects.get(beanName);
-            if (singletonObject == null) {
-                if (this.singletonsCurrentlyInDestruction) {
-                    throw new BeanCreationNotAllowedException(beanName,
-                            "Singleton bean creation not allowed while singletons of this factory are in destruction " +
-                                    "(Do not request a bean from a BeanFactory in a destroy method implementation!)");
+        Map<String, SingletonCreationLock> creationLocks = this.singletonCreationLocks;
+        if (creationLocks == null) {
+            synchronized (this.singletonObjects) {
+                return createSingleton(beanName, singletonFactory);
+            }
+        }
+        Object singletonObject = this.singletonObjects.get(beanName);
+        if (singletonObject != null) {
+            return singletonObject;
+        }
+        boolean outermostCreation = (this.foreignEarlySingletons.get() == null);
+        if (outermostCreation) {
+            this.foreignEarlySingletons.set(new LinkedHashSet<>());
+        }
+        try {
+            SingletonCreationLock lock = creationLocks.computeIfAbsent(beanName, name -> new SingletonCreationLock());
+            if (acquireCreationLock(beanName, lock)) {
+                try {
+                    singletonObject = createSingleton(beanName, singletonFactory);
+                } finally {
+                    releaseCreationLock(beanName, lock, creationLocks);
                 }
-                if (logger.isDebugEnabled()) {
-                    logger.debug("Creating shared instance of singleton bean '" + beanName + "'");
+            } else {
+                // Waiting would deadlock -> resolve like a circular reference
+                singletonObject = getForeignEarlySingleton(beanName);
+            }
+            if (outermostCreation) {
+                awaitForeignEarlySingletons(beanName);
+            }
+            return singletonObject;
+        } finally {
+            if (outermostCreation) {
+                this.foreignEarlySingletons.remove();
+            }
+        }
+    }
+
+    /**
+     * Create the singleton unless already registered, holding the lock
+     * for its creation.
+     */
+    private Object createSingleton(String beanName, ObjectFactory<?> singletonFactory) {
+        // 先从缓存中取
+        Object singletonObject = this.singletonObjects.get(beanName);
+        if (singletonObject == null) {
+            if (this.singletonsCurrentlyInDestruction) {
+                throw new BeanCreationNotAllowedException(beanName,
+                        "Singleton bean creation not allowed while singletons of this factory are in destruction " +
+                                "(Do not request a bean from a BeanFactory in a destroy method implementation!)");
+            }
+            if (logger.isDebugEnabled()) {
+                logger.debug("Creating shared instance of singleton bean '" + beanName + "'");
+            }
+            // 标记这个 bean 正在创建
+            beforeSingletonCreation(beanName);
+            boolean newSingleton = false;
+            boolean recordSuppressedExceptions = (this.suppressedExceptions.get() == null);
+            if (recordSuppressedExceptions) {
+                this.suppressedExceptions.set(new LinkedHashSet<>());
+            }
+            try {
+                // singletonFactory 是一个匿名内部类，实际上调用了 AbstractAutowireCapableBeanFactory.createBean()
+                // 1. createBean → doCreateBean，doCreateBean首先会实例化一个 A的对象 bean，但是还未注入属性和初始化
+                //    然后将内部类 ObjectFactory(实际上返回了 A的初始对象) 放入 singletonFactories 缓存
+                //    注意，放的是 刚 new 的对象，还未进行属性注入和初始化
+                /** @see AbstractAutowireCapableBeanFactory#addSingletonFactory(String, ObjectFactory)  */
+                // 2. 接着属性注入的时候可能涉及到循环依赖，这时候 因为 A 正在创建，并加入了缓存 singletonFactories
+                //    singletonObjects 里面当然找不到 A ，但是 B 可以从 singletonFactories里面获取ObjectFactory，
+                //    并且通过getObject()拿到 A 的引用
+                /** @see #getSingleton(String)  */
+                /** @see AbstractAutowireCapableBeanFactory#createBean(String, RootBeanDefinition, Object[]) */
+                /** @see AbstractAutowireCapableBeanFactory#doCreateBean(String, RootBeanDefinition, Object[]) */
+                singletonObject = singletonFactory.getObject();
+                // 在 createBean 执行完以后，A 已经注入属性和初始化。在下面会将已经初始化的 bean 放入 singletonObjects
+                // 然后 删除 singletonFactorie和earlySingletonObject
+                newSingleton = true;
+            } catch (IllegalStateException ex) {
+                // Has the singleton object implicitly appeared in the meantime ->
+                // if yes, proceed with it since the exception indicates that state.
+                singletonObject = this.singletonObjects.get(beanName);
+                if (singletonObject == null) {
+                    throw ex;
                 }
-                // 标记这个 bean 正在创建
-                beforeSingletonCreation(beanName);
-                boolean newSingleton = false;
-                boolean recordSuppressedExceptions = (this.suppressedExceptions == null);
+            } catch (BeanCreationException ex) {
                 if (recordSuppressedExceptions) {
-                    this.suppressedExceptions = new LinkedHashSet<>();
-                }
-                try {
-                    // singletonFactory 是一个匿名内部类，实际上调用了 AbstractAutowireCapableBeanFactory.createBean()
-                    // 1. createBean → doCreateBean，doCreateBean首先会实例化一个 A的对象 bean，但是还未注入属性和初始化
-                    //    然后将内部类 ObjectFactory(实际上返回了 A的初始对象) 放入 singletonFactories 缓存
-                    //    注意，放的是 刚 new 的对象，还未进行属性注入和初始化
-                    /** @see AbstractAutowireCapableBeanFactory#addSingletonFactory(String, ObjectFactory)  */
-                    // 2. 接着属性注入的时候可能涉及到循环依赖，这时候 因为 A 正在创建，并加入了缓存 singletonFactories
-                    //    singletonObjects 里面当然找不到 A ，但是 B 可以从 singletonFactories里面获取ObjectFactory，
-                    //    并且通过getObject()拿到 A 的引用
-                    /** @see #getSingleton(String)  */
-                    /** @see AbstractAutowireCapableBeanFactory#createBean(String, RootBeanDefinition, Object[]) */
-                    /** @see AbstractAutowireCapableBeanFactory#doCreateBean(String, RootBeanDefinition, Object[]) */
-                    singletonObject = singletonFactory.getObject();
-                    // 在 createBean 执行完以后，A 已经注入属性和初始化。在下面会将已经初始化的 bean 放入 singletonObjects
-                    // 然后 删除 singletonFactorie和earlySingletonObject
-                    newSingleton = true;
-                } catch (IllegalStateException ex) {
-                    // Has the singleton object implicitly appeared in the meantime ->
-                    // if yes, proceed with it since the exception indicates that state.
-                    singletonObject = this.singletonObjects.get(beanName);
-                    if (singletonObject == null) {
-                        throw ex;
-                    }
-                } catch (BeanCreationException ex) {
-                    if (recordSuppressedExceptions) {
-                        for (Exception suppressedException : this.suppressedExceptions) {
-                            ex.addRelatedCause(suppressedException);
-                        }
+                    for (Exception suppressedException : this.suppressedExceptions.get()) {
+                        ex.addRelatedCause(suppressedException);
                     }
-                    throw ex;
-                } finally {
-                    if (recordSuppressedExceptions) {
-                        this.suppressedExceptions = null;
-                    }
-                    afterSingletonCreation(beanName);
                 }
-                if (newSingleton) {
-                    // 3. 创建好以后添加到缓存，singletonObjects。然后将 singletonFactorie、earlySingletonObject 删除
-                    addSingleton(beanName, singletonObject);
+                throw ex;
+            } finally {
+                if (recordSuppressedExceptions) {
+                    this.suppressedExceptions.remove();
                 }
+                afterSingletonCreation(beanName);
+            }
+            if (newSingleton) {
+                // 3. 创建好以后添加到缓存，singletonObjects。然后将 singletonFactorie、earlySingletonObject 删除
+                addSingleton(beanName, singletonObject);
+            }
+        }
+        return singletonObject;
+    }
+
+    /**
+     * Acquire the given creation lock, waiting for the creation of the singleton
+     * in another thread, unless that thread (transitively) waits for a lock held
+     * by the current thread.
+     *
+     * @return {@code true} if the lock has been acquired, {@code false} if waiting would deadlock
+     */
+    private boolean acquireCreationLock(String beanName, SingletonCreationLock lock) {
+        if (lock.tryLock()) {
+            return true;
+        }
+        Thread currentThread = Thread.currentThread();
+        synchronized (this.awaitedCreationLocks) {
+            // Checked and recorded atomically: of two threads about to wait for each other,
+            // the second one to get here sees the edge recorded by the first one
+            if (isWaitingForCurrentThread(lock)) {
+                return false;
+            }
+            this.awaitedCreationLocks.put(currentThread, lock);
+        }
+        try {
+            lock.lockInterruptibly();
+            return true;
+        } catch (InterruptedException ex) {
+            currentThread.interrupt();
+            throw new BeanCurrentlyInCreationException(beanName,
+                    "Interrupted while waiting for creation of singleton bean in another thread");
+        } finally {
+            synchronized (this.awaitedCreationLocks) {
+                this.awaitedCreationLocks.remove(currentThread);
             }
-            return singletonObject;
         }
     }
 
+    /**
+     * Release the given creation lock, dropping it once the singleton exists:
+     * threads still waiting for it find the singleton when acquiring it.
+     */
+    private void releaseCreationLock(String beanName, SingletonCreationLock lock,
+            Map<String, SingletonCreationLock> creationLocks) {
+
+        lock.unlock();
+        if (this.singletonObjects.containsKey(beanName)) {
+            creationLocks.remove(beanName, lock);
+        }
+    }
+
+    /**
+     * Resolve a circular reference to a singleton in creation by another thread
+     * that in turn waits for the current thread, through its early reference.
+     * Only done within a singleton creation, which then waits for the singleton
+     * to be fully initialized before returning.
+     *
+     * @see #awaitForeignEarlySingletons
+     */
+    private Object getForeignEarlySingleton(String beanName) {
+        Set<String> foreignEarlySingletons = this.foreignEarlySingletons.get();
+        Object singletonObject = (foreignEarlySingletons != null ? getEarlySingleton(beanName, true) : null);
+        if (singletonObject == null) {
+            throw new BeanCurrentlyInCreationException(beanName,
+                    "Requested bean is currently in creation in another thread which in turn " +
+                            "waits for the current thread: Is there an unresolvable circular reference?");
+        }
+        foreignEarlySingletons.add(beanName);
+        return singletonObject;
+    }
+
+    /**
+     * Wait for the singletons whose early references have been exposed to the current
+     * thread to be fully initialized by their creating threads. To be called at the end
+     * of the outermost singleton creation in the current thread, holding no creation lock.
+     *
+     * @param beanName the name of the singleton created by the current thread
+     */
+    private void awaitForeignEarlySingletons(String beanName) {
+        Set<String> foreignEarlySingletons = this.foreignEarlySingletons.get();
+        Map<String, SingletonCreationLock> creationLocks = this.singletonCreationLocks;
+        if (foreignEarlySingletons == null || creationLocks == null) {
+            return;
+        }
+        for (String foreignBeanName : foreignEarlySingletons) {
+            SingletonCreationLock lock = creationLocks.get(foreignBeanName);
+            if (lock != null) {
+                if (!acquireCreationLock(foreignBeanName, lock)) {
+                    throw new BeanCurrentlyInCreationException(foreignBeanName,
+                            "Requested bean is currently in creation in another thread which in turn " +
+                                    "waits for the current thread: Is there an unresolvable circular reference?");
+                }
+                lock.unlock();
+            }
+            if (!this.singletonObjects.containsKey(foreignBeanName)) {
+                // Creation failed in the other thread -> same as within a single thread
+                destroySingleton(beanName);
+                throw new BeanCreationException(beanName, "Circular reference to bean '" + foreignBeanName +
+                        "' could not be resolved since its creation failed in another thread");
+            }
+        }
+    }
+
+    /**
+     * Determine whether the owner of the given lock waits for a lock held by the
+     * current thread, following the waits-for graph from lock owner to awaited lock.
+     * To be called while synchronized on {@link #awaitedCreationLocks}.
+     */
+    private boolean isWaitingForCurrentThread(SingletonCreationLock lock) {
+        Thread currentThread = Thread.currentThread();
+        Set<Thread> visited = new HashSet<>();
+        Thread owner = lock.owner();
+        while (owner != null && visited.add(owner)) {
+            if (owner == currentThread) {
+                return true;
+            }
+            SingletonCreationLock awaitedLock = this.awaitedCreationLocks.get(owner);
+            owner = (awaitedLock != null ? awaitedLock.owner() : null);
+        }
+        return false;
+    }
+
     /**
      * Register an Exception that happened to get suppressed during the creation of a
      * singleton bean instance, e.g. a temporary circular reference resolution problem.
@@ -315,10 +576,9 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
      * @param ex the Exception to register
      */
     protected void onSuppressedException(Exception ex) {
-        synchronized (this.singletonObjects) {
-            if (this.suppressedExceptions != null) {
-                this.suppressedExceptions.add(ex);
-            }
+        Set<Exception> suppressedExceptions = this.suppressedExceptions.get();
+        if (suppressedExceptions != null) {
+            suppressedExceptions.add(ex);
         }
     }
 
@@ -694,4 +954,17 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
         return this.singletonObjects;
     }
 
+
+    /**
+     * Lock held for the creation of a singleton, exposing its owner thread.
+     */
+    @SuppressWarnings("serial")
+    private static final class SingletonCreationLock extends ReentrantLock {
+
+        @Nullable
+        Thread owner() {
+            return getOwner();
+        }
+    }
+
 }
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.BeanInstantiationException;
+import org.springframework.beans.GeneratedAccessors;
+import org.springframework.core.KotlinDetector;
+import org.springframework.lang.Nullable;
+
+/**
+ * Object instantiation strategy that invokes constructors and factory methods
+ * through accessor classes generated with ASM instead of reflection, avoiding
+ * the overhead of {@link Constructor#newInstance} and {@link Method#invoke}
+ * for frequently created beans such as prototypes and scoped beans.
+ *
+ * <p>Falls back to reflection for members that no accessor can be generated for,
+ * e.g. non-public constructors, as well as for Kotlin classes. Method Injection
+ * is supported through CGLIB, as with {@link CglibSubclassingInstantiationStrategy}.
+ *
+ * <p>When used by an {@link AbstractAutowireCapableBeanFactory}, bean properties
+ * are populated through generated accessors as well.
+ *
+ * @since 5.1
+ * @see AbstractAutowireCapableBeanFactory#setInstantiationStrategy
+ * @see org.springframework.beans.BeanWrapperImpl#setUseGeneratedAccessors
+ */
+public class GeneratedInstantiationStrategy extends CglibSubclassingInstantiationStrategy {
+
+	private final Map<Member, GeneratedAccessors.Accessor> accessorCache = new ConcurrentHashMap<>(256);
+
+
+	@Override
+	@SuppressWarnings("unchecked")
+	protected <T> T instantiateClass(Constructor<T> ctor, Object... args) throws BeanInstantiationException {
+		if (KotlinDetector.isKotlinType(ctor.getDeclaringClass())) {
+			return super.instantiateClass(ctor, args);
+		}
+		GeneratedAccessors.Accessor accessor = getAccessor(ctor);
+		if (!accessor.isGenerated()) {
+			return super.instantiateClass(ctor, args);
+		}
+		try {
+			return (T) accessor.newInstance(args);
+		}
+		catch (InstantiationException ex) {
+			throw new BeanInstantiationException(ctor, "Is it an abstract class?", ex);
+		}
+		catch (IllegalAccessException ex) {
+			throw new BeanInstantiationException(ctor, "Is the constructor accessible?", ex);
+		}
+		catch (IllegalArgumentException ex) {
+			throw new BeanInstantiationException(ctor, "Illegal arguments for constructor", ex);
+		}
+		catch (InvocationTargetException ex) {
+			throw new BeanInstantiationException(ctor, "Constructor threw exception", ex.getTargetException());
+		}
+	}
+
+	@Override
+	@Nullable
+	protected Object invokeFactoryMethod(Method factoryMethod, @Nullable Object factoryBean, @Nullable Object[] args)
+			throws IllegalAccessException, InvocationTargetException {
+
+		return getAccessor(factoryMethod).invoke(factoryBean, args);
+	}
+
+	private GeneratedAccessors.Accessor getAccessor(Member member) {
+		GeneratedAccessors.Accessor accessor = this.accessorCache.get(member);
+		if (accessor == null) {
+			accessor = (member instanceof Constructor ? GeneratedAccessors.forConstructor((Constructor<?>) member) :
+					GeneratedAccessors.forMethod((Method) member));
+			this.accessorCache.put(member, accessor);
+		}
+		return accessor;
+	}
+
+}
@@ -0,0 +1,260 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.FatalBeanException;
+import org.springframework.lang.Nullable;
+
+/**
+ * Helper class for {@link DefaultListableBeanFactory#preInstantiateSingletons()}
+ * that instantiates singletons on a given {@link Executor}, following the order
+ * of their statically known dependencies.
+ *
+ * <p>A singleton is submitted once all singletons it statically depends on have
+ * been instantiated; independent singletons are instantiated concurrently.
+ * The following singletons are instantiated afterwards in the calling thread,
+ * in registration order:
+ * <ul>
+ * <li>singletons with dependencies that cannot be statically determined, e.g.
+ * autowired by the bean factory itself or processed by an instantiation-aware
+ * post-processor that is not a
+ * {@link org.springframework.beans.factory.config.DependencyDeterminingBeanPostProcessor}
+ * <li>singletons that depend on any of those, or on other locally defined beans
+ * outside of the graph (e.g. lazy-init singletons) that are not instantiated yet
+ * <li>singletons within, or depending on, a cycle of static dependencies
+ * </ul>
+ * <p>A singleton in the parallel phase thus finds its statically known dependencies
+ * already instantiated. Dependencies that are only discovered at runtime, e.g. the
+ * objects of FactoryBeans that are not initialized yet or beans obtained in an init
+ * method, are created on demand; {@link DefaultSingletonBeanRegistry#setStripedSingletonLocking
+ * striped locking} serializes their creation and resolves circular references
+ * between singletons created concurrently.
+ *
+ * <p>Singletons are created with the context ClassLoader of the calling thread.
+ * If the executor rejects a singleton, e.g. since it is saturated or shut down,
+ * the singleton is created in the calling thread instead.
+ *
+ * @since 5.1
+ * @see DefaultListableBeanFactory#setBootstrapExecutor
+ * @see DefaultListableBeanFactory#determineStaticDependencies
+ */
+class ParallelSingletonPreInstantiator {
+
+	private static final Log logger = LogFactory.getLog(ParallelSingletonPreInstantiator.class);
+
+	private final DefaultListableBeanFactory beanFactory;
+
+	private final Executor executor;
+
+
+	public ParallelSingletonPreInstantiator(DefaultListableBeanFactory beanFactory, Executor executor) {
+		this.beanFactory = beanFactory;
+		this.executor = executor;
+	}
+
+
+	/**
+	 * Instantiate the given singletons.
+	 * @param beanNames the names of the singletons to instantiate, in registration order
+	 */
+	public void preInstantiate(List<String> beanNames) {
+		Map<String, Set<String>> dependencies = new LinkedHashMap<>();
+		for (String beanName : beanNames) {
+			Set<String> beanDependencies = this.beanFactory.determineStaticDependencies(
+					beanName, this.beanFactory.getMergedLocalBeanDefinition(beanName));
+			if (beanDependencies != null) {
+				dependencies.put(beanName, beanDependencies);
+			}
+		}
+
+		// Exclude singletons whose dependencies might be created on demand, transitively
+		boolean excluded;
+		do {
+			excluded = false;
+			for (Iterator<Map.Entry<String, Set<String>>> it = dependencies.entrySet().iterator(); it.hasNext();) {
+				Map.Entry<String, Set<String>> entry = it.next();
+				for (String dependency : entry.getValue()) {
+					if (!dependencies.containsKey(dependency) && !isAvailableOutsideOfGraph(dependency)) {
+						it.remove();
+						excluded = true;
+						break;
+					}
+				}
+			}
+		}
+		while (excluded);
+
+		// Count pending dependencies within the graph, linking each to its dependents
+		Map<String, Integer> pendingCounts = new HashMap<>();
+		Map<String, List<String>> dependents = new HashMap<>();
+		List<String> ready = new ArrayList<>();
+		for (Map.Entry<String, Set<String>> entry : dependencies.entrySet()) {
+			String beanName = entry.getKey();
+			int pendingCount = 0;
+			for (String dependency : entry.getValue()) {
+				if (!dependency.equals(beanName) && dependencies.containsKey(dependency)) {
+					dependents.computeIfAbsent(dependency, name -> new ArrayList<>()).add(beanName);
+					pendingCount++;
+				}
+			}
+			pendingCounts.put(beanName, pendingCount);
+			if (pendingCount == 0) {
+				ready.add(beanName);
+			}
+		}
+
+		if (logger.isDebugEnabled()) {
+			logger.debug("Pre-instantiating " + dependencies.size() + " singletons in parallel and " +
+					(beanNames.size() - dependencies.size()) + " with unknown dependencies sequentially");
+		}
+
+		Set<String> instantiated = instantiateInParallel(ready, pendingCounts, dependents);
+
+		// Deterministic fallback: unknown dependencies and dependency cycles
+		for (String beanName : beanNames) {
+			if (!instantiated.contains(beanName)) {
+				this.beanFactory.preInstantiateSingleton(beanName);
+			}
+		}
+	}
+
+	/**
+	 * Determine whether the given dependency outside of the graph is available
+	 * without creating a locally defined bean: already instantiated, or not
+	 * defined in this bean factory (e.g. a bean from the parent factory).
+	 */
+	private boolean isAvailableOutsideOfGraph(String beanName) {
+		return (!this.beanFactory.containsBeanDefinition(beanName) || this.beanFactory.containsSingleton(beanName));
+	}
+
+	private Set<String> instantiateInParallel(List<String> ready, Map<String, Integer> pendingCounts,
+			Map<String, List<String>> dependents) {
+
+		BlockingQueue<Future<String>> completionQueue = new LinkedBlockingQueue<>();
+		CompletionService<String> completionService = new ExecutorCompletionService<>(this.executor, completionQueue);
+		Set<String> instantiated = new HashSet<>();
+		Throwable failure = null;
+		int running = 0;
+		for (String beanName : ready) {
+			submit(completionService, completionQueue, beanName);
+			running++;
+		}
+		while (running > 0) {
+			Future<String> future;
+			try {
+				future = completionService.take();
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new FatalBeanException("Interrupted during parallel pre-instantiation of singletons", ex);
+			}
+			running--;
+			String beanName;
+			try {
+				beanName = future.get();
+			}
+			catch (ExecutionException ex) {
+				if (failure == null) {
+					failure = ex.getCause();
+				}
+				continue;
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new FatalBeanException("Interrupted during parallel pre-instantiation of singletons", ex);
+			}
+			instantiated.add(beanName);
+			List<String> beanDependents = dependents.get(beanName);
+			if (failure == null && beanDependents != null) {
+				for (String dependent : beanDependents) {
+					int pendingCount = pendingCounts.merge(dependent, -1, Integer::sum);
+					if (pendingCount == 0) {
+						submit(completionService, completionQueue, dependent);
+						running++;
+					}
+				}
+			}
+		}
+		if (failure != null) {
+			rethrow(failure);
+		}
+		return instantiated;
+	}
+
+	private void submit(CompletionService<String> completionService, BlockingQueue<Future<String>> completionQueue,
+			String beanName) {
+
+		ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+		Callable<String> task = () -> {
+			Thread currentThread = Thread.currentThread();
+			ClassLoader previousClassLoader = currentThread.getContextClassLoader();
+			currentThread.setContextClassLoader(classLoader);
+			try {
+				this.beanFactory.preInstantiateSingleton(beanName);
+				return beanName;
+			}
+			finally {
+				currentThread.setContextClassLoader(previousClassLoader);
+			}
+		};
+		try {
+			completionService.submit(task);
+		}
+		catch (RejectedExecutionException ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Bootstrap executor rejected singleton '" + beanName +
+						"' - instantiating it in the calling thread");
+			}
+			FutureTask<String> future = new FutureTask<>(task);
+			future.run();
+			completionQueue.add(future);
+		}
+	}
+
+	private static void rethrow(@Nullable Throwable failure) {
+		if (failure instanceof RuntimeException) {
+			throw (RuntimeException) failure;
+		}
+		if (failure instanceof Error) {
+			throw (Error) failure;
+		}
+		throw new FatalBeanException("Parallel pre-instantiation of singletons failed", failure);
+	}
+
+}
@@ -98,7 +98,7 @@ public class SimpleInstantiationStrategy implements InstantiationStrategy {
                 }
             }
             //使用BeanUtils实例化，通过反射机制调用”构造方法.newInstance(arg)”来进行实例化
-            return BeanUtils.instantiateClass(constructorToUse);
+            return instantiateClass(constructorToUse);
         } else {
             // Must generate CGLIB subclass.
             //使用CGLIB来实例化对象
@@ -128,12 +128,27 @@ public class SimpleInstantiationStrategy implements InstantiationStrategy {
                     return null;
                 });
             }
-            return (args != null ? BeanUtils.instantiateClass(ctor, args) : BeanUtils.instantiateClass(ctor));
+            return (args != null ? instantiateClass(ctor, args) : instantiateClass(ctor));
         } else {
             return instantiateWithMethodInjection(bd, beanName, owner, ctor, args);
         }
     }
 
+    /**
+     * Instantiate the bean class through the given constructor, in case of no
+     * Method Injection. The default implementation delegates to
+     * {@link BeanUtils#instantiateClass(Constructor, Object...)}.
+     *
+     * @param ctor the constructor to use
+     * @param args the constructor arguments to apply
+     * @return the new instance
+     * @throws BeanInstantiationException if the bean cannot be instantiated
+     * @since 5.1
+     */
+    protected <T> T instantiateClass(Constructor<T> ctor, Object... args) throws BeanInstantiationException {
+        return BeanUtils.instantiateClass(ctor, args);
+    }
+
     /**
      * Subclasses can override this method, which is implemented to throw
      * UnsupportedOperationException, if they can instantiate an object with
@@ -163,7 +178,7 @@ public class SimpleInstantiationStrategy implements InstantiationStrategy {
             Method priorInvokedFactoryMethod = currentlyInvokedFactoryMethod.get();
             try {
                 currentlyInvokedFactoryMethod.set(factoryMethod);
-                Object result = factoryMethod.invoke(factoryBean, args);
+                Object result = invokeFactoryMethod(factoryMethod, factoryBean, args);
                 if (result == null) {
                     result = new NullBean();
                 }
@@ -193,4 +208,23 @@ public class SimpleInstantiationStrategy implements InstantiationStrategy {
         }
     }
 
+    /**
+     * Invoke the given factory method, already made accessible.
+     * The default implementation uses {@link Method#invoke} reflection.
+     *
+     * @param factoryMethod the factory method to invoke
+     * @param factoryBean   the factory bean instance to call the factory method on,
+     *                      or {@code null} in case of a static factory method
+     * @param args          the arguments to apply to the factory method
+     * @return the result of the factory method
+     * @see Method#invoke
+     * @since 5.1
+     */
+    @Nullable
+    protected Object invokeFactoryMethod(Method factoryMethod, @Nullable Object factoryBean, @Nullable Object[] args)
+            throws IllegalAccessException, InvocationTargetException {
+
+        return factoryMethod.invoke(factoryBean, args);
+    }
+
 }
@@ -16,13 +16,18 @@
 
 package org.springframework.beans;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
 import org.junit.Test;
 
 import org.springframework.tests.sample.beans.TestBean;
+import org.springframework.util.CacheRegistry;
+import org.springframework.util.ConcurrentLruCache;
 
 import static org.junit.Assert.*;
 
@@ -215,6 +220,46 @@ public class BeanWrapperTests extends AbstractPropertyAccessorTests {
 		}
 	}
 
+	@Test
+	@SuppressWarnings("unchecked")
+	public void nestedPropertyPathReusedAcrossAccessors() {
+		TestBean target1 = new TestBean();
+		target1.setSpouse(new TestBean());
+		TestBean target2 = new TestBean();
+		target2.setSpouse(new TestBean());
+
+		createAccessor(target1).setPropertyValue("spouse.someMap['key.1']", "value1");
+		ConcurrentLruCache<String, ?> pathCache = (ConcurrentLruCache<String, ?>)
+				CacheRegistry.getCache("AbstractNestablePropertyAccessor.propertyPaths");
+		assertTrue(pathCache.containsKey("spouse.someMap['key.1']"));
+		BeanWrapper accessor = createAccessor(target2);
+		accessor.setPropertyValue("spouse.someMap['key.1']", "value2");
+
+		assertEquals("value1", ((TestBean) target1.getSpouse()).getSomeMap().get("key.1"));
+		assertEquals("value2", ((TestBean) target2.getSpouse()).getSomeMap().get("key.1"));
+		assertEquals("value2", accessor.getPropertyValue("spouse.someMap['key.1']"));
+		assertEquals(Map.class, accessor.getPropertyType("spouse.someMap"));
+	}
+
+	@Test
+	public void propertyAccessByNameGoesThroughOverriddenNavigation() {
+		TestBean target = new TestBean();
+		target.setSpouse(new TestBean());
+		List<String> navigatedPaths = new ArrayList<>();
+		BeanWrapperImpl accessor = new BeanWrapperImpl(target) {
+			@Override
+			protected AbstractNestablePropertyAccessor getPropertyAccessorForPropertyPath(String propertyPath) {
+				navigatedPaths.add(propertyPath);
+				return super.getPropertyAccessorForPropertyPath(propertyPath);
+			}
+		};
+
+		accessor.setPropertyValue("spouse.name", "kerry");
+		assertEquals("kerry", accessor.getPropertyValue("spouse.name"));
+		assertEquals(String.class, accessor.getPropertyType("spouse.name"));
+		assertEquals(Arrays.asList("spouse.name", "spouse.name", "spouse.name"), navigatedPaths);
+	}
+
 
 	@SuppressWarnings("unused")
 	private interface AliasedProperty {
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import org.springframework.tests.sample.beans.TestBean;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link GeneratedAccessors}.
+ *
+ * @since 5.1
+ */
+public class GeneratedAccessorsTests {
+
+	@Test
+	public void newInstance() throws Exception {
+		Constructor<TestBean> ctor = TestBean.class.getConstructor(String.class, int.class);
+		assertTrue(GeneratedAccessors.forConstructor(ctor).isGenerated());
+
+		TestBean tb = (TestBean) GeneratedAccessors.forConstructor(ctor).newInstance(new Object[] {"tb", 42});
+		assertEquals("tb", tb.getName());
+		assertEquals(42, tb.getAge());
+	}
+
+	@Test
+	public void newInstanceWithoutArguments() throws Exception {
+		Constructor<TestBean> ctor = TestBean.class.getConstructor();
+		assertNotNull(GeneratedAccessors.forConstructor(ctor).newInstance(null));
+		assertNotNull(GeneratedAccessors.forConstructor(ctor).newInstance(new Object[0]));
+	}
+
+	@Test
+	public void invokeSetterAndGetter() throws Exception {
+		TestBean tb = new TestBean();
+		Method setAge = TestBean.class.getMethod("setAge", int.class);
+		Method getAge = TestBean.class.getMethod("getAge");
+		Method setName = TestBean.class.getMethod("setName", String.class);
+		assertTrue(GeneratedAccessors.forMethod(setAge).isGenerated());
+
+		assertNull(GeneratedAccessors.forMethod(setAge).invoke(tb, new Object[] {42}));
+		GeneratedAccessors.forMethod(setName).invoke(tb, new Object[] {null});
+		assertEquals(42, GeneratedAccessors.forMethod(getAge).invoke(tb, null));
+		assertNull(tb.getName());
+	}
+
+	@Test
+	public void accessorGeneratedOncePerMember() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<GeneratedAccessors.Accessor>> futures = new ArrayList<>();
+			for (int i = 0; i < 16; i++) {
+				futures.add(executor.submit(() ->
+						GeneratedAccessors.forMethod(TestBean.class.getMethod("setTouchy", String.class))));
+			}
+			GeneratedAccessors.Accessor accessor = futures.get(0).get();
+			assertTrue(accessor.isGenerated());
+			for (Future<GeneratedAccessors.Accessor> future : futures) {
+				assertSame(accessor, future.get());
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void invokeInterfaceAndStaticMethods() throws Exception {
+		List<String> list = new ArrayList<>();
+		Method add = Collection.class.getMethod("add", Object.class);
+		assertEquals(Boolean.TRUE, GeneratedAccessors.forMethod(add).invoke(list, new Object[] {"element"}));
+		assertEquals("element", list.get(0));
+
+		Method factoryMethod = Accessible.class.getMethod("create", String[].class, long.class);
+		Accessible accessible = (Accessible) GeneratedAccessors.forMethod(factoryMethod).invoke(
+				null, new Object[] {new String[] {"a", "b"}, 3L});
+		assertEquals("a,b:3", accessible.value);
+	}
+
+	@Test
+	public void exceptionWrapped() throws Exception {
+		Method method = Accessible.class.getMethod("fail");
+		try {
+			GeneratedAccessors.forMethod(method).invoke(new Accessible(""), null);
+			fail("Should have thrown InvocationTargetException");
+		}
+		catch (InvocationTargetException ex) {
+			assertEquals("failed", ex.getTargetException().getMessage());
+		}
+	}
+
+	@Test
+	public void mismatchedArgumentsHandledThroughReflection() throws Exception {
+		Method setAge = TestBean.class.getMethod("setAge", int.class);
+		try {
+			GeneratedAccessors.forMethod(setAge).invoke(new TestBean(), new Object[] {"not an int"});
+			fail("Should have thrown IllegalArgumentException");
+		}
+		catch (IllegalArgumentException ex) {
+			// expected, as with reflection
+		}
+		try {
+			GeneratedAccessors.forMethod(setAge).invoke(new TestBean(), new Object[] {null});
+			fail("Should have thrown IllegalArgumentException");
+		}
+		catch (IllegalArgumentException ex) {
+			// expected, as with reflection
+		}
+		try {
+			GeneratedAccessors.forMethod(setAge).invoke("not a TestBean", new Object[] {1});
+			fail("Should have thrown IllegalArgumentException");
+		}
+		catch (IllegalArgumentException ex) {
+			// expected, as with reflection
+		}
+	}
+
+	@Test
+	public void nonPublicMembersNotSupported() throws Exception {
+		Constructor<NonPublic> ctor = NonPublic.class.getDeclaredConstructor();
+		assertFalse(GeneratedAccessors.forConstructor(ctor).isGenerated());
+		assertFalse(GeneratedAccessors.forMethod(Accessible.class.getDeclaredMethod("packagePrivate")).isGenerated());
+		assertFalse(GeneratedAccessors.forMethod(
+				Accessible.class.getMethod("withNonPublicParameter", NonPublic.class)).isGenerated());
+		assertFalse(GeneratedAccessors.forMethod(String.class.getMethod("length")).isGenerated());
+
+		ctor.setAccessible(true);
+		assertNotNull(GeneratedAccessors.forConstructor(ctor).newInstance(null));
+	}
+
+
+	public static class Accessible {
+
+		final String value;
+
+		public Accessible(String value) {
+			this.value = value;
+		}
+
+		public static Accessible create(String[] values, long count) {
+			return new Accessible(String.join(",", values) + ":" + count);
+		}
+
+		public void fail() {
+			throw new IllegalStateException("failed");
+		}
+
+		void packagePrivate() {
+		}
+
+		public void withNonPublicParameter(NonPublic nonPublic) {
+		}
+	}
+
+
+	static class NonPublic {
+	}
+
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans;
+
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import org.springframework.beans.support.DerivedFromProtectedBaseBean;
+import org.springframework.tests.sample.beans.BooleanTestBean;
+import org.springframework.tests.sample.beans.DerivedTestBean;
+import org.springframework.tests.sample.beans.NumberTestBean;
+import org.springframework.tests.sample.beans.TestBean;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link PropertyDescriptorUtils}.
+ *
+ * @since 5.1
+ */
+public class PropertyDescriptorUtilsTests {
+
+	@Test
+	public void basicPropertiesMatchIntrospector() throws IntrospectionException {
+		assertSameAsIntrospector(TestBean.class);
+		assertSameAsIntrospector(DerivedTestBean.class);
+		assertSameAsIntrospector(BooleanTestBean.class);
+		assertSameAsIntrospector(NumberTestBean.class);
+	}
+
+	@Test
+	public void nonVoidSetter() throws Exception {
+		Map<String, PropertyDescriptor> pds = basicProperties(FluentBean.class);
+		PropertyDescriptor pd = pds.get("name");
+		assertNotNull(pd);
+		assertEquals(FluentBean.class.getMethod("getName"), pd.getReadMethod());
+		assertEquals(FluentBean.class.getMethod("setName", String.class), pd.getWriteMethod());
+	}
+
+	@Test
+	public void isGetterTakesPrecedence() throws Exception {
+		Map<String, PropertyDescriptor> pds = basicProperties(FluentBean.class);
+		PropertyDescriptor pd = pds.get("active");
+		assertNotNull(pd);
+		assertEquals(FluentBean.class.getMethod("isActive"), pd.getReadMethod());
+		assertEquals(FluentBean.class.getMethod("setActive", boolean.class), pd.getWriteMethod());
+	}
+
+	@Test
+	public void overloadedSetterResolvedAgainstGetter() throws Exception {
+		Map<String, PropertyDescriptor> pds = basicProperties(FluentBean.class);
+		PropertyDescriptor pd = pds.get("count");
+		assertNotNull(pd);
+		assertEquals(FluentBean.class.getMethod("setCount", int.class), pd.getWriteMethod());
+	}
+
+	@Test
+	public void writeOnlyProperty() throws Exception {
+		Map<String, PropertyDescriptor> pds = basicProperties(FluentBean.class);
+		PropertyDescriptor pd = pds.get("secret");
+		assertNotNull(pd);
+		assertNull(pd.getReadMethod());
+		assertEquals(FluentBean.class.getMethod("setSecret", String.class), pd.getWriteMethod());
+	}
+
+	@Test
+	public void staticSetter() throws Exception {
+		Map<String, PropertyDescriptor> pds = basicProperties(FluentBean.class);
+		PropertyDescriptor pd = pds.get("helper");
+		assertNotNull(pd);
+		assertEquals(FluentBean.class.getMethod("setHelper", String.class), pd.getWriteMethod());
+	}
+
+	@Test
+	public void publicMethodsFromNonPublicBaseClass() throws Exception {
+		Map<String, PropertyDescriptor> pds = basicProperties(DerivedFromProtectedBaseBean.class);
+		PropertyDescriptor pd = pds.get("someProperty");
+		assertNotNull(pd);
+		assertNotNull(pd.getReadMethod());
+		assertNotNull(pd.getWriteMethod());
+	}
+
+
+	private static void assertSameAsIntrospector(Class<?> beanClass) throws IntrospectionException {
+		Map<String, PropertyDescriptor> pds = basicProperties(beanClass);
+		PropertyDescriptor[] expected = Introspector.getBeanInfo(beanClass).getPropertyDescriptors();
+		assertEquals(expected.length, pds.size());
+		for (PropertyDescriptor expectedPd : expected) {
+			PropertyDescriptor pd = pds.get(expectedPd.getName());
+			assertNotNull("Missing property '" + expectedPd.getName() + "'", pd);
+			assertEquals(expectedPd.getPropertyType(), pd.getPropertyType());
+			assertEquals(expectedPd.getReadMethod(), pd.getReadMethod());
+			assertEquals(expectedPd.getWriteMethod(), pd.getWriteMethod());
+		}
+	}
+
+	private static Map<String, PropertyDescriptor> basicProperties(Class<?> beanClass) throws IntrospectionException {
+		Collection<PropertyDescriptor> pds = PropertyDescriptorUtils.determineBasicProperties(beanClass);
+		Map<String, PropertyDescriptor> result = new HashMap<>();
+		for (PropertyDescriptor pd : pds) {
+			result.put(pd.getName(), pd);
+		}
+		return result;
+	}
+
+
+	@SuppressWarnings("unused")
+	public static class FluentBean {
+
+		public String getName() {
+			return null;
+		}
+
+		public FluentBean setName(String name) {
+			return this;
+		}
+
+		public boolean isActive() {
+			return false;
+		}
+
+		public boolean getActive() {
+			return false;
+		}
+
+		public void setActive(boolean active) {
+		}
+
+		public int getCount() {
+			return 0;
+		}
+
+		public void setCount(String count) {
+		}
+
+		public void setCount(int count) {
+		}
+
+		public void setSecret(String secret) {
+		}
+
+		public static void setHelper(String helper) {
+		}
+	}
+
+}
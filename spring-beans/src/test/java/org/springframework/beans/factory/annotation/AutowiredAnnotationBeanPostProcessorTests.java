@@ -1329,6 +1329,97 @@ public class AutowiredAnnotationBeanPostProcessorTests {
 		bf.destroySingletons();
 	}
 
+	@Test
+	public void testMapInjectionIntoPrototypeWithFrozenConfiguration() {
+		DefaultListableBeanFactory bf = new DefaultListableBeanFactory();
+		AutowiredAnnotationBeanPostProcessor bpp = new AutowiredAnnotationBeanPostProcessor();
+		bpp.setBeanFactory(bf);
+		bf.addBeanPostProcessor(bpp);
+		RootBeanDefinition bd = new RootBeanDefinition(MapFieldInjectionBean.class);
+		bd.setScope(RootBeanDefinition.SCOPE_PROTOTYPE);
+		bf.registerBeanDefinition("annotatedBean", bd);
+		TestBean tb1 = new TestBean("tb1");
+		TestBean tb2 = new TestBean("tb2");
+		bf.registerSingleton("testBean1", tb1);
+		bf.registerSingleton("testBean2", tb2);
+		bf.freezeConfiguration();
+
+		MapFieldInjectionBean bean = (MapFieldInjectionBean) bf.getBean("annotatedBean");
+		assertEquals(2, bean.getTestBeanMap().size());
+		bean = (MapFieldInjectionBean) bf.getBean("annotatedBean");
+		assertEquals(2, bean.getTestBeanMap().size());
+		assertSame(tb1, bean.getTestBeanMap().get("testBean1"));
+		assertSame(tb2, bean.getTestBeanMap().get("testBean2"));
+
+		bf.registerBeanDefinition("testBean3", new RootBeanDefinition(TestBean.class));
+		bean = (MapFieldInjectionBean) bf.getBean("annotatedBean");
+		assertEquals(3, bean.getTestBeanMap().size());
+		assertSame(bf.getBean("testBean3"), bean.getTestBeanMap().get("testBean3"));
+
+		bf.removeBeanDefinition("testBean3");
+		bean = (MapFieldInjectionBean) bf.getBean("annotatedBean");
+		assertEquals(2, bean.getTestBeanMap().size());
+		assertFalse(bean.getTestBeanMap().containsKey("testBean3"));
+		bf.destroySingletons();
+	}
+
+	@Test
+	public void testMapInjectionIntoPrototypeWithFrozenConfigurationAndMutableParent() {
+		DefaultListableBeanFactory parent = new DefaultListableBeanFactory();
+		DefaultListableBeanFactory bf = new DefaultListableBeanFactory(parent);
+		AutowiredAnnotationBeanPostProcessor bpp = new AutowiredAnnotationBeanPostProcessor();
+		bpp.setBeanFactory(bf);
+		bf.addBeanPostProcessor(bpp);
+		RootBeanDefinition bd = new RootBeanDefinition(MapFieldInjectionBean.class);
+		bd.setScope(RootBeanDefinition.SCOPE_PROTOTYPE);
+		bf.registerBeanDefinition("annotatedBean", bd);
+		TestBean tb1 = new TestBean("tb1");
+		bf.registerSingleton("testBean1", tb1);
+		bf.freezeConfiguration();
+
+		MapFieldInjectionBean bean = (MapFieldInjectionBean) bf.getBean("annotatedBean");
+		assertEquals(1, bean.getTestBeanMap().size());
+		TestBean tb2 = new TestBean("tb2");
+		parent.registerSingleton("testBean2", tb2);
+		bean = (MapFieldInjectionBean) bf.getBean("annotatedBean");
+		assertEquals(2, bean.getTestBeanMap().size());
+		assertSame(tb2, bean.getTestBeanMap().get("testBean2"));
+		bf.destroySingletons();
+	}
+
+	@Test
+	public void testMapInjectionIntoPrototypeWithFrozenConfigurationAndFrozenParent() {
+		DefaultListableBeanFactory parent = new DefaultListableBeanFactory();
+		parent.freezeConfiguration();
+		DefaultListableBeanFactory bf = new DefaultListableBeanFactory(parent);
+		AutowiredAnnotationBeanPostProcessor bpp = new AutowiredAnnotationBeanPostProcessor();
+		bpp.setBeanFactory(bf);
+		bf.addBeanPostProcessor(bpp);
+		RootBeanDefinition bd = new RootBeanDefinition(MapFieldInjectionBean.class);
+		bd.setScope(RootBeanDefinition.SCOPE_PROTOTYPE);
+		bf.registerBeanDefinition("annotatedBean", bd);
+		TestBean tb1 = new TestBean("tb1");
+		bf.registerSingleton("testBean1", tb1);
+		bf.freezeConfiguration();
+
+		MapFieldInjectionBean bean = (MapFieldInjectionBean) bf.getBean("annotatedBean");
+		assertEquals(1, bean.getTestBeanMap().size());
+		bean = (MapFieldInjectionBean) bf.getBean("annotatedBean");
+		assertEquals(1, bean.getTestBeanMap().size());
+
+		TestBean tb2 = new TestBean("tb2");
+		parent.registerSingleton("testBean2", tb2);
+		bean = (MapFieldInjectionBean) bf.getBean("annotatedBean");
+		assertEquals(2, bean.getTestBeanMap().size());
+		assertSame(tb2, bean.getTestBeanMap().get("testBean2"));
+
+		parent.registerBeanDefinition("testBean3", new RootBeanDefinition(TestBean.class));
+		bean = (MapFieldInjectionBean) bf.getBean("annotatedBean");
+		assertEquals(3, bean.getTestBeanMap().size());
+		assertSame(parent.getBean("testBean3"), bean.getTestBeanMap().get("testBean3"));
+		bf.destroySingletons();
+	}
+
 	@Test
 	public void testSmartObjectFactoryInjectionWithSingletonTarget() {
 		DefaultListableBeanFactory bf = new DefaultListableBeanFactory();
@@ -794,6 +794,29 @@ public class BeanFactoryGenericsTests {
 		assertEquals(0, floatStoreNames.length);
 	}
 
+	@Test
+	public void testGenericTypeLookupWithFrozenConfiguration() {
+		DefaultListableBeanFactory bf = new DefaultListableBeanFactory();
+		bf.registerBeanDefinition("store1", new RootBeanDefinition(DoubleStore.class));
+		bf.freezeConfiguration();
+
+		ResolvableType doubleStoreType = ResolvableType.forClassWithGenerics(NumberStore.class, Double.class);
+		ResolvableType floatStoreType = ResolvableType.forClassWithGenerics(NumberStore.class, Float.class);
+		assertArrayEquals(new String[] {"store1"}, bf.getBeanNamesForType(doubleStoreType));
+		assertArrayEquals(new String[] {"store1"}, bf.getBeanNamesForType(
+				ResolvableType.forClassWithGenerics(NumberStore.class, Double.class)));
+		assertEquals(0, bf.getBeanNamesForType(floatStoreType).length);
+		assertEquals(0, bf.getBeanNamesForType(ResolvableType.forClass(Enum.class)).length);
+
+		bf.registerBeanDefinition("store2", new RootBeanDefinition(FloatStore.class));
+		bf.registerSingleton("store3", new DoubleStore());
+		assertArrayEquals(new String[] {"store1", "store3"}, bf.getBeanNamesForType(doubleStoreType));
+		assertArrayEquals(new String[] {"store2"}, bf.getBeanNamesForType(floatStoreType));
+
+		bf.removeBeanDefinition("store1");
+		assertArrayEquals(new String[] {"store3"}, bf.getBeanNamesForType(doubleStoreType));
+	}
+
 	@Test
 	public void testGenericMatchingWithFullTypeDifferentiation() {
 		DefaultListableBeanFactory bf = new DefaultListableBeanFactory();
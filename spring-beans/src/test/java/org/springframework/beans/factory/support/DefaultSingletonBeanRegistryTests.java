@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2014 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,10 +16,21 @@
 
 package org.springframework.beans.factory.support;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.junit.Test;
 
 import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanCreationException;
 import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.beans.factory.config.InstantiationAwareBeanPostProcessorAdapter;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
 import org.springframework.tests.sample.beans.DerivedTestBean;
 import org.springframework.tests.sample.beans.TestBean;
 
@@ -101,4 +112,155 @@ public class DefaultSingletonBeanRegistryTests {
 		assertTrue(beanRegistry.isDependent("c", "c"));
 	}
 
+	@Test
+	public void stripedLockingCreatesDifferentSingletonsConcurrently() throws Exception {
+		DefaultSingletonBeanRegistry beanRegistry = new DefaultSingletonBeanRegistry();
+		beanRegistry.setStripedSingletonLocking(true);
+		assertTrue(beanRegistry.isStripedSingletonLocking());
+
+		CountDownLatch inCreation = new CountDownLatch(1);
+		CountDownLatch otherCreated = new CountDownLatch(1);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<Object> tb1 = executor.submit(() -> beanRegistry.getSingleton("tb1", () -> {
+				inCreation.countDown();
+				try {
+					// Blocks forever with a global creation lock
+					if (!otherCreated.await(10, TimeUnit.SECONDS)) {
+						throw new BeanCreationException("tb1", "tb2 not created concurrently");
+					}
+				}
+				catch (InterruptedException ex) {
+					throw new IllegalStateException(ex);
+				}
+				return new TestBean("tb1");
+			}));
+			assertTrue(inCreation.await(10, TimeUnit.SECONDS));
+			TestBean tb2 = (TestBean) beanRegistry.getSingleton("tb2", () -> new TestBean("tb2"));
+			otherCreated.countDown();
+
+			assertEquals("tb2", tb2.getName());
+			assertEquals("tb1", ((TestBean) tb1.get(10, TimeUnit.SECONDS)).getName());
+			assertSame(tb1.get(), beanRegistry.getSingleton("tb1"));
+			assertEquals(2, beanRegistry.getSingletonCount());
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void stripedLockingCreatesSameSingletonOnce() throws Exception {
+		DefaultSingletonBeanRegistry beanRegistry = new DefaultSingletonBeanRegistry();
+		beanRegistry.setStripedSingletonLocking(true);
+
+		AtomicInteger creationCount = new AtomicInteger();
+		CyclicBarrier barrier = new CyclicBarrier(4);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			Future<?>[] results = new Future<?>[4];
+			for (int i = 0; i < results.length; i++) {
+				results[i] = executor.submit(() -> {
+					barrier.await(10, TimeUnit.SECONDS);
+					return beanRegistry.getSingleton("tb", () -> {
+						creationCount.incrementAndGet();
+						try {
+							Thread.sleep(50);
+						}
+						catch (InterruptedException ex) {
+							throw new IllegalStateException(ex);
+						}
+						return new TestBean();
+					});
+				});
+			}
+			Object tb = results[0].get(10, TimeUnit.SECONDS);
+			for (Future<?> result : results) {
+				assertSame(tb, result.get(10, TimeUnit.SECONDS));
+			}
+			assertEquals(1, creationCount.get());
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void stripedLockingResolvesCircularReferenceCreatedFromBothEnds() throws Exception {
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		beanFactory.setStripedSingletonLocking(true);
+		RootBeanDefinition bd1 = new RootBeanDefinition(TestBean.class);
+		bd1.getPropertyValues().add("spouse", new RuntimeBeanReference("tb2"));
+		beanFactory.registerBeanDefinition("tb1", bd1);
+		RootBeanDefinition bd2 = new RootBeanDefinition(TestBean.class);
+		bd2.getPropertyValues().add("spouse", new RuntimeBeanReference("tb1"));
+		beanFactory.registerBeanDefinition("tb2", bd2);
+
+		// Both beans instantiated in separate threads before either populates its spouse
+		CountDownLatch instantiated = new CountDownLatch(2);
+		beanFactory.addBeanPostProcessor(new InstantiationAwareBeanPostProcessorAdapter() {
+			@Override
+			public boolean postProcessAfterInstantiation(Object bean, String beanName) throws BeansException {
+				instantiated.countDown();
+				try {
+					if (!instantiated.await(10, TimeUnit.SECONDS)) {
+						throw new IllegalStateException("Timeout");
+					}
+				}
+				catch (Exception ex) {
+					throw new BeanCreationException(beanName, "Concurrent instantiation expected", ex);
+				}
+				return true;
+			}
+		});
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<Object> tb1 = executor.submit(() -> beanFactory.getBean("tb1"));
+			Future<Object> tb2 = executor.submit(() -> beanFactory.getBean("tb2"));
+			TestBean bean1 = (TestBean) tb1.get(10, TimeUnit.SECONDS);
+			TestBean bean2 = (TestBean) tb2.get(10, TimeUnit.SECONDS);
+			assertSame(bean2, bean1.getSpouse());
+			assertSame(bean1, bean2.getSpouse());
+			assertSame(bean1, beanFactory.getBean("tb1"));
+			assertSame(bean2, beanFactory.getBean("tb2"));
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void stripedLockingSerializesRegistrationWithCreation() throws Exception {
+		DefaultSingletonBeanRegistry beanRegistry = new DefaultSingletonBeanRegistry();
+		beanRegistry.setStripedSingletonLocking(true);
+
+		CountDownLatch inCreation = new CountDownLatch(1);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<Object> created = executor.submit(() -> beanRegistry.getSingleton("tb", () -> {
+				inCreation.countDown();
+				try {
+					Thread.sleep(100);
+				}
+				catch (InterruptedException ex) {
+					throw new IllegalStateException(ex);
+				}
+				return new TestBean();
+			}));
+			assertTrue(inCreation.await(10, TimeUnit.SECONDS));
+			try {
+				beanRegistry.registerSingleton("tb", new TestBean());
+				fail("Should have thrown IllegalStateException");
+			}
+			catch (IllegalStateException ex) {
+				// expected: registered after the concurrent creation completed
+			}
+			assertSame(created.get(10, TimeUnit.SECONDS), beanRegistry.getSingleton("tb"));
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
 }
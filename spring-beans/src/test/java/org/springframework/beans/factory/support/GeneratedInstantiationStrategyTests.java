@@ -0,0 +1,119 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.beans.BeanInstantiationException;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.factory.BeanCreationException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.tests.sample.beans.TestBean;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link GeneratedInstantiationStrategy}.
+ *
+ * @since 5.1
+ */
+public class GeneratedInstantiationStrategyTests {
+
+	private final DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+
+
+	@Before
+	public void setup() {
+		this.beanFactory.setInstantiationStrategy(new GeneratedInstantiationStrategy());
+	}
+
+
+	@Test
+	public void prototypeWithConstructorArgumentsAndProperties() {
+		this.beanFactory.registerBeanDefinition("spouse", new RootBeanDefinition(TestBean.class));
+		RootBeanDefinition bd = new RootBeanDefinition(TestBean.class);
+		bd.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+		bd.getConstructorArgumentValues().addIndexedArgumentValue(0, "tb");
+		bd.getConstructorArgumentValues().addIndexedArgumentValue(1, "42");
+		bd.getPropertyValues().add("spouse", new RuntimeBeanReference("spouse"));
+		bd.getPropertyValues().add("touchy", "touchy");
+		this.beanFactory.registerBeanDefinition("tb", bd);
+
+		TestBean tb = (TestBean) this.beanFactory.getBean("tb");
+		assertEquals("tb", tb.getName());
+		assertEquals(42, tb.getAge());
+		assertEquals("touchy", tb.getTouchy());
+		assertSame(this.beanFactory.getBean("spouse"), tb.getSpouse());
+		assertNotSame(tb, this.beanFactory.getBean("tb"));
+	}
+
+	@Test
+	public void staticFactoryMethod() {
+		RootBeanDefinition bd = new RootBeanDefinition(Factory.class);
+		bd.setFactoryMethodName("create");
+		bd.getConstructorArgumentValues().addGenericArgumentValue("fromFactory");
+		this.beanFactory.registerBeanDefinition("tb", bd);
+
+		assertEquals("fromFactory", ((TestBean) this.beanFactory.getBean("tb")).getName());
+	}
+
+	@Test
+	public void constructorExceptionPropagated() {
+		this.beanFactory.registerBeanDefinition("failing", new RootBeanDefinition(Failing.class));
+		try {
+			this.beanFactory.getBean("failing");
+			fail("Should have thrown BeanCreationException");
+		}
+		catch (BeanCreationException ex) {
+			assertTrue(ex.getCause() instanceof BeanInstantiationException);
+			assertEquals("failed", ex.getCause().getCause().getMessage());
+		}
+	}
+
+	@Test
+	public void generatedPropertyAccessors() {
+		BeanWrapperImpl bw = new BeanWrapperImpl(new TestBean());
+		this.beanFactory.initBeanWrapper(bw);
+		assertTrue(bw.isUseGeneratedAccessors());
+
+		bw.setPropertyValue("age", "21");
+		bw.setPropertyValue("spouse", new TestBean("spouse"));
+		bw.setPropertyValue("spouse.age", 22);
+		assertEquals(21, bw.getPropertyValue("age"));
+		assertEquals(22, bw.getPropertyValue("spouse.age"));
+		assertEquals("spouse", bw.getPropertyValue("spouse.name"));
+	}
+
+
+	public static class Factory {
+
+		public static TestBean create(String name) {
+			return new TestBean(name);
+		}
+	}
+
+
+	public static class Failing {
+
+		public Failing() {
+			throw new IllegalStateException("failed");
+		}
+	}
+
+}
@@ -0,0 +1,381 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.beans.factory.BeanCreationException;
+import org.springframework.beans.factory.FactoryBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.AutowiredAnnotationBeanPostProcessor;
+import org.springframework.beans.factory.annotation.QualifierAnnotationAutowireCandidateResolver;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.config.InstantiationAwareBeanPostProcessorAdapter;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.tests.sample.beans.TestBean;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for parallel singleton pre-instantiation through
+ * {@link DefaultListableBeanFactory#setBootstrapExecutor}.
+ *
+ * @since 5.1
+ */
+public class ParallelSingletonPreInstantiatorTests {
+
+	private final DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+
+	private ExecutorService executor;
+
+
+	@Before
+	public void setup() {
+		this.executor = Executors.newFixedThreadPool(4);
+		this.beanFactory.setBootstrapExecutor(this.executor);
+		this.beanFactory.setStripedSingletonLocking(true);
+	}
+
+	@After
+	public void shutdown() {
+		this.executor.shutdownNow();
+	}
+
+
+	@Test
+	public void bootstrapExecutorWithoutStripedLockingInstantiatesInCallingThread() {
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		beanFactory.setBootstrapExecutor(this.executor);
+		assertSame(this.executor, beanFactory.getBootstrapExecutor());
+		assertFalse(beanFactory.isStripedSingletonLocking());
+		RootBeanDefinition bd = new RootBeanDefinition(RecordingBean.class);
+		bd.getConstructorArgumentValues().addGenericArgumentValue("bean");
+		bd.getConstructorArgumentValues().addGenericArgumentValue(new ArrayList<>());
+		beanFactory.registerBeanDefinition("bean", bd);
+
+		beanFactory.preInstantiateSingletons();
+
+		assertEquals(Thread.currentThread().getName(),
+				((RecordingBean) beanFactory.getBean("bean")).getCreatingThread());
+	}
+
+	@Test
+	public void independentSingletonsInstantiatedConcurrently() {
+		CyclicBarrier barrier = new CyclicBarrier(3);
+		for (String beanName : Arrays.asList("bean1", "bean2", "bean3")) {
+			RootBeanDefinition bd = new RootBeanDefinition(BarrierBean.class);
+			bd.getConstructorArgumentValues().addGenericArgumentValue(barrier);
+			this.beanFactory.registerBeanDefinition(beanName, bd);
+		}
+
+		this.beanFactory.preInstantiateSingletons();
+
+		assertTrue(this.beanFactory.containsSingleton("bean1"));
+		assertTrue(this.beanFactory.containsSingleton("bean2"));
+		assertTrue(this.beanFactory.containsSingleton("bean3"));
+	}
+
+	@Test
+	public void singletonsInstantiatedAfterStaticDependencies() {
+		List<String> instantiated = Collections.synchronizedList(new ArrayList<>());
+		registerRecordingBean("a", instantiated, "b", "c");
+		registerRecordingBean("b", instantiated, "c");
+		registerRecordingBean("c", instantiated);
+
+		this.beanFactory.preInstantiateSingletons();
+
+		assertEquals(Arrays.asList("c", "b", "a"), instantiated);
+		assertSame(this.beanFactory.getBean("b"), ((TestBean) this.beanFactory.getBean("a")).getSomeList().get(0));
+	}
+
+	@Test
+	public void unknownDependenciesAndCyclesInstantiatedInCallingThread() {
+		List<String> instantiated = Collections.synchronizedList(new ArrayList<>());
+		registerRecordingBean("cycle1", instantiated, "cycle2");
+		registerRecordingBean("cycle2", instantiated, "cycle1");
+		RootBeanDefinition autowired = new RootBeanDefinition(RecordingBean.class);
+		autowired.setAutowireMode(AutowireCapableBeanFactory.AUTOWIRE_BY_NAME);
+		autowired.getConstructorArgumentValues().addGenericArgumentValue("autowired");
+		autowired.getConstructorArgumentValues().addGenericArgumentValue(instantiated);
+		this.beanFactory.registerBeanDefinition("autowired", autowired);
+
+		this.beanFactory.preInstantiateSingletons();
+
+		assertEquals(new LinkedHashSet<>(Arrays.asList("cycle1", "cycle2", "autowired")), new LinkedHashSet<>(instantiated));
+		String callingThread = Thread.currentThread().getName();
+		assertEquals(callingThread, ((RecordingBean) this.beanFactory.getBean("cycle1")).getCreatingThread());
+		assertEquals(callingThread, ((RecordingBean) this.beanFactory.getBean("autowired")).getCreatingThread());
+	}
+
+	@Test
+	public void dependentsOfUnknownDependenciesInstantiatedInCallingThread() {
+		List<String> instantiated = Collections.synchronizedList(new ArrayList<>());
+		RootBeanDefinition autowired = new RootBeanDefinition(RecordingBean.class);
+		autowired.setAutowireMode(AutowireCapableBeanFactory.AUTOWIRE_BY_NAME);
+		autowired.getConstructorArgumentValues().addGenericArgumentValue("autowired");
+		autowired.getConstructorArgumentValues().addGenericArgumentValue(instantiated);
+		this.beanFactory.registerBeanDefinition("autowired", autowired);
+		registerRecordingBean("dependent", instantiated, "autowired");
+		registerRecordingBean("lazyDependent", instantiated, "lazy");
+		registerRecordingBean("lazy", instantiated);
+		this.beanFactory.getBeanDefinition("lazy").setLazyInit(true);
+
+		this.beanFactory.preInstantiateSingletons();
+
+		String callingThread = Thread.currentThread().getName();
+		assertEquals(callingThread, ((RecordingBean) this.beanFactory.getBean("dependent")).getCreatingThread());
+		assertEquals(callingThread, ((RecordingBean) this.beanFactory.getBean("lazyDependent")).getCreatingThread());
+		assertEquals(callingThread, ((RecordingBean) this.beanFactory.getBean("lazy")).getCreatingThread());
+	}
+
+	@Test
+	public void annotationDrivenDependencies() {
+		this.beanFactory.setAutowireCandidateResolver(new QualifierAnnotationAutowireCandidateResolver());
+		AutowiredAnnotationBeanPostProcessor bpp = new AutowiredAnnotationBeanPostProcessor();
+		bpp.setBeanFactory(this.beanFactory);
+		this.beanFactory.addBeanPostProcessor(bpp);
+		RootBeanDefinition bd = new RootBeanDefinition(AutowiredBean.class);
+		this.beanFactory.registerBeanDefinition("autowired", bd);
+		this.beanFactory.registerBeanDefinition("dependency", new RootBeanDefinition(Dependency.class));
+		this.beanFactory.registerBeanDefinition("otherDependency", new RootBeanDefinition(Dependency.class));
+		RootBeanDefinition expressionBd = new RootBeanDefinition(ExpressionBean.class);
+		this.beanFactory.registerBeanDefinition("expression", expressionBd);
+
+		assertEquals(new LinkedHashSet<>(Arrays.asList("dependency", "otherDependency")),
+				this.beanFactory.determineStaticDependencies("autowired", bd));
+		assertNull(this.beanFactory.determineStaticDependencies("expression", expressionBd));
+
+		this.beanFactory.preInstantiateSingletons();
+		AutowiredBean autowired = this.beanFactory.getBean(AutowiredBean.class);
+		assertEquals(2, autowired.dependencies.size());
+		assertSame(autowired, autowired.provider.getIfAvailable());
+	}
+
+	@Test
+	public void annotationDrivenDependenciesDoNotInitializeFactoryBeans() {
+		AutowiredAnnotationBeanPostProcessor bpp = new AutowiredAnnotationBeanPostProcessor();
+		bpp.setBeanFactory(this.beanFactory);
+		this.beanFactory.addBeanPostProcessor(bpp);
+		RootBeanDefinition bd = new RootBeanDefinition(AutowiredBean.class);
+		this.beanFactory.registerBeanDefinition("autowired", bd);
+		this.beanFactory.registerBeanDefinition("factory", new RootBeanDefinition(DependencyFactoryBean.class));
+
+		DependencyFactoryBean.instantiated = false;
+		this.beanFactory.determineStaticDependencies("autowired", bd);
+		assertFalse(DependencyFactoryBean.instantiated);
+
+		this.beanFactory.preInstantiateSingletons();
+		assertEquals(1, this.beanFactory.getBean(AutowiredBean.class).dependencies.size());
+	}
+
+	@Test
+	public void unknownInstantiationAwareBeanPostProcessor() {
+		this.beanFactory.addBeanPostProcessor(new InstantiationAwareBeanPostProcessorAdapter() {});
+		RootBeanDefinition bd = new RootBeanDefinition(TestBean.class);
+		this.beanFactory.registerBeanDefinition("tb", bd);
+
+		assertNull(this.beanFactory.determineStaticDependencies("tb", bd));
+	}
+
+	@Test(expected = BeanCreationException.class)
+	public void failureInExecutorPropagated() {
+		registerRecordingBean("ok", new ArrayList<>());
+		RootBeanDefinition bd = new RootBeanDefinition(TestBean.class);
+		bd.setInitMethodName("missingInitMethod");
+		this.beanFactory.registerBeanDefinition("failing", bd);
+
+		this.beanFactory.preInstantiateSingletons();
+	}
+
+	@Test
+	public void rejectedSingletonsInstantiatedInCallingThread() {
+		this.executor.shutdown();
+		List<String> instantiated = Collections.synchronizedList(new ArrayList<>());
+		registerRecordingBean("a", instantiated, "b");
+		registerRecordingBean("b", instantiated);
+
+		this.beanFactory.preInstantiateSingletons();
+
+		assertEquals(Arrays.asList("b", "a"), instantiated);
+		String callingThread = Thread.currentThread().getName();
+		assertEquals(callingThread, ((RecordingBean) this.beanFactory.getBean("a")).getCreatingThread());
+		assertEquals(callingThread, ((RecordingBean) this.beanFactory.getBean("b")).getCreatingThread());
+	}
+
+	@Test
+	public void contextClassLoaderPropagated() throws Exception {
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			// Start the executor thread with the current context ClassLoader
+			ClassLoader previousClassLoader = executor.submit(() -> Thread.currentThread().getContextClassLoader()).get();
+			this.beanFactory.setBootstrapExecutor(executor);
+			this.beanFactory.registerBeanDefinition("bean", new RootBeanDefinition(ClassLoaderRecordingBean.class));
+			ClassLoader classLoader = new ClassLoader(previousClassLoader) {};
+			Thread.currentThread().setContextClassLoader(classLoader);
+			try {
+				this.beanFactory.preInstantiateSingletons();
+			}
+			finally {
+				Thread.currentThread().setContextClassLoader(previousClassLoader);
+			}
+
+			ClassLoaderRecordingBean bean = this.beanFactory.getBean(ClassLoaderRecordingBean.class);
+			assertNotSame(Thread.currentThread(), bean.creatingThread);
+			assertSame(classLoader, bean.contextClassLoader);
+			assertSame(previousClassLoader, executor.submit(() -> Thread.currentThread().getContextClassLoader()).get());
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void staticDependencies() {
+		RootBeanDefinition inner = new RootBeanDefinition(TestBean.class);
+		inner.getPropertyValues().add("spouse", new RuntimeBeanReference("innerRef"));
+		ManagedList<Object> list = new ManagedList<>();
+		list.add(new RuntimeBeanReference("listRef"));
+		list.add(new BeanDefinitionHolder(inner, "inner"));
+		RootBeanDefinition bd = new RootBeanDefinition(TestBean.class);
+		bd.setDependsOn("dependsOn");
+		bd.getConstructorArgumentValues().addGenericArgumentValue(new RuntimeBeanReference("argRef"));
+		bd.getPropertyValues().add("someList", list);
+		bd.getPropertyValues().add("spouse", new RuntimeBeanReference("parentRef", true));
+		this.beanFactory.registerBeanDefinition("tb", bd);
+		this.beanFactory.registerAlias("argRef", "alias");
+		this.beanFactory.registerDependentBean("recorded", "tb");
+
+		Set<String> dependencies = this.beanFactory.determineStaticDependencies("tb", bd);
+		assertEquals(new LinkedHashSet<>(Arrays.asList("dependsOn", "argRef", "listRef", "innerRef", "recorded")),
+				dependencies);
+
+		bd.setAutowireMode(AutowireCapableBeanFactory.AUTOWIRE_BY_TYPE);
+		assertNull(this.beanFactory.determineStaticDependencies("tb", bd));
+	}
+
+	private void registerRecordingBean(String beanName, List<String> instantiated, String... references) {
+		RootBeanDefinition bd = new RootBeanDefinition(RecordingBean.class);
+		bd.getConstructorArgumentValues().addGenericArgumentValue(beanName);
+		bd.getConstructorArgumentValues().addGenericArgumentValue(instantiated);
+		ManagedList<Object> list = new ManagedList<>();
+		for (String reference : references) {
+			list.add(new RuntimeBeanReference(reference));
+		}
+		bd.getPropertyValues().add("someList", list);
+		this.beanFactory.registerBeanDefinition(beanName, bd);
+	}
+
+
+	public static class Dependency {
+	}
+
+
+	public static class DependencyFactoryBean implements FactoryBean<Dependency> {
+
+		static volatile boolean instantiated;
+
+		public DependencyFactoryBean() {
+			instantiated = true;
+		}
+
+		@Override
+		public Dependency getObject() {
+			return new Dependency();
+		}
+
+		@Override
+		public Class<?> getObjectType() {
+			return Dependency.class;
+		}
+	}
+
+
+	public static class AutowiredBean {
+
+		@Autowired
+		List<Dependency> dependencies;
+
+		@Autowired
+		ObjectProvider<AutowiredBean> provider;
+	}
+
+
+	public static class ExpressionBean {
+
+		@Value("#{dependency.toString()}")
+		String dependency;
+	}
+
+
+	public static class ClassLoaderRecordingBean {
+
+		final Thread creatingThread = Thread.currentThread();
+
+		final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+	}
+
+
+	public static class BarrierBean {
+
+		public BarrierBean(CyclicBarrier barrier) throws Exception {
+			// Times out unless all instances are created concurrently
+			barrier.await(10, TimeUnit.SECONDS);
+		}
+	}
+
+
+	public static class RecordingBean extends TestBean implements InitializingBean {
+
+		private final String beanName;
+
+		private final List<String> instantiated;
+
+		private final String creatingThread = Thread.currentThread().getName();
+
+		public RecordingBean(String beanName, List<String> instantiated) {
+			this.beanName = beanName;
+			this.instantiated = instantiated;
+		}
+
+		public String getCreatingThread() {
+			return this.creatingThread;
+		}
+
+		@Override
+		public void afterPropertiesSet() {
+			this.instantiated.add(this.beanName);
+		}
+	}
+
+}
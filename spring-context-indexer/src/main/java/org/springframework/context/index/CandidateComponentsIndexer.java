@@ -22,7 +22,9 @@ import java.util.Collections;
 import java.util.EnumSet;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import javax.annotation.processing.Completion;
 import javax.annotation.processing.ProcessingEnvironment;
 import javax.annotation.processing.Processor;
@@ -39,6 +41,10 @@ import javax.lang.model.element.TypeElement;
  * Annotation {@link Processor} that writes {@link CandidateComponentsMetadata}
  * file for spring components.
  *
+ * <p>As of 5.1, also writes the class metadata of annotated types to
+ * {@code META-INF/spring.metadata}, allowing annotation metadata to be
+ * served without reading class files at runtime.
+ *
  * @author Stephane Nicoll
  * @author Juergen Hoeller
  * @since 5.0
@@ -57,6 +63,12 @@ public class CandidateComponentsIndexer implements Processor {
 
 	private List<StereotypesProvider> stereotypesProviders;
 
+	private ClassMetadataStore classMetadataStore;
+
+	private ClassMetadataEncoder classMetadataEncoder;
+
+	private final Map<String, byte[]> classMetadata = new TreeMap<>();
+
 
 	@Override
 	public Set<String> getSupportedOptions() {
@@ -79,6 +91,8 @@ public class CandidateComponentsIndexer implements Processor {
 		this.typeHelper = new TypeHelper(env);
 		this.metadataStore = new MetadataStore(env);
 		this.metadataCollector = new MetadataCollector(env, this.metadataStore.readMetadata());
+		this.classMetadataStore = new ClassMetadataStore(env);
+		this.classMetadataEncoder = new ClassMetadataEncoder(env);
 	}
 
 	@Override
@@ -119,6 +133,13 @@ public class CandidateComponentsIndexer implements Processor {
 		if (!stereotypes.isEmpty()) {
 			this.metadataCollector.add(new ItemMetadata(this.typeHelper.getType(element), stereotypes));
 		}
+		if (TYPE_KINDS.contains(element.getKind())) {
+			TypeElement type = (TypeElement) element;
+			byte[] encoded = this.classMetadataEncoder.encode(type);
+			if (encoded != null) {
+				this.classMetadata.put(this.classMetadataEncoder.getClassName(type), encoded);
+			}
+		}
 	}
 
 	private void writeMetaData() {
@@ -131,6 +152,22 @@ public class CandidateComponentsIndexer implements Processor {
 				throw new IllegalStateException("Failed to write metadata", ex);
 			}
 		}
+		Map<String, byte[]> previousClassMetadata = this.classMetadataStore.readMetadata();
+		if (previousClassMetadata != null) {
+			previousClassMetadata.forEach((type, encoded) -> {
+				if (this.metadataCollector.shouldBeMerged(type)) {
+					this.classMetadata.putIfAbsent(type, encoded);
+				}
+			});
+		}
+		if (!this.classMetadata.isEmpty()) {
+			try {
+				this.classMetadataStore.writeMetadata(this.classMetadata);
+			}
+			catch (IOException ex) {
+				throw new IllegalStateException("Failed to write class metadata", ex);
+			}
+		}
 	}
 
 	private static List<TypeElement> staticTypesIn(Iterable<? extends Element> elements) {
@@ -0,0 +1,430 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.SimpleAnnotationValueVisitor8;
+import javax.lang.model.util.Types;
+
+/**
+ * Encode the class file information that Spring's annotation metadata reading
+ * consumes for a given type, as read by
+ * {@code org.springframework.core.type.classreading.IndexedMetadataReader}:
+ * the class header, member classes, directly declared annotations and
+ * annotated methods and constructors.
+ *
+ * <p>Only annotations retained in the class file are recorded, and only the
+ * explicitly declared attribute values, mirroring the class file content.
+ *
+ * @since 5.1
+ */
+class ClassMetadataEncoder {
+
+	// Class file access flags, as defined by the JVM specification
+
+	private static final int ACC_PUBLIC = 0x0001;
+
+	private static final int ACC_PRIVATE = 0x0002;
+
+	private static final int ACC_PROTECTED = 0x0004;
+
+	private static final int ACC_STATIC = 0x0008;
+
+	private static final int ACC_FINAL = 0x0010;
+
+	private static final int ACC_SUPER = 0x0020;
+
+	private static final int ACC_SYNCHRONIZED = 0x0020;
+
+	private static final int ACC_VARARGS = 0x0080;
+
+	private static final int ACC_NATIVE = 0x0100;
+
+	private static final int ACC_INTERFACE = 0x0200;
+
+	private static final int ACC_ABSTRACT = 0x0400;
+
+	private static final int ACC_ANNOTATION = 0x2000;
+
+	private static final int ACC_ENUM = 0x4000;
+
+
+	private final Elements elements;
+
+	private final Types types;
+
+
+	public ClassMetadataEncoder(ProcessingEnvironment env) {
+		this.elements = env.getElementUtils();
+		this.types = env.getTypeUtils();
+	}
+
+
+	/**
+	 * Return the binary name of the given type, as used for index keys.
+	 */
+	public String getClassName(TypeElement type) {
+		return this.elements.getBinaryName(type).toString();
+	}
+
+	/**
+	 * Encode the metadata of the given type.
+	 * @param type the type to encode
+	 * @return the encoded metadata, or {@code null} if the type has no annotations
+	 * retained in the class file or refers to types that cannot be resolved
+	 */
+	public byte[] encode(TypeElement type) {
+		List<AnnotationMirror> annotations = getRetainedAnnotations(type);
+		List<ExecutableElement> annotatedMethods = new ArrayList<>();
+		for (Element member : type.getEnclosedElements()) {
+			if ((member.getKind() == ElementKind.METHOD || member.getKind() == ElementKind.CONSTRUCTOR) &&
+					!getRetainedAnnotations(member).isEmpty()) {
+				annotatedMethods.add((ExecutableElement) member);
+			}
+		}
+		if (annotations.isEmpty() && annotatedMethods.isEmpty()) {
+			return null;
+		}
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+		DataOutputStream out = new DataOutputStream(bytes);
+		try {
+			out.writeInt(getClassAccess(type));
+			out.writeUTF(getInternalName(type));
+			TypeMirror superclass = type.getSuperclass();
+			writeNullableString(out, (superclass instanceof DeclaredType ?
+					getInternalName((TypeElement) ((DeclaredType) superclass).asElement()) : null));
+			List<? extends TypeMirror> interfaces = type.getInterfaces();
+			out.writeShort(interfaces.size());
+			for (TypeMirror ifc : interfaces) {
+				out.writeUTF(getInternalName((TypeElement) ((DeclaredType) ifc).asElement()));
+			}
+			writeAnnotations(out, annotations);
+			writeInnerClasses(out, type);
+			out.writeShort(annotatedMethods.size());
+			for (ExecutableElement method : annotatedMethods) {
+				out.writeInt(getMethodAccess(method));
+				out.writeUTF(method.getKind() == ElementKind.CONSTRUCTOR ? "<init>" : method.getSimpleName().toString());
+				out.writeUTF(getMethodDescriptor(method));
+				writeAnnotations(out, getRetainedAnnotations(method));
+			}
+			out.flush();
+		}
+		catch (UnresolvableTypeException ex) {
+			return null;
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+		return bytes.toByteArray();
+	}
+
+	private void writeInnerClasses(DataOutputStream out, TypeElement type) throws IOException {
+		List<TypeElement> innerClasses = new ArrayList<>();
+		if (type.getEnclosingElement() instanceof TypeElement) {
+			innerClasses.add(type);
+		}
+		for (Element member : type.getEnclosedElements()) {
+			if (member instanceof TypeElement) {
+				innerClasses.add((TypeElement) member);
+			}
+		}
+		out.writeShort(innerClasses.size());
+		for (TypeElement innerClass : innerClasses) {
+			out.writeUTF(getInternalName(innerClass));
+			writeNullableString(out, getInternalName((TypeElement) innerClass.getEnclosingElement()));
+			writeNullableString(out, innerClass.getSimpleName().toString());
+			out.writeInt(getInnerClassAccess(innerClass));
+		}
+	}
+
+	private void writeAnnotations(DataOutputStream out, List<AnnotationMirror> annotations) throws IOException {
+		out.writeShort(annotations.size());
+		for (AnnotationMirror annotation : annotations) {
+			out.writeUTF(getDescriptor(annotation.getAnnotationType()));
+			out.writeBoolean(getRetentionPolicy(annotation) == RetentionPolicy.RUNTIME);
+			writeAnnotationValues(out, annotation);
+		}
+	}
+
+	private void writeAnnotationValues(DataOutputStream out, AnnotationMirror annotation) throws IOException {
+		Map<? extends ExecutableElement, ? extends AnnotationValue> values = annotation.getElementValues();
+		out.writeShort(values.size());
+		for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : values.entrySet()) {
+			out.writeUTF(entry.getKey().getSimpleName().toString());
+			writeValue(out, entry.getValue(), entry.getKey().getReturnType());
+		}
+	}
+
+	private void writeValue(DataOutputStream out, AnnotationValue value, TypeMirror valueType) {
+		value.accept(new SimpleAnnotationValueVisitor8<Void, Void>() {
+			@Override
+			public Void visitBoolean(boolean b, Void p) {
+				return write('Z', () -> out.writeBoolean(b));
+			}
+			@Override
+			public Void visitByte(byte b, Void p) {
+				return write('B', () -> out.writeByte(b));
+			}
+			@Override
+			public Void visitChar(char c, Void p) {
+				return write('C', () -> out.writeChar(c));
+			}
+			@Override
+			public Void visitShort(short s, Void p) {
+				return write('S', () -> out.writeShort(s));
+			}
+			@Override
+			public Void visitInt(int i, Void p) {
+				return write('I', () -> out.writeInt(i));
+			}
+			@Override
+			public Void visitLong(long i, Void p) {
+				return write('J', () -> out.writeLong(i));
+			}
+			@Override
+			public Void visitFloat(float f, Void p) {
+				return write('F', () -> out.writeFloat(f));
+			}
+			@Override
+			public Void visitDouble(double d, Void p) {
+				return write('D', () -> out.writeDouble(d));
+			}
+			@Override
+			public Void visitString(String s, Void p) {
+				return write('s', () -> out.writeUTF(s));
+			}
+			@Override
+			public Void visitType(TypeMirror t, Void p) {
+				return write('c', () -> out.writeUTF(getDescriptor(t)));
+			}
+			@Override
+			public Void visitEnumConstant(VariableElement c, Void p) {
+				return write('e', () -> {
+					out.writeUTF(getDescriptor(c.asType()));
+					out.writeUTF(c.getSimpleName().toString());
+				});
+			}
+			@Override
+			public Void visitAnnotation(AnnotationMirror a, Void p) {
+				return write('@', () -> {
+					out.writeUTF(getDescriptor(a.getAnnotationType()));
+					writeAnnotationValues(out, a);
+				});
+			}
+			@Override
+			public Void visitArray(List<? extends AnnotationValue> vals, Void p) {
+				TypeMirror componentType = ((ArrayType) valueType).getComponentType();
+				return write('[', () -> {
+					out.writeShort(vals.size());
+					out.writeByte(getComponentTag(componentType));
+					for (AnnotationValue val : vals) {
+						writeValue(out, val, componentType);
+					}
+				});
+			}
+			@Override
+			protected Void defaultAction(Object o, Void p) {
+				throw new UnresolvableTypeException();
+			}
+			private Void write(char tag, ValueWriter writer) {
+				try {
+					out.writeByte(tag);
+					writer.write();
+				}
+				catch (IOException ex) {
+					throw new UncheckedIOException(ex);
+				}
+				return null;
+			}
+		}, null);
+	}
+
+	private char getComponentTag(TypeMirror componentType) {
+		switch (componentType.getKind()) {
+			case BOOLEAN: return 'Z';
+			case BYTE: return 'B';
+			case CHAR: return 'C';
+			case SHORT: return 'S';
+			case INT: return 'I';
+			case LONG: return 'J';
+			case FLOAT: return 'F';
+			case DOUBLE: return 'D';
+			default: return 'L';
+		}
+	}
+
+	private List<AnnotationMirror> getRetainedAnnotations(Element element) {
+		List<AnnotationMirror> result = new ArrayList<>();
+		for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+			if (getRetentionPolicy(annotation) != RetentionPolicy.SOURCE) {
+				result.add(annotation);
+			}
+		}
+		return result;
+	}
+
+	private RetentionPolicy getRetentionPolicy(AnnotationMirror annotation) {
+		Retention retention = annotation.getAnnotationType().asElement().getAnnotation(Retention.class);
+		return (retention != null ? retention.value() : RetentionPolicy.CLASS);
+	}
+
+	private int getClassAccess(TypeElement type) {
+		Set<Modifier> modifiers = type.getModifiers();
+		int access = (modifiers.contains(Modifier.PUBLIC) || modifiers.contains(Modifier.PROTECTED) ? ACC_PUBLIC : 0);
+		switch (type.getKind()) {
+			case ANNOTATION_TYPE:
+				return access | ACC_ANNOTATION | ACC_INTERFACE | ACC_ABSTRACT;
+			case INTERFACE:
+				return access | ACC_INTERFACE | ACC_ABSTRACT;
+			case ENUM:
+				return access | ACC_ENUM | ACC_SUPER | (modifiers.contains(Modifier.FINAL) ? ACC_FINAL : 0);
+			default:
+				return access | ACC_SUPER | (modifiers.contains(Modifier.FINAL) ? ACC_FINAL : 0) |
+						(modifiers.contains(Modifier.ABSTRACT) ? ACC_ABSTRACT : 0);
+		}
+	}
+
+	private int getInnerClassAccess(TypeElement type) {
+		Set<Modifier> modifiers = type.getModifiers();
+		int access = getVisibility(modifiers);
+		if (modifiers.contains(Modifier.STATIC) || type.getKind() != ElementKind.CLASS ||
+				type.getEnclosingElement().getKind().isInterface()) {
+			access |= ACC_STATIC;
+		}
+		return access | (getClassAccess(type) & ~(ACC_PUBLIC | ACC_SUPER));
+	}
+
+	private int getMethodAccess(ExecutableElement method) {
+		Set<Modifier> modifiers = method.getModifiers();
+		int access = getVisibility(modifiers);
+		if (modifiers.contains(Modifier.STATIC)) {
+			access |= ACC_STATIC;
+		}
+		if (modifiers.contains(Modifier.FINAL)) {
+			access |= ACC_FINAL;
+		}
+		if (modifiers.contains(Modifier.SYNCHRONIZED)) {
+			access |= ACC_SYNCHRONIZED;
+		}
+		if (modifiers.contains(Modifier.NATIVE)) {
+			access |= ACC_NATIVE;
+		}
+		if (modifiers.contains(Modifier.ABSTRACT)) {
+			access |= ACC_ABSTRACT;
+		}
+		if (method.isVarArgs()) {
+			access |= ACC_VARARGS;
+		}
+		if (method.getEnclosingElement().getKind().isInterface() && (access & ACC_PRIVATE) == 0) {
+			access |= ACC_PUBLIC;
+			if (!modifiers.contains(Modifier.STATIC) && !modifiers.contains(Modifier.DEFAULT)) {
+				access |= ACC_ABSTRACT;
+			}
+		}
+		return access;
+	}
+
+	private int getVisibility(Set<Modifier> modifiers) {
+		if (modifiers.contains(Modifier.PUBLIC)) {
+			return ACC_PUBLIC;
+		}
+		if (modifiers.contains(Modifier.PROTECTED)) {
+			return ACC_PROTECTED;
+		}
+		if (modifiers.contains(Modifier.PRIVATE)) {
+			return ACC_PRIVATE;
+		}
+		return 0;
+	}
+
+	private String getMethodDescriptor(ExecutableElement method) {
+		StringBuilder descriptor = new StringBuilder("(");
+		for (VariableElement parameter : method.getParameters()) {
+			descriptor.append(getDescriptor(parameter.asType()));
+		}
+		return descriptor.append(')').append(getDescriptor(method.getReturnType())).toString();
+	}
+
+	private String getDescriptor(TypeMirror type) {
+		TypeMirror erased = this.types.erasure(type);
+		switch (erased.getKind()) {
+			case BOOLEAN: return "Z";
+			case BYTE: return "B";
+			case CHAR: return "C";
+			case SHORT: return "S";
+			case INT: return "I";
+			case LONG: return "J";
+			case FLOAT: return "F";
+			case DOUBLE: return "D";
+			case VOID: return "V";
+			case ARRAY: return "[" + getDescriptor(((ArrayType) erased).getComponentType());
+			case DECLARED: return "L" + getInternalName((TypeElement) ((DeclaredType) erased).asElement()) + ";";
+			default: throw new UnresolvableTypeException();
+		}
+	}
+
+	private String getInternalName(TypeElement type) {
+		return getClassName(type).replace('.', '/');
+	}
+
+	private static void writeNullableString(DataOutputStream out, String value) throws IOException {
+		out.writeBoolean(value != null);
+		if (value != null) {
+			out.writeUTF(value);
+		}
+	}
+
+
+	@FunctionalInterface
+	private interface ValueWriter {
+
+		void write() throws IOException;
+	}
+
+
+	/**
+	 * Thrown if a type cannot be resolved in the current compilation,
+	 * in which case the type is left to class file parsing at runtime.
+	 */
+	@SuppressWarnings("serial")
+	private static class UnresolvableTypeException extends RuntimeException {
+	}
+
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Store encoded class metadata on the filesystem, in the binary format read by
+ * {@code org.springframework.core.type.classreading.ClassMetadataIndex}.
+ *
+ * @since 5.1
+ * @see ClassMetadataEncoder
+ */
+class ClassMetadataStore {
+
+	static final String METADATA_PATH = "META-INF/spring.metadata";
+
+	// Must match the header expected by ClassMetadataIndex in spring-core
+
+	static final int MAGIC = 0x53504D49;
+
+	static final int VERSION = 1;
+
+
+	private final ProcessingEnvironment environment;
+
+
+	public ClassMetadataStore(ProcessingEnvironment environment) {
+		this.environment = environment;
+	}
+
+
+	public Map<String, byte[]> readMetadata() {
+		try (InputStream in = getMetadataResource().openInputStream()) {
+			return read(in);
+		}
+		catch (IOException ex) {
+			// Failed to read metadata -> ignore.
+			return null;
+		}
+	}
+
+	public void writeMetadata(Map<String, byte[]> metadata) throws IOException {
+		if (!metadata.isEmpty()) {
+			try (OutputStream outputStream = createMetadataResource().openOutputStream()) {
+				write(metadata, outputStream);
+			}
+		}
+	}
+
+
+	static Map<String, byte[]> read(InputStream in) throws IOException {
+		DataInputStream dataIn = new DataInputStream(new BufferedInputStream(in));
+		if (dataIn.readInt() != MAGIC || dataIn.readInt() != VERSION) {
+			throw new IOException("Unsupported class metadata format");
+		}
+		int count = dataIn.readInt();
+		Map<String, byte[]> metadata = new LinkedHashMap<>(count);
+		for (int i = 0; i < count; i++) {
+			String className = dataIn.readUTF();
+			byte[] entry = new byte[dataIn.readInt()];
+			dataIn.readFully(entry);
+			metadata.put(className, entry);
+		}
+		return metadata;
+	}
+
+	static void write(Map<String, byte[]> metadata, OutputStream out) throws IOException {
+		DataOutputStream dataOut = new DataOutputStream(out);
+		dataOut.writeInt(MAGIC);
+		dataOut.writeInt(VERSION);
+		dataOut.writeInt(metadata.size());
+		for (Map.Entry<String, byte[]> entry : metadata.entrySet()) {
+			dataOut.writeUTF(entry.getKey());
+			dataOut.writeInt(entry.getValue().length);
+			dataOut.write(entry.getValue());
+		}
+		dataOut.flush();
+	}
+
+	private FileObject getMetadataResource() throws IOException {
+		return this.environment.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", METADATA_PATH);
+	}
+
+	private FileObject createMetadataResource() throws IOException {
+		return this.environment.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", METADATA_PATH);
+	}
+
+}
@@ -91,7 +91,14 @@ class MetadataCollector {
 	}
 
 	private boolean shouldBeMerged(ItemMetadata itemMetadata) {
-		String sourceType = itemMetadata.getType();
+		return shouldBeMerged(itemMetadata.getType());
+	}
+
+	/**
+	 * Determine whether previous metadata for the given type should be kept,
+	 * i.e. whether the type still exists but has not been processed in this build.
+	 */
+	public boolean shouldBeMerged(String sourceType) {
 		return (sourceType != null && !deletedInCurrentBuild(sourceType)
 				&& !processedInCurrentBuild(sourceType));
 	}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.index.sample.SampleComponent;
+import org.springframework.context.index.sample.SampleConfiguration;
+import org.springframework.context.index.sample.SampleEmbedded;
+import org.springframework.context.index.test.TestCompiler;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.MethodMetadata;
+import org.springframework.core.type.classreading.CachingMetadataReaderFactory;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.SimpleMetadataReaderFactory;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the class metadata written by {@link CandidateComponentsIndexer}
+ * and read by {@link CachingMetadataReaderFactory}.
+ *
+ * @since 5.1
+ */
+public class ClassMetadataIndexTests {
+
+	private static final String NESTED_CONFIGURATION = SampleConfiguration.class.getName() + "$NestedConfiguration";
+
+	private TestCompiler compiler;
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+
+	@Before
+	public void createCompiler() throws IOException {
+		this.compiler = new TestCompiler(this.temporaryFolder);
+	}
+
+
+	@Test
+	public void annotatedTypesAreIndexed() throws IOException {
+		Map<String, byte[]> metadata = compile(SampleConfiguration.class, SampleEmbedded.class);
+		assertEquals(Arrays.asList(SampleConfiguration.class.getName(), NESTED_CONFIGURATION,
+				SampleEmbedded.Another.AnotherPublicCandidate.class.getName(),
+				SampleEmbedded.PublicCandidate.class.getName()), new ArrayList<>(metadata.keySet()));
+	}
+
+	@Test
+	public void indexedMetadataMatchesClassFile() throws IOException {
+		compile(SampleConfiguration.class, SampleComponent.class);
+		ClassLoader classLoader = new URLClassLoader(
+				new URL[] {this.compiler.getOutputLocation().toURI().toURL()}, getClass().getClassLoader());
+		CachingMetadataReaderFactory indexed = new CachingMetadataReaderFactory(classLoader);
+		SimpleMetadataReaderFactory parsed = new SimpleMetadataReaderFactory(classLoader);
+
+		for (String className : Arrays.asList(SampleConfiguration.class.getName(),
+				NESTED_CONFIGURATION, SampleComponent.class.getName())) {
+			MetadataReader indexedReader = indexed.getMetadataReader(className);
+			MetadataReader parsedReader = parsed.getMetadataReader(className);
+			assertNotEquals(parsedReader.getClass(), indexedReader.getClass());
+			assertEquals(parsedReader.getResource(), indexedReader.getResource());
+			assertSameMetadata(parsedReader.getAnnotationMetadata(), indexedReader.getAnnotationMetadata());
+		}
+	}
+
+	@Test
+	public void indexWithoutMatchingClassFallsBackToClassFile() throws IOException {
+		compile(SampleConfiguration.class);
+		ClassLoader classLoader = new URLClassLoader(
+				new URL[] {this.compiler.getOutputLocation().toURI().toURL()}, getClass().getClassLoader());
+		CachingMetadataReaderFactory factory = new CachingMetadataReaderFactory(classLoader);
+		MetadataReader reader = factory.getMetadataReader(ClassMetadataIndexTests.class.getName());
+		assertEquals(ClassMetadataIndexTests.class.getName(), reader.getClassMetadata().getClassName());
+	}
+
+
+	private void assertSameMetadata(AnnotationMetadata expected, AnnotationMetadata actual) {
+		assertEquals(expected.getClassName(), actual.getClassName());
+		assertEquals(expected.isInterface(), actual.isInterface());
+		assertEquals(expected.isAbstract(), actual.isAbstract());
+		assertEquals(expected.isFinal(), actual.isFinal());
+		assertEquals(expected.isIndependent(), actual.isIndependent());
+		assertEquals(expected.getEnclosingClassName(), actual.getEnclosingClassName());
+		assertEquals(expected.getSuperClassName(), actual.getSuperClassName());
+		assertArrayEquals(expected.getInterfaceNames(), actual.getInterfaceNames());
+		assertArrayEquals(expected.getMemberClassNames(), actual.getMemberClassNames());
+		assertEquals(expected.getAnnotationTypes(), actual.getAnnotationTypes());
+		for (String annotationType : expected.getAnnotationTypes()) {
+			assertEquals(expected.getMetaAnnotationTypes(annotationType), actual.getMetaAnnotationTypes(annotationType));
+			assertEquals(String.valueOf(expected.getAnnotationAttributes(annotationType, false)),
+					String.valueOf(actual.getAnnotationAttributes(annotationType, false)));
+			assertEquals(String.valueOf(expected.getAnnotationAttributes(annotationType, true)),
+					String.valueOf(actual.getAnnotationAttributes(annotationType, true)));
+		}
+		assertEquals(describe(expected.getAnnotatedMethods(Bean.class.getName())),
+				describe(actual.getAnnotatedMethods(Bean.class.getName())));
+	}
+
+	private Map<String, String> describe(Set<MethodMetadata> methods) {
+		Map<String, String> description = new TreeMap<>();
+		for (MethodMetadata method : methods) {
+			description.put(method.getMethodName(), method.getReturnTypeName() + " static=" + method.isStatic() +
+					" final=" + method.isFinal() + " overridable=" + method.isOverridable() + " " +
+					method.getAnnotationAttributes(Bean.class.getName()));
+		}
+		return description;
+	}
+
+	private Map<String, byte[]> compile(Class<?>... types) throws IOException {
+		CandidateComponentsIndexer processor = new CandidateComponentsIndexer();
+		this.compiler.getTask(types).call(processor);
+		File file = new File(this.compiler.getOutputLocation(), ClassMetadataStore.METADATA_PATH);
+		assertTrue("Class metadata not generated", file.exists());
+		try (InputStream in = new FileInputStream(file)) {
+			return ClassMetadataStore.read(in);
+		}
+	}
+
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index.sample;
+
+import java.io.Serializable;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.annotation.Scope;
+import org.springframework.context.annotation.ScopedProxyMode;
+import org.springframework.core.annotation.Order;
+
+/**
+ * Test candidate for the class metadata index.
+ *
+ * @since 5.1
+ */
+@Configuration
+@Import(SampleComponent.class)
+@ComponentScan(basePackageClasses = SampleComponent.class, lazyInit = true,
+		excludeFilters = @ComponentScan.Filter(classes = SampleService.class))
+@Profile({"dev", "test"})
+public class SampleConfiguration implements Serializable {
+
+	public SampleConfiguration() {
+	}
+
+	@Lazy
+	public SampleConfiguration(SampleComponent component, int[] values) {
+	}
+
+	@Bean({"sample", "sampleAlias"})
+	@Scope(proxyMode = ScopedProxyMode.TARGET_CLASS)
+	public SampleComponent sampleComponent() {
+		return new SampleComponent();
+	}
+
+	@Bean
+	@Order(42)
+	static String sampleString(SampleComponent component) {
+		return "sample";
+	}
+
+	public String notABean() {
+		return "none";
+	}
+
+
+	@Configuration
+	protected static class NestedConfiguration {
+
+		@Bean(destroyMethod = "")
+		public final SampleService sampleService() {
+			return new SampleService();
+		}
+	}
+
+}
@@ -0,0 +1,863 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.MutablePropertyValues;
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.config.ConstructorArgumentValues;
+import org.springframework.beans.factory.config.ConstructorArgumentValues.ValueHolder;
+import org.springframework.beans.factory.config.RuntimeBeanNameReference;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.beans.factory.config.TypedStringValue;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.GenericBeanDefinition;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.core.SpringProperties;
+import org.springframework.core.io.UrlResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.MethodMetadata;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Build-time snapshot of the bean definitions that configuration class processing
+ * derives from a given set of {@link Configuration @Configuration} classes, allowing
+ * {@link ConfigurationClassPostProcessor} to register them directly instead of
+ * parsing the configuration classes on every startup.
+ *
+ * <p>Snapshots are generated through {@link BeanDefinitionSnapshotGenerator} and
+ * stored in {@value #SNAPSHOT_RESOURCE_LOCATION}, in the properties format also
+ * used for the {@code META-INF/spring.components} index. A snapshot can only be
+ * generated if processing is deterministic, i.e. if no {@link Conditional @Conditional}
+ * (including {@link Profile @Profile}) annotations have to be evaluated, and if all
+ * resulting bean definitions consist of plain values and bean references, and if
+ * no {@link PropertySource @PropertySource}, {@link ComponentScan @ComponentScan},
+ * {@link ImportResource @ImportResource} or {@link ImportSelector ImportSelector}
+ * declarations have to be processed.
+ *
+ * <p>Each snapshot records a digest of the class files it was derived from. A snapshot
+ * is only used if these class files are unchanged at runtime, so a snapshot that has
+ * not been regenerated after a change to its configuration classes is ignored.
+ * Snapshots are only considered if enabled through
+ * {@link ConfigurationClassPostProcessor#setUseBeanDefinitionSnapshot}.
+ *
+ * @since 5.1
+ * @see BeanDefinitionSnapshotGenerator
+ * @see ConfigurationClassPostProcessor#setUseBeanDefinitionSnapshot
+ */
+public final class BeanDefinitionSnapshot {
+
+	/**
+	 * The location to look for bean definition snapshots.
+	 * <p>Can be present in multiple JAR files; the snapshot matching the
+	 * configuration classes of the application context is used.
+	 */
+	public static final String SNAPSHOT_RESOURCE_LOCATION = "META-INF/spring.bean-definitions";
+
+	/**
+	 * System property that instructs Spring to ignore bean definition snapshots,
+	 * i.e. to always parse configuration classes at runtime.
+	 * <p>The default is "false". Switching this flag to {@code true} helps when a
+	 * snapshot on the classpath is out of date with respect to its configuration classes.
+	 */
+	public static final String IGNORE_SNAPSHOT = "spring.snapshot.ignore";
+
+
+	private static final String SOURCES_KEY = "sources";
+
+	private static final String CLASSES_KEY = "classes";
+
+	private static final String DIGEST_KEY = "digest";
+
+	private static final String BEAN_PREFIX = "bean.";
+
+	private static final String IMPORT_PREFIX = "import.";
+
+	private static final String ATTRIBUTE_PREFIX = "attribute.";
+
+	private static final String PROPERTY_PREFIX = "property.";
+
+	private static final String INDEXED_ARGUMENT_PREFIX = "argument.";
+
+	private static final String GENERIC_ARGUMENT_PREFIX = "genericArgument.";
+
+	private static final boolean shouldIgnoreSnapshot = SpringProperties.getFlag(IGNORE_SNAPSHOT);
+
+	private static final Log logger = LogFactory.getLog(BeanDefinitionSnapshot.class);
+
+	private static final ConcurrentMap<ClassLoader, List<BeanDefinitionSnapshot>> cache =
+			new ConcurrentReferenceHashMap<>();
+
+
+	private final Properties properties;
+
+	private final Set<String> sources;
+
+	private final List<String> beanNames = new ArrayList<>();
+
+
+	/**
+	 * Create a snapshot from the given properties, as stored in
+	 * {@value #SNAPSHOT_RESOURCE_LOCATION}.
+	 * @param properties the snapshot properties
+	 */
+	public BeanDefinitionSnapshot(Properties properties) {
+		this.properties = properties;
+		this.sources = new LinkedHashSet<>(
+				StringUtils.commaDelimitedListToSet(properties.getProperty(SOURCES_KEY)));
+		for (int i = 0; ; i++) {
+			String beanName = properties.getProperty(BEAN_PREFIX + i + ".name");
+			if (beanName == null) {
+				break;
+			}
+			this.beanNames.add(beanName);
+		}
+	}
+
+
+	/**
+	 * Return the names of the configuration classes this snapshot was generated for.
+	 */
+	public Set<String> getSources() {
+		return Collections.unmodifiableSet(this.sources);
+	}
+
+	/**
+	 * Return the names of the beans in this snapshot, in registration order.
+	 */
+	public List<String> getBeanNames() {
+		return Collections.unmodifiableList(this.beanNames);
+	}
+
+	/**
+	 * Determine whether this snapshot can be registered with the given registry
+	 * in place of parsing the given configuration classes: the configuration classes
+	 * need to be the snapshot's sources, and none of the snapshot's beans may have
+	 * been registered before, e.g. as an override from XML.
+	 * @param registry the registry to check
+	 * @param configClassNames the names of the configuration classes to parse
+	 */
+	public boolean isApplicableTo(BeanDefinitionRegistry registry, Collection<String> configClassNames) {
+		if (!this.sources.equals(new LinkedHashSet<>(configClassNames))) {
+			return false;
+		}
+		for (int i = 0; i < this.beanNames.size(); i++) {
+			String beanName = this.beanNames.get(i);
+			if (registry.containsBeanDefinition(beanName) || registry.isAlias(beanName)) {
+				return false;
+			}
+			for (String alias : getStrings(BEAN_PREFIX + i + ".aliases")) {
+				if (registry.containsBeanDefinition(alias) || registry.isAlias(alias)) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Determine whether the class files this snapshot was derived from are unchanged,
+	 * i.e. whether they still match the digest recorded at generation time.
+	 * @param classLoader the ClassLoader to read the class files with
+	 * (can be {@code null} to use the default)
+	 */
+	public boolean isUpToDate(@Nullable ClassLoader classLoader) {
+		String digest = this.properties.getProperty(DIGEST_KEY);
+		if (digest == null) {
+			return false;
+		}
+		ClassLoader classLoaderToUse = classLoader;
+		if (classLoaderToUse == null) {
+			classLoaderToUse = BeanDefinitionSnapshot.class.getClassLoader();
+		}
+		try {
+			return digest.equals(digest(Arrays.asList(getStrings(CLASSES_KEY)), classLoaderToUse));
+		}
+		catch (IOException ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Unable to verify class files of " + this, ex);
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * Register fresh instances of the snapshot's bean definitions, including aliases,
+	 * with the given registry.
+	 * <p>Definitions derived from annotated classes or {@link Bean @Bean} methods are
+	 * restored as {@link AnnotatedBeanDefinition AnnotatedBeanDefinitions}, lazily
+	 * reading their metadata through the given factory on first access.
+	 * @param registry the registry to register the bean definitions with
+	 * @param metadataReaderFactory the factory to read annotation metadata with
+	 */
+	public void registerBeanDefinitions(BeanDefinitionRegistry registry, MetadataReaderFactory metadataReaderFactory) {
+		Map<String, AbstractBeanDefinition> beanDefinitions = new LinkedHashMap<>();
+		for (int i = 0; i < this.beanNames.size(); i++) {
+			beanDefinitions.put(this.beanNames.get(i),
+					readBeanDefinition(BEAN_PREFIX + i + ".", metadataReaderFactory));
+		}
+		for (int i = 0; i < this.beanNames.size(); i++) {
+			String decoratedName = this.properties.getProperty(BEAN_PREFIX + i + ".decoratedDefinition");
+			if (decoratedName != null) {
+				AbstractBeanDefinition decorated = beanDefinitions.get(decoratedName);
+				if (decorated == null) {
+					throw new IllegalStateException("Decorated bean definition '" + decoratedName +
+							"' not found in bean definition snapshot");
+				}
+				((RootBeanDefinition) beanDefinitions.get(this.beanNames.get(i))).setDecoratedDefinition(
+						new BeanDefinitionHolder(decorated, decoratedName));
+			}
+		}
+		for (int i = 0; i < this.beanNames.size(); i++) {
+			String beanName = this.beanNames.get(i);
+			registry.registerBeanDefinition(beanName, beanDefinitions.get(beanName));
+			for (String alias : getStrings(BEAN_PREFIX + i + ".aliases")) {
+				registry.registerAlias(beanName, alias);
+			}
+		}
+	}
+
+	/**
+	 * Return an {@link ImportRegistry} exposing the importing classes recorded in
+	 * this snapshot, lazily reading their metadata through the given factory.
+	 */
+	ImportRegistry getImportRegistry(MetadataReaderFactory metadataReaderFactory) {
+		Map<String, String> imports = new HashMap<>();
+		for (String key : this.properties.stringPropertyNames()) {
+			if (key.startsWith(IMPORT_PREFIX)) {
+				imports.put(key.substring(IMPORT_PREFIX.length()), this.properties.getProperty(key));
+			}
+		}
+		return new SnapshotImportRegistry(imports, metadataReaderFactory);
+	}
+
+	/**
+	 * Write this snapshot to the given stream, sorting the entries so that
+	 * identical snapshots result in identical content.
+	 * @param out the stream to write to (left open)
+	 */
+	public void writeTo(OutputStream out) throws IOException {
+		Map<Object, Object> entries = new TreeMap<>(this.properties);
+		Properties sorted = new Properties() {
+			@Override
+			public synchronized Enumeration<Object> keys() {
+				return Collections.enumeration(entries.keySet());
+			}
+			@Override
+			public Set<Map.Entry<Object, Object>> entrySet() {
+				return Collections.unmodifiableSet(new LinkedHashSet<>(entries.entrySet()));
+			}
+		};
+		sorted.putAll(entries);
+		sorted.store(out, "Bean definition snapshot");
+	}
+
+	private AbstractBeanDefinition readBeanDefinition(String prefix, MetadataReaderFactory metadataReaderFactory) {
+		String metadataClassName = this.properties.getProperty(prefix + "metadataClass");
+		boolean beanMethod = getBoolean(prefix + "beanMethod");
+		SnapshotMetadata metadata = (metadataClassName != null ? new SnapshotMetadata(metadataClassName,
+				(beanMethod ? this.properties.getProperty(prefix + "factoryMethodName") : null),
+				metadataReaderFactory) : null);
+		AbstractBeanDefinition bd;
+		if (getBoolean(prefix + "root")) {
+			bd = (metadata != null ? new AnnotatedSnapshotBeanDefinition(beanMethod, metadata) :
+					new SnapshotBeanDefinition(beanMethod));
+		}
+		else {
+			GenericBeanDefinition gbd = (metadata != null ?
+					new AnnotatedGenericSnapshotBeanDefinition(metadata) : new GenericBeanDefinition());
+			gbd.setParentName(this.properties.getProperty(prefix + "parentName"));
+			bd = gbd;
+		}
+		bd.setBeanClassName(this.properties.getProperty(prefix + "beanClassName"));
+		bd.setScope(this.properties.getProperty(prefix + "scope", AbstractBeanDefinition.SCOPE_DEFAULT));
+		bd.setAbstract(getBoolean(prefix + "abstract"));
+		bd.setLazyInit(getBoolean(prefix + "lazyInit"));
+		bd.setAutowireMode(Integer.parseInt(this.properties.getProperty(prefix + "autowireMode")));
+		bd.setDependencyCheck(Integer.parseInt(this.properties.getProperty(prefix + "dependencyCheck")));
+		String[] dependsOn = getStrings(prefix + "dependsOn");
+		bd.setDependsOn(dependsOn.length > 0 ? dependsOn : null);
+		bd.setAutowireCandidate(getBoolean(prefix + "autowireCandidate"));
+		bd.setPrimary(getBoolean(prefix + "primary"));
+		bd.setNonPublicAccessAllowed(getBoolean(prefix + "nonPublicAccessAllowed"));
+		bd.setLenientConstructorResolution(getBoolean(prefix + "lenientConstructorResolution"));
+		bd.setFactoryBeanName(this.properties.getProperty(prefix + "factoryBeanName"));
+		String factoryMethodName = this.properties.getProperty(prefix + "factoryMethodName");
+		if (factoryMethodName != null && bd instanceof RootBeanDefinition && bd.getFactoryBeanName() != null &&
+				getBoolean(prefix + "beanMethod")) {
+			((RootBeanDefinition) bd).setUniqueFactoryMethodName(factoryMethodName);
+		}
+		else {
+			bd.setFactoryMethodName(factoryMethodName);
+		}
+		bd.setInitMethodName(this.properties.getProperty(prefix + "initMethodName"));
+		bd.setEnforceInitMethod(getBoolean(prefix + "enforceInitMethod"));
+		bd.setDestroyMethodName(this.properties.getProperty(prefix + "destroyMethodName"));
+		bd.setEnforceDestroyMethod(getBoolean(prefix + "enforceDestroyMethod"));
+		bd.setSynthetic(getBoolean(prefix + "synthetic"));
+		bd.setRole(Integer.parseInt(this.properties.getProperty(prefix + "role")));
+		bd.setDescription(this.properties.getProperty(prefix + "description"));
+		bd.setResourceDescription(this.properties.getProperty(prefix + "resourceDescription"));
+
+		for (String key : this.properties.stringPropertyNames()) {
+			if (!key.startsWith(prefix)) {
+				continue;
+			}
+			String name = key.substring(prefix.length());
+			if (name.startsWith(ATTRIBUTE_PREFIX)) {
+				bd.setAttribute(name.substring(ATTRIBUTE_PREFIX.length()),
+						decodeValue(this.properties.getProperty(key)));
+			}
+			else if (name.startsWith(PROPERTY_PREFIX)) {
+				bd.getPropertyValues().add(name.substring(PROPERTY_PREFIX.length()),
+						decodeValue(this.properties.getProperty(key)));
+			}
+			else if (name.startsWith(INDEXED_ARGUMENT_PREFIX)) {
+				bd.getConstructorArgumentValues().addIndexedArgumentValue(
+						Integer.parseInt(name.substring(INDEXED_ARGUMENT_PREFIX.length())),
+						decodeValue(this.properties.getProperty(key)));
+			}
+		}
+		for (int i = 0; ; i++) {
+			String value = this.properties.getProperty(prefix + GENERIC_ARGUMENT_PREFIX + i);
+			if (value == null) {
+				break;
+			}
+			bd.getConstructorArgumentValues().addGenericArgumentValue(decodeValue(value));
+		}
+		return bd;
+	}
+
+	private boolean getBoolean(String key) {
+		return Boolean.parseBoolean(this.properties.getProperty(key));
+	}
+
+	private String[] getStrings(String key) {
+		return StringUtils.commaDelimitedListToStringArray(this.properties.getProperty(key));
+	}
+
+	@Override
+	public String toString() {
+		return "BeanDefinitionSnapshot for " + this.sources + " with " + this.beanNames.size() + " beans";
+	}
+
+
+	/**
+	 * Capture a snapshot of the given bean definitions.
+	 * @param sources the names of the configuration classes processed
+	 * @param registry the registry holding the bean definitions
+	 * @param beanNames the names of the bean definitions resulting from processing
+	 * @param importRegistry the import registry resulting from processing
+	 * @param importedClassNames the names of the imported configuration classes
+	 * @param classLoader the ClassLoader to read the class files to digest with
+	 * @throws IllegalStateException if a bean definition cannot be represented in a snapshot
+	 */
+	static BeanDefinitionSnapshot capture(Collection<String> sources, BeanDefinitionRegistry registry,
+			Collection<String> beanNames, ImportRegistry importRegistry, Collection<String> importedClassNames,
+			ClassLoader classLoader) {
+
+		Properties properties = new Properties();
+		properties.setProperty(SOURCES_KEY, StringUtils.collectionToCommaDelimitedString(sources));
+		Set<String> classNames = new TreeSet<>(sources);
+		classNames.addAll(importedClassNames);
+		int i = 0;
+		for (String beanName : beanNames) {
+			String prefix = BEAN_PREFIX + (i++) + ".";
+			properties.setProperty(prefix + "name", beanName);
+			String[] aliases = registry.getAliases(beanName);
+			if (aliases.length > 0) {
+				properties.setProperty(prefix + "aliases", StringUtils.arrayToCommaDelimitedString(aliases));
+			}
+			BeanDefinition bd = registry.getBeanDefinition(beanName);
+			writeBeanDefinition(properties, prefix, beanName, bd, beanNames);
+			if (bd instanceof AnnotatedBeanDefinition) {
+				classNames.add(((AnnotatedBeanDefinition) bd).getMetadata().getClassName());
+			}
+		}
+		for (String importedClassName : importedClassNames) {
+			AnnotationMetadata importingClass = importRegistry.getImportingClassFor(importedClassName);
+			if (importingClass != null) {
+				properties.setProperty(IMPORT_PREFIX + importedClassName, importingClass.getClassName());
+			}
+		}
+		Set<String> digestedClassNames = withSuperclasses(classNames, classLoader);
+		properties.setProperty(CLASSES_KEY, StringUtils.collectionToCommaDelimitedString(digestedClassNames));
+		try {
+			properties.setProperty(DIGEST_KEY, digest(digestedClassNames, classLoader));
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Unable to digest class files for bean definition snapshot", ex);
+		}
+		return new BeanDefinitionSnapshot(properties);
+	}
+
+	private static Set<String> withSuperclasses(Set<String> classNames, ClassLoader classLoader) {
+		Set<String> result = new TreeSet<>();
+		for (String className : classNames) {
+			Class<?> clazz;
+			try {
+				clazz = ClassUtils.forName(className, classLoader);
+			}
+			catch (ClassNotFoundException | LinkageError ex) {
+				throw new IllegalStateException("Unable to load class [" + className +
+						"] for bean definition snapshot", ex);
+			}
+			while (clazz != null && !clazz.getName().startsWith("java.")) {
+				result.add(clazz.getName());
+				clazz = clazz.getSuperclass();
+			}
+		}
+		return result;
+	}
+
+	private static String digest(Collection<String> classNames, ClassLoader classLoader) throws IOException {
+		StringBuilder builder = new StringBuilder();
+		for (String className : classNames) {
+			String resourcePath = ClassUtils.convertClassNameToResourcePath(className) + ClassUtils.CLASS_FILE_SUFFIX;
+			InputStream inputStream = classLoader.getResourceAsStream(resourcePath);
+			if (inputStream == null) {
+				throw new IOException("Class file [" + resourcePath + "] not found");
+			}
+			try (InputStream in = inputStream) {
+				builder.append(className).append('=');
+				DigestUtils.appendMd5DigestAsHex(in, builder);
+				builder.append(';');
+			}
+		}
+		return DigestUtils.md5DigestAsHex(builder.toString().getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static void writeBeanDefinition(Properties properties, String prefix, String beanName,
+			BeanDefinition beanDefinition, Collection<String> beanNames) {
+
+		if (!(beanDefinition instanceof AbstractBeanDefinition)) {
+			throw unsupported(beanName, "not an AbstractBeanDefinition");
+		}
+		AbstractBeanDefinition bd = (AbstractBeanDefinition) beanDefinition;
+		if (bd.getInstanceSupplier() != null) {
+			throw unsupported(beanName, "instance supplier");
+		}
+		if (bd.hasMethodOverrides()) {
+			throw unsupported(beanName, "method overrides");
+		}
+		if (!bd.getQualifiers().isEmpty()) {
+			throw unsupported(beanName, "qualifiers");
+		}
+		boolean root = (bd instanceof RootBeanDefinition);
+		properties.setProperty(prefix + "root", String.valueOf(root));
+		if (root) {
+			boolean beanMethod = (bd instanceof AnnotatedBeanDefinition &&
+					((AnnotatedBeanDefinition) bd).getFactoryMethodMetadata() != null);
+			properties.setProperty(prefix + "beanMethod", String.valueOf(beanMethod));
+			BeanDefinitionHolder decorated = ((RootBeanDefinition) bd).getDecoratedDefinition();
+			if (decorated != null) {
+				if (!beanNames.contains(decorated.getBeanName())) {
+					throw unsupported(beanName, "decorated definition outside of snapshot");
+				}
+				properties.setProperty(prefix + "decoratedDefinition", decorated.getBeanName());
+			}
+		}
+		else if (bd.getParentName() != null) {
+			properties.setProperty(prefix + "parentName", bd.getParentName());
+		}
+		if (bd instanceof AnnotatedBeanDefinition) {
+			properties.setProperty(prefix + "metadataClass", ((AnnotatedBeanDefinition) bd).getMetadata().getClassName());
+		}
+		setIfNotNull(properties, prefix + "beanClassName", bd.getBeanClassName());
+		setIfNotNull(properties, prefix + "scope", bd.getScope());
+		properties.setProperty(prefix + "abstract", String.valueOf(bd.isAbstract()));
+		properties.setProperty(prefix + "lazyInit", String.valueOf(bd.isLazyInit()));
+		properties.setProperty(prefix + "autowireMode", String.valueOf(bd.getAutowireMode()));
+		properties.setProperty(prefix + "dependencyCheck", String.valueOf(bd.getDependencyCheck()));
+		if (bd.getDependsOn() != null) {
+			properties.setProperty(prefix + "dependsOn", StringUtils.arrayToCommaDelimitedString(bd.getDependsOn()));
+		}
+		properties.setProperty(prefix + "autowireCandidate", String.valueOf(bd.isAutowireCandidate()));
+		properties.setProperty(prefix + "primary", String.valueOf(bd.isPrimary()));
+		properties.setProperty(prefix + "nonPublicAccessAllowed", String.valueOf(bd.isNonPublicAccessAllowed()));
+		properties.setProperty(prefix + "lenientConstructorResolution",
+				String.valueOf(bd.isLenientConstructorResolution()));
+		setIfNotNull(properties, prefix + "factoryBeanName", bd.getFactoryBeanName());
+		setIfNotNull(properties, prefix + "factoryMethodName", bd.getFactoryMethodName());
+		setIfNotNull(properties, prefix + "initMethodName", bd.getInitMethodName());
+		properties.setProperty(prefix + "enforceInitMethod", String.valueOf(bd.isEnforceInitMethod()));
+		setIfNotNull(properties, prefix + "destroyMethodName", bd.getDestroyMethodName());
+		properties.setProperty(prefix + "enforceDestroyMethod", String.valueOf(bd.isEnforceDestroyMethod()));
+		properties.setProperty(prefix + "synthetic", String.valueOf(bd.isSynthetic()));
+		properties.setProperty(prefix + "role", String.valueOf(bd.getRole()));
+		setIfNotNull(properties, prefix + "description", bd.getDescription());
+		setIfNotNull(properties, prefix + "resourceDescription", bd.getResourceDescription());
+
+		for (String attributeName : bd.attributeNames()) {
+			properties.setProperty(prefix + ATTRIBUTE_PREFIX + attributeName,
+					encodeValue(beanName, bd.getAttribute(attributeName)));
+		}
+		MutablePropertyValues pvs = bd.getPropertyValues();
+		for (PropertyValue pv : pvs.getPropertyValues()) {
+			properties.setProperty(prefix + PROPERTY_PREFIX + pv.getName(), encodeValue(beanName, pv.getValue()));
+		}
+		ConstructorArgumentValues cargs = bd.getConstructorArgumentValues();
+		for (Map.Entry<Integer, ValueHolder> entry : cargs.getIndexedArgumentValues().entrySet()) {
+			properties.setProperty(prefix + INDEXED_ARGUMENT_PREFIX + entry.getKey(),
+					encodeArgument(beanName, entry.getValue()));
+		}
+		int i = 0;
+		for (ValueHolder valueHolder : cargs.getGenericArgumentValues()) {
+			properties.setProperty(prefix + GENERIC_ARGUMENT_PREFIX + (i++), encodeArgument(beanName, valueHolder));
+		}
+	}
+
+	private static String encodeArgument(String beanName, ValueHolder valueHolder) {
+		if (valueHolder.getType() != null || valueHolder.getName() != null) {
+			throw unsupported(beanName, "typed or named constructor argument");
+		}
+		return encodeValue(beanName, valueHolder.getValue());
+	}
+
+	private static String encodeValue(String beanName, @Nullable Object value) {
+		if (value instanceof RuntimeBeanReference && !((RuntimeBeanReference) value).isToParent()) {
+			return "ref:" + ((RuntimeBeanReference) value).getBeanName();
+		}
+		if (value instanceof RuntimeBeanNameReference) {
+			return "idref:" + ((RuntimeBeanNameReference) value).getBeanName();
+		}
+		if (value instanceof TypedStringValue) {
+			TypedStringValue typedValue = (TypedStringValue) value;
+			if (!typedValue.hasTargetType() && !typedValue.isDynamic() && typedValue.getValue() != null) {
+				return "value:" + typedValue.getValue();
+			}
+		}
+		if (value instanceof String) {
+			return "value:" + value;
+		}
+		if (value instanceof Boolean) {
+			return "boolean:" + value;
+		}
+		if (value instanceof Integer) {
+			return "int:" + value;
+		}
+		throw unsupported(beanName, "value [" + value + "]");
+	}
+
+	private static Object decodeValue(String encoded) {
+		int separatorIndex = encoded.indexOf(':');
+		String type = encoded.substring(0, separatorIndex);
+		String value = encoded.substring(separatorIndex + 1);
+		switch (type) {
+			case "ref":
+				return new RuntimeBeanReference(value);
+			case "idref":
+				return new RuntimeBeanNameReference(value);
+			case "value":
+				return value;
+			case "boolean":
+				return Boolean.valueOf(value);
+			case "int":
+				return Integer.valueOf(value);
+			default:
+				throw new IllegalStateException("Unknown value type in bean definition snapshot: " + encoded);
+		}
+	}
+
+	private static void setIfNotNull(Properties properties, String key, @Nullable String value) {
+		if (value != null) {
+			properties.setProperty(key, value);
+		}
+	}
+
+	private static IllegalStateException unsupported(String beanName, String reason) {
+		return new IllegalStateException("Bean definition '" + beanName +
+				"' cannot be represented in a bean definition snapshot: " + reason);
+	}
+
+
+	/**
+	 * Load the {@link BeanDefinitionSnapshot snapshots} available in
+	 * {@value #SNAPSHOT_RESOURCE_LOCATION}, using the given class loader.
+	 * @param classLoader the ClassLoader to use for loading (can be {@code null} to use the default)
+	 * @return the snapshots found (possibly empty)
+	 * @throws IllegalStateException if a snapshot cannot be loaded
+	 */
+	public static List<BeanDefinitionSnapshot> loadSnapshots(@Nullable ClassLoader classLoader) {
+		ClassLoader classLoaderToUse = classLoader;
+		if (classLoaderToUse == null) {
+			classLoaderToUse = BeanDefinitionSnapshot.class.getClassLoader();
+		}
+		return cache.computeIfAbsent(classLoaderToUse, BeanDefinitionSnapshot::doLoadSnapshots);
+	}
+
+	private static List<BeanDefinitionSnapshot> doLoadSnapshots(ClassLoader classLoader) {
+		if (shouldIgnoreSnapshot) {
+			return Collections.emptyList();
+		}
+
+		try {
+			Enumeration<URL> urls = classLoader.getResources(SNAPSHOT_RESOURCE_LOCATION);
+			List<BeanDefinitionSnapshot> result = new ArrayList<>();
+			while (urls.hasMoreElements()) {
+				URL url = urls.nextElement();
+				result.add(new BeanDefinitionSnapshot(PropertiesLoaderUtils.loadProperties(new UrlResource(url))));
+			}
+			if (logger.isDebugEnabled() && !result.isEmpty()) {
+				logger.debug("Loaded " + result.size() + " bean definition snapshot(s)");
+			}
+			return result;
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Unable to load bean definition snapshots from location [" +
+					SNAPSHOT_RESOURCE_LOCATION + "]", ex);
+		}
+	}
+
+
+	/**
+	 * Lazily read annotation metadata for a bean definition restored from a snapshot.
+	 */
+	private static class SnapshotMetadata {
+
+		private final String className;
+
+		@Nullable
+		private final String factoryMethodName;
+
+		private final MetadataReaderFactory metadataReaderFactory;
+
+		@Nullable
+		private volatile AnnotationMetadata metadata;
+
+		public SnapshotMetadata(String className, @Nullable String factoryMethodName,
+				MetadataReaderFactory metadataReaderFactory) {
+
+			this.className = className;
+			this.factoryMethodName = factoryMethodName;
+			this.metadataReaderFactory = metadataReaderFactory;
+		}
+
+		public AnnotationMetadata getMetadata() {
+			AnnotationMetadata metadata = this.metadata;
+			if (metadata == null) {
+				try {
+					metadata = this.metadataReaderFactory.getMetadataReader(this.className).getAnnotationMetadata();
+				}
+				catch (IOException ex) {
+					throw new IllegalStateException("Failed to read metadata of class [" + this.className + "]", ex);
+				}
+				this.metadata = metadata;
+			}
+			return metadata;
+		}
+
+		@Nullable
+		public MethodMetadata getFactoryMethodMetadata() {
+			if (this.factoryMethodName == null) {
+				return null;
+			}
+			for (MethodMetadata beanMethod : getMetadata().getAnnotatedMethods(Bean.class.getName())) {
+				if (beanMethod.getMethodName().equals(this.factoryMethodName)) {
+					return beanMethod;
+				}
+			}
+			return null;
+		}
+	}
+
+
+	/**
+	 * Root bean definition restored from a snapshot, resolving factory methods
+	 * the same way as a definition derived from a {@link Bean @Bean} method.
+	 */
+	@SuppressWarnings("serial")
+	private static class SnapshotBeanDefinition extends RootBeanDefinition {
+
+		private final boolean beanMethod;
+
+		public SnapshotBeanDefinition(boolean beanMethod) {
+			this.beanMethod = beanMethod;
+		}
+
+		public SnapshotBeanDefinition(SnapshotBeanDefinition original) {
+			super(original);
+			this.beanMethod = original.beanMethod;
+		}
+
+		@Override
+		public boolean isFactoryMethod(Method candidate) {
+			if (!this.beanMethod) {
+				return super.isFactoryMethod(candidate);
+			}
+			return (candidate.getName().equals(getFactoryMethodName()) &&
+					BeanAnnotationHelper.isBeanAnnotated(candidate));
+		}
+
+		@Override
+		public SnapshotBeanDefinition cloneBeanDefinition() {
+			return new SnapshotBeanDefinition(this);
+		}
+	}
+
+
+	/**
+	 * Root bean definition restored from a snapshot, exposing the metadata of the
+	 * annotated class or {@link Bean @Bean} method it has been derived from.
+	 */
+	@SuppressWarnings("serial")
+	private static class AnnotatedSnapshotBeanDefinition extends SnapshotBeanDefinition
+			implements AnnotatedBeanDefinition {
+
+		private final SnapshotMetadata metadata;
+
+		public AnnotatedSnapshotBeanDefinition(boolean beanMethod, SnapshotMetadata metadata) {
+			super(beanMethod);
+			this.metadata = metadata;
+		}
+
+		public AnnotatedSnapshotBeanDefinition(AnnotatedSnapshotBeanDefinition original) {
+			super(original);
+			this.metadata = original.metadata;
+		}
+
+		@Override
+		public AnnotationMetadata getMetadata() {
+			return this.metadata.getMetadata();
+		}
+
+		@Override
+		@Nullable
+		public MethodMetadata getFactoryMethodMetadata() {
+			return this.metadata.getFactoryMethodMetadata();
+		}
+
+		@Override
+		public AnnotatedSnapshotBeanDefinition cloneBeanDefinition() {
+			return new AnnotatedSnapshotBeanDefinition(this);
+		}
+	}
+
+
+	/**
+	 * Generic bean definition restored from a snapshot, exposing the metadata of
+	 * the annotated class it has been derived from.
+	 */
+	@SuppressWarnings("serial")
+	private static class AnnotatedGenericSnapshotBeanDefinition extends GenericBeanDefinition
+			implements AnnotatedBeanDefinition {
+
+		private final SnapshotMetadata metadata;
+
+		public AnnotatedGenericSnapshotBeanDefinition(SnapshotMetadata metadata) {
+			this.metadata = metadata;
+		}
+
+		public AnnotatedGenericSnapshotBeanDefinition(AnnotatedGenericSnapshotBeanDefinition original) {
+			super(original);
+			this.metadata = original.metadata;
+		}
+
+		@Override
+		public AnnotationMetadata getMetadata() {
+			return this.metadata.getMetadata();
+		}
+
+		@Override
+		@Nullable
+		public MethodMetadata getFactoryMethodMetadata() {
+			return null;
+		}
+
+		@Override
+		public AbstractBeanDefinition cloneBeanDefinition() {
+			return new AnnotatedGenericSnapshotBeanDefinition(this);
+		}
+	}
+
+
+	/**
+	 * {@link ImportRegistry} backed by the importing class names recorded in a snapshot.
+	 */
+	private static class SnapshotImportRegistry implements ImportRegistry {
+
+		private final Map<String, String> imports;
+
+		private final MetadataReaderFactory metadataReaderFactory;
+
+		public SnapshotImportRegistry(Map<String, String> imports, MetadataReaderFactory metadataReaderFactory) {
+			this.imports = imports;
+			this.metadataReaderFactory = metadataReaderFactory;
+		}
+
+		@Override
+		@Nullable
+		public AnnotationMetadata getImportingClassFor(String importedClass) {
+			String importingClass = this.imports.get(importedClass);
+			if (importingClass == null) {
+				return null;
+			}
+			try {
+				return this.metadataReaderFactory.getMetadataReader(importingClass).getAnnotationMetadata();
+			}
+			catch (IOException ex) {
+				throw new IllegalStateException("Failed to read metadata of importing class [" +
+						importingClass + "]", ex);
+			}
+		}
+
+		@Override
+		public void removeImportingClass(String importingClass) {
+			for (Iterator<String> it = this.imports.values().iterator(); it.hasNext();) {
+				if (it.next().equals(importingClass)) {
+					it.remove();
+				}
+			}
+		}
+	}
+
+}
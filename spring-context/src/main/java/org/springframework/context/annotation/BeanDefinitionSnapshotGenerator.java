@@ -0,0 +1,211 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Build-time generator for {@link BeanDefinitionSnapshot bean definition snapshots}.
+ *
+ * <p>Processes the given configuration classes the same way as
+ * {@link ConfigurationClassPostProcessor} does at runtime, without instantiating
+ * any beans, and captures the resulting bean definitions. Generation fails if
+ * any {@link Conditional @Conditional} annotation gets evaluated along the way,
+ * since the outcome might differ at runtime, and if any {@link PropertySource @PropertySource}
+ * annotation gets processed, since registering a snapshot does not add property
+ * sources to the {@code Environment}. It also fails for {@link ComponentScan @ComponentScan},
+ * {@link ImportResource @ImportResource} and {@link ImportSelector ImportSelectors}, whose
+ * outcome depends on classpath contents, XML files or {@code spring.factories} entries
+ * that the snapshot digest does not cover.
+ *
+ * <p>Can be run as part of the build, e.g. from a Gradle {@code JavaExec} task
+ * after compilation, through {@link #main}:
+ * <pre class="code">
+ * java org.springframework.context.annotation.BeanDefinitionSnapshotGenerator
+ *     build/classes/java/main com.example.AppConfig
+ * </pre>
+ *
+ * <p>Note that bean definitions registered by other
+ * {@link org.springframework.beans.factory.support.BeanDefinitionRegistryPostProcessor
+ * registry post-processors} are not part of the snapshot; those are still
+ * invoked at runtime. {@link ImportSelector ImportSelectors} and
+ * {@link ImportBeanDefinitionRegistrar ImportBeanDefinitionRegistrars} are
+ * expected to behave the same at build time and at runtime.
+ *
+ * @since 5.1
+ * @see BeanDefinitionSnapshot
+ */
+public class BeanDefinitionSnapshotGenerator {
+
+	private ConfigurableEnvironment environment = new StandardEnvironment();
+
+	private ResourceLoader resourceLoader = new DefaultResourceLoader();
+
+
+	/**
+	 * Set the {@code Environment} to use when processing configuration classes.
+	 * <p>Default is a {@link StandardEnvironment}.
+	 */
+	public void setEnvironment(ConfigurableEnvironment environment) {
+		Assert.notNull(environment, "Environment must not be null");
+		this.environment = environment;
+	}
+
+	/**
+	 * Set the {@code ResourceLoader} to use when processing configuration classes.
+	 * <p>Default is a {@link DefaultResourceLoader}.
+	 */
+	public void setResourceLoader(ResourceLoader resourceLoader) {
+		Assert.notNull(resourceLoader, "ResourceLoader must not be null");
+		this.resourceLoader = resourceLoader;
+	}
+
+
+	/**
+	 * Generate a snapshot of the bean definitions derived from the given
+	 * configuration classes.
+	 * @param configClasses the configuration classes, as they would be registered
+	 * with an {@link AnnotationConfigApplicationContext}
+	 * @return the snapshot
+	 * @throws IllegalStateException if configuration class processing is not
+	 * deterministic, declares property sources or results in bean definitions
+	 * that cannot be captured
+	 */
+	public BeanDefinitionSnapshot generate(Class<?>... configClasses) {
+		DefaultListableBeanFactory registry = new DefaultListableBeanFactory();
+		registry.setBeanClassLoader(this.resourceLoader.getClassLoader());
+		AnnotatedBeanDefinitionReader reader = new AnnotatedBeanDefinitionReader(registry, this.environment);
+		reader.register(configClasses);
+
+		List<String> existingNames = Arrays.asList(registry.getBeanDefinitionNames());
+
+		ConfigurationClassPostProcessor postProcessor = new ConfigurationClassPostProcessor();
+		postProcessor.setEnvironment(this.environment);
+		postProcessor.setResourceLoader(this.resourceLoader);
+		postProcessor.setBeanClassLoader(this.resourceLoader.getClassLoader());
+		postProcessor.setUseBeanDefinitionSnapshot(false);
+
+		Set<String> conditionalElements;
+		Set<String> externalInputs;
+		ConditionEvaluator.trackConditionalElements();
+		ConfigurationClassParser.trackExternalInputs();
+		try {
+			postProcessor.processConfigBeanDefinitions(registry);
+		}
+		finally {
+			conditionalElements = ConditionEvaluator.stopTrackingConditionalElements();
+			externalInputs = ConfigurationClassParser.stopTrackingExternalInputs();
+		}
+		if (!conditionalElements.isEmpty()) {
+			throw new IllegalStateException("Cannot generate bean definition snapshot: configuration " +
+					"class processing depends on the evaluation of conditions on " + conditionalElements);
+		}
+		if (!externalInputs.isEmpty()) {
+			throw new IllegalStateException("Cannot generate bean definition snapshot: configuration " +
+					"class processing depends on inputs that the snapshot cannot track: " + externalInputs);
+		}
+
+		// Configuration classes registered upfront are the sources, any other ones have been imported
+		Set<String> sources = new LinkedHashSet<>();
+		List<String> beanNames = new ArrayList<>();
+		List<String> importedClassNames = new ArrayList<>();
+		for (String beanName : registry.getBeanDefinitionNames()) {
+			BeanDefinition bd = registry.getBeanDefinition(beanName);
+			boolean configClass = (bd.getBeanClassName() != null &&
+					(ConfigurationClassUtils.isFullConfigurationClass(bd) ||
+							ConfigurationClassUtils.isLiteConfigurationClass(bd)));
+			if (existingNames.contains(beanName)) {
+				if (configClass) {
+					sources.add(bd.getBeanClassName());
+				}
+			}
+			else {
+				beanNames.add(beanName);
+				if (configClass) {
+					importedClassNames.add(bd.getBeanClassName());
+				}
+			}
+		}
+		ImportRegistry importRegistry = (ImportRegistry) registry.getSingleton(
+				ConfigurationClassPostProcessor.IMPORT_REGISTRY_BEAN_NAME);
+		Assert.state(importRegistry != null, "No ImportRegistry registered");
+		ClassLoader classLoader = this.resourceLoader.getClassLoader();
+		Assert.state(classLoader != null, "No ClassLoader available");
+		return BeanDefinitionSnapshot.capture(
+				sources, registry, beanNames, importRegistry, importedClassNames, classLoader);
+	}
+
+	/**
+	 * Generate a snapshot of the bean definitions derived from the given
+	 * configuration classes and write it to {@value BeanDefinitionSnapshot#SNAPSHOT_RESOURCE_LOCATION}
+	 * within the given output directory.
+	 * @param outputDirectory the root of the class output directory
+	 * @param configClasses the configuration classes
+	 * @return the file written
+	 * @throws IOException if the snapshot cannot be written
+	 */
+	public File generate(File outputDirectory, Class<?>... configClasses) throws IOException {
+		BeanDefinitionSnapshot snapshot = generate(configClasses);
+		File file = new File(outputDirectory, BeanDefinitionSnapshot.SNAPSHOT_RESOURCE_LOCATION);
+		File parent = file.getParentFile();
+		if (!parent.isDirectory() && !parent.mkdirs()) {
+			throw new IOException("Unable to create directory " + parent);
+		}
+		try (OutputStream out = new FileOutputStream(file)) {
+			snapshot.writeTo(out);
+		}
+		return file;
+	}
+
+
+	/**
+	 * Generate a snapshot from the command line.
+	 * @param args the class output directory, followed by the fully qualified
+	 * names of the configuration classes
+	 */
+	public static void main(String[] args) throws Exception {
+		if (args.length < 2) {
+			System.err.println("Usage: BeanDefinitionSnapshotGenerator <outputDirectory> <configClass>...");
+			System.exit(1);
+		}
+		ClassLoader classLoader = ClassUtils.getDefaultClassLoader();
+		Class<?>[] configClasses = new Class<?>[args.length - 1];
+		for (int i = 1; i < args.length; i++) {
+			configClasses[i - 1] = ClassUtils.forName(args[i], classLoader);
+		}
+		File file = new BeanDefinitionSnapshotGenerator().generate(new File(args[0]), configClasses);
+		System.out.println("Bean definition snapshot written to " + file);
+	}
+
+}
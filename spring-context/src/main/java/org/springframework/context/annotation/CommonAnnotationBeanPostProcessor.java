@@ -24,6 +24,8 @@ import org.springframework.beans.PropertyValues;
 import org.springframework.beans.factory.BeanCreationException;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.BeanFactoryUtils;
+import org.springframework.beans.factory.ListableBeanFactory;
 import org.springframework.beans.factory.NoSuchBeanDefinitionException;
 import org.springframework.beans.factory.annotation.InitDestroyAnnotationBeanPostProcessor;
 import org.springframework.beans.factory.annotation.InjectionMetadata;
@@ -123,7 +125,7 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 @SuppressWarnings("serial")
 public class CommonAnnotationBeanPostProcessor extends InitDestroyAnnotationBeanPostProcessor
-        implements InstantiationAwareBeanPostProcessor, BeanFactoryAware, Serializable {
+        implements DependencyDeterminingBeanPostProcessor, BeanFactoryAware, Serializable {
 
     //WebService关于JAX-WS的相关注解
     @Nullable
@@ -293,6 +295,50 @@ public class CommonAnnotationBeanPostProcessor extends InitDestroyAnnotationBean
         metadata.checkConfigMembers(beanDefinition);
     }
 
+    /**
+     * Determine the beans that {@code @Resource} elements of the given class
+     * refer to, including all candidates for a fallback by type.
+     * <p>Returns {@code null} for {@code @WebServiceRef} and {@code @EJB}
+     * elements, for collection-typed fallback matches, and when resources are
+     * not resolved against a {@link ListableBeanFactory}. {@code mappedName}
+     * references are looked up in JNDI and therefore not included.
+     *
+     * @since 5.1
+     */
+    @Override
+    @Nullable
+    public Set<String> determineInjectedDependencies(Class<?> beanClass, String beanName) throws BeansException {
+        if (this.alwaysUseJndiLookup || !(this.resourceFactory instanceof ListableBeanFactory)) {
+            return null;
+        }
+        ListableBeanFactory factory = (ListableBeanFactory) this.resourceFactory;
+        InjectionMetadata metadata = findResourceMetadata(beanName, beanClass, null);
+        Set<String> dependencies = new LinkedHashSet<>();
+        for (InjectionMetadata.InjectedElement element : metadata.getInjectedElements()) {
+            if (!(element instanceof ResourceElement)) {
+                return null;
+            }
+            LookupElement lookupElement = (LookupElement) element;
+            if (StringUtils.hasLength(lookupElement.mappedName)) {
+                continue;
+            }
+            if (this.fallbackToDefaultTypeMatch && lookupElement.isDefaultName &&
+                    factory instanceof AutowireCapableBeanFactory && !factory.containsBean(lookupElement.name)) {
+                Class<?> lookupType = lookupElement.lookupType;
+                if (lookupType.isArray() || Collection.class.isAssignableFrom(lookupType) ||
+                        Map.class.isAssignableFrom(lookupType)) {
+                    return null;
+                }
+                Collections.addAll(dependencies,
+                        BeanFactoryUtils.beanNamesForTypeIncludingAncestors(factory, lookupType, true, true));
+            } else {
+                dependencies.add(lookupElement.name);
+            }
+        }
+        dependencies.remove(beanName);
+        return dependencies;
+    }
+
     @Override
     public Object postProcessBeforeInstantiation(Class<?> beanClass, String beanName) throws BeansException {
         return null;
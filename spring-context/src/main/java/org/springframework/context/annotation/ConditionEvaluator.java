@@ -21,6 +21,7 @@ import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
 import org.springframework.beans.factory.support.BeanDefinitionRegistry;
 import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.annotation.ConfigurationCondition.ConfigurationPhase;
+import org.springframework.core.NamedThreadLocal;
 import org.springframework.core.annotation.AnnotationAwareOrderComparator;
 import org.springframework.core.env.Environment;
 import org.springframework.core.env.EnvironmentCapable;
@@ -29,6 +30,7 @@ import org.springframework.core.io.DefaultResourceLoader;
 import org.springframework.core.io.ResourceLoader;
 import org.springframework.core.type.AnnotatedTypeMetadata;
 import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.MethodMetadata;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
@@ -36,7 +38,9 @@ import org.springframework.util.MultiValueMap;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Internal class used to evaluate {@link Conditional} annotations.
@@ -47,6 +51,13 @@ import java.util.List;
  */
 class ConditionEvaluator {
 
+    /**
+     * Elements carrying {@code @Conditional} annotations evaluated in the current thread,
+     * if tracked through {@link #trackConditionalElements()}.
+     */
+    private static final ThreadLocal<Set<String>> conditionalElements =
+            new NamedThreadLocal<>("Evaluated conditional elements");
+
     private final ConditionContextImpl context;
 
 
@@ -84,6 +95,11 @@ class ConditionEvaluator {
             return false;
         }
 
+        Set<String> trackedElements = conditionalElements.get();
+        if (trackedElements != null) {
+            trackedElements.add(getElementDescription(metadata));
+        }
+
         if (phase == null) {
             if (metadata instanceof AnnotationMetadata &&
                     ConfigurationClassUtils.isConfigurationCandidate((AnnotationMetadata) metadata)) {
@@ -117,6 +133,37 @@ class ConditionEvaluator {
         return false;
     }
 
+    /**
+     * Start tracking the elements with {@code @Conditional} annotations that get
+     * evaluated in the current thread, until {@link #stopTrackingConditionalElements()}.
+     * Used to determine whether configuration class processing is deterministic.
+     */
+    static void trackConditionalElements() {
+        conditionalElements.set(new LinkedHashSet<>());
+    }
+
+    /**
+     * Stop tracking conditional elements in the current thread.
+     * @return the descriptions of the conditional elements evaluated since
+     * {@link #trackConditionalElements()} was called (never {@code null})
+     */
+    static Set<String> stopTrackingConditionalElements() {
+        Set<String> trackedElements = conditionalElements.get();
+        conditionalElements.remove();
+        return (trackedElements != null ? trackedElements : Collections.emptySet());
+    }
+
+    private static String getElementDescription(AnnotatedTypeMetadata metadata) {
+        if (metadata instanceof AnnotationMetadata) {
+            return ((AnnotationMetadata) metadata).getClassName();
+        }
+        if (metadata instanceof MethodMetadata) {
+            MethodMetadata methodMetadata = (MethodMetadata) metadata;
+            return methodMetadata.getDeclaringClassName() + "." + methodMetadata.getMethodName() + "()";
+        }
+        return metadata.toString();
+    }
+
     @SuppressWarnings("unchecked")
     private List<String[]> getConditionClasses(AnnotatedTypeMetadata metadata) {
         MultiValueMap<String, Object> attributes = metadata.getAllAnnotationAttributes(Conditional.class.getName(), true);
@@ -31,6 +31,7 @@ import org.springframework.beans.factory.support.BeanDefinitionReader;
 import org.springframework.beans.factory.support.BeanDefinitionRegistry;
 import org.springframework.beans.factory.support.BeanNameGenerator;
 import org.springframework.context.annotation.ConfigurationCondition.ConfigurationPhase;
+import org.springframework.core.NamedThreadLocal;
 import org.springframework.core.NestedIOException;
 import org.springframework.core.OrderComparator;
 import org.springframework.core.Ordered;
@@ -86,6 +87,12 @@ class ConfigurationClassParser {
     private static final Comparator<DeferredImportSelectorHolder> DEFERRED_IMPORT_COMPARATOR =
             (o1, o2) -> AnnotationAwareOrderComparator.INSTANCE.compare(o1.getImportSelector(), o2.getImportSelector());
 
+    /**
+     * Declarations processed in the current thread whose outcome depends on more than
+     * the configuration classes themselves, if tracked through {@link #trackExternalInputs()}.
+     */
+    private static final ThreadLocal<Set<String>> externalInputs =
+            new NamedThreadLocal<>("Processed external configuration inputs");
 
     private final Log logger = LogFactory.getLog(getClass());
 
@@ -240,6 +247,7 @@ class ConfigurationClassParser {
         for (AnnotationAttributes propertySource : AnnotationConfigUtils.attributesForRepeatable(
                 sourceClass.getMetadata(), PropertySources.class,
                 org.springframework.context.annotation.PropertySource.class)) {
+            trackExternalInput("@PropertySource on " + sourceClass.getMetadata().getClassName());
             if (this.environment instanceof ConfigurableEnvironment) {
                 processPropertySource(propertySource);
             } else {
@@ -254,6 +262,7 @@ class ConfigurationClassParser {
         if (!componentScans.isEmpty() &&
                 !this.conditionEvaluator.shouldSkip(sourceClass.getMetadata(), ConfigurationPhase.REGISTER_BEAN)) {
             for (AnnotationAttributes componentScan : componentScans) {
+                trackExternalInput("@ComponentScan on " + sourceClass.getMetadata().getClassName());
                 // The config class is annotated with @ComponentScan -> perform the scan immediately
                 Set<BeanDefinitionHolder> scannedBeanDefinitions =
                         this.componentScanParser.parse(componentScan, sourceClass.getMetadata().getClassName());
@@ -274,6 +283,7 @@ class ConfigurationClassParser {
         AnnotationAttributes importResource =
                 AnnotationConfigUtils.attributesFor(sourceClass.getMetadata(), ImportResource.class);
         if (importResource != null) {
+            trackExternalInput("@ImportResource on " + sourceClass.getMetadata().getClassName());
             String[] resources = importResource.getStringArray("locations");
             Class<? extends BeanDefinitionReader> readerClass = importResource.getClass("reader");
             for (String resource : resources) {
@@ -390,6 +400,35 @@ class ConfigurationClassParser {
     }
 
 
+    /**
+     * Start tracking the declarations processed in the current thread whose outcome
+     * depends on more than the configuration classes themselves, until
+     * {@link #stopTrackingExternalInputs()}: {@code @PropertySource} (which affects the
+     * Environment), {@code @ComponentScan}, {@code @ImportResource} and import selectors.
+     */
+    static void trackExternalInputs() {
+        externalInputs.set(new LinkedHashSet<>());
+    }
+
+    /**
+     * Stop tracking external inputs in the current thread.
+     *
+     * @return descriptions of the declarations processed since {@link #trackExternalInputs()}
+     * was called (never {@code null})
+     */
+    static Set<String> stopTrackingExternalInputs() {
+        Set<String> trackedInputs = externalInputs.get();
+        externalInputs.remove();
+        return (trackedInputs != null ? trackedInputs : Collections.emptySet());
+    }
+
+    private static void trackExternalInput(String description) {
+        Set<String> trackedInputs = externalInputs.get();
+        if (trackedInputs != null) {
+            trackedInputs.add(description);
+        }
+    }
+
     /**
      * Process the given <code>@PropertySource</code> annotation metadata.
      *
@@ -542,6 +581,8 @@ class ConfigurationClassParser {
                 for (SourceClass candidate : importCandidates) {
                     if (candidate.isAssignable(ImportSelector.class)) {
                         // Candidate class is an ImportSelector -> delegate to it to determine imports
+                        trackExternalInput("ImportSelector " + candidate.getMetadata().getClassName() +
+                                " imported by " + currentSourceClass.getMetadata().getClassName());
                         Class<?> candidateClass = candidate.loadClass();
                         ImportSelector selector = BeanUtils.instantiateClass(candidateClass, ImportSelector.class);
                         ParserStrategyUtils.invokeAwareMethods(
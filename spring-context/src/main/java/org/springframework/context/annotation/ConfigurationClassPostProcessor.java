@@ -77,7 +77,7 @@ import static org.springframework.context.annotation.AnnotationConfigUtils.CONFI
 public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPostProcessor,
         PriorityOrdered, ResourceLoaderAware, BeanClassLoaderAware, EnvironmentAware {
 
-    private static final String IMPORT_REGISTRY_BEAN_NAME =
+    static final String IMPORT_REGISTRY_BEAN_NAME =
             ConfigurationClassPostProcessor.class.getName() + ".importRegistry";
 
 
@@ -108,6 +108,8 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 
     private boolean localBeanNameGeneratorSet = false;
 
+    private boolean useBeanDefinitionSnapshot = false;
+
     /* Using short class names as default bean names */
     private BeanNameGenerator componentScanBeanNameGenerator = new AnnotationBeanNameGenerator();
 
@@ -181,6 +183,19 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
         this.importBeanNameGenerator = beanNameGenerator;
     }
 
+    /**
+     * Set whether to register the bean definitions from a matching
+     * {@link BeanDefinitionSnapshot} instead of parsing the configuration classes,
+     * if such a snapshot is available in {@value BeanDefinitionSnapshot#SNAPSHOT_RESOURCE_LOCATION}.
+     * <p>Default is "false". Snapshots are never used with a custom {@link BeanNameGenerator}.
+     *
+     * @see BeanDefinitionSnapshotGenerator
+     * @since 5.1
+     */
+    public void setUseBeanDefinitionSnapshot(boolean useBeanDefinitionSnapshot) {
+        this.useBeanDefinitionSnapshot = useBeanDefinitionSnapshot;
+    }
+
     @Override
     public void setEnvironment(Environment environment) {
         Assert.notNull(environment, "Environment must not be null");
@@ -287,6 +302,7 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 
         // Detect any custom bean name generation strategy supplied through the enclosing application context
         SingletonBeanRegistry sbr = null;
+        boolean customBeanNameGenerator = this.localBeanNameGeneratorSet;
         if (registry instanceof SingletonBeanRegistry) {
             sbr = (SingletonBeanRegistry) registry;
             if (!this.localBeanNameGeneratorSet) {
@@ -294,10 +310,17 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
                 if (generator != null) {
                     this.componentScanBeanNameGenerator = generator;
                     this.importBeanNameGenerator = generator;
+                    customBeanNameGenerator = true;
                 }
             }
         }
 
+        // Register pre-parsed bean definitions from a build-time snapshot, if available
+        if (this.useBeanDefinitionSnapshot && !customBeanNameGenerator &&
+                registerBeanDefinitionSnapshot(registry, sbr, configCandidates)) {
+            return;
+        }
+
         if (this.environment == null) {
             this.environment = new StandardEnvironment();
         }
@@ -363,6 +386,40 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
         }
     }
 
+    /**
+     * Register the bean definitions from an up-to-date {@link BeanDefinitionSnapshot}
+     * generated for the given configuration class candidates, if available.
+     *
+     * @return whether a matching snapshot has been registered
+     */
+    private boolean registerBeanDefinitionSnapshot(BeanDefinitionRegistry registry,
+                                                   @Nullable SingletonBeanRegistry sbr, List<BeanDefinitionHolder> configCandidates) {
+
+        List<String> configClassNames = new ArrayList<>(configCandidates.size());
+        for (BeanDefinitionHolder holder : configCandidates) {
+            configClassNames.add(holder.getBeanDefinition().getBeanClassName());
+        }
+        for (BeanDefinitionSnapshot snapshot : BeanDefinitionSnapshot.loadSnapshots(this.beanClassLoader)) {
+            if (snapshot.isApplicableTo(registry, configClassNames)) {
+                if (!snapshot.isUpToDate(this.beanClassLoader)) {
+                    if (logger.isInfoEnabled()) {
+                        logger.info("Ignoring " + snapshot + " since its configuration classes have changed");
+                    }
+                    continue;
+                }
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Registering bean definitions from " + snapshot);
+                }
+                snapshot.registerBeanDefinitions(registry, this.metadataReaderFactory);
+                if (sbr != null && !sbr.containsSingleton(IMPORT_REGISTRY_BEAN_NAME)) {
+                    sbr.registerSingleton(IMPORT_REGISTRY_BEAN_NAME, snapshot.getImportRegistry(this.metadataReaderFactory));
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Post-processes a BeanFactory in search of Configuration class BeanDefinitions;
      * any candidates are then enhanced by a {@link ConfigurationClassEnhancer}.
@@ -417,7 +474,8 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
     }
 
 
-    private static class ImportAwareBeanPostProcessor extends InstantiationAwareBeanPostProcessorAdapter {
+    private static class ImportAwareBeanPostProcessor extends InstantiationAwareBeanPostProcessorAdapter
+            implements DependencyDeterminingBeanPostProcessor {
 
         private final BeanFactory beanFactory;
 
@@ -425,6 +483,12 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
             this.beanFactory = beanFactory;
         }
 
+        @Override
+        public Set<String> determineInjectedDependencies(Class<?> beanClass, String beanName) {
+            // The import registry is a pre-registered singleton
+            return Collections.emptySet();
+        }
+
         @Override
         public PropertyValues postProcessPropertyValues(
                 PropertyValues pvs, PropertyDescriptor[] pds, Object bean, String beanName) {
@@ -18,6 +18,7 @@ package org.springframework.context.expression;
 
 import java.util.Map;
 
+import org.springframework.asm.Label;
 import org.springframework.asm.MethodVisitor;
 import org.springframework.expression.AccessException;
 import org.springframework.expression.EvaluationContext;
@@ -92,8 +93,64 @@ public class MapAccessor implements CompilablePropertyAccessor {
 			}
 			CodeFlow.insertCheckCast(mv, "Ljava/util/Map");
 		}
+		// Like read(), a null value is only returned for a key that is actually present:
+		// for a missing key the compiled code throws the same SpelEvaluationException
+		// as the interpreter, reverting to interpreted evaluation in mixed mode,
+		// where other accessors get a chance to resolve the property.
+		Label found = new Label();
+		Label end = new Label();
+		mv.visitInsn(DUP);
 		mv.visitLdcInsn(propertyName);
 		mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Map", "get","(Ljava/lang/Object;)Ljava/lang/Object;",true);
+		mv.visitInsn(DUP);
+		mv.visitJumpInsn(IFNONNULL, found);
+		mv.visitInsn(POP);
+		mv.visitInsn(DUP);
+		mv.visitLdcInsn(propertyName);
+		mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Map", "containsKey", "(Ljava/lang/Object;)Z", true);
+		Label present = new Label();
+		mv.visitJumpInsn(IFNE, present);
+		generateMissingKeyException(propertyName, mv);
+		mv.visitLabel(present);
+		mv.visitInsn(POP);
+		mv.visitInsn(ACONST_NULL);
+		mv.visitJumpInsn(GOTO, end);
+		mv.visitLabel(found);
+		mv.visitInsn(SWAP);
+		mv.visitInsn(POP);
+		mv.visitLabel(end);
+	}
+
+	/**
+	 * Throw a SpelEvaluationException for the map on top of the stack,
+	 * equivalent to the one raised by interpreted evaluation.
+	 */
+	private static void generateMissingKeyException(String propertyName, MethodVisitor mv) {
+		String exceptionType = "org/springframework/expression/spel/SpelEvaluationException";
+		String messageType = "org/springframework/expression/spel/SpelMessage";
+		// Stack: map
+		mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/Object", "getClass", "()Ljava/lang/Class;", false);
+		mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/Class", "getName", "()Ljava/lang/String;", false);
+		mv.visitTypeInsn(NEW, exceptionType);
+		mv.visitInsn(DUP_X1);
+		mv.visitInsn(SWAP);
+		// Stack: exception, exception, className
+		mv.visitInsn(ICONST_2);
+		mv.visitTypeInsn(ANEWARRAY, "java/lang/Object");
+		mv.visitInsn(DUP_X1);
+		mv.visitInsn(SWAP);
+		mv.visitInsn(ICONST_1);
+		mv.visitInsn(SWAP);
+		mv.visitInsn(AASTORE);
+		mv.visitInsn(DUP);
+		mv.visitInsn(ICONST_0);
+		mv.visitLdcInsn(propertyName);
+		mv.visitInsn(AASTORE);
+		// Stack: exception, exception, inserts
+		mv.visitFieldInsn(GETSTATIC, messageType, "PROPERTY_OR_FIELD_NOT_READABLE", "L" + messageType + ";");
+		mv.visitInsn(SWAP);
+		mv.visitMethodInsn(INVOKESPECIAL, exceptionType, "<init>", "(L" + messageType + ";[Ljava/lang/Object;)V", false);
+		mv.visitInsn(ATHROW);
 	}
 
 
@@ -91,19 +91,23 @@ public class StandardBeanExpressionResolver implements BeanExpressionResolver {
 
     /**
      * Create a new {@code StandardBeanExpressionResolver} with default settings.
+     * <p>Expressions are compiled after a number of evaluations, as per
+     * {@link SpelParserConfiguration#forFrameworkExpressions}.
      */
     public StandardBeanExpressionResolver() {
-        this.expressionParser = new SpelExpressionParser();
+        this(null);
     }
 
     /**
      * Create a new {@code StandardBeanExpressionResolver} with the given bean class loader,
      * using it as the basis for expression compilation.
+     * <p>Expressions are compiled after a number of evaluations, as per
+     * {@link SpelParserConfiguration#forFrameworkExpressions}.
      *
      * @param beanClassLoader the factory's bean class loader
      */
     public StandardBeanExpressionResolver(@Nullable ClassLoader beanClassLoader) {
-        this.expressionParser = new SpelExpressionParser(new SpelParserConfiguration(null, beanClassLoader));
+        this.expressionParser = new SpelExpressionParser(SpelParserConfiguration.forFrameworkExpressions(beanClassLoader));
     }
 
 
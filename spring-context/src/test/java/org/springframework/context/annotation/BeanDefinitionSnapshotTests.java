@@ -0,0 +1,372 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Properties;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.classreading.SimpleMetadataReaderFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.tests.sample.beans.TestBean;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link BeanDefinitionSnapshot} and {@link BeanDefinitionSnapshotGenerator}.
+ *
+ * @since 5.1
+ */
+public class BeanDefinitionSnapshotTests {
+
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+
+	@Test
+	public void generateSnapshot() {
+		BeanDefinitionSnapshot snapshot = new BeanDefinitionSnapshotGenerator().generate(SnapshotConfig.class);
+
+		assertEquals(Collections.singleton(SnapshotConfig.class.getName()), snapshot.getSources());
+		assertTrue(snapshot.getBeanNames().containsAll(Arrays.asList(ImportedConfig.class.getName(),
+				SimpleComponent.class.getName(), "testBean", "scopedBean", "scopedTarget.scopedBean", "importingClass")));
+	}
+
+	@Test
+	public void registerSnapshot() throws IOException {
+		BeanDefinitionSnapshot snapshot = roundTrip(new BeanDefinitionSnapshotGenerator().generate(SnapshotConfig.class));
+		DefaultListableBeanFactory registry = new DefaultListableBeanFactory();
+
+		assertTrue(snapshot.isApplicableTo(registry, Collections.singleton(SnapshotConfig.class.getName())));
+		assertFalse(snapshot.isApplicableTo(registry, Collections.singleton(ImportedConfig.class.getName())));
+		assertTrue(snapshot.isUpToDate(getClass().getClassLoader()));
+		snapshot.registerBeanDefinitions(registry, new SimpleMetadataReaderFactory());
+
+		assertArrayEquals(new String[] {"tb"}, registry.getAliases("testBean"));
+		BeanDefinition testBean = registry.getBeanDefinition("testBean");
+		assertEquals("beanDefinitionSnapshotTests.SnapshotConfig", testBean.getFactoryBeanName());
+		assertEquals("testBean", testBean.getFactoryMethodName());
+		assertTrue(testBean instanceof AnnotatedBeanDefinition);
+		assertEquals(SnapshotConfig.class.getName(), ((AnnotatedBeanDefinition) testBean).getMetadata().getClassName());
+		assertEquals("testBean", ((AnnotatedBeanDefinition) testBean).getFactoryMethodMetadata().getMethodName());
+		BeanDefinition component = registry.getBeanDefinition(SimpleComponent.class.getName());
+		assertTrue(component instanceof AnnotatedBeanDefinition);
+		assertTrue(((AnnotatedBeanDefinition) component).getMetadata().hasAnnotation(Component.class.getName()));
+		assertTrue(ConfigurationClassUtils.isFullConfigurationClass(
+				registry.getBeanDefinition(ImportedConfig.class.getName())));
+		assertFalse(registry.getBeanDefinition("scopedTarget.scopedBean").isAutowireCandidate());
+		assertFalse(snapshot.isApplicableTo(registry, Collections.singleton(SnapshotConfig.class.getName())));
+	}
+
+	@Test
+	public void writeSnapshotIsDeterministic() throws IOException {
+		BeanDefinitionSnapshotGenerator generator = new BeanDefinitionSnapshotGenerator();
+		File first = generator.generate(this.temporaryFolder.newFolder(), SnapshotConfig.class);
+		File second = generator.generate(this.temporaryFolder.newFolder(), SnapshotConfig.class);
+
+		assertTrue(first.getPath().endsWith(BeanDefinitionSnapshot.SNAPSHOT_RESOURCE_LOCATION.replace('/', File.separatorChar)));
+		assertEquals(withoutTimestamp(first), withoutTimestamp(second));
+	}
+
+	@Test
+	public void contextUsesSnapshot() throws IOException {
+		File outputDirectory = this.temporaryFolder.newFolder();
+		new BeanDefinitionSnapshotGenerator().generate(outputDirectory, SnapshotConfig.class);
+
+		AnnotationConfigApplicationContext ctx = snapshotContext(
+				new File(outputDirectory, BeanDefinitionSnapshot.SNAPSHOT_RESOURCE_LOCATION).toURI().toURL());
+		ctx.register(SnapshotConfig.class);
+		ctx.refresh();
+
+		assertTrue(isFromSnapshot(ctx.getBeanFactory().getBeanDefinition("testBean")));
+		TestBean testBean = ctx.getBean("tb", TestBean.class);
+		assertSame(ctx.getBean(SimpleComponent.class), testBean.getSpouse().getSpouse());
+		assertEquals(SnapshotConfig.class.getName(), ctx.getBean("importingClass"));
+		TestBean scopedBean = ctx.getBean("scopedBean", TestBean.class);
+		assertTrue(AopUtils.isCglibProxy(scopedBean));
+		assertEquals("scoped", scopedBean.getName());
+		ctx.close();
+	}
+
+	@Test
+	public void contextIgnoresSnapshotByDefault() throws IOException {
+		File outputDirectory = this.temporaryFolder.newFolder();
+		new BeanDefinitionSnapshotGenerator().generate(outputDirectory, SnapshotConfig.class);
+
+		AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext();
+		ctx.setClassLoader(new SnapshotClassLoader(getClass().getClassLoader(),
+				new File(outputDirectory, BeanDefinitionSnapshot.SNAPSHOT_RESOURCE_LOCATION).toURI().toURL()));
+		ctx.register(SnapshotConfig.class);
+		ctx.refresh();
+
+		assertFalse(isFromSnapshot(ctx.getBeanFactory().getBeanDefinition("testBean")));
+		assertEquals(SnapshotConfig.class.getName(), ctx.getBean("importingClass"));
+		ctx.close();
+	}
+
+	@Test
+	public void contextWithoutMatchingSnapshotParsesConfigurationClasses() throws IOException {
+		File outputDirectory = this.temporaryFolder.newFolder();
+		new BeanDefinitionSnapshotGenerator().generate(outputDirectory, ImportedConfig.class);
+
+		AnnotationConfigApplicationContext ctx = snapshotContext(
+				new File(outputDirectory, BeanDefinitionSnapshot.SNAPSHOT_RESOURCE_LOCATION).toURI().toURL());
+		ctx.register(SnapshotConfig.class);
+		ctx.refresh();
+
+		assertFalse(isFromSnapshot(ctx.getBeanFactory().getBeanDefinition("testBean")));
+		assertEquals(SnapshotConfig.class.getName(), ctx.getBean("importingClass"));
+		ctx.close();
+	}
+
+	@Test
+	public void contextWithOutdatedSnapshotParsesConfigurationClasses() throws IOException {
+		File outputDirectory = this.temporaryFolder.newFolder();
+		File file = new BeanDefinitionSnapshotGenerator().generate(outputDirectory, SnapshotConfig.class);
+		Properties properties = new Properties();
+		try (InputStream in = new FileInputStream(file)) {
+			properties.load(in);
+		}
+		properties.setProperty("digest", "0");
+		try (OutputStream out = new FileOutputStream(file)) {
+			properties.store(out, null);
+		}
+		assertFalse(new BeanDefinitionSnapshot(properties).isUpToDate(getClass().getClassLoader()));
+
+		AnnotationConfigApplicationContext ctx = snapshotContext(file.toURI().toURL());
+		ctx.register(SnapshotConfig.class);
+		ctx.refresh();
+
+		assertFalse(isFromSnapshot(ctx.getBeanFactory().getBeanDefinition("testBean")));
+		assertSame(ctx.getBean(SimpleComponent.class), ctx.getBean("tb", TestBean.class).getSpouse().getSpouse());
+		ctx.close();
+	}
+
+	@Test
+	public void conditionsPreventSnapshot() {
+		try {
+			new BeanDefinitionSnapshotGenerator().generate(ConditionalConfig.class);
+			fail("Should have thrown IllegalStateException");
+		}
+		catch (IllegalStateException ex) {
+			assertTrue(ex.getMessage().contains(ConditionalConfig.class.getName() + ".profileBean()"));
+		}
+	}
+
+	@Test
+	public void propertySourcesPreventSnapshot() {
+		try {
+			new BeanDefinitionSnapshotGenerator().generate(PropertySourceConfig.class);
+			fail("Should have thrown IllegalStateException");
+		}
+		catch (IllegalStateException ex) {
+			assertTrue(ex.getMessage().contains(PropertySourceConfig.class.getName()));
+		}
+	}
+
+	@Test
+	public void componentScanPreventsSnapshot() {
+		try {
+			new BeanDefinitionSnapshotGenerator().generate(ComponentScanConfig.class);
+			fail("Should have thrown IllegalStateException");
+		}
+		catch (IllegalStateException ex) {
+			assertTrue(ex.getMessage().contains("@ComponentScan on " + ComponentScanConfig.class.getName()));
+		}
+	}
+
+	@Test
+	public void importResourcePreventsSnapshot() {
+		try {
+			new BeanDefinitionSnapshotGenerator().generate(ImportResourceConfig.class);
+			fail("Should have thrown IllegalStateException");
+		}
+		catch (IllegalStateException ex) {
+			assertTrue(ex.getMessage().contains("@ImportResource on " + ImportResourceConfig.class.getName()));
+		}
+	}
+
+	@Test
+	public void importSelectorPreventsSnapshot() {
+		try {
+			new BeanDefinitionSnapshotGenerator().generate(ImportSelectorConfig.class);
+			fail("Should have thrown IllegalStateException");
+		}
+		catch (IllegalStateException ex) {
+			assertTrue(ex.getMessage().contains(SimpleImportSelector.class.getName()));
+		}
+	}
+
+
+	private AnnotationConfigApplicationContext snapshotContext(URL snapshot) {
+		AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext();
+		ctx.setClassLoader(new SnapshotClassLoader(getClass().getClassLoader(), snapshot));
+		ctx.getBeanDefinition(AnnotationConfigUtils.CONFIGURATION_ANNOTATION_PROCESSOR_BEAN_NAME)
+				.getPropertyValues().add("useBeanDefinitionSnapshot", true);
+		return ctx;
+	}
+
+	private static BeanDefinitionSnapshot roundTrip(BeanDefinitionSnapshot snapshot) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		snapshot.writeTo(out);
+		Properties properties = new Properties();
+		properties.load(new ByteArrayInputStream(out.toByteArray()));
+		return new BeanDefinitionSnapshot(properties);
+	}
+
+	private static boolean isFromSnapshot(BeanDefinition beanDefinition) {
+		return (beanDefinition.getClass().getEnclosingClass() == BeanDefinitionSnapshot.class);
+	}
+
+	private static String withoutTimestamp(File file) throws IOException {
+		String content = new String(Files.readAllBytes(file.toPath()), "ISO-8859-1");
+		return content.substring(content.indexOf('\n', content.indexOf('\n') + 1));
+	}
+
+
+	@Configuration
+	@Import({ImportedConfig.class, SimpleComponent.class})
+	static class SnapshotConfig {
+
+		@Bean({"testBean", "tb"})
+		public TestBean testBean(SimpleComponent component) {
+			TestBean testBean = new TestBean("tb");
+			testBean.setSpouse(new TestBean("component"));
+			testBean.getSpouse().setSpouse(component);
+			return testBean;
+		}
+
+		@Bean
+		@Scope(scopeName = "prototype", proxyMode = ScopedProxyMode.TARGET_CLASS)
+		public TestBean scopedBean() {
+			return new TestBean("scoped");
+		}
+	}
+
+
+	@Configuration
+	static class ImportedConfig implements ImportAware {
+
+		private AnnotationMetadata importMetadata;
+
+		@Override
+		public void setImportMetadata(AnnotationMetadata importMetadata) {
+			this.importMetadata = importMetadata;
+		}
+
+		@Bean
+		public String importingClass() {
+			return this.importMetadata.getClassName();
+		}
+	}
+
+
+	@Component
+	static class SimpleComponent extends TestBean {
+	}
+
+
+	@Configuration
+	static class ConditionalConfig {
+
+		@Bean
+		@Profile("test")
+		public TestBean profileBean() {
+			return new TestBean();
+		}
+	}
+
+
+	@Configuration
+	@PropertySource("classpath:org/springframework/context/annotation/p1.properties")
+	static class PropertySourceConfig {
+
+		@Bean
+		public TestBean testBean() {
+			return new TestBean();
+		}
+	}
+
+
+	@Configuration
+	@ComponentScan(basePackageClasses = SimpleComponent.class, useDefaultFilters = false,
+			includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = SimpleComponent.class))
+	static class ComponentScanConfig {
+	}
+
+
+	@Configuration
+	@ImportResource("classpath:org/springframework/context/annotation/configuration/ImportXmlConfig-context.xml")
+	static class ImportResourceConfig {
+	}
+
+
+	@Configuration
+	@Import(SimpleImportSelector.class)
+	static class ImportSelectorConfig {
+	}
+
+
+	static class SimpleImportSelector implements ImportSelector {
+
+		@Override
+		public String[] selectImports(AnnotationMetadata importingClassMetadata) {
+			return new String[] {ImportedConfig.class.getName()};
+		}
+	}
+
+
+
+	private static class SnapshotClassLoader extends ClassLoader {
+
+		private final URL snapshot;
+
+		SnapshotClassLoader(ClassLoader parent, URL snapshot) {
+			super(parent);
+			this.snapshot = snapshot;
+		}
+
+		@Override
+		public Enumeration<URL> getResources(String name) throws IOException {
+			if (BeanDefinitionSnapshot.SNAPSHOT_RESOURCE_LOCATION.equals(name)) {
+				return Collections.enumeration(Collections.singleton(this.snapshot));
+			}
+			return super.getResources(name);
+		}
+	}
+
+}
@@ -16,6 +16,8 @@
 
 package org.springframework.context.annotation;
 
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.Properties;
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
@@ -166,6 +168,23 @@ public class CommonAnnotationBeanPostProcessorTests {
 		assertTrue(bean.destroy3Called);
 	}
 
+	@Test
+	public void testInjectedDependencies() {
+		DefaultListableBeanFactory bf = new DefaultListableBeanFactory();
+		CommonAnnotationBeanPostProcessor bpp = new CommonAnnotationBeanPostProcessor();
+		bpp.setBeanFactory(bf);
+		bf.addBeanPostProcessor(bpp);
+		bf.registerBeanDefinition("testBean2", new RootBeanDefinition(TestBean.class));
+		bf.registerBeanDefinition("testBean3", new RootBeanDefinition(TestBean.class));
+
+		assertEquals(new HashSet<>(Arrays.asList("testBean2", "testBean3")),
+				bpp.determineInjectedDependencies(ResourceInjectionBean.class, "annotatedBean"));
+		bf.registerBeanDefinition("testBean", new RootBeanDefinition(TestBean.class));
+		assertEquals(new HashSet<>(Arrays.asList("testBean", "testBean2")),
+				bpp.determineInjectedDependencies(ResourceInjectionBean.class, "otherBean"));
+		assertNull(bpp.determineInjectedDependencies(ExtendedEjbInjectionBean.class, "ejbBean"));
+	}
+
 	@Test
 	public void testResourceInjectionWithPrototypes() {
 		DefaultListableBeanFactory bf = new DefaultListableBeanFactory();
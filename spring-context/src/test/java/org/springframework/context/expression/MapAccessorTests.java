@@ -21,6 +21,10 @@ import java.util.Map;
 
 import org.junit.Test;
 import org.springframework.expression.Expression;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelEvaluationException;
+import org.springframework.expression.spel.SpelMessage;
+import org.springframework.expression.spel.SpelParserConfiguration;
 import org.springframework.expression.spel.standard.SpelCompiler;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
@@ -68,6 +72,58 @@ public class MapAccessorTests {
 		assertEquals("bar",ex.getValue(sec,mapGetter));
 	}
 
+	@Test
+	public void mapAccessorCompiledWithMissingKey() {
+		Map<String, Object> testMap = getSimpleTestMap();
+		testMap.put("nullValue", null);
+		StandardEvaluationContext sec = new StandardEvaluationContext();
+		sec.addPropertyAccessor(new MapAccessor());
+		SpelExpressionParser sep = new SpelExpressionParser(
+				new SpelParserConfiguration(SpelCompilerMode.MIXED, getClass().getClassLoader()));
+
+		Expression ex = sep.parseExpression("nullValue");
+		assertNull(ex.getValue(sec, testMap));
+		assertTrue(SpelCompiler.compile(ex));
+		assertNull(ex.getValue(sec, testMap));
+
+		// A missing key must not be read as null by the compiled form
+		ex = sep.parseExpression("foo");
+		assertEquals("bar", ex.getValue(sec, testMap));
+		assertTrue(SpelCompiler.compile(ex));
+		testMap.remove("foo");
+		try {
+			ex.getValue(sec, testMap);
+			fail("Should have failed to resolve missing key");
+		}
+		catch (SpelEvaluationException ex2) {
+			assertEquals(SpelMessage.PROPERTY_OR_FIELD_NOT_READABLE, ex2.getMessageCode());
+		}
+	}
+
+	@Test
+	public void mapAccessorCompiledWithMissingKeyInImmediateMode() {
+		Map<String, Object> testMap = getSimpleTestMap();
+		StandardEvaluationContext sec = new StandardEvaluationContext();
+		sec.addPropertyAccessor(new MapAccessor());
+		SpelExpressionParser sep = new SpelExpressionParser(
+				new SpelParserConfiguration(SpelCompilerMode.IMMEDIATE, getClass().getClassLoader()));
+
+		Expression ex = sep.parseExpression("foo");
+		assertEquals("bar", ex.getValue(sec, testMap));
+		assertEquals("bar", ex.getValue(sec, testMap));
+		testMap.remove("foo");
+		try {
+			ex.getValue(sec, testMap);
+			fail("Should have failed to resolve missing key");
+		}
+		catch (SpelEvaluationException ex2) {
+			assertEquals(SpelMessage.EXCEPTION_RUNNING_COMPILED_EXPRESSION, ex2.getMessageCode());
+			SpelEvaluationException cause = (SpelEvaluationException) ex2.getCause();
+			assertEquals(SpelMessage.PROPERTY_OR_FIELD_NOT_READABLE, cause.getMessageCode());
+			assertArrayEquals(new Object[] {"foo", HashMap.class.getName()}, cause.getInserts());
+		}
+	}
+
 	public static class MapGetter {
 		Map<String,Object> map = new HashMap<>();
 
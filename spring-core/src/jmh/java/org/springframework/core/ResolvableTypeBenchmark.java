@@ -0,0 +1,97 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Benchmarks for the {@link ResolvableType} factory methods that the container
+ * and the web layer call for every injection point and handler method parameter.
+ *
+ * @since 5.1
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+@State(Scope.Benchmark)
+public class ResolvableTypeBenchmark {
+
+	public Method method;
+
+	public MethodParameter methodParameter;
+
+
+	@Setup
+	public void setup() {
+		this.method = ReflectionUtils.findMethod(Repository.class, "save", Map.class, List.class);
+		this.methodParameter = new MethodParameter(this.method, 0);
+	}
+
+
+	@Benchmark
+	public ResolvableType forClass() {
+		return ResolvableType.forClass(StringRepository.class);
+	}
+
+	@Benchmark
+	public Class<?> forClassAsGeneric() {
+		return ResolvableType.forClass(StringRepository.class).as(Repository.class).resolveGeneric(0);
+	}
+
+	@Benchmark
+	public ResolvableType forMethodParameter() {
+		return ResolvableType.forMethodParameter(this.method, 0);
+	}
+
+	@Benchmark
+	public Class<?> forMethodParameterResolveGeneric() {
+		return ResolvableType.forMethodParameter(this.methodParameter).resolveGeneric(1, 0);
+	}
+
+
+	public interface Repository<T> {
+
+		void save(Map<String, List<T>> entities, List<? extends T> more);
+	}
+
+
+	public static class StringRepository implements Repository<String> {
+
+		@Override
+		public void save(Map<String, List<String>> entities, List<? extends String> more) {
+		}
+	}
+
+}
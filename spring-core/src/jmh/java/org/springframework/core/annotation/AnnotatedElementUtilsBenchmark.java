@@ -0,0 +1,132 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Benchmarks for {@link AnnotatedElementUtils#findMergedAnnotation}, resolving
+ * a composed annotation with {@link AliasFor} attribute overrides the same way
+ * request mappings and transaction attributes are looked up.
+ *
+ * @since 5.1
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+@State(Scope.Benchmark)
+public class AnnotatedElementUtilsBenchmark {
+
+	public Method composedMethod;
+
+	public Method plainMethod;
+
+
+	@Setup
+	public void setup() {
+		this.composedMethod = ReflectionUtils.findMethod(AnnotatedController.class, "composed");
+		this.plainMethod = ReflectionUtils.findMethod(AnnotatedController.class, "plain");
+	}
+
+
+	@Benchmark
+	public Mapping findMergedAnnotationOnMethod() {
+		return AnnotatedElementUtils.findMergedAnnotation(this.composedMethod, Mapping.class);
+	}
+
+	@Benchmark
+	public Mapping findMergedAnnotationOnClass() {
+		return AnnotatedElementUtils.findMergedAnnotation(AnnotatedController.class, Mapping.class);
+	}
+
+	@Benchmark
+	public Mapping findMergedAnnotationNotPresent() {
+		return AnnotatedElementUtils.findMergedAnnotation(this.plainMethod, Mapping.class);
+	}
+
+	@Benchmark
+	public AnnotationAttributes getMergedAnnotationAttributes() {
+		return AnnotatedElementUtils.getMergedAnnotationAttributes(this.composedMethod, Mapping.class);
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target({ElementType.TYPE, ElementType.METHOD, ElementType.ANNOTATION_TYPE})
+	public @interface Mapping {
+
+		@AliasFor("path")
+		String[] value() default {};
+
+		@AliasFor("value")
+		String[] path() default {};
+
+		String[] method() default {};
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target(ElementType.METHOD)
+	@Mapping(method = "GET")
+	public @interface GetMapping {
+
+		@AliasFor(annotation = Mapping.class)
+		String[] path() default {};
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target(ElementType.TYPE)
+	@Mapping
+	public @interface ControllerMapping {
+
+		@AliasFor(annotation = Mapping.class, attribute = "value")
+		String[] prefix() default {};
+	}
+
+
+	@ControllerMapping(prefix = "/api")
+	public static class AnnotatedController {
+
+		@GetMapping(path = "/hotels/{hotel}")
+		public void composed() {
+		}
+
+		public void plain() {
+		}
+	}
+
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for {@link AntPathMatcher#match(String, String)}, using the kind
+ * of patterns and request paths a Spring MVC application typically sees.
+ *
+ * @since 5.1
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+@State(Scope.Benchmark)
+public class AntPathMatcherBenchmark {
+
+	@Param({"/hotels", "/hotels/{hotel}/bookings/{booking}", "/resources/**/*.css", "/api/v1/*/items/{id:\\d+}"})
+	public String pattern;
+
+	public String path;
+
+	public AntPathMatcher matcher;
+
+
+	@Setup
+	public void setup() {
+		this.matcher = new AntPathMatcher();
+		switch (this.pattern) {
+			case "/hotels":
+				this.path = "/hotels";
+				break;
+			case "/hotels/{hotel}/bookings/{booking}":
+				this.path = "/hotels/42/bookings/21";
+				break;
+			case "/resources/**/*.css":
+				this.path = "/resources/static/css/site/main.css";
+				break;
+			default:
+				this.path = "/api/v1/shop/items/12345";
+		}
+	}
+
+
+	@Benchmark
+	public boolean match() {
+		return this.matcher.match(this.pattern, this.path);
+	}
+
+	@Benchmark
+	public boolean matchStart() {
+		return this.matcher.matchStart(this.pattern, this.path);
+	}
+
+	@Benchmark
+	public Object extractUriTemplateVariables() {
+		return this.matcher.extractUriTemplateVariables(this.pattern, this.path);
+	}
+
+}
@@ -80,8 +80,9 @@ public class ResolvableType implements Serializable {
 
     private static final ResolvableType[] EMPTY_TYPES_ARRAY = new ResolvableType[0];
 
-    private static final ConcurrentReferenceHashMap<ResolvableType, ResolvableType> cache =
-            new ConcurrentReferenceHashMap<>(256);
+    private static final ConcurrentLruCache<ResolvableType, ResolvableType> cache =
+            CacheRegistry.createCache("ResolvableType", 4096,
+                    ConcurrentReferenceHashMap.ReferenceType.SOFT);
 
 
     /**
@@ -1424,9 +1425,6 @@ public class ResolvableType implements Serializable {
             return new ResolvableType(type, typeProvider, variableResolver, (ResolvableType) null);
         }
 
-        // Purge empty entries on access since we don't have a clean-up thread or the like.
-        cache.purgeUnreferencedEntries();
-
         // Check the cache - we may have a ResolvableType which has been resolved before...
         ResolvableType key = new ResolvableType(type, typeProvider, variableResolver);
         ResolvableType resolvableType = cache.get(key);
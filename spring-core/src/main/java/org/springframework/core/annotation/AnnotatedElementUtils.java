@@ -19,13 +19,19 @@ package org.springframework.core.annotation;
 import org.springframework.core.BridgeMethodResolver;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
+import org.springframework.util.CacheRegistry;
+import org.springframework.util.ConcurrentLruCache;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Array;
+import java.lang.reflect.Member;
 import java.lang.reflect.Method;
 import java.util.*;
+import java.util.function.Supplier;
 
 /**
  * General utility methods for finding annotations, meta-annotations, and
@@ -101,6 +107,35 @@ public class AnnotatedElementUtils {
 
     private static final Processor<Boolean> alwaysTrueAnnotationProcessor = new AlwaysTrueBooleanAnnotationProcessor();
 
+    // Kinds of merged lookups, combined with the attribute flags below into a cache key
+
+    private static final int GET_ATTRIBUTES = 0;
+
+    private static final int FIND_ATTRIBUTES = 1;
+
+    private static final int GET_ANNOTATION = 2;
+
+    private static final int FIND_ANNOTATION = 3;
+
+    private static final int GET_ALL_ANNOTATIONS = 4;
+
+    private static final int FIND_ALL_ANNOTATIONS = 5;
+
+    private static final int CLASS_VALUES_AS_STRING = 8;
+
+    private static final int NESTED_ANNOTATIONS_AS_MAP = 16;
+
+    private static final Object NOT_FOUND = new Object();
+
+    /**
+     * Results of merged annotation lookups on classes and members, including
+     * the synthesized annotations and "not found" markers, softly referenced
+     * so that they do not keep ClassLoaders alive.
+     */
+    private static final ConcurrentLruCache<MergedAnnotationCacheKey, Object> mergedAnnotationCache =
+            CacheRegistry.createCache("AnnotatedElementUtils.mergedAnnotations", 4096,
+                    ConcurrentReferenceHashMap.ReferenceType.SOFT);
+
 
     /**
      * Build an adapted {@link AnnotatedElement} for the given annotations,
@@ -325,10 +360,12 @@ public class AnnotatedElementUtils {
             AnnotatedElement element, Class<? extends Annotation> annotationType) {
 
         Assert.notNull(annotationType, "'annotationType' must not be null");
-        AnnotationAttributes attributes = searchWithGetSemantics(element, annotationType, null,
-                new MergedAnnotationAttributesProcessor());
-        AnnotationUtils.postProcessAnnotationAttributes(element, attributes, false, false);
-        return attributes;
+        return copyAttributes(getCachedMergedResult(element, annotationType, GET_ATTRIBUTES, () -> {
+            AnnotationAttributes attributes = searchWithGetSemantics(element, annotationType, null,
+                    new MergedAnnotationAttributesProcessor());
+            AnnotationUtils.postProcessAnnotationAttributes(element, attributes, false, false);
+            return attributes;
+        }));
     }
 
     /**
@@ -387,10 +424,13 @@ public class AnnotatedElementUtils {
                                                                      String annotationName, boolean classValuesAsString, boolean nestedAnnotationsAsMap) {
 
         Assert.hasLength(annotationName, "'annotationName' must not be null or empty");
-        AnnotationAttributes attributes = searchWithGetSemantics(element, null, annotationName,
-                new MergedAnnotationAttributesProcessor(classValuesAsString, nestedAnnotationsAsMap));
-        AnnotationUtils.postProcessAnnotationAttributes(element, attributes, classValuesAsString, nestedAnnotationsAsMap);
-        return attributes;
+        int lookup = GET_ATTRIBUTES | attributeFlags(classValuesAsString, nestedAnnotationsAsMap);
+        return copyAttributes(getCachedMergedResult(element, annotationName, lookup, () -> {
+            AnnotationAttributes attributes = searchWithGetSemantics(element, null, annotationName,
+                    new MergedAnnotationAttributesProcessor(classValuesAsString, nestedAnnotationsAsMap));
+            AnnotationUtils.postProcessAnnotationAttributes(element, attributes, classValuesAsString, nestedAnnotationsAsMap);
+            return attributes;
+        }));
     }
 
     /**
@@ -415,20 +455,23 @@ public class AnnotatedElementUtils {
     @Nullable
     public static <A extends Annotation> A getMergedAnnotation(AnnotatedElement element, Class<A> annotationType) {
         Assert.notNull(annotationType, "'annotationType' must not be null");
-
-        // Shortcut: directly present on the element, with no merging needed?
-        if (!(element instanceof Class)) {
-            // Do not use this shortcut against a Class: Inherited annotations
-            // would get preferred over locally declared composed annotations.
-            A annotation = element.getAnnotation(annotationType);
-            if (annotation != null) {
-                return AnnotationUtils.synthesizeAnnotation(annotation, element);
+        return getCachedMergedResult(element, annotationType, GET_ANNOTATION, () -> {
+            // Shortcut: directly present on the element, with no merging needed?
+            if (!(element instanceof Class)) {
+                // Do not use this shortcut against a Class: Inherited annotations
+                // would get preferred over locally declared composed annotations.
+                A annotation = element.getAnnotation(annotationType);
+                if (annotation != null) {
+                    return AnnotationUtils.synthesizeAnnotation(annotation, element);
+                }
             }
-        }
 
-        // Exhaustive retrieval of merged annotation attributes...
-        AnnotationAttributes attributes = getMergedAnnotationAttributes(element, annotationType);
-        return (attributes != null ? AnnotationUtils.synthesizeAnnotation(attributes, annotationType, element) : null);
+            // Exhaustive retrieval of merged annotation attributes...
+            AnnotationAttributes attributes = searchWithGetSemantics(element, annotationType, null,
+                    new MergedAnnotationAttributesProcessor());
+            AnnotationUtils.postProcessAnnotationAttributes(element, attributes, false, false);
+            return (attributes != null ? AnnotationUtils.synthesizeAnnotation(attributes, annotationType, element) : null);
+        });
     }
 
     /**
@@ -458,9 +501,12 @@ public class AnnotatedElementUtils {
         Assert.notNull(element, "AnnotatedElement must not be null");
         Assert.notNull(annotationType, "'annotationType' must not be null");
 
-        MergedAnnotationAttributesProcessor processor = new MergedAnnotationAttributesProcessor(false, false, true);
-        searchWithGetSemantics(element, annotationType, null, processor);
-        return postProcessAndSynthesizeAggregatedResults(element, annotationType, processor.getAggregatedResults());
+        Set<A> annotations = getCachedMergedResult(element, annotationType, GET_ALL_ANNOTATIONS, () -> {
+            MergedAnnotationAttributesProcessor processor = new MergedAnnotationAttributesProcessor(false, false, true);
+            searchWithGetSemantics(element, annotationType, null, processor);
+            return postProcessAndSynthesizeAggregatedResults(element, annotationType, processor.getAggregatedResults());
+        });
+        return new LinkedHashSet<>(annotations);
     }
 
     /**
@@ -658,10 +704,13 @@ public class AnnotatedElementUtils {
     public static AnnotationAttributes findMergedAnnotationAttributes(AnnotatedElement element,
                                                                       Class<? extends Annotation> annotationType, boolean classValuesAsString, boolean nestedAnnotationsAsMap) {
 
-        AnnotationAttributes attributes = searchWithFindSemantics(element, annotationType, null,
-                new MergedAnnotationAttributesProcessor(classValuesAsString, nestedAnnotationsAsMap));
-        AnnotationUtils.postProcessAnnotationAttributes(element, attributes, classValuesAsString, nestedAnnotationsAsMap);
-        return attributes;
+        int lookup = FIND_ATTRIBUTES | attributeFlags(classValuesAsString, nestedAnnotationsAsMap);
+        return copyAttributes(getCachedMergedResult(element, annotationType, lookup, () -> {
+            AnnotationAttributes attributes = searchWithFindSemantics(element, annotationType, null,
+                    new MergedAnnotationAttributesProcessor(classValuesAsString, nestedAnnotationsAsMap));
+            AnnotationUtils.postProcessAnnotationAttributes(element, attributes, classValuesAsString, nestedAnnotationsAsMap);
+            return attributes;
+        }));
     }
 
     /**
@@ -696,10 +745,13 @@ public class AnnotatedElementUtils {
     public static AnnotationAttributes findMergedAnnotationAttributes(AnnotatedElement element,
                                                                       String annotationName, boolean classValuesAsString, boolean nestedAnnotationsAsMap) {
 
-        AnnotationAttributes attributes = searchWithFindSemantics(element, null, annotationName,
-                new MergedAnnotationAttributesProcessor(classValuesAsString, nestedAnnotationsAsMap));
-        AnnotationUtils.postProcessAnnotationAttributes(element, attributes, classValuesAsString, nestedAnnotationsAsMap);
-        return attributes;
+        int lookup = FIND_ATTRIBUTES | attributeFlags(classValuesAsString, nestedAnnotationsAsMap);
+        return copyAttributes(getCachedMergedResult(element, annotationName, lookup, () -> {
+            AnnotationAttributes attributes = searchWithFindSemantics(element, null, annotationName,
+                    new MergedAnnotationAttributesProcessor(classValuesAsString, nestedAnnotationsAsMap));
+            AnnotationUtils.postProcessAnnotationAttributes(element, attributes, classValuesAsString, nestedAnnotationsAsMap);
+            return attributes;
+        }));
     }
 
     /**
@@ -724,20 +776,23 @@ public class AnnotatedElementUtils {
     @Nullable
     public static <A extends Annotation> A findMergedAnnotation(AnnotatedElement element, Class<A> annotationType) {
         Assert.notNull(annotationType, "'annotationType' must not be null");
-
-        // Shortcut: directly present on the element, with no merging needed?
-        if (!(element instanceof Class)) {
-            // Do not use this shortcut against a Class: Inherited annotations
-            // would get preferred over locally declared composed annotations.
-            A annotation = element.getAnnotation(annotationType);
-            if (annotation != null) {
-                return AnnotationUtils.synthesizeAnnotation(annotation, element);
+        return getCachedMergedResult(element, annotationType, FIND_ANNOTATION, () -> {
+            // Shortcut: directly present on the element, with no merging needed?
+            if (!(element instanceof Class)) {
+                // Do not use this shortcut against a Class: Inherited annotations
+                // would get preferred over locally declared composed annotations.
+                A annotation = element.getAnnotation(annotationType);
+                if (annotation != null) {
+                    return AnnotationUtils.synthesizeAnnotation(annotation, element);
+                }
             }
-        }
 
-        // Exhaustive retrieval of merged annotation attributes...
-        AnnotationAttributes attributes = findMergedAnnotationAttributes(element, annotationType, false, false);
-        return (attributes != null ? AnnotationUtils.synthesizeAnnotation(attributes, annotationType, element) : null);
+            // Exhaustive retrieval of merged annotation attributes...
+            AnnotationAttributes attributes = searchWithFindSemantics(element, annotationType, null,
+                    new MergedAnnotationAttributesProcessor());
+            AnnotationUtils.postProcessAnnotationAttributes(element, attributes, false, false);
+            return (attributes != null ? AnnotationUtils.synthesizeAnnotation(attributes, annotationType, element) : null);
+        });
     }
 
     /**
@@ -766,9 +821,12 @@ public class AnnotatedElementUtils {
         Assert.notNull(element, "AnnotatedElement must not be null");
         Assert.notNull(annotationType, "'annotationType' must not be null");
 
-        MergedAnnotationAttributesProcessor processor = new MergedAnnotationAttributesProcessor(false, false, true);
-        searchWithFindSemantics(element, annotationType, null, processor);
-        return postProcessAndSynthesizeAggregatedResults(element, annotationType, processor.getAggregatedResults());
+        Set<A> annotations = getCachedMergedResult(element, annotationType, FIND_ALL_ANNOTATIONS, () -> {
+            MergedAnnotationAttributesProcessor processor = new MergedAnnotationAttributesProcessor(false, false, true);
+            searchWithFindSemantics(element, annotationType, null, processor);
+            return postProcessAndSynthesizeAggregatedResults(element, annotationType, processor.getAggregatedResults());
+        });
+        return new LinkedHashSet<>(annotations);
     }
 
     /**
@@ -1342,6 +1400,77 @@ public class AnnotatedElementUtils {
         }
     }
 
+    /**
+     * Return the result of the given merged lookup on the given element,
+     * computing it once per element, annotation type and kind of lookup.
+     * <p>Only lookups on classes and members are cached: ad-hoc elements
+     * such as those built by {@link #forAnnotations} are not suitable keys.
+     * Callers must not hand out mutable cached results as-is.
+     *
+     * @param element        the annotated element
+     * @param annotationType the annotation type or its name
+     * @param lookup         the kind of lookup, including any attribute flags
+     * @param search         the uncached lookup
+     * @return the (possibly shared) result, or {@code null} if not found
+     * @since 5.1
+     */
+    @SuppressWarnings("unchecked")
+    @Nullable
+    private static <T> T getCachedMergedResult(AnnotatedElement element, Object annotationType, int lookup,
+                                               Supplier<T> search) {
+
+        if (!(element instanceof Class || element instanceof Member)) {
+            return search.get();
+        }
+        MergedAnnotationCacheKey cacheKey = new MergedAnnotationCacheKey(element, annotationType, lookup);
+        Object result = mergedAnnotationCache.get(cacheKey);
+        if (result == null) {
+            result = search.get();
+            mergedAnnotationCache.put(cacheKey, (result != null ? result : NOT_FOUND));
+        }
+        return (result != NOT_FOUND ? (T) result : null);
+    }
+
+    private static int attributeFlags(boolean classValuesAsString, boolean nestedAnnotationsAsMap) {
+        return ((classValuesAsString ? CLASS_VALUES_AS_STRING : 0) |
+                (nestedAnnotationsAsMap ? NESTED_ANNOTATIONS_AS_MAP : 0));
+    }
+
+    /**
+     * Copy the given attributes, along with any nested attributes and arrays,
+     * so that callers may modify the result without affecting cached state.
+     *
+     * @since 5.1
+     */
+    @Nullable
+    private static AnnotationAttributes copyAttributes(@Nullable AnnotationAttributes attributes) {
+        if (attributes == null) {
+            return null;
+        }
+        AnnotationAttributes copy = new AnnotationAttributes(attributes);
+        copy.replaceAll((name, value) -> copyAttributeValue(value));
+        return copy;
+    }
+
+    private static Object copyAttributeValue(Object value) {
+        if (value instanceof AnnotationAttributes) {
+            return copyAttributes((AnnotationAttributes) value);
+        }
+        if (value.getClass().isArray()) {
+            int length = Array.getLength(value);
+            Object copy = Array.newInstance(value.getClass().getComponentType(), length);
+            if (value instanceof AnnotationAttributes[]) {
+                for (int i = 0; i < length; i++) {
+                    Array.set(copy, i, copyAttributes(((AnnotationAttributes[]) value)[i]));
+                }
+            } else {
+                System.arraycopy(value, 0, copy, 0, length);
+            }
+            return copy;
+        }
+        return value;
+    }
+
     /**
      * @since 4.3
      */
@@ -1650,4 +1779,47 @@ public class AnnotatedElementUtils {
         }
     }
 
+
+    /**
+     * Cache key for merged annotation lookups: the annotated element, the annotation
+     * type (or its name) and the lookup mode.
+     */
+    private static final class MergedAnnotationCacheKey {
+
+        private final AnnotatedElement element;
+
+        private final Object annotationType;
+
+        private final int lookup;
+
+        MergedAnnotationCacheKey(AnnotatedElement element, Object annotationType, int lookup) {
+            this.element = element;
+            this.annotationType = annotationType;
+            this.lookup = lookup;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof MergedAnnotationCacheKey)) {
+                return false;
+            }
+            MergedAnnotationCacheKey otherKey = (MergedAnnotationCacheKey) other;
+            return (this.element.equals(otherKey.element) && this.annotationType.equals(otherKey.annotationType) &&
+                    this.lookup == otherKey.lookup);
+        }
+
+        @Override
+        public int hashCode() {
+            return ((this.element.hashCode() * 29 + this.annotationType.hashCode()) * 29 + this.lookup);
+        }
+
+        @Override
+        public String toString() {
+            return "@" + this.annotationType + " on " + this.element + " (lookup " + this.lookup + ")";
+        }
+    }
+
 }
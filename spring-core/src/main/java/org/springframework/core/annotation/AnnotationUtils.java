@@ -20,7 +20,6 @@ import java.lang.annotation.Annotation;
 import java.lang.annotation.Repeatable;
 import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Array;
-import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
@@ -40,6 +39,8 @@ import org.apache.commons.logging.LogFactory;
 import org.springframework.core.BridgeMethodResolver;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
+import org.springframework.util.CacheRegistry;
+import org.springframework.util.ConcurrentLruCache;
 import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.ReflectionUtils;
@@ -115,8 +116,9 @@ public abstract class AnnotationUtils {
 	 */
 	public static final String VALUE = "value";
 
-	private static final Map<AnnotationCacheKey, Annotation> findAnnotationCache =
-			new ConcurrentReferenceHashMap<>(256);
+	private static final ConcurrentLruCache<AnnotationCacheKey, Annotation> findAnnotationCache =
+			CacheRegistry.createCache("AnnotationUtils.findAnnotation", 4096,
+				ConcurrentReferenceHashMap.ReferenceType.SOFT);
 
 	private static final Map<AnnotationCacheKey, Boolean> metaPresentCache =
 			new ConcurrentReferenceHashMap<>(256);
@@ -1424,6 +1426,8 @@ public abstract class AnnotationUtils {
 	 * by wrapping it in a dynamic proxy that transparently enforces
 	 * <em>attribute alias</em> semantics for annotation attributes that are
 	 * annotated with {@link AliasFor @AliasFor}.
+	 * <p>As of 5.1, the "proxy" is an instance of a class generated for the
+	 * annotation type wherever possible, with a JDK dynamic proxy as fallback.
 	 * @param annotation the annotation to synthesize
 	 * @param annotatedElement the element that is annotated with the supplied
 	 * annotation; may be {@code null} if unknown
@@ -1456,7 +1460,11 @@ public abstract class AnnotationUtils {
 
 		DefaultAnnotationAttributeExtractor attributeExtractor =
 				new DefaultAnnotationAttributeExtractor(annotation, annotatedElement);
-		InvocationHandler handler = new SynthesizedAnnotationInvocationHandler(attributeExtractor);
+		SynthesizedAnnotationInvocationHandler handler = new SynthesizedAnnotationInvocationHandler(attributeExtractor);
+		A synthesizedAnnotation = SynthesizedAnnotationClassGenerator.newInstance((Class<A>) annotationType, handler);
+		if (synthesizedAnnotation != null) {
+			return synthesizedAnnotation;
+		}
 
 		// Can always expose Spring's SynthesizedAnnotation marker since we explicitly check for a
 		// synthesizable annotation before (which needs to declare @AliasFor from the same package)
@@ -1502,7 +1510,11 @@ public abstract class AnnotationUtils {
 
 		MapAnnotationAttributeExtractor attributeExtractor =
 				new MapAnnotationAttributeExtractor(attributes, annotationType, annotatedElement);
-		InvocationHandler handler = new SynthesizedAnnotationInvocationHandler(attributeExtractor);
+		SynthesizedAnnotationInvocationHandler handler = new SynthesizedAnnotationInvocationHandler(attributeExtractor);
+		A synthesizedAnnotation = SynthesizedAnnotationClassGenerator.newInstance(annotationType, handler);
+		if (synthesizedAnnotation != null) {
+			return synthesizedAnnotation;
+		}
 		Class<?>[] exposedInterfaces = (canExposeSynthesizedMarker(annotationType) ?
 				new Class<?>[] {annotationType, SynthesizedAnnotation.class} : new Class<?>[] {annotationType});
 		return (A) Proxy.newProxyInstance(annotationType.getClassLoader(), exposedInterfaces, handler);
@@ -0,0 +1,347 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.annotation;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.Label;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.Type;
+import org.springframework.cglib.core.ReflectUtils;
+import org.springframework.core.SpringProperties;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Generates concrete implementation classes for <em>synthesized</em> annotations,
+ * as an alternative to a JDK dynamic proxy around a
+ * {@link SynthesizedAnnotationInvocationHandler}.
+ *
+ * <p>A generated class implements the annotation type along with
+ * {@link SynthesizedAnnotation} and returns attribute values straight from a
+ * final array that is resolved when the annotation is synthesized, without a
+ * reflective dispatch per attribute access. Attributes that fail to resolve,
+ * as well as {@code equals}, {@code hashCode}, {@code toString} and
+ * {@code annotationType}, are still delegated to the invocation handler so
+ * that their semantics remain the same as for a proxy.
+ *
+ * <p>Generation is only supported for annotation types loaded by a ClassLoader
+ * that can see {@link SynthesizedAnnotation}; callers are expected to fall back
+ * to a proxy otherwise. It can be switched off altogether through the
+ * {@link #IGNORE_GENERATED_CLASSES_PROPERTY_NAME} property.
+ *
+ * @since 5.1
+ * @see AnnotationUtils#synthesizeAnnotation(Annotation, java.lang.reflect.AnnotatedElement)
+ */
+abstract class SynthesizedAnnotationClassGenerator {
+
+	/**
+	 * System property that instructs Spring to always use JDK dynamic proxies
+	 * for synthesized annotations: "spring.annotation.generate.ignore".
+	 * <p>The default is "false", generating an implementation class per
+	 * annotation type where possible.
+	 * @see SpringProperties
+	 */
+	static final String IGNORE_GENERATED_CLASSES_PROPERTY_NAME = "spring.annotation.generate.ignore";
+
+	private static final boolean shouldIgnoreGeneratedClasses =
+			SpringProperties.getFlag(IGNORE_GENERATED_CLASSES_PROPERTY_NAME);
+
+	private static final String CLASS_NAME_INFIX = "$$SynthesizedAnnotation$$";
+
+	private static final String HANDLER_NAME = Type.getInternalName(InvocationHandler.class);
+
+	private static final String HANDLER_DESCRIPTOR = Type.getDescriptor(InvocationHandler.class);
+
+	private static final String INVOKE_DESCRIPTOR =
+			"(Ljava/lang/Object;Ljava/lang/reflect/Method;[Ljava/lang/Object;)Ljava/lang/Object;";
+
+	private static final String CONSTRUCTOR_DESCRIPTOR =
+			"(" + HANDLER_DESCRIPTOR + "[Ljava/lang/reflect/Method;[Ljava/lang/Object;)V";
+
+	private static final Method[] objectMethods;
+
+	static {
+		try {
+			objectMethods = new Method[] {
+					Object.class.getMethod("equals", Object.class),
+					Object.class.getMethod("hashCode"),
+					Object.class.getMethod("toString"),
+					Annotation.class.getMethod("annotationType")};
+		}
+		catch (NoSuchMethodException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	private static final Log logger = LogFactory.getLog(SynthesizedAnnotationClassGenerator.class);
+
+	/**
+	 * Generated class per annotation type, strongly held by the annotation type itself
+	 * so that it is neither regenerated nor keeps the annotation's ClassLoader alive.
+	 */
+	private static final ClassValue<GeneratedClassHolder> generatedClassCache = new ClassValue<GeneratedClassHolder>() {
+		@Override
+		protected GeneratedClassHolder computeValue(Class<?> type) {
+			return new GeneratedClassHolder();
+		}
+	};
+
+	private static final AtomicInteger classCounter = new AtomicInteger();
+
+
+	/**
+	 * Create a synthesized annotation of the given type through a generated class.
+	 * @param annotationType the type of annotation to synthesize
+	 * @param handler the handler providing the attribute values
+	 * @return the synthesized annotation, or {@code null} if no class can be
+	 * generated for the given annotation type
+	 */
+	@SuppressWarnings("unchecked")
+	@Nullable
+	static <A extends Annotation> A newInstance(Class<A> annotationType, SynthesizedAnnotationInvocationHandler handler) {
+		if (shouldIgnoreGeneratedClasses) {
+			return null;
+		}
+		return (A) generatedClassCache.get(annotationType).getGeneratedClass(annotationType).newInstance(handler);
+	}
+
+	private static GeneratedClass generateClass(Class<? extends Annotation> annotationType) {
+		List<Method> attributeMethods = AnnotationUtils.getAttributeMethods(annotationType);
+		ClassLoader classLoader = annotationType.getClassLoader();
+		if (classLoader == null || !ClassUtils.isVisible(SynthesizedAnnotation.class, classLoader)) {
+			return new GeneratedClass(null, attributeMethods);
+		}
+		String className = annotationType.getName() + CLASS_NAME_INFIX + classCounter.incrementAndGet();
+		try {
+			byte[] bytes = generateClass(className.replace('.', '/'), annotationType, attributeMethods);
+			Class<?> clazz = ReflectUtils.defineClass(
+					className, bytes, classLoader, annotationType.getProtectionDomain());
+			return new GeneratedClass(clazz.getDeclaredConstructor(
+					InvocationHandler.class, Method[].class, Object[].class), attributeMethods);
+		}
+		catch (Throwable ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Failed to generate class for synthesized annotation type [" +
+						annotationType.getName() + "] - using JDK proxy", ex);
+			}
+			return new GeneratedClass(null, attributeMethods);
+		}
+	}
+
+	private static byte[] generateClass(String internalName, Class<? extends Annotation> annotationType,
+			List<Method> attributeMethods) {
+
+		ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES);
+		cw.visit(Opcodes.V1_8, Opcodes.ACC_FINAL | Opcodes.ACC_SUPER | Opcodes.ACC_SYNTHETIC,
+				internalName, null, "java/lang/Object", new String[] {
+						Type.getInternalName(annotationType), Type.getInternalName(SynthesizedAnnotation.class)});
+		cw.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, "handler", HANDLER_DESCRIPTOR, null, null).visitEnd();
+		cw.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, "methods", "[Ljava/lang/reflect/Method;", null, null).visitEnd();
+		cw.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, "values", "[Ljava/lang/Object;", null, null).visitEnd();
+
+		MethodVisitor mv = cw.visitMethod(0, "<init>", CONSTRUCTOR_DESCRIPTOR, null, null);
+		mv.visitCode();
+		mv.visitVarInsn(Opcodes.ALOAD, 0);
+		mv.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+		mv.visitVarInsn(Opcodes.ALOAD, 0);
+		mv.visitVarInsn(Opcodes.ALOAD, 1);
+		mv.visitFieldInsn(Opcodes.PUTFIELD, internalName, "handler", HANDLER_DESCRIPTOR);
+		mv.visitVarInsn(Opcodes.ALOAD, 0);
+		mv.visitVarInsn(Opcodes.ALOAD, 2);
+		mv.visitFieldInsn(Opcodes.PUTFIELD, internalName, "methods", "[Ljava/lang/reflect/Method;");
+		mv.visitVarInsn(Opcodes.ALOAD, 0);
+		mv.visitVarInsn(Opcodes.ALOAD, 3);
+		mv.visitFieldInsn(Opcodes.PUTFIELD, internalName, "values", "[Ljava/lang/Object;");
+		mv.visitInsn(Opcodes.RETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+
+		for (int i = 0; i < attributeMethods.size(); i++) {
+			generateAttributeMethod(cw, internalName, attributeMethods.get(i), i);
+		}
+		int index = attributeMethods.size();
+		for (Method method : objectMethods) {
+			generateDelegatingMethod(cw, internalName, method, index++);
+		}
+
+		cw.visitEnd();
+		return cw.toByteArray();
+	}
+
+	private static void generateAttributeMethod(ClassWriter cw, String internalName, Method method, int index) {
+		Class<?> returnType = method.getReturnType();
+		MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, method.getName(),
+				Type.getMethodDescriptor(method), null, null);
+		mv.visitCode();
+		Label notResolved = new Label();
+		mv.visitVarInsn(Opcodes.ALOAD, 0);
+		mv.visitFieldInsn(Opcodes.GETFIELD, internalName, "values", "[Ljava/lang/Object;");
+		loadInt(mv, index);
+		mv.visitInsn(Opcodes.AALOAD);
+		mv.visitInsn(Opcodes.DUP);
+		mv.visitJumpInsn(Opcodes.IFNULL, notResolved);
+		if (returnType.isArray()) {
+			// Clone arrays so that users cannot alter the contents of resolved values.
+			String arrayDescriptor = Type.getDescriptor(returnType);
+			mv.visitTypeInsn(Opcodes.CHECKCAST, arrayDescriptor);
+			mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, arrayDescriptor, "clone", "()Ljava/lang/Object;", false);
+		}
+		generateReturn(mv, returnType);
+
+		// Not resolved: let the handler raise the corresponding exception.
+		mv.visitLabel(notResolved);
+		mv.visitInsn(Opcodes.POP);
+		generateHandlerInvocation(mv, internalName, index, false);
+		generateReturn(mv, returnType);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+	}
+
+	private static void generateDelegatingMethod(ClassWriter cw, String internalName, Method method, int index) {
+		MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, method.getName(),
+				Type.getMethodDescriptor(method), null, null);
+		mv.visitCode();
+		generateHandlerInvocation(mv, internalName, index, method.getParameterCount() > 0);
+		generateReturn(mv, method.getReturnType());
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+	}
+
+	private static void generateHandlerInvocation(MethodVisitor mv, String internalName, int index, boolean withArgument) {
+		mv.visitVarInsn(Opcodes.ALOAD, 0);
+		mv.visitFieldInsn(Opcodes.GETFIELD, internalName, "handler", HANDLER_DESCRIPTOR);
+		mv.visitVarInsn(Opcodes.ALOAD, 0);
+		mv.visitVarInsn(Opcodes.ALOAD, 0);
+		mv.visitFieldInsn(Opcodes.GETFIELD, internalName, "methods", "[Ljava/lang/reflect/Method;");
+		loadInt(mv, index);
+		mv.visitInsn(Opcodes.AALOAD);
+		if (withArgument) {
+			mv.visitInsn(Opcodes.ICONST_1);
+			mv.visitTypeInsn(Opcodes.ANEWARRAY, "java/lang/Object");
+			mv.visitInsn(Opcodes.DUP);
+			mv.visitInsn(Opcodes.ICONST_0);
+			mv.visitVarInsn(Opcodes.ALOAD, 1);
+			mv.visitInsn(Opcodes.AASTORE);
+		}
+		else {
+			mv.visitInsn(Opcodes.ACONST_NULL);
+		}
+		mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, HANDLER_NAME, "invoke", INVOKE_DESCRIPTOR, true);
+	}
+
+	private static void generateReturn(MethodVisitor mv, Class<?> returnType) {
+		Type type = Type.getType(returnType);
+		if (returnType.isPrimitive()) {
+			String wrapperName = Type.getInternalName(ClassUtils.resolvePrimitiveIfNecessary(returnType));
+			mv.visitTypeInsn(Opcodes.CHECKCAST, wrapperName);
+			mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, wrapperName, returnType.getName() + "Value",
+					"()" + type.getDescriptor(), false);
+		}
+		else if (returnType != Object.class) {
+			mv.visitTypeInsn(Opcodes.CHECKCAST, type.getInternalName());
+		}
+		mv.visitInsn(type.getOpcode(Opcodes.IRETURN));
+	}
+
+	private static void loadInt(MethodVisitor mv, int value) {
+		if (value <= 5) {
+			mv.visitInsn(Opcodes.ICONST_0 + value);
+		}
+		else if (value <= Byte.MAX_VALUE) {
+			mv.visitIntInsn(Opcodes.BIPUSH, value);
+		}
+		else {
+			mv.visitIntInsn(Opcodes.SIPUSH, value);
+		}
+	}
+
+
+	/**
+	 * Holder for the {@link GeneratedClass} of an annotation type, generating it
+	 * exactly once even if the holder is requested concurrently.
+	 */
+	private static final class GeneratedClassHolder {
+
+		@Nullable
+		private volatile GeneratedClass generatedClass;
+
+		GeneratedClass getGeneratedClass(Class<? extends Annotation> annotationType) {
+			GeneratedClass generatedClass = this.generatedClass;
+			if (generatedClass == null) {
+				synchronized (this) {
+					generatedClass = this.generatedClass;
+					if (generatedClass == null) {
+						generatedClass = generateClass(annotationType);
+						this.generatedClass = generatedClass;
+					}
+				}
+			}
+			return generatedClass;
+		}
+	}
+
+
+	/**
+	 * A generated class for an annotation type, or the absence thereof.
+	 */
+	private static final class GeneratedClass {
+
+		@Nullable
+		private final Constructor<?> constructor;
+
+		private final List<Method> attributeMethods;
+
+		private final Method[] methods;
+
+		GeneratedClass(@Nullable Constructor<?> constructor, List<Method> attributeMethods) {
+			this.constructor = constructor;
+			this.attributeMethods = attributeMethods;
+			this.methods = new Method[attributeMethods.size() + objectMethods.length];
+			attributeMethods.toArray(this.methods);
+			System.arraycopy(objectMethods, 0, this.methods, attributeMethods.size(), objectMethods.length);
+			if (constructor != null) {
+				constructor.setAccessible(true);
+			}
+		}
+
+		@Nullable
+		Object newInstance(SynthesizedAnnotationInvocationHandler handler) {
+			if (this.constructor == null) {
+				return null;
+			}
+			try {
+				return this.constructor.newInstance(
+						handler, this.methods, handler.resolveAttributeValues(this.attributeMethods));
+			}
+			catch (ReflectiveOperationException ex) {
+				throw new IllegalStateException("Failed to instantiate " + this.constructor.getDeclaringClass(), ex);
+			}
+		}
+	}
+
+}
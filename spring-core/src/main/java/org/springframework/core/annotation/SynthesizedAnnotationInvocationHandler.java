@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -22,6 +22,7 @@ import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -84,7 +85,41 @@ class SynthesizedAnnotationInvocationHandler implements InvocationHandler {
 		return this.attributeExtractor.getAnnotationType();
 	}
 
+	/**
+	 * Resolve the values of all attributes of the annotation up front, for use
+	 * by a {@linkplain SynthesizedAnnotationClassGenerator generated class}.
+	 * <p>Arrays are returned as cached and must be cloned before being exposed.
+	 * Attributes that cannot be resolved are returned as {@code null}, leaving
+	 * any exception to be raised through {@link #invoke} on access.
+	 * @param attributeMethods the attribute methods of the annotation type
+	 * @return the attribute values, in the order of the given methods
+	 * @since 5.1
+	 */
+	Object[] resolveAttributeValues(List<Method> attributeMethods) {
+		Object[] values = new Object[attributeMethods.size()];
+		for (int i = 0; i < values.length; i++) {
+			try {
+				values[i] = getCachedAttributeValue(attributeMethods.get(i));
+			}
+			catch (RuntimeException ex) {
+				// Leave for invoke to throw on access
+			}
+		}
+		return values;
+	}
+
 	private Object getAttributeValue(Method attributeMethod) {
+		Object value = getCachedAttributeValue(attributeMethod);
+
+		// Clone arrays so that users cannot alter the contents of values in our cache.
+		if (value.getClass().isArray()) {
+			value = cloneArray(value);
+		}
+
+		return value;
+	}
+
+	private Object getCachedAttributeValue(Method attributeMethod) {
 		String attributeName = attributeMethod.getName();
 		Object value = this.valueCache.get(attributeName);
 		if (value == null) {
@@ -105,12 +140,6 @@ class SynthesizedAnnotationInvocationHandler implements InvocationHandler {
 
 			this.valueCache.put(attributeName, value);
 		}
-
-		// Clone arrays so that users cannot alter the contents of values in our cache.
-		if (value.getClass().isArray()) {
-			value = cloneArray(value);
-		}
-
 		return value;
 	}
 
@@ -16,6 +16,7 @@
 
 package org.springframework.core.codec;
 
+import java.io.IOException;
 import java.util.Map;
 
 import reactor.core.publisher.Flux;
@@ -41,8 +42,12 @@ public class ResourceEncoder extends AbstractSingleValueEncoder<Resource> {
 
 	public static final int DEFAULT_BUFFER_SIZE = StreamUtils.BUFFER_SIZE;
 
+	static final int MAPPED_BUFFER_SIZE = 4 * 1024 * 1024;
+
 	private final int bufferSize;
 
+	private long memoryMappingThreshold = -1;
+
 
 	public ResourceEncoder() {
 		this(DEFAULT_BUFFER_SIZE);
@@ -55,6 +60,29 @@ public class ResourceEncoder extends AbstractSingleValueEncoder<Resource> {
 	}
 
 
+	/**
+	 * Set the file size from which file-based resources are
+	 * {@linkplain DataBufferUtils#readMapped memory-mapped} rather than read
+	 * into allocated buffers, or {@code -1} to never map files (the default).
+	 * <p>Mapping avoids copying large files through the heap on every
+	 * request, at the cost of a higher setup cost per request.
+	 * @param memoryMappingThreshold the size in bytes from which files are mapped
+	 * @since 5.1
+	 */
+	public void setMemoryMappingThreshold(long memoryMappingThreshold) {
+		this.memoryMappingThreshold = memoryMappingThreshold;
+	}
+
+	/**
+	 * Return the file size from which file-based resources are memory-mapped,
+	 * or {@code -1} if files are never mapped.
+	 * @since 5.1
+	 */
+	public long getMemoryMappingThreshold() {
+		return this.memoryMappingThreshold;
+	}
+
+
 	@Override
 	public boolean canEncode(ResolvableType elementType, @Nullable MimeType mimeType) {
 		Class<?> clazz = elementType.resolve(Object.class);
@@ -65,6 +93,17 @@ public class ResourceEncoder extends AbstractSingleValueEncoder<Resource> {
 	protected Flux<DataBuffer> encode(Resource resource, DataBufferFactory dataBufferFactory,
 			ResolvableType type, @Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
 
+		if (this.memoryMappingThreshold >= 0 && resource.isFile()) {
+			try {
+				long length = resource.contentLength();
+				if (length >= this.memoryMappingThreshold) {
+					return DataBufferUtils.readMapped(resource, 0, length, dataBufferFactory, MAPPED_BUFFER_SIZE);
+				}
+			}
+			catch (IOException ex) {
+				// fall back to reading the resource, below
+			}
+		}
 		return DataBufferUtils.read(resource, dataBufferFactory, this.bufferSize);
 	}
 
@@ -53,6 +53,8 @@ public class ResourceRegionEncoder extends AbstractEncoder<ResourceRegion> {
 
 	private final int bufferSize;
 
+	private long memoryMappingThreshold = -1;
+
 
 	public ResourceRegionEncoder() {
 		this(DEFAULT_BUFFER_SIZE);
@@ -64,6 +66,29 @@ public class ResourceRegionEncoder extends AbstractEncoder<ResourceRegion> {
 		this.bufferSize = bufferSize;
 	}
 
+
+	/**
+	 * Set the region size from which regions of file-based resources are
+	 * {@linkplain DataBufferUtils#readMapped memory-mapped} rather than read
+	 * into allocated buffers, or {@code -1} to never map files (the default).
+	 * @param memoryMappingThreshold the size in bytes from which regions are mapped
+	 * @since 5.1
+	 * @see ResourceEncoder#setMemoryMappingThreshold
+	 */
+	public void setMemoryMappingThreshold(long memoryMappingThreshold) {
+		this.memoryMappingThreshold = memoryMappingThreshold;
+	}
+
+	/**
+	 * Return the region size from which regions of file-based resources are
+	 * memory-mapped, or {@code -1} if files are never mapped.
+	 * @since 5.1
+	 */
+	public long getMemoryMappingThreshold() {
+		return this.memoryMappingThreshold;
+	}
+
+
 	@Override
 	public boolean canEncode(ResolvableType elementType, @Nullable MimeType mimeType) {
 		return super.canEncode(elementType, mimeType)
@@ -116,6 +141,11 @@ public class ResourceRegionEncoder extends AbstractEncoder<ResourceRegion> {
 	private Flux<DataBuffer> writeResourceRegion(ResourceRegion region, DataBufferFactory bufferFactory) {
 		Resource resource = region.getResource();
 		long position = region.getPosition();
+		if (this.memoryMappingThreshold >= 0 && region.getCount() >= this.memoryMappingThreshold &&
+				resource.isFile()) {
+			return DataBufferUtils.readMapped(resource, position, region.getCount(), bufferFactory,
+					ResourceEncoder.MAPPED_BUFFER_SIZE);
+		}
 		Flux<DataBuffer> in = DataBufferUtils.read(resource, position, bufferFactory, this.bufferSize);
 		return DataBufferUtils.takeUntilByteCount(in, region.getCount());
 	}
@@ -20,9 +20,10 @@ import java.nio.CharBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.function.IntPredicate;
 
 import org.reactivestreams.Publisher;
 import reactor.core.publisher.Flux;
@@ -32,6 +33,7 @@ import org.springframework.core.ResolvableType;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
 import org.springframework.util.MimeType;
 import org.springframework.util.MimeTypeUtils;
 
@@ -40,7 +42,12 @@ import org.springframework.util.MimeTypeUtils;
  *
  * <p>By default, this decoder will split the received {@link DataBuffer}s
  * along newline characters ({@code \r\n}), but this can be changed by
- * passing {@code false} as a constructor argument.
+ * passing {@code false} as a constructor argument, or by passing a custom
+ * list of delimiters. Splitting is done on the bytes of the encoded
+ * delimiters, so that only complete tokens are decoded, including tokens
+ * and delimiters that span multiple data buffers. The number of bytes
+ * buffered for an incomplete token can be limited through
+ * {@link #setMaxTokenLength}.
  *
  * @author Sebastien Deleuze
  * @author Brian Clozel
@@ -53,20 +60,58 @@ public class StringDecoder extends AbstractDecoder<String> {
 
 	public static final Charset DEFAULT_CHARSET = StandardCharsets.UTF_8;
 
-	private static final IntPredicate NEWLINE_DELIMITER = b -> b == '\n' || b == '\r';
+	/**
+	 * The delimiters used when splitting on newline: each of {@code \r}
+	 * and {@code \n}, retained at the end of the token they terminate.
+	 * @since 5.1
+	 */
+	public static final List<String> DEFAULT_DELIMITERS = Collections.unmodifiableList(Arrays.asList("\r", "\n"));
+
 
+	private final List<String> delimiters;
 
-	private final boolean splitOnNewline;
+	private final boolean stripDelimiter;
+
+	private int maxTokenLength = -1;
 
 
 	/**
 	 * Create a {@code StringDecoder} that decodes a bytes stream to a String stream
-	 * @param splitOnNewline whether this decoder should split the received data buffers
-	 * along newline characters
+	 * @param delimiters the delimiters to split the received data buffers on,
+	 * or an empty list to not split them
+	 * @param stripDelimiter whether to remove delimiters from the resulting strings
 	 */
-	private StringDecoder(boolean splitOnNewline, MimeType... mimeTypes) {
+	private StringDecoder(List<String> delimiters, boolean stripDelimiter, MimeType... mimeTypes) {
 		super(mimeTypes);
-		this.splitOnNewline = splitOnNewline;
+		Assert.notNull(delimiters, "'delimiters' must not be null");
+		for (String delimiter : delimiters) {
+			Assert.hasLength(delimiter, "Delimiters must not be empty");
+		}
+		this.delimiters = new ArrayList<>(delimiters);
+		this.stripDelimiter = stripDelimiter;
+	}
+
+
+	/**
+	 * Set the maximum number of bytes of a single token, including its
+	 * delimiter, or {@code -1} for no limit (the default). Decoding fails
+	 * with a {@link DecodingException} when a token exceeds the limit,
+	 * bounding the memory held for incomplete tokens.
+	 * <p>Only applies when splitting along delimiters.
+	 * @param maxTokenLength the maximum token length in bytes
+	 * @since 5.1
+	 */
+	public void setMaxTokenLength(int maxTokenLength) {
+		this.maxTokenLength = maxTokenLength;
+	}
+
+	/**
+	 * Return the maximum number of bytes of a single token,
+	 * or {@code -1} if unlimited.
+	 * @since 5.1
+	 */
+	public int getMaxTokenLength() {
+		return this.maxTokenLength;
 	}
 
 
@@ -81,36 +126,33 @@ public class StringDecoder extends AbstractDecoder<String> {
 			@Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
 
 		Flux<DataBuffer> inputFlux = Flux.from(inputStream);
-		if (this.splitOnNewline) {
-			inputFlux = Flux.from(inputStream).flatMap(StringDecoder::splitOnNewline);
+		if (!this.delimiters.isEmpty()) {
+			byte[][] delimiterBytes = getDelimiterBytes(getCharset(mimeType));
+			inputFlux = Flux.defer(() -> {
+				TokenSplitter splitter = new TokenSplitter(delimiterBytes, this.stripDelimiter, this.maxTokenLength);
+				return Flux.from(inputStream)
+						.concatMapIterable(splitter::split)
+						.concatWith(Mono.defer(() -> Mono.justOrEmpty(splitter.flush())))
+						.doFinally(signalType -> splitter.release());
+			});
 		}
-		return inputFlux.map(buffer ->  decodeDataBuffer(buffer, mimeType));
+		return inputFlux.map(buffer -> decodeDataBuffer(buffer, mimeType));
 	}
 
 	@Override
 	public Mono<String> decodeToMono(Publisher<DataBuffer> inputStream, ResolvableType elementType,
 			@Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
 
-		return Flux.from(inputStream)
-				.reduce(DataBuffer::write)
+		return DataBufferUtils.join(inputStream)
 				.map(buffer -> decodeDataBuffer(buffer, mimeType));
 	}
 
-	private static Flux<DataBuffer> splitOnNewline(DataBuffer dataBuffer) {
-		List<DataBuffer> results = new ArrayList<>();
-		int startIdx = 0;
-		int endIdx;
-		final int limit = dataBuffer.readableByteCount();
-		do {
-			endIdx = dataBuffer.indexOf(NEWLINE_DELIMITER, startIdx);
-			int length = endIdx != -1 ? endIdx - startIdx + 1 : limit - startIdx;
-			DataBuffer token = dataBuffer.slice(startIdx, length);
-			results.add(DataBufferUtils.retain(token));
-			startIdx = endIdx + 1;
-		}
-		while (startIdx < limit && endIdx != -1);
-		DataBufferUtils.release(dataBuffer);
-		return Flux.fromIterable(results);
+	private byte[][] getDelimiterBytes(Charset charset) {
+		byte[][] result = new byte[this.delimiters.size()][];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = this.delimiters.get(i).getBytes(charset);
+		}
+		return result;
 	}
 
 	private String decodeDataBuffer(DataBuffer dataBuffer, @Nullable MimeType mimeType) {
@@ -135,7 +177,18 @@ public class StringDecoder extends AbstractDecoder<String> {
 	 * @param splitOnNewline whether to split the byte stream into lines
 	 */
 	public static StringDecoder textPlainOnly(boolean splitOnNewline) {
-		return new StringDecoder(splitOnNewline, new MimeType("text", "plain", DEFAULT_CHARSET));
+		return textPlainOnly(splitOnNewline ? DEFAULT_DELIMITERS : Collections.emptyList(), false);
+	}
+
+	/**
+	 * Create a {@code StringDecoder} for {@code "text/plain"}.
+	 * @param delimiters the delimiters to split the byte stream on, matched in
+	 * the given order, or an empty list to not split the byte stream
+	 * @param stripDelimiter whether to remove delimiters from the resulting strings
+	 * @since 5.1
+	 */
+	public static StringDecoder textPlainOnly(List<String> delimiters, boolean stripDelimiter) {
+		return new StringDecoder(delimiters, stripDelimiter, new MimeType("text", "plain", DEFAULT_CHARSET));
 	}
 
 	/**
@@ -143,8 +196,200 @@ public class StringDecoder extends AbstractDecoder<String> {
 	 * @param splitOnNewline whether to split the byte stream into lines
 	 */
 	public static StringDecoder allMimeTypes(boolean splitOnNewline) {
-		return new StringDecoder(splitOnNewline,
+		return allMimeTypes(splitOnNewline ? DEFAULT_DELIMITERS : Collections.emptyList(), false);
+	}
+
+	/**
+	 * Create a {@code StringDecoder} that supports all MIME types.
+	 * @param delimiters the delimiters to split the byte stream on, matched in
+	 * the given order, or an empty list to not split the byte stream
+	 * @param stripDelimiter whether to remove delimiters from the resulting strings
+	 * @since 5.1
+	 */
+	public static StringDecoder allMimeTypes(List<String> delimiters, boolean stripDelimiter) {
+		return new StringDecoder(delimiters, stripDelimiter,
 				new MimeType("text", "plain", DEFAULT_CHARSET), MimeTypeUtils.ALL);
 	}
 
+
+	/**
+	 * Splits a stream of data buffers into tokens, keeping the buffers of an
+	 * incomplete token until its delimiter is found in a subsequent buffer.
+	 */
+	private static class TokenSplitter {
+
+		private final DelimiterMatcher[] matchers;
+
+		private final boolean stripDelimiter;
+
+		private final int maxTokenLength;
+
+		private final List<DataBuffer> parts = new ArrayList<>();
+
+		private int partsLength;
+
+		private int matchedDelimiterLength;
+
+		TokenSplitter(byte[][] delimiters, boolean stripDelimiter, int maxTokenLength) {
+			this.matchers = new DelimiterMatcher[delimiters.length];
+			for (int i = 0; i < delimiters.length; i++) {
+				this.matchers[i] = new DelimiterMatcher(delimiters[i]);
+			}
+			this.stripDelimiter = stripDelimiter;
+			this.maxTokenLength = maxTokenLength;
+		}
+
+		/**
+		 * Return the tokens completed by the given buffer, which is released.
+		 */
+		public List<DataBuffer> split(DataBuffer dataBuffer) {
+			List<DataBuffer> tokens = new ArrayList<>();
+			try {
+				int start = dataBuffer.readPosition();
+				int end = dataBuffer.writePosition();
+				if (start == end) {
+					// Keep empty buffers as (part of) a token, like a final unterminated token
+					addPart(DataBufferUtils.retain(dataBuffer), 0);
+				}
+				while (start < end) {
+					int index = dataBuffer.indexOf(this::matchDelimiter, start);
+					int length = (index != -1 ? index + 1 : end) - start;
+					addPart(DataBufferUtils.retain(dataBuffer.slice(start, length)), length);
+					if (index == -1) {
+						break;
+					}
+					tokens.add(completeToken());
+					start = index + 1;
+				}
+				return tokens;
+			}
+			catch (RuntimeException ex) {
+				tokens.forEach(DataBufferUtils::release);
+				throw ex;
+			}
+			finally {
+				DataBufferUtils.release(dataBuffer);
+			}
+		}
+
+		/**
+		 * Return the final, unterminated token, if any.
+		 */
+		@Nullable
+		public DataBuffer flush() {
+			if (this.parts.isEmpty()) {
+				return null;
+			}
+			this.matchedDelimiterLength = 0;
+			return completeToken();
+		}
+
+		/**
+		 * Release the buffers of an incomplete token, e.g. on cancellation.
+		 */
+		public void release() {
+			this.parts.forEach(DataBufferUtils::release);
+			this.parts.clear();
+			this.partsLength = 0;
+		}
+
+		private boolean matchDelimiter(int b) {
+			boolean matched = false;
+			for (DelimiterMatcher matcher : this.matchers) {
+				if (matcher.match((byte) b) && !matched) {
+					// The first delimiter in the list wins
+					this.matchedDelimiterLength = matcher.length();
+					matched = true;
+				}
+			}
+			if (matched) {
+				for (DelimiterMatcher matcher : this.matchers) {
+					matcher.reset();
+				}
+			}
+			return matched;
+		}
+
+		private void addPart(DataBuffer part, int length) {
+			this.parts.add(part);
+			this.partsLength += length;
+			if (this.maxTokenLength >= 0 && this.partsLength > this.maxTokenLength) {
+				release();
+				throw new DecodingException("Token exceeds the maximum length of " + this.maxTokenLength + " bytes");
+			}
+		}
+
+		private DataBuffer completeToken() {
+			DataBuffer token = (this.parts.size() == 1 ? this.parts.get(0) :
+					this.parts.get(0).factory().join(new ArrayList<>(this.parts)));
+			int length = this.partsLength;
+			this.parts.clear();
+			this.partsLength = 0;
+			if (this.stripDelimiter && this.matchedDelimiterLength > 0) {
+				DataBuffer stripped = token.slice(token.readPosition(), length - this.matchedDelimiterLength);
+				DataBufferUtils.retain(stripped);
+				DataBufferUtils.release(token);
+				return stripped;
+			}
+			return token;
+		}
+	}
+
+
+	/**
+	 * Incremental matcher for a single delimiter, using the Knuth-Morris-Pratt
+	 * failure table to fall back on partial matches, which may span buffers.
+	 */
+	private static class DelimiterMatcher {
+
+		private final byte[] delimiter;
+
+		private final int[] table;
+
+		private int matches = 0;
+
+		DelimiterMatcher(byte[] delimiter) {
+			this.delimiter = delimiter;
+			this.table = longestSuffixPrefixTable(delimiter);
+		}
+
+		private static int[] longestSuffixPrefixTable(byte[] delimiter) {
+			int[] result = new int[delimiter.length];
+			result[0] = 0;
+			for (int i = 1; i < delimiter.length; i++) {
+				int j = result[i - 1];
+				while (j > 0 && delimiter[i] != delimiter[j]) {
+					j = result[j - 1];
+				}
+				if (delimiter[i] == delimiter[j]) {
+					j++;
+				}
+				result[i] = j;
+			}
+			return result;
+		}
+
+		public boolean match(byte b) {
+			while (this.matches > 0 && b != this.delimiter[this.matches]) {
+				this.matches = this.table[this.matches - 1];
+			}
+			if (b == this.delimiter[this.matches]) {
+				this.matches++;
+				if (this.matches == this.delimiter.length) {
+					reset();
+					return true;
+				}
+			}
+			return false;
+		}
+
+		public int length() {
+			return this.delimiter.length;
+		}
+
+		public void reset() {
+			this.matches = 0;
+		}
+	}
+
 }
@@ -19,6 +19,7 @@ package org.springframework.core.convert.support;
 import java.lang.reflect.Array;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
@@ -78,6 +79,13 @@ public class GenericConversionService implements ConfigurableConversionService {
 
 	private final Map<ConverterCacheKey, GenericConverter> converterCache = new ConcurrentReferenceHashMap<>(64);
 
+	/**
+	 * Cache for plain class-based type descriptors, keyed by source class and then by
+	 * target class, sparing descriptor creation, hashing and comparison on a hit.
+	 */
+	private final Map<Class<?>, Map<Class<?>, PlainTypeConverter>> plainTypeConverterCache =
+			new ConcurrentReferenceHashMap<>(64);
+
 
 	// ConverterRegistry implementation
 
@@ -132,8 +140,11 @@ public class GenericConversionService implements ConfigurableConversionService {
 	@Override
 	public boolean canConvert(@Nullable Class<?> sourceType, Class<?> targetType) {
 		Assert.notNull(targetType, "Target type to convert to cannot be null");
-		return canConvert((sourceType != null ? TypeDescriptor.valueOf(sourceType) : null),
-				TypeDescriptor.valueOf(targetType));
+		if (sourceType == null) {
+			return canConvert(null, TypeDescriptor.valueOf(targetType));
+		}
+		PlainTypeConverter plainTypeConverter = getPlainTypeConverter(sourceType, targetType);
+		return canConvert(plainTypeConverter.sourceType, plainTypeConverter.targetType);
 	}
 
 	@Override
@@ -171,7 +182,11 @@ public class GenericConversionService implements ConfigurableConversionService {
 	@Nullable
 	public <T> T convert(@Nullable Object source, Class<T> targetType) {
 		Assert.notNull(targetType, "Target type to convert to cannot be null");
-		return (T) convert(source, TypeDescriptor.forObject(source), TypeDescriptor.valueOf(targetType));
+		if (source == null) {
+			return (T) convert(null, null, TypeDescriptor.valueOf(targetType));
+		}
+		PlainTypeConverter plainTypeConverter = getPlainTypeConverter(source.getClass(), targetType);
+		return (T) convert(source, plainTypeConverter.sourceType, plainTypeConverter.targetType);
 	}
 
 	@Override
@@ -251,24 +266,21 @@ public class GenericConversionService implements ConfigurableConversionService {
 	 */
 	@Nullable
 	protected GenericConverter getConverter(TypeDescriptor sourceType, TypeDescriptor targetType) {
+		if (isPlainType(sourceType) && isPlainType(targetType)) {
+			// Shortcut: neither annotations, generics nor array element types to distinguish,
+			// so the converter only depends on the classes and can be cached per class pair
+			return getPlainTypeConverter(sourceType.getType(), targetType.getType()).converter;
+		}
+
 		ConverterCacheKey key = new ConverterCacheKey(sourceType, targetType);
 		GenericConverter converter = this.converterCache.get(key);
 		if (converter != null) {
 			return (converter != NO_MATCH ? converter : null);
 		}
 
-		converter = this.converters.find(sourceType, targetType);
-		if (converter == null) {
-			converter = getDefaultConverter(sourceType, targetType);
-		}
-
-		if (converter != null) {
-			this.converterCache.put(key, converter);
-			return converter;
-		}
-
-		this.converterCache.put(key, NO_MATCH);
-		return null;
+		converter = findConverter(sourceType, targetType);
+		this.converterCache.put(key, (converter != null ? converter : NO_MATCH));
+		return converter;
 	}
 
 	/**
@@ -302,8 +314,49 @@ public class GenericConversionService implements ConfigurableConversionService {
 		return generics;
 	}
 
+	@Nullable
+	private GenericConverter findConverter(TypeDescriptor sourceType, TypeDescriptor targetType) {
+		GenericConverter converter = this.converters.find(sourceType, targetType);
+		if (converter == null) {
+			converter = getDefaultConverter(sourceType, targetType);
+		}
+		return converter;
+	}
+
+	/**
+	 * Determine whether converter lookup for the given type descriptor only depends
+	 * on its class, i.e. whether it is not an array and carries neither annotations
+	 * nor generics of its own.
+	 */
+	private static boolean isPlainType(TypeDescriptor typeDescriptor) {
+		return (!typeDescriptor.isArray() && typeDescriptor.getResolvableType().getType() instanceof Class &&
+				typeDescriptor.getAnnotations().length == 0);
+	}
+
+	private PlainTypeConverter getPlainTypeConverter(Class<?> sourceType, Class<?> targetType) {
+		Map<Class<?>, PlainTypeConverter> convertersForSource = this.plainTypeConverterCache.get(sourceType);
+		if (convertersForSource == null) {
+			convertersForSource = new ConcurrentReferenceHashMap<>(8);
+			Map<Class<?>, PlainTypeConverter> existing =
+					this.plainTypeConverterCache.putIfAbsent(sourceType, convertersForSource);
+			if (existing != null) {
+				convertersForSource = existing;
+			}
+		}
+		PlainTypeConverter plainTypeConverter = convertersForSource.get(targetType);
+		if (plainTypeConverter == null) {
+			TypeDescriptor sourceDescriptor = TypeDescriptor.valueOf(sourceType);
+			TypeDescriptor targetDescriptor = TypeDescriptor.valueOf(targetType);
+			plainTypeConverter = new PlainTypeConverter(
+					sourceDescriptor, targetDescriptor, findConverter(sourceDescriptor, targetDescriptor));
+			convertersForSource.put(targetType, plainTypeConverter);
+		}
+		return plainTypeConverter;
+	}
+
 	private void invalidateCache() {
 		this.converterCache.clear();
+		this.plainTypeConverterCache.clear();
 	}
 
 	@Nullable
@@ -494,15 +547,41 @@ public class GenericConversionService implements ConfigurableConversionService {
 	}
 
 
+	/**
+	 * Entry in the plain type converter cache: the type descriptors for a pair of
+	 * classes along with the converter between them, if any.
+	 */
+	private static final class PlainTypeConverter {
+
+		final TypeDescriptor sourceType;
+
+		final TypeDescriptor targetType;
+
+		@Nullable
+		final GenericConverter converter;
+
+		PlainTypeConverter(TypeDescriptor sourceType, TypeDescriptor targetType, @Nullable GenericConverter converter) {
+			this.sourceType = sourceType;
+			this.targetType = targetType;
+			this.converter = converter;
+		}
+	}
+
+
 	/**
 	 * Manages all converters registered with the service.
 	 */
 	private static class Converters {
 
+		private static final Map<Class<?>, List<Class<?>>> classHierarchyCache = new ConcurrentReferenceHashMap<>(64);
+
 		private final Set<GenericConverter> globalConverters = new LinkedHashSet<>();
 
 		private final Map<ConvertiblePair, ConvertersForPair> converters = new LinkedHashMap<>(36);
 
+		/** Index over the registered pairs: source type to target type to converters */
+		private final Map<Class<?>, Map<Class<?>, ConvertersForPair>> convertersBySourceType = new HashMap<>(36);
+
 		public void add(GenericConverter converter) {
 			Set<ConvertiblePair> convertibleTypes = converter.getConvertibleTypes();
 			if (convertibleTypes == null) {
@@ -523,12 +602,21 @@ public class GenericConversionService implements ConfigurableConversionService {
 			if (convertersForPair == null) {
 				convertersForPair = new ConvertersForPair();
 				this.converters.put(convertiblePair, convertersForPair);
+				this.convertersBySourceType.computeIfAbsent(convertiblePair.getSourceType(), key -> new HashMap<>(8))
+						.put(convertiblePair.getTargetType(), convertersForPair);
 			}
 			return convertersForPair;
 		}
 
 		public void remove(Class<?> sourceType, Class<?> targetType) {
 			this.converters.remove(new ConvertiblePair(sourceType, targetType));
+			Map<Class<?>, ConvertersForPair> convertersForSource = this.convertersBySourceType.get(sourceType);
+			if (convertersForSource != null) {
+				convertersForSource.remove(targetType);
+				if (convertersForSource.isEmpty()) {
+					this.convertersBySourceType.remove(sourceType);
+				}
+			}
 		}
 
 		/**
@@ -545,9 +633,13 @@ public class GenericConversionService implements ConfigurableConversionService {
 			List<Class<?>> sourceCandidates = getClassHierarchy(sourceType.getType());
 			List<Class<?>> targetCandidates = getClassHierarchy(targetType.getType());
 			for (Class<?> sourceCandidate : sourceCandidates) {
+				Map<Class<?>, ConvertersForPair> convertersForSource = this.convertersBySourceType.get(sourceCandidate);
+				if (convertersForSource == null && this.globalConverters.isEmpty()) {
+					continue;
+				}
 				for (Class<?> targetCandidate : targetCandidates) {
-					ConvertiblePair convertiblePair = new ConvertiblePair(sourceCandidate, targetCandidate);
-					GenericConverter converter = getRegisteredConverter(sourceType, targetType, convertiblePair);
+					GenericConverter converter = getRegisteredConverter(sourceType, targetType,
+							(convertersForSource != null ? convertersForSource.get(targetCandidate) : null));
 					if (converter != null) {
 						return converter;
 					}
@@ -558,10 +650,9 @@ public class GenericConversionService implements ConfigurableConversionService {
 
 		@Nullable
 		private GenericConverter getRegisteredConverter(TypeDescriptor sourceType,
-				TypeDescriptor targetType, ConvertiblePair convertiblePair) {
+				TypeDescriptor targetType, @Nullable ConvertersForPair convertersForPair) {
 
 			// Check specifically registered converters
-			ConvertersForPair convertersForPair = this.converters.get(convertiblePair);
 			if (convertersForPair != null) {
 				GenericConverter converter = convertersForPair.getConverter(sourceType, targetType);
 				if (converter != null) {
@@ -583,6 +674,15 @@ public class GenericConversionService implements ConfigurableConversionService {
 		 * @return an ordered list of all classes that the given type extends or implements
 		 */
 		private List<Class<?>> getClassHierarchy(Class<?> type) {
+			List<Class<?>> hierarchy = classHierarchyCache.get(type);
+			if (hierarchy == null) {
+				hierarchy = buildClassHierarchy(type);
+				classHierarchyCache.put(type, hierarchy);
+			}
+			return hierarchy;
+		}
+
+		private List<Class<?>> buildClassHierarchy(Class<?> type) {
 			List<Class<?>> hierarchy = new ArrayList<>(20);
 			Set<Class<?>> visited = new HashSet<>(20);
 			addToClassHierarchy(0, ClassUtils.resolvePrimitiveIfNecessary(type), false, hierarchy, visited);
@@ -608,7 +708,7 @@ public class GenericConversionService implements ConfigurableConversionService {
 
 			addToClassHierarchy(hierarchy.size(), Object.class, array, hierarchy, visited);
 			addToClassHierarchy(hierarchy.size(), Object.class, false, hierarchy, visited);
-			return hierarchy;
+			return Collections.unmodifiableList(hierarchy);
 		}
 
 		private void addInterfacesToClassHierarchy(Class<?> type, boolean asArray,
@@ -0,0 +1,578 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * {@link DataBuffer} that presents multiple data buffers as a single one,
+ * without copying their content. Created through
+ * {@link DataBufferFactory#join(List)} for factories that have no native
+ * composite buffer, such as the {@link DefaultDataBufferFactory}.
+ *
+ * <p>The readable bytes of the joined buffers become the content of the
+ * composite buffer, which takes ownership of them: {@linkplain #release()
+ * releasing} the composite buffer releases all joined buffers.
+ * Additional content is written into heap memory appended to the end, except
+ * for {@link #write(DataBuffer...)}, which joins the given buffers as well.
+ *
+ * <p>{@link #asInputStream()} reads across the joined buffers without copying,
+ * as do {@link #slice} and {@link #asByteBuffer(int, int)} for ranges within
+ * a single joined buffer; a byte buffer spanning multiple joined buffers is
+ * necessarily a copy.
+ *
+ * @since 5.1
+ * @see DataBufferUtils#join(org.reactivestreams.Publisher)
+ */
+public class CompositeDataBuffer implements PooledDataBuffer {
+
+	private static final int MIN_COMPONENT_CAPACITY = 256;
+
+
+	private final DataBufferFactory dataBufferFactory;
+
+	private final List<Component> components;
+
+	private int readPosition;
+
+	private int writePosition;
+
+	private int capacity;
+
+	private int lastComponentIndex;
+
+
+	CompositeDataBuffer(DataBufferFactory dataBufferFactory, List<? extends DataBuffer> dataBuffers) {
+		Assert.notNull(dataBufferFactory, "'dataBufferFactory' must not be null");
+		Assert.notNull(dataBuffers, "'dataBuffers' must not be null");
+		this.dataBufferFactory = dataBufferFactory;
+		this.components = new ArrayList<>(dataBuffers.size());
+		for (DataBuffer dataBuffer : dataBuffers) {
+			addComponent(dataBuffer.asByteBuffer(), dataBuffer);
+		}
+		this.writePosition = this.capacity;
+	}
+
+	private CompositeDataBuffer(DataBufferFactory dataBufferFactory, List<Component> components, int length) {
+		this.dataBufferFactory = dataBufferFactory;
+		this.components = components;
+		this.writePosition = length;
+		this.capacity = length;
+	}
+
+
+	/**
+	 * Return the number of buffers that this buffer is composed of.
+	 */
+	public int getComponentCount() {
+		return this.components.size();
+	}
+
+	@Override
+	public DataBufferFactory factory() {
+		return this.dataBufferFactory;
+	}
+
+	@Override
+	public int indexOf(IntPredicate predicate, int fromIndex) {
+		Assert.notNull(predicate, "'predicate' must not be null");
+		if (fromIndex < 0) {
+			fromIndex = 0;
+		}
+		else if (fromIndex >= this.writePosition) {
+			return -1;
+		}
+		for (int i = componentIndex(fromIndex); i < this.components.size(); i++) {
+			Component component = this.components.get(i);
+			int end = Math.min(component.end(), this.writePosition);
+			for (int index = Math.max(fromIndex, component.offset); index < end; index++) {
+				if (predicate.test(component.buffer.get(index - component.offset))) {
+					return index;
+				}
+			}
+			if (end == this.writePosition) {
+				break;
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public int lastIndexOf(IntPredicate predicate, int fromIndex) {
+		Assert.notNull(predicate, "'predicate' must not be null");
+		int startIndex = Math.min(fromIndex, this.writePosition - 1);
+		if (startIndex < 0) {
+			return -1;
+		}
+		for (int i = componentIndex(startIndex); i >= 0; i--) {
+			Component component = this.components.get(i);
+			for (int index = Math.min(startIndex, component.end() - 1); index >= component.offset; index--) {
+				if (predicate.test(component.buffer.get(index - component.offset))) {
+					return index;
+				}
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public int readableByteCount() {
+		return this.writePosition - this.readPosition;
+	}
+
+	@Override
+	public int writableByteCount() {
+		return this.capacity - this.writePosition;
+	}
+
+	@Override
+	public int readPosition() {
+		return this.readPosition;
+	}
+
+	@Override
+	public DataBuffer readPosition(int readPosition) {
+		assertIndex(readPosition >= 0, "'readPosition' %d must be >= 0", readPosition);
+		assertIndex(readPosition <= this.writePosition, "'readPosition' %d must be <= %d",
+				readPosition, this.writePosition);
+		this.readPosition = readPosition;
+		return this;
+	}
+
+	@Override
+	public int writePosition() {
+		return this.writePosition;
+	}
+
+	@Override
+	public DataBuffer writePosition(int writePosition) {
+		assertIndex(writePosition >= this.readPosition, "'writePosition' %d must be >= %d",
+				writePosition, this.readPosition);
+		assertIndex(writePosition <= this.capacity, "'writePosition' %d must be <= %d",
+				writePosition, this.capacity);
+		this.writePosition = writePosition;
+		return this;
+	}
+
+	@Override
+	public int capacity() {
+		return this.capacity;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>A composite buffer can only grow: additional capacity is appended
+	 * as heap memory, without copying the existing content.
+	 * @throws UnsupportedOperationException when trying to reduce the capacity
+	 */
+	@Override
+	public DataBuffer capacity(int newCapacity) {
+		Assert.isTrue(newCapacity > 0,
+				String.format("'newCapacity' %d must be higher than 0", newCapacity));
+		if (newCapacity < this.capacity) {
+			throw new UnsupportedOperationException("Reducing the capacity of a composite buffer is not supported");
+		}
+		if (newCapacity > this.capacity) {
+			addComponent(ByteBuffer.allocate(newCapacity - this.capacity), null);
+		}
+		return this;
+	}
+
+	@Override
+	public byte read() {
+		assertIndex(this.readPosition <= this.writePosition - 1, "readPosition %d must be <= %d",
+				this.readPosition, this.writePosition - 1);
+		Component component = this.components.get(componentIndex(this.readPosition));
+		byte b = component.buffer.get(this.readPosition - component.offset);
+		this.readPosition++;
+		return b;
+	}
+
+	@Override
+	public CompositeDataBuffer read(byte[] destination) {
+		Assert.notNull(destination, "'destination' must not be null");
+		read(destination, 0, destination.length);
+		return this;
+	}
+
+	@Override
+	public CompositeDataBuffer read(byte[] destination, int offset, int length) {
+		Assert.notNull(destination, "'destination' must not be null");
+		assertIndex(this.readPosition <= this.writePosition - length,
+				"readPosition %d and length %d should be smaller than writePosition %d",
+				this.readPosition, length, this.writePosition);
+		int index = this.readPosition;
+		int remaining = length;
+		while (remaining > 0) {
+			Component component = this.components.get(componentIndex(index));
+			int chunk = Math.min(remaining, component.end() - index);
+			ByteBuffer tmp = component.buffer.duplicate();
+			((Buffer) tmp).position(index - component.offset);
+			tmp.get(destination, offset + length - remaining, chunk);
+			index += chunk;
+			remaining -= chunk;
+		}
+		this.readPosition = index;
+		return this;
+	}
+
+	@Override
+	public CompositeDataBuffer write(byte b) {
+		ensureCapacity(1);
+		Component component = this.components.get(componentIndex(this.writePosition));
+		component.buffer.put(this.writePosition - component.offset, b);
+		this.writePosition++;
+		return this;
+	}
+
+	@Override
+	public CompositeDataBuffer write(byte[] source) {
+		Assert.notNull(source, "'source' must not be null");
+		write(source, 0, source.length);
+		return this;
+	}
+
+	@Override
+	public CompositeDataBuffer write(byte[] source, int offset, int length) {
+		Assert.notNull(source, "'source' must not be null");
+		write(ByteBuffer.wrap(source, offset, length));
+		return this;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>The given buffers are joined to this buffer without copying their
+	 * content, with this buffer taking ownership of them.
+	 */
+	@Override
+	public CompositeDataBuffer write(DataBuffer... buffers) {
+		if (!ObjectUtils.isEmpty(buffers)) {
+			trimToWritePosition();
+			for (DataBuffer buffer : buffers) {
+				addComponent(buffer.asByteBuffer(), buffer);
+			}
+			this.writePosition = this.capacity;
+		}
+		return this;
+	}
+
+	@Override
+	public CompositeDataBuffer write(ByteBuffer... byteBuffers) {
+		Assert.notEmpty(byteBuffers, "'byteBuffers' must not be empty");
+		ensureCapacity(Arrays.stream(byteBuffers).mapToInt(ByteBuffer::remaining).sum());
+		for (ByteBuffer byteBuffer : byteBuffers) {
+			ByteBuffer source = byteBuffer.duplicate();
+			while (source.hasRemaining()) {
+				Component component = this.components.get(componentIndex(this.writePosition));
+				int chunk = Math.min(source.remaining(), component.end() - this.writePosition);
+				ByteBuffer target = component.buffer.duplicate();
+				((Buffer) target).position(this.writePosition - component.offset);
+				ByteBuffer chunkSource = source.duplicate();
+				((Buffer) chunkSource).limit(chunkSource.position() + chunk);
+				target.put(chunkSource);
+				((Buffer) source).position(source.position() + chunk);
+				this.writePosition += chunk;
+			}
+		}
+		return this;
+	}
+
+	@Override
+	public DataBuffer slice(int index, int length) {
+		checkIndex(index, length);
+		List<Component> sliced = new ArrayList<>();
+		int remaining = length;
+		int position = index;
+		for (int i = componentIndex(index); remaining > 0; i++) {
+			Component component = this.components.get(i);
+			int chunk = Math.min(remaining, component.end() - position);
+			sliced.add(new Component(component.slice(position - component.offset, chunk),
+					component.dataBuffer, length - remaining));
+			position += chunk;
+			remaining -= chunk;
+		}
+		return new CompositeDataBuffer(this.dataBufferFactory, sliced, length);
+	}
+
+	@Override
+	public ByteBuffer asByteBuffer() {
+		return asByteBuffer(this.readPosition, readableByteCount());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>The returned buffer shares the content of this buffer only if the
+	 * given range lies within a single joined buffer; it is a copy otherwise.
+	 */
+	@Override
+	public ByteBuffer asByteBuffer(int index, int length) {
+		checkIndex(index, length);
+		if (length == 0) {
+			return ByteBuffer.allocate(0);
+		}
+		Component component = this.components.get(componentIndex(index));
+		if (index + length <= component.end()) {
+			return component.slice(index - component.offset, length);
+		}
+		ByteBuffer copy = ByteBuffer.allocate(length);
+		int position = index;
+		while (copy.hasRemaining()) {
+			component = this.components.get(componentIndex(position));
+			int chunk = Math.min(copy.remaining(), component.end() - position);
+			copy.put(component.slice(position - component.offset, chunk));
+			position += chunk;
+		}
+		((Buffer) copy).flip();
+		return copy;
+	}
+
+	@Override
+	public InputStream asInputStream() {
+		return new CompositeDataBufferInputStream();
+	}
+
+	@Override
+	public OutputStream asOutputStream() {
+		return new CompositeDataBufferOutputStream();
+	}
+
+	/**
+	 * Retain all joined buffers.
+	 */
+	@Override
+	public PooledDataBuffer retain() {
+		for (DataBuffer dataBuffer : joinedBuffers()) {
+			DataBufferUtils.retain(dataBuffer);
+		}
+		return this;
+	}
+
+	/**
+	 * Release all joined buffers.
+	 * @return {@code true} if all joined buffers were pooled and have been
+	 * released as a result; {@code false} otherwise
+	 */
+	@Override
+	public boolean release() {
+		boolean released = true;
+		List<DataBuffer> joinedBuffers = joinedBuffers();
+		for (DataBuffer dataBuffer : joinedBuffers) {
+			released &= DataBufferUtils.release(dataBuffer);
+		}
+		return (released && !joinedBuffers.isEmpty());
+	}
+
+
+	private List<DataBuffer> joinedBuffers() {
+		List<DataBuffer> joinedBuffers = new ArrayList<>(this.components.size());
+		for (Component component : this.components) {
+			if (component.dataBuffer != null) {
+				joinedBuffers.add(component.dataBuffer);
+			}
+		}
+		return joinedBuffers;
+	}
+
+	private void addComponent(ByteBuffer byteBuffer, @Nullable DataBuffer dataBuffer) {
+		Component component = new Component(byteBuffer.slice(), dataBuffer, this.capacity);
+		this.components.add(component);
+		this.capacity += component.length();
+	}
+
+	private void trimToWritePosition() {
+		if (this.writePosition == this.capacity) {
+			return;
+		}
+		for (int i = this.components.size() - 1; i >= 0; i--) {
+			Component component = this.components.get(i);
+			if (component.offset >= this.writePosition && component.offset > 0) {
+				this.components.remove(i);
+				DataBufferUtils.release(component.dataBuffer);
+			}
+			else {
+				int length = this.writePosition - component.offset;
+				this.components.set(i, new Component(component.slice(0, length), component.dataBuffer,
+						component.offset));
+				break;
+			}
+		}
+		this.capacity = this.writePosition;
+		this.lastComponentIndex = 0;
+	}
+
+	private void ensureCapacity(int length) {
+		if (length > writableByteCount()) {
+			int additionalCapacity = Math.max(length - writableByteCount(),
+					Math.max(MIN_COMPONENT_CAPACITY, this.capacity >> 2));
+			addComponent(ByteBuffer.allocate(additionalCapacity), null);
+		}
+	}
+
+	private int componentIndex(int index) {
+		int last = this.lastComponentIndex;
+		if (last < this.components.size()) {
+			Component component = this.components.get(last);
+			if (index >= component.offset && index < component.end()) {
+				return last;
+			}
+		}
+		int low = 0;
+		int high = this.components.size() - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			Component component = this.components.get(mid);
+			if (index >= component.end()) {
+				low = mid + 1;
+			}
+			else if (index < component.offset) {
+				high = mid - 1;
+			}
+			else {
+				this.lastComponentIndex = mid;
+				return mid;
+			}
+		}
+		throw new IndexOutOfBoundsException("Index " + index + " out of composite buffer capacity " + this.capacity);
+	}
+
+
+	@Override
+	public boolean equals(Object other) {
+		if (this == other) {
+			return true;
+		}
+		if (!(other instanceof CompositeDataBuffer)) {
+			return false;
+		}
+		CompositeDataBuffer otherBuffer = (CompositeDataBuffer) other;
+		return (this.readPosition == otherBuffer.readPosition &&
+				this.writePosition == otherBuffer.writePosition &&
+				asByteBuffer(0, this.writePosition).equals(otherBuffer.asByteBuffer(0, otherBuffer.writePosition)));
+	}
+
+	@Override
+	public int hashCode() {
+		return asByteBuffer(0, this.writePosition).hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return String.format("CompositeDataBuffer (r: %d, w %d, c %d, components %d)", this.readPosition,
+				this.writePosition, this.capacity, this.components.size());
+	}
+
+	private void checkIndex(int index, int length) {
+		assertIndex(index >= 0, "index %d must be >= 0", index);
+		assertIndex(length >= 0, "length %d must be >= 0", length);
+		assertIndex(index + length <= this.capacity, "index %d and length %d must be <= %d",
+				index, length, this.capacity);
+	}
+
+	private static void assertIndex(boolean expression, String format, Object... args) {
+		if (!expression) {
+			String message = String.format(format, args);
+			throw new IndexOutOfBoundsException(message);
+		}
+	}
+
+
+	/**
+	 * A joined buffer, or appended heap memory, at a given offset of this buffer.
+	 */
+	private static final class Component {
+
+		final ByteBuffer buffer;
+
+		@Nullable
+		final DataBuffer dataBuffer;
+
+		final int offset;
+
+		Component(ByteBuffer buffer, @Nullable DataBuffer dataBuffer, int offset) {
+			this.buffer = buffer;
+			this.dataBuffer = dataBuffer;
+			this.offset = offset;
+		}
+
+		int length() {
+			return this.buffer.limit();
+		}
+
+		int end() {
+			return this.offset + length();
+		}
+
+		ByteBuffer slice(int index, int length) {
+			ByteBuffer duplicate = this.buffer.duplicate();
+			((Buffer) duplicate).position(index).limit(index + length);
+			return duplicate.slice();
+		}
+	}
+
+
+	private class CompositeDataBufferInputStream extends InputStream {
+
+		@Override
+		public int available() {
+			return readableByteCount();
+		}
+
+		@Override
+		public int read() {
+			return available() > 0 ? CompositeDataBuffer.this.read() & 0xFF : -1;
+		}
+
+		@Override
+		public int read(byte[] bytes, int off, int len) {
+			int available = available();
+			if (available > 0) {
+				len = Math.min(len, available);
+				CompositeDataBuffer.this.read(bytes, off, len);
+				return len;
+			}
+			else {
+				return -1;
+			}
+		}
+	}
+
+
+	private class CompositeDataBufferOutputStream extends OutputStream {
+
+		@Override
+		public void write(int b) {
+			CompositeDataBuffer.this.write((byte) b);
+		}
+
+		@Override
+		public void write(byte[] bytes, int off, int len) {
+			CompositeDataBuffer.this.write(bytes, off, len);
+		}
+	}
+
+}
@@ -17,6 +17,9 @@
 package org.springframework.core.io.buffer;
 
 import java.nio.ByteBuffer;
+import java.util.List;
+
+import org.springframework.util.Assert;
 
 /**
  * A factory for {@link DataBuffer}s, allowing for allocation and wrapping of
@@ -61,4 +64,23 @@ public interface DataBufferFactory {
 	 */
 	DataBuffer wrap(byte[] bytes);
 
+	/**
+	 * Return a new {@code DataBuffer} composed of the given data buffers,
+	 * without copying their content where the implementation allows for it.
+	 * The returned buffer takes ownership of the given buffers: releasing it
+	 * releases all of them.
+	 * <p>The default implementation returns a {@link CompositeDataBuffer},
+	 * or the given buffer as-is if there is only one.
+	 * @param dataBuffers the data buffers to be composed
+	 * @return a buffer composed of the given buffers
+	 * @since 5.1
+	 */
+	default DataBuffer join(List<? extends DataBuffer> dataBuffers) {
+		Assert.notEmpty(dataBuffers, "'dataBuffers' must not be empty");
+		if (dataBuffers.size() == 1) {
+			return dataBuffers.get(0);
+		}
+		return new CompositeDataBuffer(this, dataBuffers);
+	}
+
 }
@@ -25,8 +25,10 @@ import java.nio.channels.AsynchronousFileChannel;
 import java.nio.channels.Channel;
 import java.nio.channels.Channels;
 import java.nio.channels.CompletionHandler;
+import java.nio.channels.FileChannel;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
@@ -38,6 +40,7 @@ import org.reactivestreams.Subscription;
 import reactor.core.publisher.BaseSubscriber;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
 import reactor.core.publisher.SynchronousSink;
 
 import org.springframework.core.io.Resource;
@@ -196,6 +199,41 @@ public abstract class DataBufferUtils {
 		}
 	}
 
+	/**
+	 * Read the given region of a file-based {@code Resource} into a
+	 * {@code Flux} of memory-mapped {@code DataBuffer}s, i.e. data buffers
+	 * {@linkplain DataBufferFactory#wrap(ByteBuffer) wrapping} a
+	 * {@link java.nio.MappedByteBuffer}. The file content is not copied into
+	 * allocated buffers, but paged in by the operating system when the
+	 * returned buffers are accessed, e.g. when written to a socket.
+	 * <p>Mapping a file has a higher setup cost than reading it, and mapped
+	 * buffers are only unmapped once garbage collected; this is therefore
+	 * meant for large files served repeatedly, such as static resources.
+	 * @param resource the file-based resource to read from
+	 * @param position the position in the file to start reading from
+	 * @param count the maximum number of bytes to read
+	 * @param dataBufferFactory the factory to wrap mapped buffers with
+	 * @param bufferSize the maximum size of the data buffers
+	 * @return a flux of data buffers mapped from the given resource, or an
+	 * error signal if the resource is not available as a {@code File}
+	 * @since 5.1
+	 * @see FileChannel#map
+	 */
+	public static Flux<DataBuffer> readMapped(Resource resource, long position, long count,
+			DataBufferFactory dataBufferFactory, int bufferSize) {
+
+		Assert.notNull(resource, "'resource' must not be null");
+		Assert.notNull(dataBufferFactory, "'dataBufferFactory' must not be null");
+		Assert.isTrue(position >= 0, "'position' must be >= 0");
+		Assert.isTrue(count >= 0, "'count' must be >= 0");
+		Assert.isTrue(bufferSize > 0, "'bufferSize' must be > 0");
+
+		return Flux.generate(
+				() -> new MappedRegion(resource.getFile().toPath(), position, count),
+				new MappedRegionGenerator(dataBufferFactory, bufferSize),
+				region -> closeChannel(region.channel));
+	}
+
 
 	//---------------------------------------------------------------------
 	// Writing
@@ -375,6 +413,24 @@ public abstract class DataBufferUtils {
 				});
 	}
 
+	/**
+	 * Return a new {@code DataBuffer} composed of the buffers from the given
+	 * {@link Publisher}, without copying their content where the
+	 * {@linkplain DataBufferFactory#join(java.util.List) factory} allows for it.
+	 * The composed buffer takes ownership of the joined buffers.
+	 * @param dataBuffers the data buffers to join
+	 * @return a mono with the composed buffer, or empty if the given
+	 * publisher completes without buffers
+	 * @since 5.1
+	 */
+	public static Mono<DataBuffer> join(Publisher<DataBuffer> dataBuffers) {
+		Assert.notNull(dataBuffers, "'dataBuffers' must not be null");
+		return Flux.from(dataBuffers)
+				.collectList()
+				.filter(list -> !list.isEmpty())
+				.map(list -> list.get(0).factory().join(list));
+	}
+
 	/**
 	 * Retain the given data buffer, it it is a {@link PooledDataBuffer}.
 	 * @param dataBuffer the data buffer to retain
@@ -452,6 +508,59 @@ public abstract class DataBufferUtils {
 		}
 	}
 
+	private static class MappedRegion {
+
+		private final FileChannel channel;
+
+		private long position;
+
+		private final long end;
+
+		public MappedRegion(Path path, long position, long count) throws IOException {
+			FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+			try {
+				this.end = position + Math.min(count, Math.max(channel.size() - position, 0));
+			}
+			catch (IOException | RuntimeException ex) {
+				closeChannel(channel);
+				throw ex;
+			}
+			this.channel = channel;
+			this.position = position;
+		}
+	}
+
+	private static class MappedRegionGenerator
+			implements BiFunction<MappedRegion, SynchronousSink<DataBuffer>, MappedRegion> {
+
+		private final DataBufferFactory dataBufferFactory;
+
+		private final int bufferSize;
+
+		public MappedRegionGenerator(DataBufferFactory dataBufferFactory, int bufferSize) {
+			this.dataBufferFactory = dataBufferFactory;
+			this.bufferSize = bufferSize;
+		}
+
+		@Override
+		public MappedRegion apply(MappedRegion region, SynchronousSink<DataBuffer> sub) {
+			long size = Math.min(region.end - region.position, this.bufferSize);
+			if (size <= 0) {
+				sub.complete();
+				return region;
+			}
+			try {
+				ByteBuffer byteBuffer = region.channel.map(FileChannel.MapMode.READ_ONLY, region.position, size);
+				region.position += size;
+				sub.next(this.dataBufferFactory.wrap(byteBuffer));
+			}
+			catch (IOException ex) {
+				sub.error(ex);
+			}
+			return region;
+		}
+	}
+
 	private static class AsynchronousFileChannelReadCompletionHandler
 			implements CompletionHandler<Integer, DataBuffer> {
 
@@ -17,9 +17,11 @@
 package org.springframework.core.io.buffer;
 
 import java.nio.ByteBuffer;
+import java.util.List;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.CompositeByteBuf;
 import io.netty.buffer.Unpooled;
 
 import org.springframework.util.Assert;
@@ -89,6 +91,26 @@ public class NettyDataBufferFactory implements DataBufferFactory {
 		return new NettyDataBuffer(byteBuf, this);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>This implementation returns a {@code NettyDataBuffer} backed by a
+	 * Netty {@link CompositeByteBuf} if all given buffers are
+	 * {@code NettyDataBuffer}s.
+	 */
+	@Override
+	public DataBuffer join(List<? extends DataBuffer> dataBuffers) {
+		Assert.notEmpty(dataBuffers, "'dataBuffers' must not be empty");
+		if (dataBuffers.size() == 1 ||
+				!dataBuffers.stream().allMatch(dataBuffer -> dataBuffer instanceof NettyDataBuffer)) {
+			return DataBufferFactory.super.join(dataBuffers);
+		}
+		CompositeByteBuf composite = this.byteBufAllocator.compositeBuffer(dataBuffers.size());
+		for (DataBuffer dataBuffer : dataBuffers) {
+			composite.addComponent(true, ((NettyDataBuffer) dataBuffer).getNativeBuffer());
+		}
+		return new NettyDataBuffer(composite, this);
+	}
+
 	/**
 	 * Return the given Netty {@link DataBuffer} as a {@link ByteBuf}. Returns the
 	 * {@linkplain NettyDataBuffer#getNativeBuffer() native buffer} if {@code buffer} is
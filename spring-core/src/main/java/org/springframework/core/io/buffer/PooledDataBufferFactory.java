@@ -0,0 +1,542 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.core.NamedThreadLocal;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Pooling variant of the {@link DefaultDataBufferFactory}, allocating reference
+ * counted {@link PooledDataBuffer}s from a memory pool, without requiring Netty.
+ *
+ * <p>Buffers up to the {@linkplain #getMaxPooledCapacity() maximum pooled capacity}
+ * are served from segments of power-of-two size classes, which are carved out of
+ * larger slabs of heap or direct memory. Once a buffer is {@linkplain
+ * PooledDataBuffer#release() released}, its segment is kept in a cache of the
+ * releasing thread or returned to the shared free list of its size class for
+ * reuse. Larger buffers are allocated without pooling.
+ *
+ * <p>The {@linkplain #getMaxPoolSize() maximum pool size} limits the memory kept
+ * in the shared pool, i.e. in the free lists and not yet carved out slabs. Segments
+ * of buffers in use and in thread-local caches do not count: a released segment
+ * that does not fit into the shared pool anymore is left to the garbage collector,
+ * just like the segments of buffers that are never released and the caches of
+ * threads that have terminated. Buffers are allocated without pooling only if no
+ * free segment is available and a new slab does not fit into the shared pool.
+ *
+ * <p>Slices of a pooled buffer share its reference count, just like with
+ * {@link NettyDataBufferFactory}, so releasing a slice releases the buffer.
+ * Using a buffer (or any of its slices) after it has been released is illegal.
+ *
+ * <p>{@linkplain #setLeakDetection Leak detection} reports buffers that got
+ * garbage collected without having been released, along with the stack trace
+ * of their allocation. It is expensive and hence intended for development and
+ * testing only.
+ *
+ * @since 5.1
+ * @see DataBufferUtils#release(DataBuffer)
+ */
+public class PooledDataBufferFactory extends DefaultDataBufferFactory {
+
+	/**
+	 * The default maximum capacity of pooled buffers.
+	 */
+	public static final int DEFAULT_MAX_POOLED_CAPACITY = 64 * 1024;
+
+	/**
+	 * The default maximum number of bytes that the shared pool keeps.
+	 */
+	public static final long DEFAULT_MAX_POOL_SIZE = 64 * 1024 * 1024;
+
+	/**
+	 * The default number of segments per size class kept in the cache of each thread.
+	 */
+	public static final int DEFAULT_THREAD_LOCAL_CACHE_SIZE = 32;
+
+	private static final int MIN_SEGMENT_SHIFT = 6;
+
+	private static final int SEGMENTS_PER_SLAB = 128;
+
+	private static final int MAX_SLAB_SIZE = 1024 * 1024;
+
+	private static final Log logger = LogFactory.getLog(PooledDataBufferFactory.class);
+
+
+	private final boolean preferDirect;
+
+	private final int maxPooledCapacity;
+
+	private final long maxPoolSize;
+
+	private final SizeClass[] sizeClasses;
+
+	private final AtomicLong poolSize = new AtomicLong();
+
+	private final AtomicLong activeAllocations = new AtomicLong();
+
+	private final ThreadLocal<ArrayDeque<ByteBuffer>[]> threadLocalCaches =
+			new NamedThreadLocal<>("PooledDataBufferFactory thread-local cache");
+
+	private volatile int threadLocalCacheSize = DEFAULT_THREAD_LOCAL_CACHE_SIZE;
+
+	private volatile boolean leakDetection;
+
+	private final ReferenceQueue<PooledBuffer> leakQueue = new ReferenceQueue<>();
+
+	private final Set<LeakTracker> leakTrackers = ConcurrentHashMap.newKeySet();
+
+
+	/**
+	 * Creates a new {@code PooledDataBufferFactory} with default settings.
+	 */
+	public PooledDataBufferFactory() {
+		this(false);
+	}
+
+	/**
+	 * Creates a new {@code PooledDataBufferFactory}, indicating whether direct
+	 * buffers should be pooled.
+	 * @param preferDirect {@code true} if direct buffers are to be preferred;
+	 * {@code false} otherwise
+	 */
+	public PooledDataBufferFactory(boolean preferDirect) {
+		this(preferDirect, DEFAULT_INITIAL_CAPACITY);
+	}
+
+	/**
+	 * Creates a new {@code PooledDataBufferFactory}, indicating whether direct
+	 * buffers should be pooled, and what the capacity is to be used for
+	 * {@link #allocateBuffer()}.
+	 * @param preferDirect {@code true} if direct buffers are to be preferred;
+	 * {@code false} otherwise
+	 */
+	public PooledDataBufferFactory(boolean preferDirect, int defaultInitialCapacity) {
+		this(preferDirect, defaultInitialCapacity, DEFAULT_MAX_POOLED_CAPACITY, DEFAULT_MAX_POOL_SIZE);
+	}
+
+	/**
+	 * Creates a new {@code PooledDataBufferFactory} with the given pool settings.
+	 * @param preferDirect {@code true} if direct buffers are to be preferred;
+	 * {@code false} otherwise
+	 * @param defaultInitialCapacity the capacity to use for {@link #allocateBuffer()}
+	 * @param maxPooledCapacity the maximum capacity of buffers to serve from the pool
+	 * @param maxPoolSize the maximum number of bytes that the shared pool keeps
+	 */
+	@SuppressWarnings("unchecked")
+	public PooledDataBufferFactory(boolean preferDirect, int defaultInitialCapacity,
+			int maxPooledCapacity, long maxPoolSize) {
+
+		super(preferDirect, defaultInitialCapacity);
+		Assert.isTrue(maxPooledCapacity > 0, "'maxPooledCapacity' should be larger than 0");
+		Assert.isTrue(maxPoolSize >= 0, "'maxPoolSize' must not be negative");
+		this.preferDirect = preferDirect;
+		this.maxPooledCapacity = maxPooledCapacity;
+		this.maxPoolSize = maxPoolSize;
+		this.sizeClasses = new SizeClass[sizeClassIndex(maxPooledCapacity) + 1];
+		for (int i = 0; i < this.sizeClasses.length; i++) {
+			this.sizeClasses[i] = new SizeClass(1 << (MIN_SEGMENT_SHIFT + i));
+		}
+	}
+
+
+	/**
+	 * Set the number of released segments per size class that each thread keeps
+	 * for its own allocations, before returning them to the shared pool.
+	 * <p>Default is {@value #DEFAULT_THREAD_LOCAL_CACHE_SIZE}; {@code 0} disables
+	 * thread-local caching.
+	 */
+	public void setThreadLocalCacheSize(int threadLocalCacheSize) {
+		Assert.isTrue(threadLocalCacheSize >= 0, "'threadLocalCacheSize' must not be negative");
+		this.threadLocalCacheSize = threadLocalCacheSize;
+	}
+
+	/**
+	 * Return the number of released segments per size class that each thread keeps.
+	 */
+	public int getThreadLocalCacheSize() {
+		return this.threadLocalCacheSize;
+	}
+
+	/**
+	 * Set whether to report buffers that are garbage collected without having
+	 * been released, logging the stack trace of their allocation.
+	 * <p>Default is {@code false}. Only buffers allocated while leak detection
+	 * is enabled are tracked.
+	 */
+	public void setLeakDetection(boolean leakDetection) {
+		this.leakDetection = leakDetection;
+	}
+
+	/**
+	 * Return whether leak detection is enabled.
+	 */
+	public boolean isLeakDetection() {
+		return this.leakDetection;
+	}
+
+	/**
+	 * Return the maximum capacity of buffers served from the pool.
+	 */
+	public int getMaxPooledCapacity() {
+		return this.maxPooledCapacity;
+	}
+
+	/**
+	 * Return the maximum number of bytes that the shared pool keeps.
+	 */
+	public long getMaxPoolSize() {
+		return this.maxPoolSize;
+	}
+
+	/**
+	 * Return the number of bytes currently kept in the shared pool, i.e. in
+	 * free segments and not yet carved out slabs.
+	 */
+	public long getPoolSize() {
+		return this.poolSize.get();
+	}
+
+	/**
+	 * Return the number of allocated buffers that have not been released yet.
+	 */
+	public long getActiveAllocations() {
+		return this.activeAllocations.get();
+	}
+
+
+	@Override
+	public DefaultDataBuffer allocateBuffer(int initialCapacity) {
+		if (this.leakDetection) {
+			reportLeaks();
+		}
+		int sizeClass = sizeClassIndex(initialCapacity);
+		PooledBuffer buffer = new PooledBuffer(this, allocateSegment(sizeClass), sizeClass, initialCapacity);
+		this.activeAllocations.incrementAndGet();
+		if (this.leakDetection) {
+			buffer.leakTracker = new LeakTracker(buffer, this.leakQueue);
+			this.leakTrackers.add(buffer.leakTracker);
+		}
+		return buffer;
+	}
+
+	@Override
+	public String toString() {
+		return "PooledDataBufferFactory (preferDirect=" + this.preferDirect +
+				", maxPooledCapacity=" + this.maxPooledCapacity + ", maxPoolSize=" + this.maxPoolSize + ")";
+	}
+
+
+	private static int sizeClassIndex(int capacity) {
+		if (capacity <= (1 << MIN_SEGMENT_SHIFT)) {
+			return 0;
+		}
+		return (Integer.SIZE - Integer.numberOfLeadingZeros(capacity - 1)) - MIN_SEGMENT_SHIFT;
+	}
+
+	/**
+	 * Obtain a segment of memory of the given size class from the pool.
+	 * @return the segment, or {@code null} if not to be pooled
+	 */
+	@Nullable
+	private ByteBuffer allocateSegment(int sizeClass) {
+		if (sizeClass >= this.sizeClasses.length) {
+			return null;
+		}
+		ArrayDeque<ByteBuffer>[] caches = this.threadLocalCaches.get();
+		if (caches != null) {
+			ByteBuffer segment = caches[sizeClass].pollFirst();
+			if (segment != null) {
+				return segment;
+			}
+		}
+		return this.sizeClasses[sizeClass].allocate();
+	}
+
+	/**
+	 * Return a native buffer of the given capacity, backed by the given segment
+	 * or, if none, by memory allocated outside of the pool.
+	 */
+	private ByteBuffer createNativeBuffer(@Nullable ByteBuffer segment, int capacity) {
+		if (segment == null) {
+			return (this.preferDirect ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity));
+		}
+		ByteBuffer duplicate = segment.duplicate();
+		((Buffer) duplicate).limit(capacity);
+		return duplicate.slice();
+	}
+
+	/**
+	 * Return the given segment to the pool.
+	 */
+	@SuppressWarnings("unchecked")
+	private void freeSegment(ByteBuffer segment, int sizeClass) {
+		((Buffer) segment).clear();
+		int cacheSize = this.threadLocalCacheSize;
+		if (cacheSize > 0) {
+			ArrayDeque<ByteBuffer>[] caches = this.threadLocalCaches.get();
+			if (caches == null) {
+				caches = new ArrayDeque[this.sizeClasses.length];
+				for (int i = 0; i < caches.length; i++) {
+					caches[i] = new ArrayDeque<>();
+				}
+				this.threadLocalCaches.set(caches);
+			}
+			if (caches[sizeClass].size() < cacheSize) {
+				caches[sizeClass].offerFirst(segment);
+				return;
+			}
+		}
+		this.sizeClasses[sizeClass].free(segment);
+	}
+
+	private boolean reservePoolMemory(int size) {
+		while (true) {
+			long current = this.poolSize.get();
+			if (current + size > this.maxPoolSize) {
+				return false;
+			}
+			if (this.poolSize.compareAndSet(current, current + size)) {
+				return true;
+			}
+		}
+	}
+
+	private void reportLeaks() {
+		Reference<? extends PooledBuffer> reference;
+		while ((reference = this.leakQueue.poll()) != null) {
+			LeakTracker leakTracker = (LeakTracker) reference;
+			if (this.leakTrackers.remove(leakTracker)) {
+				logger.error("DataBuffer was garbage collected before being released: " +
+						"see DataBufferUtils.release(DataBuffer)", leakTracker.allocationSite);
+			}
+		}
+	}
+
+
+	/**
+	 * Power-of-two size class, carving segments out of slabs.
+	 */
+	private final class SizeClass {
+
+		private final int segmentSize;
+
+		private final int slabSize;
+
+		private final ConcurrentLinkedQueue<ByteBuffer> free = new ConcurrentLinkedQueue<>();
+
+		@Nullable
+		private ByteBuffer slab;
+
+		SizeClass(int segmentSize) {
+			this.segmentSize = segmentSize;
+			this.slabSize = Math.max(segmentSize, Math.min(MAX_SLAB_SIZE, segmentSize * SEGMENTS_PER_SLAB));
+		}
+
+		@Nullable
+		ByteBuffer allocate() {
+			ByteBuffer segment = this.free.poll();
+			if (segment != null) {
+				poolSize.addAndGet(-this.segmentSize);
+				return segment;
+			}
+			synchronized (this) {
+				if (this.slab == null || !this.slab.hasRemaining()) {
+					if (!reservePoolMemory(this.slabSize)) {
+						return null;
+					}
+					this.slab = (preferDirect ?
+							ByteBuffer.allocateDirect(this.slabSize) : ByteBuffer.allocate(this.slabSize));
+				}
+				ByteBuffer slab = this.slab;
+				int position = slab.position();
+				ByteBuffer duplicate = slab.duplicate();
+				((Buffer) duplicate).limit(position + this.segmentSize);
+				((Buffer) slab).position(position + this.segmentSize);
+				poolSize.addAndGet(-this.segmentSize);
+				return duplicate.slice();
+			}
+		}
+
+		void free(ByteBuffer segment) {
+			// Otherwise the shared pool is full: leave the segment to the garbage collector
+			if (reservePoolMemory(this.segmentSize)) {
+				this.free.offer(segment);
+			}
+		}
+	}
+
+
+	/**
+	 * {@link PooledDataBuffer} backed by a segment of the pool.
+	 */
+	private static final class PooledBuffer extends DefaultDataBuffer implements PooledDataBuffer {
+
+		private static final AtomicIntegerFieldUpdater<PooledBuffer> refCountUpdater =
+				AtomicIntegerFieldUpdater.newUpdater(PooledBuffer.class, "refCount");
+
+		private final PooledDataBufferFactory factory;
+
+		private volatile int refCount = 1;
+
+		@Nullable
+		private ByteBuffer segment;
+
+		private int sizeClass;
+
+		@Nullable
+		LeakTracker leakTracker;
+
+		PooledBuffer(PooledDataBufferFactory factory, @Nullable ByteBuffer segment, int sizeClass, int capacity) {
+			super(factory, factory.createNativeBuffer(segment, capacity));
+			this.factory = factory;
+			this.segment = segment;
+			this.sizeClass = sizeClass;
+		}
+
+		@Override
+		ByteBuffer allocate(int capacity, boolean direct) {
+			int sizeClass = sizeClassIndex(capacity);
+			ByteBuffer segment = this.factory.allocateSegment(sizeClass);
+			this.segment = segment;
+			this.sizeClass = sizeClass;
+			return this.factory.createNativeBuffer(segment, capacity);
+		}
+
+		@Override
+		public DataBuffer capacity(int newCapacity) {
+			ByteBuffer previousSegment = this.segment;
+			int previousSizeClass = this.sizeClass;
+			super.capacity(newCapacity);
+			if (previousSegment != null && previousSegment != this.segment) {
+				this.factory.freeSegment(previousSegment, previousSizeClass);
+			}
+			return this;
+		}
+
+		@Override
+		DefaultDataBuffer createSlice(ByteBuffer slice, int length) {
+			return new PooledSlice(slice, this.factory, length, this);
+		}
+
+		@Override
+		public PooledDataBuffer retain() {
+			while (true) {
+				int refCount = this.refCount;
+				if (refCount <= 0) {
+					throw new IllegalStateException("Buffer has already been released");
+				}
+				if (refCountUpdater.compareAndSet(this, refCount, refCount + 1)) {
+					return this;
+				}
+			}
+		}
+
+		@Override
+		public boolean release() {
+			while (true) {
+				int refCount = this.refCount;
+				if (refCount <= 0) {
+					throw new IllegalStateException("Buffer has already been released");
+				}
+				if (refCountUpdater.compareAndSet(this, refCount, refCount - 1)) {
+					if (refCount == 1) {
+						deallocate();
+						return true;
+					}
+					return false;
+				}
+			}
+		}
+
+		private void deallocate() {
+			if (this.segment != null) {
+				this.factory.freeSegment(this.segment, this.sizeClass);
+				this.segment = null;
+			}
+			this.factory.activeAllocations.decrementAndGet();
+			LeakTracker leakTracker = this.leakTracker;
+			if (leakTracker != null) {
+				this.factory.leakTrackers.remove(leakTracker);
+				leakTracker.clear();
+			}
+		}
+	}
+
+
+	/**
+	 * Slice of a {@link PooledBuffer}, sharing its reference count.
+	 */
+	private static final class PooledSlice extends DefaultDataBuffer.SlicedDefaultDataBuffer
+			implements PooledDataBuffer {
+
+		private final PooledBuffer parent;
+
+		PooledSlice(ByteBuffer byteBuffer, DefaultDataBufferFactory dataBufferFactory, int length,
+				PooledBuffer parent) {
+
+			super(byteBuffer, dataBufferFactory, length);
+			this.parent = parent;
+		}
+
+		@Override
+		DefaultDataBuffer createSlice(ByteBuffer slice, int length) {
+			return new PooledSlice(slice, factory(), length, this.parent);
+		}
+
+		@Override
+		public PooledDataBuffer retain() {
+			this.parent.retain();
+			return this;
+		}
+
+		@Override
+		public boolean release() {
+			return this.parent.release();
+		}
+	}
+
+
+	/**
+	 * Tracks a buffer allocated while leak detection is enabled.
+	 */
+	private static final class LeakTracker extends PhantomReference<PooledBuffer> {
+
+		private final Throwable allocationSite;
+
+		LeakTracker(PooledBuffer buffer, ReferenceQueue<PooledBuffer> queue) {
+			super(buffer, queue);
+			this.allocationSite = new Throwable("Allocation site of leaked DataBuffer");
+		}
+	}
+
+}
@@ -20,6 +20,7 @@ import org.springframework.core.io.DefaultResourceLoader;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
 import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
 
 import java.io.IOException;
 import java.util.LinkedHashMap;
@@ -116,13 +117,34 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
     }
 
 
+    /**
+     * Serves metadata for classes in the {@code META-INF/spring.metadata} index,
+     * as written by the {@code spring-context-indexer}, without reading their
+     * class files; falls back to class file parsing for other classes.
+     */
+    @Override
+    public MetadataReader getMetadataReader(String className) throws IOException {
+        ClassLoader classLoader = getResourceLoader().getClassLoader();
+        byte[] indexEntry = ClassMetadataIndex.loadIndex(classLoader).getEntry(className);
+        if (indexEntry == null) {
+            return super.getMetadataReader(className);
+        }
+        Resource resource = getResourceLoader().getResource(ResourceLoader.CLASSPATH_URL_PREFIX +
+                ClassUtils.convertClassNameToResourcePath(className) + ClassUtils.CLASS_FILE_SUFFIX);
+        return getMetadataReader(resource, () -> new IndexedMetadataReader(resource, indexEntry, classLoader));
+    }
+
     @Override
     public MetadataReader getMetadataReader(Resource resource) throws IOException {
+        return getMetadataReader(resource, () -> super.getMetadataReader(resource));
+    }
+
+    private MetadataReader getMetadataReader(Resource resource, MetadataReaderCreator creator) throws IOException {
         if (this.metadataReaderCache instanceof ConcurrentMap) {
             // No synchronization necessary...
             MetadataReader metadataReader = this.metadataReaderCache.get(resource);
             if (metadataReader == null) {
-                metadataReader = super.getMetadataReader(resource);
+                metadataReader = creator.create();
                 this.metadataReaderCache.put(resource, metadataReader);
             }
             return metadataReader;
@@ -130,13 +152,13 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
             synchronized (this.metadataReaderCache) {
                 MetadataReader metadataReader = this.metadataReaderCache.get(resource);
                 if (metadataReader == null) {
-                    metadataReader = super.getMetadataReader(resource);
+                    metadataReader = creator.create();
                     this.metadataReaderCache.put(resource, metadataReader);
                 }
                 return metadataReader;
             }
         } else {
-            return super.getMetadataReader(resource);
+            return creator.create();
         }
     }
 
@@ -152,6 +174,13 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
     }
 
 
+    @FunctionalInterface
+    private interface MetadataReaderCreator {
+
+        MetadataReader create() throws IOException;
+    }
+
+
     @SuppressWarnings("serial")
     private static class LocalResourceCache extends LinkedHashMap<Resource, MetadataReader> {
 
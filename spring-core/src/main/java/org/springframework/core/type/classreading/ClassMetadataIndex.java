@@ -0,0 +1,169 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.type.classreading;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.core.SpringProperties;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+/**
+ * Index of precomputed class metadata, as written to {@value #METADATA_RESOURCE_LOCATION}
+ * by the {@code spring-context-indexer} annotation processor, allowing
+ * {@link CachingMetadataReaderFactory} to serve metadata without reading class files.
+ *
+ * <p>Each entry holds the class file information consumed by
+ * {@link AnnotationMetadataReadingVisitor}: the class header, member classes,
+ * directly declared annotations and annotated methods.
+ *
+ * @since 5.1
+ * @see IndexedMetadataReader
+ */
+final class ClassMetadataIndex {
+
+	/**
+	 * The location to look for class metadata.
+	 * <p>Can be present in multiple JAR files.
+	 */
+	static final String METADATA_RESOURCE_LOCATION = "META-INF/spring.metadata";
+
+	/**
+	 * System property that instructs Spring to ignore the index, shared with the
+	 * candidate components index in {@code META-INF/spring.components}.
+	 */
+	static final String IGNORE_INDEX = "spring.index.ignore";
+
+	/**
+	 * Marker at the start of each index resource.
+	 */
+	static final int MAGIC = 0x53504D49;
+
+	/**
+	 * Version of the entry format; resources in other versions are ignored.
+	 */
+	static final int VERSION = 1;
+
+
+	private static final boolean shouldIgnoreIndex = SpringProperties.getFlag(IGNORE_INDEX);
+
+	private static final Log logger = LogFactory.getLog(ClassMetadataIndex.class);
+
+	private static final ClassMetadataIndex EMPTY = new ClassMetadataIndex(Collections.emptyMap());
+
+	private static final ConcurrentMap<ClassLoader, ClassMetadataIndex> cache =
+			new ConcurrentReferenceHashMap<>();
+
+
+	private final Map<String, byte[]> entries;
+
+
+	private ClassMetadataIndex(Map<String, byte[]> entries) {
+		this.entries = entries;
+	}
+
+
+	/**
+	 * Return the index entry for the given class.
+	 * @param className the fully qualified (binary) class name
+	 * @return the encoded entry, or {@code null} if the class is not indexed
+	 */
+	@Nullable
+	public byte[] getEntry(String className) {
+		return this.entries.get(className);
+	}
+
+	/**
+	 * Return the number of classes in this index.
+	 */
+	public int size() {
+		return this.entries.size();
+	}
+
+
+	/**
+	 * Load the index from {@value #METADATA_RESOURCE_LOCATION}, using the given class loader.
+	 * @param classLoader the ClassLoader to use for loading (can be {@code null} to use the default)
+	 * @return the index to use (never {@code null}, but possibly empty)
+	 * @throws IllegalStateException if an index resource cannot be read
+	 */
+	static ClassMetadataIndex loadIndex(@Nullable ClassLoader classLoader) {
+		ClassLoader classLoaderToUse = classLoader;
+		if (classLoaderToUse == null) {
+			classLoaderToUse = ClassMetadataIndex.class.getClassLoader();
+		}
+		return cache.computeIfAbsent(classLoaderToUse, ClassMetadataIndex::doLoadIndex);
+	}
+
+	private static ClassMetadataIndex doLoadIndex(ClassLoader classLoader) {
+		if (shouldIgnoreIndex) {
+			return EMPTY;
+		}
+
+		try {
+			Enumeration<URL> urls = classLoader.getResources(METADATA_RESOURCE_LOCATION);
+			if (!urls.hasMoreElements()) {
+				return EMPTY;
+			}
+			Map<String, byte[]> entries = new HashMap<>();
+			while (urls.hasMoreElements()) {
+				URL url = urls.nextElement();
+				try (InputStream is = url.openStream()) {
+					readEntries(url, new DataInputStream(new BufferedInputStream(is)), entries);
+				}
+			}
+			if (logger.isDebugEnabled()) {
+				logger.debug("Loaded class metadata index with " + entries.size() + " entries");
+			}
+			return (!entries.isEmpty() ? new ClassMetadataIndex(entries) : EMPTY);
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Unable to load class metadata index from location [" +
+					METADATA_RESOURCE_LOCATION + "]", ex);
+		}
+	}
+
+	private static void readEntries(URL url, DataInputStream in, Map<String, byte[]> entries) throws IOException {
+		if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Ignoring class metadata index in unsupported format: " + url);
+			}
+			return;
+		}
+		int count = in.readInt();
+		for (int i = 0; i < count; i++) {
+			String className = in.readUTF();
+			byte[] entry = new byte[in.readInt()];
+			in.readFully(entry);
+			// First occurrence on the classpath wins, as with class loading
+			entries.putIfAbsent(className, entry);
+		}
+	}
+
+}
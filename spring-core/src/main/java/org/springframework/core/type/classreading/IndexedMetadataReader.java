@@ -0,0 +1,216 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.type.classreading;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.lang.reflect.Array;
+
+import org.springframework.asm.AnnotationVisitor;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.Type;
+import org.springframework.core.NestedIOException;
+import org.springframework.core.io.Resource;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.ClassMetadata;
+import org.springframework.lang.Nullable;
+
+/**
+ * {@link MetadataReader} implementation based on an entry of the {@link ClassMetadataIndex}.
+ *
+ * <p>Replays the recorded class file information into an
+ * {@link AnnotationMetadataReadingVisitor} the same way the ASM {@code ClassReader}
+ * does for {@link SimpleMetadataReader}, so that the resulting metadata is
+ * identical, without having to read and parse the class file.
+ *
+ * @since 5.1
+ */
+final class IndexedMetadataReader implements MetadataReader {
+
+	private final Resource resource;
+
+	private final AnnotationMetadataReadingVisitor metadata;
+
+
+	IndexedMetadataReader(Resource resource, byte[] indexEntry, @Nullable ClassLoader classLoader)
+			throws IOException {
+
+		AnnotationMetadataReadingVisitor visitor = new AnnotationMetadataReadingVisitor(classLoader);
+		try {
+			accept(new DataInputStream(new ByteArrayInputStream(indexEntry)), visitor);
+		}
+		catch (IOException | RuntimeException ex) {
+			throw new NestedIOException("Failed to read class metadata index entry for " + resource, ex);
+		}
+		this.metadata = visitor;
+		this.resource = resource;
+	}
+
+
+	@Override
+	public Resource getResource() {
+		return this.resource;
+	}
+
+	@Override
+	public ClassMetadata getClassMetadata() {
+		return this.metadata;
+	}
+
+	@Override
+	public AnnotationMetadata getAnnotationMetadata() {
+		return this.metadata;
+	}
+
+
+	private static void accept(DataInputStream in, AnnotationMetadataReadingVisitor visitor) throws IOException {
+		int access = in.readInt();
+		String name = in.readUTF();
+		String superName = readNullableString(in);
+		String[] interfaces = new String[in.readUnsignedShort()];
+		for (int i = 0; i < interfaces.length; i++) {
+			interfaces[i] = in.readUTF();
+		}
+		visitor.visit(Opcodes.V1_8, access, name, null, superName, interfaces);
+
+		int annotationCount = in.readUnsignedShort();
+		for (int i = 0; i < annotationCount; i++) {
+			String desc = in.readUTF();
+			acceptValues(in, visitor.visitAnnotation(desc, in.readBoolean()));
+		}
+
+		int innerClassCount = in.readUnsignedShort();
+		for (int i = 0; i < innerClassCount; i++) {
+			visitor.visitInnerClass(in.readUTF(), readNullableString(in), readNullableString(in), in.readInt());
+		}
+
+		int methodCount = in.readUnsignedShort();
+		for (int i = 0; i < methodCount; i++) {
+			MethodVisitor mv = visitor.visitMethod(in.readInt(), in.readUTF(), in.readUTF(), null, null);
+			int methodAnnotationCount = in.readUnsignedShort();
+			for (int j = 0; j < methodAnnotationCount; j++) {
+				String desc = in.readUTF();
+				acceptValues(in, mv.visitAnnotation(desc, in.readBoolean()));
+			}
+			mv.visitEnd();
+		}
+		visitor.visitEnd();
+	}
+
+	private static void acceptValues(DataInputStream in, AnnotationVisitor av) throws IOException {
+		int count = in.readUnsignedShort();
+		for (int i = 0; i < count; i++) {
+			acceptValue(in, in.readUTF(), av);
+		}
+		av.visitEnd();
+	}
+
+	private static void acceptValue(DataInputStream in, @Nullable String name, AnnotationVisitor av)
+			throws IOException {
+
+		char tag = (char) in.readByte();
+		if (tag == '[') {
+			int length = in.readUnsignedShort();
+			char componentTag = (char) in.readByte();
+			Class<?> primitiveType = getPrimitiveType(componentTag);
+			if (length > 0 && primitiveType != null) {
+				// Non-empty primitive arrays are reported as a single value by ASM
+				Object array = Array.newInstance(primitiveType, length);
+				for (int i = 0; i < length; i++) {
+					in.readByte();
+					Array.set(array, i, readSimpleValue(in, componentTag));
+				}
+				av.visit(name, array);
+			}
+			else {
+				AnnotationVisitor arrayVisitor = av.visitArray(name);
+				for (int i = 0; i < length; i++) {
+					acceptValue(in, null, arrayVisitor);
+				}
+				arrayVisitor.visitEnd();
+			}
+		}
+		else if (tag == 'e') {
+			av.visitEnum(name, in.readUTF(), in.readUTF());
+		}
+		else if (tag == '@') {
+			acceptValues(in, av.visitAnnotation(name, in.readUTF()));
+		}
+		else {
+			av.visit(name, readSimpleValue(in, tag));
+		}
+	}
+
+	private static Object readSimpleValue(DataInputStream in, char tag) throws IOException {
+		switch (tag) {
+			case 'Z':
+				return in.readBoolean();
+			case 'B':
+				return in.readByte();
+			case 'C':
+				return in.readChar();
+			case 'S':
+				return in.readShort();
+			case 'I':
+				return in.readInt();
+			case 'J':
+				return in.readLong();
+			case 'F':
+				return in.readFloat();
+			case 'D':
+				return in.readDouble();
+			case 's':
+				return in.readUTF();
+			case 'c':
+				return Type.getType(in.readUTF());
+			default:
+				throw new IllegalStateException("Unknown value tag '" + tag + "'");
+		}
+	}
+
+	@Nullable
+	private static Class<?> getPrimitiveType(char tag) {
+		switch (tag) {
+			case 'Z':
+				return boolean.class;
+			case 'B':
+				return byte.class;
+			case 'C':
+				return char.class;
+			case 'S':
+				return short.class;
+			case 'I':
+				return int.class;
+			case 'J':
+				return long.class;
+			case 'F':
+				return float.class;
+			case 'D':
+				return double.class;
+			default:
+				return null;
+		}
+	}
+
+	@Nullable
+	private static String readNullableString(DataInputStream in) throws IOException {
+		return (in.readBoolean() ? in.readUTF() : null);
+	}
+
+}
@@ -19,7 +19,6 @@ package org.springframework.util;
 import org.springframework.lang.Nullable;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -73,7 +72,10 @@ public class AntPathMatcher implements PathMatcher {
      */
     public static final String DEFAULT_PATH_SEPARATOR = "/";
 
-    private static final int CACHE_TURNOFF_THRESHOLD = 65536;
+    /**
+     * Default maximum number of entries in each pattern cache: 65536.
+     */
+    public static final int DEFAULT_CACHE_LIMIT = 65536;
 
     private static final Pattern VARIABLE_PATTERN = Pattern.compile("\\{[^/]+?\\}");
 
@@ -91,9 +93,16 @@ public class AntPathMatcher implements PathMatcher {
     @Nullable
     private volatile Boolean cachePatterns;
 
-    private final Map<String, String[]> tokenizedPatternCache = new ConcurrentHashMap<>(256);
+    private int cacheLimit = DEFAULT_CACHE_LIMIT;
+
+    private volatile ConcurrentLruCache<String, String[]> tokenizedPatternCache =
+            new ConcurrentLruCache<>(DEFAULT_CACHE_LIMIT);
+
+    volatile ConcurrentLruCache<String, AntPathStringMatcher> stringMatcherCache =
+            new ConcurrentLruCache<>(DEFAULT_CACHE_LIMIT);
 
-    final Map<String, AntPathStringMatcher> stringMatcherCache = new ConcurrentHashMap<>(256);
+    private volatile ConcurrentLruCache<String, CompiledPattern> compiledPatternCache =
+            new ConcurrentLruCache<>(DEFAULT_CACHE_LIMIT);
 
 
     /**
@@ -124,6 +133,16 @@ public class AntPathMatcher implements PathMatcher {
     public void setPathSeparator(@Nullable String pathSeparator) {
         this.pathSeparator = (pathSeparator != null ? pathSeparator : DEFAULT_PATH_SEPARATOR);
         this.pathSeparatorPatternCache = new PathSeparatorPatternCache(this.pathSeparator);
+        this.compiledPatternCache.clear();
+    }
+
+    /**
+     * Return the path separator used for pattern parsing.
+     *
+     * @since 5.1
+     */
+    public String getPathSeparator() {
+        return this.pathSeparator;
     }
 
     /**
@@ -134,6 +153,7 @@ public class AntPathMatcher implements PathMatcher {
      */
     public void setCaseSensitive(boolean caseSensitive) {
         this.caseSensitive = caseSensitive;
+        this.compiledPatternCache.clear();
     }
 
     /**
@@ -142,6 +162,7 @@ public class AntPathMatcher implements PathMatcher {
      */
     public void setTrimTokens(boolean trimTokens) {
         this.trimTokens = trimTokens;
+        this.compiledPatternCache.clear();
     }
 
     /**
@@ -149,22 +170,49 @@ public class AntPathMatcher implements PathMatcher {
      * into this matcher's {@link #match} method. A value of {@code true}
      * activates an unlimited pattern cache; a value of {@code false} turns
      * the pattern cache off completely.
-     * <p>Default is for the cache to be on, but with the variant to automatically
-     * turn it off when encountering too many patterns to cache at runtime
-     * (the threshold is 65536), assuming that arbitrary permutations of patterns
-     * are coming in, with little chance for encountering a recurring pattern.
+     * <p>Default is for the cache to be on but bounded by the
+     * {@link #setCacheLimit cache limit}, evicting the least recently used
+     * patterns when encountering too many patterns to cache at runtime.
+     * Recurring patterns therefore stay cached even if arbitrary permutations
+     * of patterns are coming in as well.
      *
      * @see #getStringMatcher(String)
      * @since 4.0.1
      */
     public void setCachePatterns(boolean cachePatterns) {
         this.cachePatterns = cachePatterns;
+        initPatternCaches(cachePatterns ? Integer.MAX_VALUE : 0);
     }
 
-    private void deactivatePatternCache() {
-        this.cachePatterns = false;
-        this.tokenizedPatternCache.clear();
-        this.stringMatcherCache.clear();
+    /**
+     * Specify the maximum number of entries in each of this matcher's pattern
+     * caches when running with the default cache setting, i.e. unless
+     * {@link #setCachePatterns} has been called.
+     * <p>Default is {@link #DEFAULT_CACHE_LIMIT} (65536).
+     *
+     * @since 5.1
+     */
+    public void setCacheLimit(int cacheLimit) {
+        Assert.isTrue(cacheLimit >= 0, "'cacheLimit' must not be negative");
+        this.cacheLimit = cacheLimit;
+        if (this.cachePatterns == null) {
+            initPatternCaches(cacheLimit);
+        }
+    }
+
+    /**
+     * Return the maximum number of entries in each of this matcher's pattern caches.
+     *
+     * @since 5.1
+     */
+    public int getCacheLimit() {
+        return this.cacheLimit;
+    }
+
+    private void initPatternCaches(int sizeLimit) {
+        this.tokenizedPatternCache = new ConcurrentLruCache<>(sizeLimit);
+        this.stringMatcherCache = new ConcurrentLruCache<>(sizeLimit);
+        this.compiledPatternCache = new ConcurrentLruCache<>(sizeLimit);
     }
 
 
@@ -380,23 +428,11 @@ public class AntPathMatcher implements PathMatcher {
      * @return the tokenized pattern parts
      */
     protected String[] tokenizePattern(String pattern) {
-        String[] tokenized = null;
-        Boolean cachePatterns = this.cachePatterns;
-        if (cachePatterns == null || cachePatterns.booleanValue()) {
-            tokenized = this.tokenizedPatternCache.get(pattern);
-        }
+        ConcurrentLruCache<String, String[]> cache = this.tokenizedPatternCache;
+        String[] tokenized = cache.get(pattern);
         if (tokenized == null) {
             tokenized = tokenizePath(pattern);
-            if (cachePatterns == null && this.tokenizedPatternCache.size() >= CACHE_TURNOFF_THRESHOLD) {
-                // Try to adapt to the runtime situation that we're encountering:
-                // There are obviously too many different patterns coming in here...
-                // So let's turn off the cache since the patterns are unlikely to be reoccurring.
-                deactivatePatternCache();
-                return tokenized;
-            }
-            if (cachePatterns == null || cachePatterns.booleanValue()) {
-                this.tokenizedPatternCache.put(pattern, tokenized);
-            }
+            cache.put(pattern, tokenized);
         }
         return tokenized;
     }
@@ -429,9 +465,8 @@ public class AntPathMatcher implements PathMatcher {
      * <p>The default implementation checks this AntPathMatcher's internal cache
      * (see {@link #setCachePatterns}), creating a new AntPathStringMatcher instance
      * if no cached copy is found.
-     * <p>When encountering too many patterns to cache at runtime (the threshold is 65536),
-     * it turns the default cache off, assuming that arbitrary permutations of patterns
-     * are coming in, with little chance for encountering a recurring pattern.
+     * <p>When encountering more patterns than the {@link #setCacheLimit cache limit}
+     * at runtime, the least recently used matchers are evicted from the default cache.
      * <p>This method may be overridden to implement a custom cache strategy.
      *
      * @param pattern the pattern to match against (never {@code null})
@@ -439,23 +474,11 @@ public class AntPathMatcher implements PathMatcher {
      * @see #setCachePatterns
      */
     protected AntPathStringMatcher getStringMatcher(String pattern) {
-        AntPathStringMatcher matcher = null;
-        Boolean cachePatterns = this.cachePatterns;
-        if (cachePatterns == null || cachePatterns.booleanValue()) {
-            matcher = this.stringMatcherCache.get(pattern);
-        }
+        ConcurrentLruCache<String, AntPathStringMatcher> cache = this.stringMatcherCache;
+        AntPathStringMatcher matcher = cache.get(pattern);
         if (matcher == null) {
             matcher = new AntPathStringMatcher(pattern, this.caseSensitive);
-            if (cachePatterns == null && this.stringMatcherCache.size() >= CACHE_TURNOFF_THRESHOLD) {
-                // Try to adapt to the runtime situation that we're encountering:
-                // There are obviously too many different patterns coming in here...
-                // So let's turn off the cache since the patterns are unlikely to be reoccurring.
-                deactivatePatternCache();
-                return matcher;
-            }
-            if (cachePatterns == null || cachePatterns.booleanValue()) {
-                this.stringMatcherCache.put(pattern, matcher);
-            }
+            cache.put(pattern, matcher);
         }
         return matcher;
     }
@@ -620,6 +643,32 @@ public class AntPathMatcher implements PathMatcher {
         return new AntPatternComparator(path);
     }
 
+    /**
+     * Compile the given pattern into a {@link CompiledPattern} that can be
+     * matched repeatedly against paths without re-parsing the pattern.
+     * <p>The compiled pattern captures this matcher's current settings (path
+     * separator, case sensitivity, token trimming) and is subject to the same
+     * caching as parsed pattern metadata (see {@link #setCachePatterns} and
+     * {@link #setCacheLimit}). Note that compiled patterns perform their own
+     * path tokenization and segment matching, so they do not take overridden
+     * {@link #doMatch}, {@link #tokenizePath} or {@link #getStringMatcher}
+     * implementations into account.
+     *
+     * @param pattern the pattern to compile
+     * @return the compiled pattern (never {@code null})
+     * @since 5.1
+     */
+    public CompiledPattern compile(String pattern) {
+        ConcurrentLruCache<String, CompiledPattern> cache = this.compiledPatternCache;
+        CompiledPattern compiled = cache.get(pattern);
+        if (compiled == null) {
+            compiled = new CompiledPattern(pattern, tokenizePath(pattern),
+                    this.pathSeparator, this.caseSensitive, this.trimTokens);
+            cache.put(pattern, compiled);
+        }
+        return compiled;
+    }
+
 
     /**
      * Tests whether or not a string matches against a pattern via a {@link Pattern}.
@@ -709,6 +758,467 @@ public class AntPathMatcher implements PathMatcher {
     }
 
 
+    /**
+     * A pre-parsed Ant-style pattern, as returned by {@link AntPathMatcher#compile}.
+     * <p>A compiled pattern matches a path by walking its segments in place
+     * rather than tokenizing it: segments consisting of literal text, {@code *}
+     * and {@code ?} wildcards and URI template variables without a custom regular
+     * expression are matched without allocation. Other segments (e.g. {@code {id:\d+}}),
+     * as well as the extraction of several variables from a single segment, go
+     * through the segment's pre-compiled {@link Pattern}. Only patterns with a
+     * {@code **} followed by further segments index the remaining path.
+     *
+     * @since 5.1
+     */
+    public static final class CompiledPattern {
+
+        private static final int LITERAL = 0;
+
+        private static final int WILDCARD = 1;
+
+        private static final int VARIABLE = 2;
+
+        private static final int GLOB = 3;
+
+        private static final int REGEX = 4;
+
+        private static final int DOUBLE_WILDCARD = 5;
+
+
+        private final String pattern;
+
+        private final String pathSeparator;
+
+        private final boolean caseSensitive;
+
+        private final boolean trimTokens;
+
+        private final String[] segments;
+
+        private final int[] kinds;
+
+        private final String[] variableNames;
+
+        private final String[] globs;
+
+        private final AntPathStringMatcher[] matchers;
+
+        CompiledPattern(String pattern, String[] segments, String pathSeparator,
+                        boolean caseSensitive, boolean trimTokens) {
+
+            this.pattern = pattern;
+            this.pathSeparator = pathSeparator;
+            this.caseSensitive = caseSensitive;
+            this.trimTokens = trimTokens;
+            this.segments = segments;
+            this.kinds = new int[segments.length];
+            this.variableNames = new String[segments.length];
+            this.globs = new String[segments.length];
+            this.matchers = new AntPathStringMatcher[segments.length];
+            for (int i = 0; i < segments.length; i++) {
+                String segment = segments[i];
+                int kind = determineKind(segment);
+                this.kinds[i] = kind;
+                if (kind == VARIABLE) {
+                    this.variableNames[i] = segment.substring(1, segment.length() - 1);
+                } else if (kind == GLOB) {
+                    this.globs[i] = toGlob(segment);
+                }
+                if (kind != LITERAL && kind != DOUBLE_WILDCARD) {
+                    // Also serves as fallback for paths with line terminators
+                    this.matchers[i] = new AntPathStringMatcher(segment, caseSensitive);
+                }
+            }
+        }
+
+        private static int determineKind(String segment) {
+            if ("**".equals(segment)) {
+                return DOUBLE_WILDCARD;
+            }
+            if ("*".equals(segment)) {
+                return WILDCARD;
+            }
+            boolean wildcards = false;
+            int variables = 0;
+            for (int i = 0; i < segment.length(); i++) {
+                char c = segment.charAt(i);
+                if (c == '*' || c == '?') {
+                    wildcards = true;
+                } else if (c == '}') {
+                    return REGEX;
+                } else if (c == '{') {
+                    int end = variableEnd(segment, i);
+                    if (end == -1) {
+                        return REGEX;
+                    }
+                    variables++;
+                    i = end;
+                }
+            }
+            if (variables == 1 && !wildcards && segment.charAt(0) == '{' &&
+                    segment.charAt(segment.length() - 1) == '}') {
+                return VARIABLE;
+            }
+            return (wildcards || variables > 0 ? GLOB : LITERAL);
+        }
+
+        /**
+         * Return the index of the '}' closing a URI template variable without
+         * custom regular expression that starts at the given index, or -1.
+         */
+        private static int variableEnd(String segment, int start) {
+            for (int i = start + 1; i < segment.length(); i++) {
+                char c = segment.charAt(i);
+                if (c == '}') {
+                    return (i > start + 1 ? i : -1);
+                }
+                if (c == '{' || c == ':' || c == '/' || c == '\\') {
+                    return -1;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Turn URI template variables into '*' wildcards, which match the same paths.
+         */
+        private static String toGlob(String segment) {
+            StringBuilder glob = new StringBuilder(segment.length());
+            for (int i = 0; i < segment.length(); i++) {
+                char c = segment.charAt(i);
+                if (c == '{') {
+                    i = variableEnd(segment, i);
+                    c = '*';
+                }
+                glob.append(c);
+            }
+            return glob.toString();
+        }
+
+        /**
+         * Return the original pattern String.
+         */
+        public String getPattern() {
+            return this.pattern;
+        }
+
+        /**
+         * Match the given {@code path} against this pattern,
+         * equivalent to {@link AntPathMatcher#match(String, String)}.
+         */
+        public boolean match(String path) {
+            return doMatch(path, true, null);
+        }
+
+        /**
+         * Match the given {@code path} against the corresponding part of this pattern,
+         * equivalent to {@link AntPathMatcher#matchStart(String, String)}.
+         */
+        public boolean matchStart(String path) {
+            return doMatch(path, false, null);
+        }
+
+        /**
+         * Extract the URI template variables from the given {@code path},
+         * equivalent to {@link AntPathMatcher#extractUriTemplateVariables(String, String)}.
+         *
+         * @throws IllegalStateException if the path does not match this pattern
+         */
+        public Map<String, String> extractUriTemplateVariables(String path) {
+            Map<String, String> variables = new LinkedHashMap<>();
+            if (!doMatch(path, true, variables)) {
+                throw new IllegalStateException("Pattern \"" + this.pattern + "\" is not a match for \"" + path + "\"");
+            }
+            return variables;
+        }
+
+        /**
+         * Follows the algorithm of {@link AntPathMatcher#doMatch} segment by segment,
+         * encoding the boundaries of the current path segment into a {@code long}.
+         */
+        private boolean doMatch(String path, boolean fullMatch, @Nullable Map<String, String> uriTemplateVariables) {
+            if (path.startsWith(this.pathSeparator) != this.pattern.startsWith(this.pathSeparator)) {
+                return false;
+            }
+
+            int pattIdxStart = 0;
+            int pattIdxEnd = this.segments.length - 1;
+
+            // Match all elements up to the first **
+            long segment = nextSegment(path, 0);
+            while (pattIdxStart <= pattIdxEnd && segment != -1) {
+                if (this.kinds[pattIdxStart] == DOUBLE_WILDCARD) {
+                    break;
+                }
+                if (!matchSegment(pattIdxStart, path, segmentStart(segment), segmentEnd(segment), uriTemplateVariables)) {
+                    return false;
+                }
+                pattIdxStart++;
+                segment = nextSegment(path, segmentEnd(segment));
+            }
+
+            if (segment == -1) {
+                // Path is exhausted, only match if rest of pattern is * or **'s
+                if (pattIdxStart > pattIdxEnd) {
+                    return (this.pattern.endsWith(this.pathSeparator) == path.endsWith(this.pathSeparator));
+                }
+                if (!fullMatch) {
+                    return true;
+                }
+                if (pattIdxStart == pattIdxEnd && this.kinds[pattIdxStart] == WILDCARD &&
+                        path.endsWith(this.pathSeparator)) {
+                    return true;
+                }
+                return isDoubleWildcards(pattIdxStart, pattIdxEnd);
+            } else if (pattIdxStart > pattIdxEnd) {
+                // String not exhausted, but pattern is. Failure.
+                return false;
+            } else if (!fullMatch || isDoubleWildcards(pattIdxStart, pattIdxEnd)) {
+                // Path start definitely matches due to "**" part in pattern,
+                // or the rest of the path is consumed by trailing "**" parts.
+                return true;
+            }
+
+            // Index the remaining path segments for matching from both ends
+            int count = 0;
+            for (long next = segment; next != -1; next = nextSegment(path, segmentEnd(next))) {
+                count++;
+            }
+            int[] starts = new int[count];
+            int[] ends = new int[count];
+            for (int i = 0; i < count; i++) {
+                starts[i] = segmentStart(segment);
+                ends[i] = segmentEnd(segment);
+                segment = nextSegment(path, ends[i]);
+            }
+            int pathIdxStart = 0;
+            int pathIdxEnd = count - 1;
+
+            // up to last '**'
+            while (pattIdxStart <= pattIdxEnd && pathIdxStart <= pathIdxEnd) {
+                if (this.kinds[pattIdxEnd] == DOUBLE_WILDCARD) {
+                    break;
+                }
+                if (!matchSegment(pattIdxEnd, path, starts[pathIdxEnd], ends[pathIdxEnd], uriTemplateVariables)) {
+                    return false;
+                }
+                pattIdxEnd--;
+                pathIdxEnd--;
+            }
+            if (pathIdxStart > pathIdxEnd) {
+                // String is exhausted
+                return isDoubleWildcards(pattIdxStart, pattIdxEnd);
+            }
+
+            while (pattIdxStart != pattIdxEnd && pathIdxStart <= pathIdxEnd) {
+                int patIdxTmp = -1;
+                for (int i = pattIdxStart + 1; i <= pattIdxEnd; i++) {
+                    if (this.kinds[i] == DOUBLE_WILDCARD) {
+                        patIdxTmp = i;
+                        break;
+                    }
+                }
+                if (patIdxTmp == pattIdxStart + 1) {
+                    // '**/**' situation, so skip one
+                    pattIdxStart++;
+                    continue;
+                }
+                int patLength = (patIdxTmp - pattIdxStart - 1);
+                int strLength = (pathIdxEnd - pathIdxStart + 1);
+                int foundIdx = -1;
+
+                strLoop:
+                for (int i = 0; i <= strLength - patLength; i++) {
+                    for (int j = 0; j < patLength; j++) {
+                        int pathIdx = pathIdxStart + i + j;
+                        if (!matchSegment(pattIdxStart + j + 1, path, starts[pathIdx], ends[pathIdx],
+                                uriTemplateVariables)) {
+                            continue strLoop;
+                        }
+                    }
+                    foundIdx = pathIdxStart + i;
+                    break;
+                }
+
+                if (foundIdx == -1) {
+                    return false;
+                }
+
+                pattIdxStart = patIdxTmp;
+                pathIdxStart = foundIdx + patLength;
+            }
+
+            return isDoubleWildcards(pattIdxStart, pattIdxEnd);
+        }
+
+        private boolean isDoubleWildcards(int from, int to) {
+            for (int i = from; i <= to; i++) {
+                if (this.kinds[i] != DOUBLE_WILDCARD) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Find the next non-empty path segment at or after the given position,
+         * following the tokenization rules of {@link AntPathMatcher#tokenizePath}.
+         *
+         * @return the segment's start and end index, encoded into a {@code long},
+         * or {@code -1} if there are no further segments
+         */
+        private long nextSegment(String path, int pos) {
+            int length = path.length();
+            while (pos < length) {
+                while (pos < length && isSeparator(path.charAt(pos))) {
+                    pos++;
+                }
+                int start = pos;
+                while (pos < length && !isSeparator(path.charAt(pos))) {
+                    pos++;
+                }
+                int end = pos;
+                if (this.trimTokens) {
+                    while (start < end && path.charAt(start) <= ' ') {
+                        start++;
+                    }
+                    while (end > start && path.charAt(end - 1) <= ' ') {
+                        end--;
+                    }
+                }
+                if (start < end) {
+                    return ((long) start << 32) | end;
+                }
+            }
+            return -1;
+        }
+
+        private static int segmentStart(long segment) {
+            return (int) (segment >>> 32);
+        }
+
+        private static int segmentEnd(long segment) {
+            return (int) segment;
+        }
+
+        private boolean isSeparator(char c) {
+            return (this.pathSeparator.indexOf(c) != -1);
+        }
+
+        private boolean matchSegment(int index, String path, int start, int end,
+                                     @Nullable Map<String, String> uriTemplateVariables) {
+
+            switch (this.kinds[index]) {
+                case LITERAL:
+                    return regionMatches(this.segments[index], path, start, end);
+                case WILDCARD:
+                    if (!hasLineTerminator(path, start, end)) {
+                        return true;
+                    }
+                    break;
+                case VARIABLE:
+                    if (!hasLineTerminator(path, start, end)) {
+                        if (uriTemplateVariables != null) {
+                            uriTemplateVariables.put(this.variableNames[index], path.substring(start, end));
+                        }
+                        return true;
+                    }
+                    break;
+                case GLOB:
+                    // Capturing several variables relies on greedy regular expression semantics
+                    if (!hasLineTerminator(path, start, end) &&
+                            (uriTemplateVariables == null || this.segments[index].indexOf('{') == -1)) {
+                        return globMatches(this.globs[index], path, start, end);
+                    }
+                    break;
+            }
+            return this.matchers[index].matchStrings(path.substring(start, end), uriTemplateVariables);
+        }
+
+        private boolean regionMatches(String literal, String path, int start, int end) {
+            int length = literal.length();
+            if (end - start != length) {
+                return false;
+            }
+            if (this.caseSensitive) {
+                return path.regionMatches(start, literal, 0, length);
+            }
+            for (int i = 0; i < length; i++) {
+                if (!charsMatch(literal.charAt(i), path.charAt(start + i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Match '*' and '?' wildcards, backtracking to the most recent '*' on mismatch.
+         */
+        private boolean globMatches(String glob, String path, int start, int end) {
+            int globLength = glob.length();
+            int g = 0;
+            int p = start;
+            int starG = -1;
+            int starP = -1;
+            while (p < end) {
+                if (g < globLength) {
+                    char c = glob.charAt(g);
+                    if (c == '*') {
+                        starG = g++;
+                        starP = p;
+                        continue;
+                    }
+                    if (c == '?' || charsMatch(c, path.charAt(p))) {
+                        g++;
+                        p++;
+                        continue;
+                    }
+                }
+                if (starG == -1) {
+                    return false;
+                }
+                g = starG + 1;
+                p = ++starP;
+            }
+            while (g < globLength && glob.charAt(g) == '*') {
+                g++;
+            }
+            return (g == globLength);
+        }
+
+        /**
+         * Compare characters like a {@link Pattern} would, i.e. ignoring case
+         * for US-ASCII characters only if not case-sensitive.
+         */
+        private boolean charsMatch(char patternChar, char pathChar) {
+            if (patternChar == pathChar) {
+                return true;
+            }
+            return (!this.caseSensitive && patternChar < 128 && pathChar < 128 &&
+                    Character.toLowerCase(patternChar) == Character.toLowerCase(pathChar));
+        }
+
+        /**
+         * Line terminators are not matched by {@code .} in the equivalent regular
+         * expression, so such paths are matched through the regular expression itself.
+         */
+        private static boolean hasLineTerminator(String path, int start, int end) {
+            for (int i = start; i < end; i++) {
+                char c = path.charAt(i);
+                if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return this.pattern;
+        }
+    }
+
+
     /**
      * The default {@link Comparator} implementation returned by
      * {@link #getPatternComparator(String)}.
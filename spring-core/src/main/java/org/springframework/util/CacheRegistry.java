@@ -0,0 +1,142 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Registry of the named, size-bounded caches that are shared across the
+ * framework, such as the caches behind {@code ResolvableType},
+ * {@code AnnotationUtils}, {@link ReflectionUtils} and
+ * {@code CachedIntrospectionResults}.
+ *
+ * <p>The size limit of each cache defaults to a value chosen by the component
+ * that owns it, and can be overridden through a JVM system property named
+ * {@value #SIZE_LIMIT_PROPERTY_PREFIX} followed by the cache name, e.g.
+ * {@code -Dspring.cache-limit.ResolvableType=1024}. A limit of {@code 0}
+ * disables the cache.
+ *
+ * <p>{@link #getStatistics()} exposes hit, miss and eviction counts for all
+ * registered caches, e.g. for export to a metrics system.
+ *
+ * @since 5.1
+ * @see ConcurrentLruCache
+ */
+public abstract class CacheRegistry {
+
+	/**
+	 * Prefix of the system properties that override the size limit of a cache.
+	 */
+	public static final String SIZE_LIMIT_PROPERTY_PREFIX = "spring.cache-limit.";
+
+	private static final Map<String, ConcurrentLruCache<?, ?>> caches = new ConcurrentSkipListMap<>();
+
+
+	/**
+	 * Create a new cache and register it under the given name,
+	 * replacing any cache previously registered under that name.
+	 * @param name the name of the cache
+	 * @param defaultSizeLimit the size limit to use unless overridden
+	 * through a {@value #SIZE_LIMIT_PROPERTY_PREFIX} system property
+	 * @return the new cache
+	 * @throws IllegalArgumentException if the configured size limit is invalid
+	 */
+	public static <K, V> ConcurrentLruCache<K, V> createCache(String name, int defaultSizeLimit) {
+		Assert.hasText(name, "Cache name must not be empty");
+		ConcurrentLruCache<K, V> cache = new ConcurrentLruCache<>(getSizeLimit(name, defaultSizeLimit));
+		caches.put(name, cache);
+		return cache;
+	}
+
+	/**
+	 * Create a new cache that holds its entries through references of the given
+	 * type, and register it under the given name, replacing any cache previously
+	 * registered under that name.
+	 * <p>Soft or weak references are appropriate for caches keyed by classes or
+	 * other class-related objects, so that entries do not keep ClassLoaders alive.
+	 * @param name the name of the cache
+	 * @param defaultSizeLimit the size limit to use unless overridden
+	 * through a {@value #SIZE_LIMIT_PROPERTY_PREFIX} system property
+	 * @param referenceType the reference type used for entries
+	 * @return the new cache
+	 * @throws IllegalArgumentException if the configured size limit is invalid
+	 */
+	public static <K, V> ConcurrentLruCache<K, V> createCache(
+			String name, int defaultSizeLimit, ConcurrentReferenceHashMap.ReferenceType referenceType) {
+
+		Assert.hasText(name, "Cache name must not be empty");
+		ConcurrentLruCache<K, V> cache =
+				new ConcurrentLruCache<>(getSizeLimit(name, defaultSizeLimit), referenceType);
+		caches.put(name, cache);
+		return cache;
+	}
+
+	/**
+	 * Return the names of all registered caches, in alphabetical order.
+	 */
+	public static Set<String> getCacheNames() {
+		return Collections.unmodifiableSet(caches.keySet());
+	}
+
+	/**
+	 * Return the cache registered under the given name.
+	 * @param name the name of the cache
+	 * @return the cache, or {@code null} if none registered
+	 */
+	@Nullable
+	public static ConcurrentLruCache<?, ?> getCache(String name) {
+		return caches.get(name);
+	}
+
+	/**
+	 * Return a snapshot of the statistics of all registered caches,
+	 * keyed by cache name in alphabetical order.
+	 */
+	public static Map<String, CacheStatistics> getStatistics() {
+		Map<String, CacheStatistics> statistics = new LinkedHashMap<>(caches.size());
+		caches.forEach((name, cache) -> statistics.put(name, cache.getStatistics()));
+		return statistics;
+	}
+
+	private static int getSizeLimit(String name, int defaultSizeLimit) {
+		String propertyName = SIZE_LIMIT_PROPERTY_PREFIX + name;
+		String value = null;
+		try {
+			value = System.getProperty(propertyName);
+		}
+		catch (Throwable ex) {
+			// Not allowed to read system properties -> use default.
+		}
+		if (!StringUtils.hasText(value)) {
+			return defaultSizeLimit;
+		}
+		try {
+			return Integer.parseInt(value.trim());
+		}
+		catch (NumberFormatException ex) {
+			throw new IllegalArgumentException(
+					"Invalid size limit '" + value + "' for cache [" + name + "] in property '" + propertyName + "'");
+		}
+	}
+
+}
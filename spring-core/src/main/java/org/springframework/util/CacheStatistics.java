@@ -0,0 +1,139 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+/**
+ * Immutable snapshot of the statistics of a {@link ConcurrentLruCache}.
+ *
+ * @since 5.1
+ * @see ConcurrentLruCache#getStatistics()
+ * @see CacheRegistry#getStatistics()
+ */
+public final class CacheStatistics {
+
+	private final long hitCount;
+
+	private final long missCount;
+
+	private final long evictionCount;
+
+	private final int size;
+
+	private final int sizeLimit;
+
+
+	/**
+	 * Create a new {@code CacheStatistics} instance.
+	 * @param hitCount the number of lookups that found a cached value
+	 * @param missCount the number of lookups that did not find a cached value
+	 * @param evictionCount the number of entries evicted because of the size limit
+	 * @param size the current number of entries
+	 * @param sizeLimit the maximum number of entries
+	 */
+	public CacheStatistics(long hitCount, long missCount, long evictionCount, int size, int sizeLimit) {
+		this.hitCount = hitCount;
+		this.missCount = missCount;
+		this.evictionCount = evictionCount;
+		this.size = size;
+		this.sizeLimit = sizeLimit;
+	}
+
+
+	/**
+	 * Return the number of lookups that found a cached value.
+	 */
+	public long getHitCount() {
+		return this.hitCount;
+	}
+
+	/**
+	 * Return the number of lookups that did not find a cached value.
+	 */
+	public long getMissCount() {
+		return this.missCount;
+	}
+
+	/**
+	 * Return the total number of lookups.
+	 */
+	public long getRequestCount() {
+		return this.hitCount + this.missCount;
+	}
+
+	/**
+	 * Return the ratio of lookups that found a cached value,
+	 * or {@code 1.0} if there have not been any lookups yet.
+	 */
+	public double getHitRatio() {
+		long requestCount = getRequestCount();
+		return (requestCount != 0 ? (double) this.hitCount / requestCount : 1.0);
+	}
+
+	/**
+	 * Return the number of entries evicted because of the size limit.
+	 * <p>Entries removed explicitly or through clearing the cache do not count.
+	 */
+	public long getEvictionCount() {
+		return this.evictionCount;
+	}
+
+	/**
+	 * Return the number of entries at the time of the snapshot.
+	 */
+	public int getSize() {
+		return this.size;
+	}
+
+	/**
+	 * Return the maximum number of entries of the cache.
+	 */
+	public int getSizeLimit() {
+		return this.sizeLimit;
+	}
+
+
+	@Override
+	public boolean equals(Object other) {
+		if (this == other) {
+			return true;
+		}
+		if (!(other instanceof CacheStatistics)) {
+			return false;
+		}
+		CacheStatistics otherStatistics = (CacheStatistics) other;
+		return (this.hitCount == otherStatistics.hitCount && this.missCount == otherStatistics.missCount &&
+				this.evictionCount == otherStatistics.evictionCount && this.size == otherStatistics.size &&
+				this.sizeLimit == otherStatistics.sizeLimit);
+	}
+
+	@Override
+	public int hashCode() {
+		int result = Long.hashCode(this.hitCount);
+		result = 31 * result + Long.hashCode(this.missCount);
+		result = 31 * result + Long.hashCode(this.evictionCount);
+		result = 31 * result + this.size;
+		result = 31 * result + this.sizeLimit;
+		return result;
+	}
+
+	@Override
+	public String toString() {
+		return "hits=" + this.hitCount + ", misses=" + this.missCount + ", evictions=" + this.evictionCount +
+				", size=" + this.size + ", sizeLimit=" + this.sizeLimit;
+	}
+
+}
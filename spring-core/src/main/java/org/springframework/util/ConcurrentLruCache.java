@@ -0,0 +1,367 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Simple size-bounded cache for concurrent use, evicting entries in an
+ * approximation of least-recently-used order once the size limit is reached.
+ *
+ * <p>Eviction follows the "second chance" (CLOCK) algorithm: a cache hit only
+ * marks the entry as recently used, which keeps reads free of locking and
+ * allocation, while an insertion beyond the size limit sweeps through entries
+ * in insertion order, sparing (and unmarking) recently used ones as well as
+ * the entry that is being inserted.
+ *
+ * <p>Replaced and removed entries are not unlinked from the eviction queue
+ * right away, which would require a linear scan; they are skipped by the
+ * sweep and purged in bulk once they make up a significant part of the queue.
+ *
+ * <p>A size limit of {@code 0} effectively disables caching: {@link #get}
+ * always returns {@code null} and {@link #put} is a no-op.
+ *
+ * <p>Entries are strongly referenced by default. A cache created with a
+ * {@link ConcurrentReferenceHashMap.ReferenceType} holds its entries through soft or weak references
+ * instead, as a {@link ConcurrentReferenceHashMap} does, so that they may
+ * additionally be reclaimed by the garbage collector. This is appropriate for
+ * keys such as classes, which would otherwise keep their ClassLoader alive
+ * until evicted.
+ *
+ * <p>Hits, misses and evictions are counted and can be obtained through
+ * {@link #getStatistics()}. Caches shared across the framework are created
+ * through the {@link CacheRegistry}, which allows for sizing them and for
+ * exporting their statistics.
+ *
+ * @since 5.1
+ * @param <K> the type of keys
+ * @param <V> the type of cached values
+ */
+public class ConcurrentLruCache<K, V> {
+
+	private final int sizeLimit;
+
+	private final int purgeThreshold;
+
+	private final ConcurrentMap<K, Entry<K, V>> cache;
+
+	private final boolean referenceEntries;
+
+	private final ConcurrentLinkedQueue<QueuedEntry<K, V>> queue = new ConcurrentLinkedQueue<>();
+
+	private final AtomicInteger queueLength = new AtomicInteger();
+
+	private final Object evictionMonitor = new Object();
+
+	private final LongAdder hitCount = new LongAdder();
+
+	private final LongAdder missCount = new LongAdder();
+
+	private final LongAdder evictionCount = new LongAdder();
+
+
+	/**
+	 * Create a new cache instance with the given size limit.
+	 * @param sizeLimit the maximum number of entries to keep
+	 * ({@code 0} indicates no caching)
+	 */
+	public ConcurrentLruCache(int sizeLimit) {
+		Assert.isTrue(sizeLimit >= 0, "Cache size limit must not be negative");
+		this.sizeLimit = sizeLimit;
+		this.purgeThreshold = purgeThreshold(sizeLimit);
+		this.cache = new ConcurrentHashMap<>(Math.min(sizeLimit, 256));
+		this.referenceEntries = false;
+	}
+
+	/**
+	 * Create a new cache instance with the given size limit,
+	 * holding its entries through references of the given type.
+	 * @param sizeLimit the maximum number of entries to keep
+	 * ({@code 0} indicates no caching)
+	 * @param referenceType the reference type used for entries (soft or weak)
+	 */
+	public ConcurrentLruCache(int sizeLimit, ConcurrentReferenceHashMap.ReferenceType referenceType) {
+		Assert.isTrue(sizeLimit >= 0, "Cache size limit must not be negative");
+		Assert.notNull(referenceType, "ReferenceType must not be null");
+		this.sizeLimit = sizeLimit;
+		this.purgeThreshold = purgeThreshold(sizeLimit);
+		this.cache = new ConcurrentReferenceHashMap<>(Math.min(sizeLimit, 256), referenceType);
+		this.referenceEntries = true;
+	}
+
+
+	/**
+	 * Return the value cached for the given key, if any,
+	 * marking the entry as recently used.
+	 * @param key the key to look up
+	 * @return the cached value, or {@code null} if none
+	 */
+	@Nullable
+	public V get(K key) {
+		Entry<K, V> entry = this.cache.get(key);
+		if (entry == null) {
+			this.missCount.increment();
+			return null;
+		}
+		this.hitCount.increment();
+		if (!entry.recentlyUsed) {
+			entry.recentlyUsed = true;
+		}
+		return entry.value;
+	}
+
+	/**
+	 * Determine whether a value is cached for the given key,
+	 * without marking the entry as used and without counting a hit or miss.
+	 * @param key the key to look up
+	 */
+	public boolean containsKey(K key) {
+		return this.cache.containsKey(key);
+	}
+
+	/**
+	 * Cache the given value for the given key, replacing any existing value
+	 * and evicting least recently used entries if the size limit is exceeded.
+	 * @param key the key to cache the value for
+	 * @param value the value to cache
+	 */
+	public void put(K key, V value) {
+		if (this.sizeLimit == 0) {
+			return;
+		}
+		Entry<K, V> entry = new Entry<>(key, value, this.referenceEntries);
+		this.cache.put(key, entry);
+		enqueue(entry);
+	}
+
+	/**
+	 * Cache the given value for the given key unless a value is cached already.
+	 * @param key the key to cache the value for
+	 * @param value the value to cache
+	 * @return the value cached before, or {@code null} if the given value has
+	 * been cached (or caching is disabled)
+	 */
+	@Nullable
+	public V putIfAbsent(K key, V value) {
+		if (this.sizeLimit == 0) {
+			return null;
+		}
+		Entry<K, V> entry = new Entry<>(key, value, this.referenceEntries);
+		Entry<K, V> existing = this.cache.putIfAbsent(key, entry);
+		if (existing != null) {
+			return existing.value;
+		}
+		enqueue(entry);
+		return null;
+	}
+
+	/**
+	 * Remove the entry for the given key, if any.
+	 * @param key the key to remove
+	 * @return {@code true} if an entry was removed
+	 */
+	public boolean remove(K key) {
+		Entry<K, V> entry = this.cache.remove(key);
+		if (entry == null) {
+			return false;
+		}
+		purgeIfNecessary();
+		return true;
+	}
+
+	/**
+	 * Remove all entries whose key matches the given filter.
+	 * @param keyFilter the filter to apply to the keys
+	 * @return {@code true} if any entries were removed
+	 */
+	public boolean removeIf(Predicate<? super K> keyFilter) {
+		boolean removed = false;
+		for (Entry<K, V> entry : this.cache.values()) {
+			if (keyFilter.test(entry.key) && this.cache.remove(entry.key, entry)) {
+				removed = true;
+			}
+		}
+		if (removed) {
+			purgeIfNecessary();
+		}
+		return removed;
+	}
+
+	/**
+	 * Remove all entries from this cache.
+	 */
+	public void clear() {
+		synchronized (this.evictionMonitor) {
+			this.cache.clear();
+			// Entries concurrently added to the cache keep their queue nodes
+			purge();
+		}
+	}
+
+	/**
+	 * Return the current number of entries in this cache.
+	 */
+	public int size() {
+		return this.cache.size();
+	}
+
+	/**
+	 * Return whether this cache is currently empty.
+	 */
+	public boolean isEmpty() {
+		return this.cache.isEmpty();
+	}
+
+	/**
+	 * Return the maximum number of entries this cache keeps.
+	 */
+	public int sizeLimit() {
+		return this.sizeLimit;
+	}
+
+	/**
+	 * Return a snapshot of the statistics of this cache.
+	 * <p>Counters are not reset by {@link #clear()}.
+	 */
+	public CacheStatistics getStatistics() {
+		return new CacheStatistics(this.hitCount.sum(), this.missCount.sum(),
+				this.evictionCount.sum(), size(), this.sizeLimit);
+	}
+
+	private void enqueue(Entry<K, V> entry) {
+		this.queue.offer(entry.queued);
+		this.queueLength.incrementAndGet();
+		if (this.cache.size() > this.sizeLimit) {
+			evict(entry);
+		}
+		else {
+			purgeIfNecessary();
+		}
+	}
+
+	private void evict(Entry<K, V> inserted) {
+		synchronized (this.evictionMonitor) {
+			// Every entry gets at most one second chance per sweep,
+			// so bound the sweep even under concurrent cache hits.
+			int secondChances = this.cache.size();
+			while (this.cache.size() > this.sizeLimit) {
+				QueuedEntry<K, V> queued = this.queue.poll();
+				if (queued == null) {
+					return;
+				}
+				this.queueLength.decrementAndGet();
+				Entry<K, V> candidate = queued.get();
+				if (candidate == null || this.cache.get(candidate.key) != candidate) {
+					// Stale queue entry for a value that has been replaced, removed or reclaimed
+					continue;
+				}
+				if ((candidate.recentlyUsed || candidate == inserted) && secondChances-- > 0) {
+					candidate.recentlyUsed = false;
+					this.queue.offer(queued);
+					this.queueLength.incrementAndGet();
+				}
+				else if (this.cache.remove(candidate.key, candidate)) {
+					this.evictionCount.increment();
+				}
+			}
+		}
+	}
+
+	private void purgeIfNecessary() {
+		if (this.queueLength.get() > this.purgeThreshold) {
+			synchronized (this.evictionMonitor) {
+				if (this.queueLength.get() > this.purgeThreshold) {
+					purge();
+				}
+			}
+		}
+	}
+
+	private void purge() {
+		for (Iterator<QueuedEntry<K, V>> it = this.queue.iterator(); it.hasNext();) {
+			Entry<K, V> entry = it.next().get();
+			if (entry == null || this.cache.get(entry.key) != entry) {
+				it.remove();
+				this.queueLength.decrementAndGet();
+			}
+		}
+	}
+
+
+	/**
+	 * Determine the queue length beyond which stale queue entries are purged.
+	 * <p>There are at most {@code sizeLimit} live entries, so beyond twice that
+	 * most queue entries are stale and purging them is amortized over their
+	 * insertions. Saturates for limits such as {@link Integer#MAX_VALUE}
+	 * that indicate an unbounded cache.
+	 */
+	static int purgeThreshold(int sizeLimit) {
+		return (int) Math.min(2L * sizeLimit, Integer.MAX_VALUE);
+	}
+
+
+	/**
+	 * Node of the eviction queue: the entry itself, or a weak reference to it
+	 * for a cache that holds its entries through references.
+	 */
+	private interface QueuedEntry<K, V> {
+
+		@Nullable
+		Entry<K, V> get();
+	}
+
+
+	private static final class Entry<K, V> implements QueuedEntry<K, V> {
+
+		final K key;
+
+		final V value;
+
+		final QueuedEntry<K, V> queued;
+
+		volatile boolean recentlyUsed;
+
+		Entry(K key, V value, boolean weaklyQueued) {
+			this.key = key;
+			this.value = value;
+			this.queued = (weaklyQueued ? new WeakQueuedEntry<>(this) : this);
+		}
+
+		@Override
+		public Entry<K, V> get() {
+			return this;
+		}
+	}
+
+
+	private static final class WeakQueuedEntry<K, V> extends WeakReference<Entry<K, V>> implements QueuedEntry<K, V> {
+
+		WeakQueuedEntry(Entry<K, V> entry) {
+			super(entry);
+		}
+	}
+
+}
@@ -54,12 +54,16 @@ public abstract class ReflectionUtils {
      * Cache for {@link Class#getDeclaredMethods()} plus equivalent default methods
      * from Java 8 based interfaces, allowing for fast iteration.
      */
-    private static final Map<Class<?>, Method[]> declaredMethodsCache = new ConcurrentReferenceHashMap<>(256);
+    private static final ConcurrentLruCache<Class<?>, Method[]> declaredMethodsCache =
+            CacheRegistry.createCache("ReflectionUtils.declaredMethods", 4096,
+                    ConcurrentReferenceHashMap.ReferenceType.SOFT);
 
     /**
      * Cache for {@link Class#getDeclaredFields()}, allowing for fast iteration.
      */
-    private static final Map<Class<?>, Field[]> declaredFieldsCache = new ConcurrentReferenceHashMap<>(256);
+    private static final ConcurrentLruCache<Class<?>, Field[]> declaredFieldsCache =
+            CacheRegistry.createCache("ReflectionUtils.declaredFields", 4096,
+                    ConcurrentReferenceHashMap.ReferenceType.SOFT);
 
 
     /**
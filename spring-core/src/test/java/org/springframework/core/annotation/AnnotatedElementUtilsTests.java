@@ -733,6 +733,38 @@ public class AnnotatedElementUtilsTests {
 		assertEquals(1, allMergedAnnotations.size());
 	}
 
+	@Test
+	public void findMergedAnnotationIsCachedPerElement() throws Exception {
+		Method m = TransactionalServiceImpl.class.getMethod("doIt");
+		Transactional tx = findMergedAnnotation(m, Transactional.class);
+		assertNotNull(tx);
+		assertSame(tx, findMergedAnnotation(m, Transactional.class));
+		assertNull(getMergedAnnotation(m, Transactional.class));
+		assertNull(getMergedAnnotation(m, Transactional.class));
+	}
+
+	@Test
+	public void findMergedAnnotationAttributesReturnsIndependentCopies() {
+		Class<?> element = TestComponentScanClass.class;
+		AnnotationAttributes attributes = AnnotatedElementUtils.findMergedAnnotationAttributes(element, ComponentScan.class, false, true);
+		assertNotNull(attributes);
+		attributes.getStringArray("basePackages")[0] = "modified";
+		attributes.getAnnotationArray("excludeFilters")[0].put("pattern", "modified");
+		attributes.put("value", new String[0]);
+
+		attributes = AnnotatedElementUtils.findMergedAnnotationAttributes(element, ComponentScan.class, false, true);
+		assertArrayEquals(asArray("com.example.app.test"), attributes.getStringArray("value"));
+		assertArrayEquals(asArray("com.example.app.test"), attributes.getStringArray("basePackages"));
+		assertEquals("*Test", attributes.getAnnotationArray("excludeFilters")[0].getString("pattern"));
+	}
+
+	@Test
+	public void getAllMergedAnnotationsReturnsIndependentSets() throws Exception {
+		Method m = TransactionalServiceImpl.class.getMethod("doIt");
+		findAllMergedAnnotations(m, Transactional.class).clear();
+		assertEquals(1, findAllMergedAnnotations(m, Transactional.class).size());
+	}
+
 
 	// -------------------------------------------------------------------------
 
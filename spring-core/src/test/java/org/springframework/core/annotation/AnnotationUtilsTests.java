@@ -24,10 +24,15 @@ import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.junit.Before;
 import org.junit.Rule;
@@ -38,6 +43,7 @@ import org.springframework.core.Ordered;
 import org.springframework.core.annotation.subpackage.NonPublicAnnotatedClass;
 import org.springframework.stereotype.Component;
 import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentLruCache;
 import org.springframework.util.ReflectionUtils;
 
 import static java.util.Arrays.*;
@@ -73,13 +79,25 @@ public class AnnotationUtilsTests {
 	}
 
 	static void clearCache(String... cacheNames) {
-		stream(cacheNames).forEach(cacheName -> getCache(cacheName).clear());
+		stream(cacheNames).forEach(cacheName -> {
+			Object cache = getCacheField(cacheName);
+			if (cache instanceof ConcurrentLruCache) {
+				((ConcurrentLruCache<?, ?>) cache).clear();
+			}
+			else {
+				((Map<?, ?>) cache).clear();
+			}
+		});
 	}
 
 	static Map<?, ?> getCache(String cacheName) {
+		return (Map<?, ?>) getCacheField(cacheName);
+	}
+
+	private static Object getCacheField(String cacheName) {
 		Field field = ReflectionUtils.findField(AnnotationUtils.class, cacheName);
 		ReflectionUtils.makeAccessible(field);
-		return (Map<?, ?>) ReflectionUtils.getField(field, null);
+		return ReflectionUtils.getField(field, null);
 	}
 
 
@@ -1451,6 +1469,43 @@ public class AnnotationUtilsTests {
 		assertThat(webMappingWithAliases.hashCode(), is(not(synthesizedWebMapping1.hashCode())));
 	}
 
+	@Test
+	public void synthesizeAnnotationWithGeneratedClass() throws Exception {
+		Method method = WebController.class.getMethod("handleMappedWithPathAttribute");
+		WebMapping webMapping = method.getAnnotation(WebMapping.class);
+		WebMapping synthesizedWebMapping = synthesizeAnnotation(webMapping);
+		assertThat(synthesizedWebMapping, instanceOf(SynthesizedAnnotation.class));
+		assertFalse(Proxy.isProxyClass(synthesizedWebMapping.getClass()));
+		assertSame(synthesizedWebMapping.getClass(), synthesizeAnnotation(webMapping).getClass());
+		assertEquals(WebMapping.class, synthesizedWebMapping.annotationType());
+
+		synthesizedWebMapping.value()[0] = "/modified";
+		assertArrayEquals(asArray("/test"), synthesizedWebMapping.value());
+		assertArrayEquals(asArray("/test"), synthesizedWebMapping.path());
+		assertArrayEquals(new RequestMethod[] {RequestMethod.GET, RequestMethod.POST}, synthesizedWebMapping.method());
+		assertEquals("bar", synthesizedWebMapping.name());
+	}
+
+	@Test
+	public void synthesizeAnnotationConcurrentlyWithGeneratedClass() throws Exception {
+		Method method = WebController.class.getMethod("handleMappedWithPathAttribute");
+		WebMapping webMapping = method.getAnnotation(WebMapping.class);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<WebMapping>> futures = new ArrayList<>();
+			for (int i = 0; i < 16; i++) {
+				futures.add(executor.submit(() -> synthesizeAnnotation(webMapping)));
+			}
+			Class<?> generatedClass = futures.get(0).get().getClass();
+			for (Future<WebMapping> future : futures) {
+				assertSame(generatedClass, future.get().getClass());
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
 	/**
 	 * Fully reflection-based test that verifies support for
 	 * {@linkplain AnnotationUtils#synthesizeAnnotation synthesizing annotations}
@@ -26,6 +26,7 @@ import reactor.test.StepVerifier;
 
 import org.springframework.core.ResolvableType;
 import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.InputStreamResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.buffer.AbstractDataBufferAllocatingTestCase;
@@ -74,4 +75,19 @@ public class ResourceEncoderTests extends AbstractDataBufferAllocatingTestCase {
 				.verify();
 	}
 
+	@Test
+	public void encodeMappedFile() throws Exception {
+		Resource resource = new ClassPathResource("ResourceRegionEncoderTests.txt", getClass());
+		this.encoder.setMemoryMappingThreshold(0);
+
+		Flux<DataBuffer> output = this.encoder.encode(Mono.just(resource), this.bufferFactory,
+				ResolvableType.forClass(Resource.class),
+				null, Collections.emptyMap());
+
+		StepVerifier.create(output)
+				.consumeNextWith(stringConsumer("Spring Framework test resource content."))
+				.expectComplete()
+				.verify();
+	}
+
 }
\ No newline at end of file
@@ -16,6 +16,8 @@
 
 package org.springframework.core.codec;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Collections;
 
 import org.junit.Test;
@@ -84,6 +86,72 @@ public class StringDecoderTests extends AbstractDataBufferAllocatingTestCase {
 
 	}
 
+	@Test
+	public void decodeNewLineAcrossBuffers() {
+		Flux<DataBuffer> source = Flux.just(stringBuffer("fo"), stringBuffer("o\nba"), stringBuffer("r\nbaz"));
+		Flux<String> output = this.decoder.decode(source, ResolvableType.forClass(String.class),
+				null, Collections.emptyMap());
+
+		StepVerifier.create(output)
+				.expectNext("foo\n", "bar\n", "baz")
+				.expectComplete()
+				.verify();
+	}
+
+	@Test
+	public void decodeMultiByteDelimiterAcrossBuffers() {
+		this.decoder = StringDecoder.allMimeTypes(Arrays.asList("\r\n", "\n"), true);
+		Flux<DataBuffer> source = Flux.just(stringBuffer("foo\r"), stringBuffer("\nbar\nb"), stringBuffer("az\r\n"));
+		Flux<String> output = this.decoder.decode(source, ResolvableType.forClass(String.class),
+				null, Collections.emptyMap());
+
+		StepVerifier.create(output)
+				.expectNext("foo", "bar", "baz")
+				.expectComplete()
+				.verify();
+	}
+
+	@Test
+	public void decodeOverlappingDelimiter() {
+		this.decoder = StringDecoder.allMimeTypes(Collections.singletonList("--="), true);
+		Flux<DataBuffer> source = Flux.just(stringBuffer("foo---"), stringBuffer("=bar--"), stringBuffer("-=-baz"));
+		Flux<String> output = this.decoder.decode(source, ResolvableType.forClass(String.class),
+				null, Collections.emptyMap());
+
+		StepVerifier.create(output)
+				.expectNext("foo-", "bar-", "-baz")
+				.expectComplete()
+				.verify();
+	}
+
+	@Test
+	public void decodeNonAsciiAcrossBuffers() {
+		byte[] bytes = "f\u00f6\u00f6\nb\u00e4r".getBytes(StandardCharsets.UTF_8);
+		Flux<DataBuffer> source = Flux.just(
+				this.bufferFactory.wrap(Arrays.copyOfRange(bytes, 0, 2)),
+				this.bufferFactory.wrap(Arrays.copyOfRange(bytes, 2, bytes.length)));
+		Flux<String> output = this.decoder.decode(source, ResolvableType.forClass(String.class),
+				null, Collections.emptyMap());
+
+		StepVerifier.create(output)
+				.expectNext("f\u00f6\u00f6\n", "b\u00e4r")
+				.expectComplete()
+				.verify();
+	}
+
+	@Test
+	public void decodeTokenExceedingMaxLength() {
+		this.decoder.setMaxTokenLength(5);
+		Flux<DataBuffer> source = Flux.just(stringBuffer("foo\nba"), stringBuffer("rbaz\n"));
+		Flux<String> output = this.decoder.decode(source, ResolvableType.forClass(String.class),
+				null, Collections.emptyMap());
+
+		StepVerifier.create(output)
+				.expectNext("foo\n")
+				.expectError(DecodingException.class)
+				.verify();
+	}
+
 	@Test
 	public void decodeEmptyFlux() throws InterruptedException {
 		Flux<DataBuffer> source = Flux.empty();
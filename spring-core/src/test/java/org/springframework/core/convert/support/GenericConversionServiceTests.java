@@ -38,6 +38,7 @@ import org.springframework.core.convert.ConversionFailedException;
 import org.springframework.core.convert.ConverterNotFoundException;
 import org.springframework.core.convert.TypeDescriptor;
 import org.springframework.core.convert.converter.ConditionalConverter;
+import org.springframework.core.convert.converter.ConditionalGenericConverter;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.core.convert.converter.ConverterFactory;
 import org.springframework.core.convert.converter.GenericConverter;
@@ -456,6 +457,29 @@ public class GenericConversionServiceTests {
 		assertFalse(conversionService.canConvert(String.class, Color.class));
 	}
 
+	@Test
+	public void converterCacheForClassesRefreshedOnRegistration() {
+		assertFalse(conversionService.canConvert(String.class, Color.class));
+		assertFalse(conversionService.canConvert(TypeDescriptor.valueOf(String.class), TypeDescriptor.valueOf(Color.class)));
+		conversionService.addConverter(new ColorConverter());
+		assertTrue(conversionService.canConvert(String.class, Color.class));
+		assertEquals(Color.BLACK, conversionService.convert("#000000", Color.class));
+		assertEquals(Color.BLACK, conversionService.convert("#000000", TypeDescriptor.valueOf(Color.class)));
+		conversionService.removeConvertible(String.class, Color.class);
+		assertFalse(conversionService.canConvert(String.class, Color.class));
+	}
+
+	@Test
+	public void converterCacheDistinguishesArrayElementGenerics() {
+		conversionService.addConverter(new StringListArrayToStringConverter());
+		TypeDescriptor stringListArray = TypeDescriptor.array(
+				TypeDescriptor.collection(List.class, TypeDescriptor.valueOf(String.class)));
+		TypeDescriptor integerListArray = TypeDescriptor.array(
+				TypeDescriptor.collection(List.class, TypeDescriptor.valueOf(Integer.class)));
+		assertTrue(conversionService.canConvert(stringListArray, TypeDescriptor.valueOf(String.class)));
+		assertFalse(conversionService.canConvert(integerListArray, TypeDescriptor.valueOf(String.class)));
+	}
+
 	@Test
 	public void conditionalConverter() {
 		MyConditionalConverter converter = new MyConditionalConverter();
@@ -794,6 +818,27 @@ public class GenericConversionServiceTests {
 	}
 
 
+	private static class StringListArrayToStringConverter implements ConditionalGenericConverter {
+
+		@Override
+		public Set<ConvertiblePair> getConvertibleTypes() {
+			return Collections.singleton(new ConvertiblePair(List[].class, String.class));
+		}
+
+		@Override
+		public boolean matches(TypeDescriptor sourceType, TypeDescriptor targetType) {
+			TypeDescriptor elementType = sourceType.getElementTypeDescriptor();
+			return (elementType != null && elementType.getElementTypeDescriptor() != null &&
+					elementType.getElementTypeDescriptor().getType() == String.class);
+		}
+
+		@Override
+		public Object convert(@Nullable Object source, TypeDescriptor sourceType, TypeDescriptor targetType) {
+			return Arrays.toString((Object[]) source);
+		}
+	}
+
+
 	private static class MyConditionalConverterFactory implements ConverterFactory<String, Color>, ConditionalConverter {
 
 		private MyConditionalConverter converter = new MyConditionalConverter();
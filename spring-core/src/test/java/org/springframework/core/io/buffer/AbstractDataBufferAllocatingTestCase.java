@@ -53,11 +53,18 @@ public abstract class AbstractDataBufferAllocatingTestCase {
 				{new NettyDataBufferFactory(new PooledByteBufAllocator(true, 1, 1, 8192, 11, 0, 0, 0, true))},
 				{new NettyDataBufferFactory(new PooledByteBufAllocator(false, 1, 1, 8192, 11, 0, 0, 0, true))},
 				{new DefaultDataBufferFactory(true)},
-				{new DefaultDataBufferFactory(false)}
-
+				{new DefaultDataBufferFactory(false)},
+				{pooledDataBufferFactory(true)},
+				{pooledDataBufferFactory(false)}
 		};
 	}
 
+	private static PooledDataBufferFactory pooledDataBufferFactory(boolean preferDirect) {
+		PooledDataBufferFactory factory = new PooledDataBufferFactory(preferDirect);
+		factory.setLeakDetection(true);
+		return factory;
+	}
+
 	@Rule
 	public final Verifier leakDetector = new LeakDetector();
 
@@ -103,6 +110,11 @@ public abstract class AbstractDataBufferAllocatingTestCase {
 							" allocations were not released", allocations == 0);
 				}
 			}
+			else if (bufferFactory instanceof PooledDataBufferFactory) {
+				long allocations = ((PooledDataBufferFactory) bufferFactory).getActiveAllocations();
+				assertTrue("DataBuffer leak detected: " + allocations +
+						" allocations were not released", allocations == 0);
+			}
 		}
 
 		private long calculateAllocations(List<PoolArenaMetric> metrics) {
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import org.springframework.core.io.buffer.support.DataBufferTestUtils;
+import org.springframework.util.FileCopyUtils;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for buffers created through {@link DataBufferFactory#join}, i.e.
+ * {@link CompositeDataBuffer} or a Netty {@code CompositeByteBuf}.
+ */
+public class CompositeDataBufferTests extends AbstractDataBufferAllocatingTestCase {
+
+	@Test
+	public void joinSingleBuffer() {
+		DataBuffer foo = stringBuffer("foo");
+		assertSame(foo, this.bufferFactory.join(Arrays.asList(foo)));
+		release(foo);
+	}
+
+	@Test
+	public void readAcrossBuffers() {
+		DataBuffer composite = join("foo", "bar", "baz");
+		assertEquals(9, composite.readableByteCount());
+		assertEquals((byte) 'f', composite.read());
+
+		byte[] result = new byte[6];
+		composite.read(result);
+		assertArrayEquals("oobarb".getBytes(StandardCharsets.UTF_8), result);
+		assertEquals(2, composite.readableByteCount());
+		release(composite);
+	}
+
+	@Test
+	public void joinReadableBytesOnly() {
+		DataBuffer foo = stringBuffer("xfoo");
+		foo.read();
+		DataBuffer composite = this.bufferFactory.join(Arrays.asList(foo, stringBuffer("bar")));
+		assertEquals("foobar", DataBufferTestUtils.dumpString(composite, StandardCharsets.UTF_8));
+		release(composite);
+	}
+
+	@Test
+	public void indexOf() {
+		DataBuffer composite = join("ab", "cd", "ef");
+		assertEquals(3, composite.indexOf(b -> b == 'd', 0));
+		assertEquals(-1, composite.indexOf(b -> b == 'a', 1));
+		assertEquals(4, composite.lastIndexOf(b -> b == 'e', 5));
+		assertEquals(-1, composite.lastIndexOf(b -> b == 'f', 4));
+		release(composite);
+	}
+
+	@Test
+	public void slice() {
+		DataBuffer composite = join("foo", "bar", "baz");
+		DataBuffer slice = composite.slice(2, 5);
+		assertEquals("obarb", DataBufferTestUtils.dumpString(slice, StandardCharsets.UTF_8));
+		release(composite);
+	}
+
+	@Test
+	public void asByteBuffer() {
+		DataBuffer composite = join("foo", "bar");
+		assertEquals(ByteBuffer.wrap("obar".getBytes(StandardCharsets.UTF_8)), composite.asByteBuffer(2, 4));
+		assertEquals(ByteBuffer.wrap("ar".getBytes(StandardCharsets.UTF_8)), composite.asByteBuffer(4, 2));
+		release(composite);
+	}
+
+	@Test
+	public void asInputStream() throws Exception {
+		DataBuffer composite = join("foo", "bar", "baz");
+		InputStream inputStream = composite.asInputStream();
+		assertEquals("foobarbaz", new String(FileCopyUtils.copyToByteArray(inputStream), StandardCharsets.UTF_8));
+		release(composite);
+	}
+
+	@Test
+	public void writeGrowsBuffer() {
+		DataBuffer composite = join("foo", "bar");
+		composite.write("baz".getBytes(StandardCharsets.UTF_8));
+		composite.write((byte) '!');
+		composite.write(ByteBuffer.wrap(new byte[1000]));
+		assertEquals(1010, composite.readableByteCount());
+		assertEquals("foobarbaz!", new String(composite.asByteBuffer(0, 10).array(), StandardCharsets.UTF_8));
+		release(composite);
+	}
+
+	@Test
+	public void writeDataBuffer() {
+		DataBuffer composite = join("foo", "bar");
+		composite.write(stringBuffer("baz"));
+		assertEquals("foobarbaz", DataBufferTestUtils.dumpString(composite, StandardCharsets.UTF_8));
+		release(composite);
+	}
+
+	@Test
+	public void nativeCompositeBuffer() {
+		DataBuffer composite = join("foo", "bar");
+		if (this.bufferFactory instanceof NettyDataBufferFactory) {
+			assertTrue(composite instanceof NettyDataBuffer);
+		}
+		else {
+			assertEquals(2, ((CompositeDataBuffer) composite).getComponentCount());
+		}
+		release(composite);
+	}
+
+	@Test
+	public void joinMixedBuffers() {
+		DataBuffer foo = stringBuffer("foo");
+		DataBuffer bar = new DefaultDataBufferFactory().wrap("bar".getBytes(StandardCharsets.UTF_8));
+		DataBuffer composite = this.bufferFactory.join(Arrays.asList(foo, bar));
+		assertEquals("foobar", DataBufferTestUtils.dumpString(composite, StandardCharsets.UTF_8));
+		release(composite);
+	}
+
+
+	private DataBuffer join(String... values) {
+		DataBuffer[] buffers = Arrays.stream(values).map(this::stringBuffer).toArray(DataBuffer[]::new);
+		return this.bufferFactory.join(Arrays.asList(buffers));
+	}
+
+}
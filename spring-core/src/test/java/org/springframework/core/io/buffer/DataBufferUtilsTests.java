@@ -16,6 +16,7 @@
 
 package org.springframework.core.io.buffer;
 
+import java.io.FileNotFoundException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URI;
@@ -24,6 +25,7 @@ import java.nio.channels.AsynchronousFileChannel;
 import java.nio.channels.FileChannel;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -36,6 +38,7 @@ import org.mockito.stubbing.Answer;
 import reactor.core.publisher.Flux;
 import reactor.test.StepVerifier;
 
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
 
@@ -153,6 +156,40 @@ public class DataBufferUtilsTests extends AbstractDataBufferAllocatingTestCase {
 				.verify(Duration.ofSeconds(5));
 	}
 
+	@Test
+	public void readMapped() throws Exception {
+		Resource resource = new ClassPathResource("DataBufferUtilsTests.txt", getClass());
+		Flux<DataBuffer> flux = DataBufferUtils.readMapped(resource, 3, 7, this.bufferFactory, 3);
+
+		StepVerifier.create(flux)
+				.consumeNextWith(stringConsumer("bar"))
+				.consumeNextWith(stringConsumer("baz"))
+				.consumeNextWith(stringConsumer("q"))
+				.expectComplete()
+				.verify(Duration.ofSeconds(5));
+	}
+
+	@Test
+	public void readMappedBeyondEnd() throws Exception {
+		Resource resource = new ClassPathResource("DataBufferUtilsTests.txt", getClass());
+		Flux<DataBuffer> flux = DataBufferUtils.readMapped(resource, 9, Long.MAX_VALUE, this.bufferFactory, 1024);
+
+		StepVerifier.create(flux)
+				.consumeNextWith(stringConsumer("qux"))
+				.expectComplete()
+				.verify(Duration.ofSeconds(5));
+	}
+
+	@Test
+	public void readMappedNonFileResource() throws Exception {
+		Resource resource = new ByteArrayResource("foo".getBytes(StandardCharsets.UTF_8));
+		Flux<DataBuffer> flux = DataBufferUtils.readMapped(resource, 0, 3, this.bufferFactory, 3);
+
+		StepVerifier.create(flux)
+				.expectError(FileNotFoundException.class)
+				.verify(Duration.ofSeconds(5));
+	}
+
 	@Test
 	public void writeOutputStream() throws Exception {
 		DataBuffer foo = stringBuffer("foo");
@@ -296,6 +333,24 @@ public class DataBufferUtilsTests extends AbstractDataBufferAllocatingTestCase {
 		// AbstractDataBufferAllocatingTestCase.LeakDetector will assert the release of the buffers
 	}
 
+	@Test
+	public void join() {
+		DataBuffer foo = stringBuffer("foo");
+		DataBuffer bar = stringBuffer("bar");
+		DataBuffer baz = stringBuffer("baz");
+		Flux<DataBuffer> flux = Flux.just(foo, bar, baz);
+
+		StepVerifier.create(DataBufferUtils.join(flux))
+				.consumeNextWith(stringConsumer("foobarbaz"))
+				.verifyComplete();
+	}
+
+	@Test
+	public void joinEmpty() {
+		StepVerifier.create(DataBufferUtils.join(Flux.empty()))
+				.verifyComplete();
+	}
+
 	@Test
 	public void SPR16070() throws Exception {
 		ReadableByteChannel channel = mock(ReadableByteChannel.class);
@@ -308,7 +363,7 @@ public class DataBufferUtilsTests extends AbstractDataBufferAllocatingTestCase {
 		Flux<DataBuffer> read = DataBufferUtils.read(channel, this.bufferFactory, 1);
 
 		StepVerifier.create(
-				read.reduce(DataBuffer::write)
+				DataBufferUtils.join(read)
 						.map(this::dataBufferToBytes)
 						.map(this::encodeHexString)
 		)
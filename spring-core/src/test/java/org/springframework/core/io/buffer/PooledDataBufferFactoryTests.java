@@ -0,0 +1,201 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import org.springframework.core.io.buffer.support.DataBufferTestUtils;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link PooledDataBufferFactory}.
+ */
+public class PooledDataBufferFactoryTests {
+
+	private final PooledDataBufferFactory factory = new PooledDataBufferFactory(false, 256, 1024, 1024 * 1024);
+
+
+	@Test
+	public void allocatePooledBuffer() {
+		DataBuffer buffer = this.factory.allocateBuffer(100);
+		assertTrue(buffer instanceof PooledDataBuffer);
+		assertEquals(100, buffer.capacity());
+		assertEquals(0, buffer.readableByteCount());
+		assertEquals(1, this.factory.getActiveAllocations());
+		assertTrue(this.factory.getPoolSize() > 0);
+
+		assertTrue(DataBufferUtils.release(buffer));
+		assertEquals(0, this.factory.getActiveAllocations());
+	}
+
+	@Test
+	public void releasedSegmentsAreReused() {
+		DataBuffer buffer = this.factory.allocateBuffer(100);
+		buffer.write("foo".getBytes(StandardCharsets.UTF_8));
+		long poolSize = this.factory.getPoolSize();
+		DataBufferUtils.release(buffer);
+
+		for (int i = 0; i < 100; i++) {
+			DataBuffer reused = this.factory.allocateBuffer(128);
+			assertEquals(0, reused.readableByteCount());
+			DataBufferUtils.release(reused);
+		}
+		assertEquals(poolSize, this.factory.getPoolSize());
+	}
+
+	@Test
+	public void reuseWithoutThreadLocalCache() {
+		this.factory.setThreadLocalCacheSize(0);
+		DataBufferUtils.release(this.factory.allocateBuffer(100));
+		long poolSize = this.factory.getPoolSize();
+
+		DataBufferUtils.release(this.factory.allocateBuffer(100));
+		assertEquals(poolSize, this.factory.getPoolSize());
+	}
+
+	@Test
+	public void growBuffer() {
+		DataBuffer buffer = this.factory.allocateBuffer(4);
+		buffer.write("foo".getBytes(StandardCharsets.UTF_8));
+		buffer.write(new byte[2000]);
+		buffer.write("bar".getBytes(StandardCharsets.UTF_8));
+
+		assertEquals(2006, buffer.readableByteCount());
+		String result = DataBufferTestUtils.dumpString(buffer, StandardCharsets.UTF_8);
+		assertTrue(result.startsWith("foo"));
+		assertTrue(result.endsWith("bar"));
+		assertTrue(DataBufferUtils.release(buffer));
+		assertEquals(0, this.factory.getActiveAllocations());
+	}
+
+	@Test
+	public void largeBuffersAreNotPooled() {
+		PooledDataBuffer buffer = (PooledDataBuffer) this.factory.allocateBuffer(4096);
+		assertEquals(4096, buffer.capacity());
+		assertEquals(0, this.factory.getPoolSize());
+		assertTrue(buffer.release());
+	}
+
+	@Test
+	public void exhaustedPoolAllocatesUnpooled() {
+		PooledDataBufferFactory factory = new PooledDataBufferFactory(true, 256, 1024, 0);
+		PooledDataBuffer buffer = (PooledDataBuffer) factory.allocateBuffer(100);
+		assertTrue(buffer.asByteBuffer().isDirect());
+		assertEquals(0, factory.getPoolSize());
+		assertTrue(buffer.release());
+	}
+
+	@Test
+	public void sharedPoolKeepsAtMostMaxPoolSize() {
+		PooledDataBufferFactory factory = new PooledDataBufferFactory(false, 256, 1024, 16 * 1024);
+		factory.setThreadLocalCacheSize(0);
+		DataBuffer[] buffers = new DataBuffer[256];
+		for (int i = 0; i < buffers.length; i++) {
+			buffers[i] = factory.allocateBuffer(100);
+			assertTrue(isPooled(buffers[i]));
+		}
+		for (DataBuffer buffer : buffers) {
+			DataBufferUtils.release(buffer);
+		}
+		assertEquals(16 * 1024, factory.getPoolSize());
+	}
+
+	@Test
+	public void threadLocalCachesOfTerminatedThreadsDoNotExhaustPool() throws Exception {
+		PooledDataBufferFactory factory = new PooledDataBufferFactory(false, 256, 1024, 16 * 1024);
+		Thread[] threads = new Thread[8];
+		for (int i = 0; i < threads.length; i++) {
+			threads[i] = new Thread(() -> {
+				// Fill the cache of this thread
+				DataBuffer[] buffers = new DataBuffer[factory.getThreadLocalCacheSize()];
+				for (int j = 0; j < buffers.length; j++) {
+					buffers[j] = factory.allocateBuffer(100);
+				}
+				for (DataBuffer buffer : buffers) {
+					DataBufferUtils.release(buffer);
+				}
+			});
+			threads[i].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		assertTrue(factory.getPoolSize() <= factory.getMaxPoolSize());
+		DataBuffer buffer = factory.allocateBuffer(100);
+		assertTrue(isPooled(buffer));
+		DataBufferUtils.release(buffer);
+	}
+
+	@Test
+	public void unreleasedBuffersDoNotExhaustPool() {
+		PooledDataBufferFactory factory = new PooledDataBufferFactory(false, 256, 1024, 16 * 1024);
+		for (int i = 0; i < 1000; i++) {
+			factory.allocateBuffer(100);
+		}
+
+		DataBuffer buffer = factory.allocateBuffer(100);
+		assertTrue(isPooled(buffer));
+		assertEquals(1001, factory.getActiveAllocations());
+	}
+
+	@Test
+	public void sliceSharesReferenceCount() {
+		DataBuffer buffer = this.factory.allocateBuffer(8);
+		buffer.write("foobar".getBytes(StandardCharsets.UTF_8));
+		DataBuffer slice = buffer.slice(3, 3);
+		assertTrue(slice instanceof PooledDataBuffer);
+		assertEquals("bar", DataBufferTestUtils.dumpString(slice, StandardCharsets.UTF_8));
+
+		DataBufferUtils.retain(slice);
+		assertFalse(DataBufferUtils.release(buffer));
+		assertEquals(1, this.factory.getActiveAllocations());
+		assertTrue(DataBufferUtils.release(slice.slice(0, 1)));
+		assertEquals(0, this.factory.getActiveAllocations());
+	}
+
+	@Test
+	public void writeDataBufferLeavesSourceToCaller() {
+		DataBuffer target = this.factory.allocateBuffer(8);
+		DataBuffer source = this.factory.allocateBuffer(8);
+		source.write("foo".getBytes(StandardCharsets.UTF_8));
+
+		target.write(source);
+		assertEquals(2, this.factory.getActiveAllocations());
+		assertTrue(DataBufferUtils.release(source));
+		assertEquals("foo", DataBufferTestUtils.dumpString(target, StandardCharsets.UTF_8));
+		assertTrue(DataBufferUtils.release(target));
+		assertEquals(0, this.factory.getActiveAllocations());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void retainAfterRelease() {
+		PooledDataBuffer buffer = (PooledDataBuffer) this.factory.allocateBuffer(8);
+		buffer.release();
+		buffer.retain();
+	}
+
+
+	private static boolean isPooled(DataBuffer buffer) {
+		// Pooled heap buffers are backed by a slab that is larger than the buffer
+		return (buffer.asByteBuffer().array().length > buffer.capacity());
+	}
+
+}
@@ -616,10 +616,25 @@ public class AntPathMatcherTests {
 		assertTrue(pathMatcher.stringMatcherCache.size() > 20);
 
 		for (int i = 0; i < 65536; i++) {
-			pathMatcher.match("test" + i, "test");
+			pathMatcher.match("test" + i, "test" + i);
+			pathMatcher.match("/hotels/{hotel}", "/hotels/" + i);
 		}
-		// Cache turned off because it went beyond the threshold
-		assertTrue(pathMatcher.stringMatcherCache.isEmpty());
+		// Cache bounded by the default limit, recurring patterns are kept
+		assertEquals(AntPathMatcher.DEFAULT_CACHE_LIMIT, pathMatcher.stringMatcherCache.size());
+		assertNotNull(pathMatcher.stringMatcherCache.get("{hotel}"));
+	}
+
+	@Test
+	public void cacheLimit() {
+		pathMatcher.setCacheLimit(100);
+		assertEquals(100, pathMatcher.getCacheLimit());
+
+		for (int i = 0; i < 1000; i++) {
+			pathMatcher.match("test" + i + "/{name}", "test" + i + "/" + i);
+		}
+		assertEquals(100, pathMatcher.stringMatcherCache.size());
+		assertNotNull(pathMatcher.stringMatcherCache.get("{name}"));
+		assertTrue(pathMatcher.match("test1/{name}", "test1/value"));
 	}
 
 	@Test
@@ -674,6 +689,73 @@ public class AntPathMatcherTests {
 		assertTrue(pathMatcher.stringMatcherCache.isEmpty());
 	}
 
+	@Test
+	public void compiledPatternMatchesLikePathMatcher() {
+		String[] patterns = {"", "/", "test", "/test", "/test/", "t?st", "test*", "test/*", "/*", "*", "/**",
+				"**", "/*/**", "/bla/**/bla", "/**/bla", "/bla/**/**/bla", "/*bla/test", "/x/x/**/bla",
+				"*bla*/**/bla/**", "/{hotel}", "/hotels/{hotel}", "/hotels/{hotel:\\d+}", "/{page}.html",
+				"/*.html", "/**/*.html", "/api/{version}/**/items/{id}", "/A-{B}-C", "/{name}.{extension}",
+				"/foo/**/bar/*/baz", "/FOO/Bar", "/foo//bar", " /foo/ bar ", "/hotels/{hotel}.*", "/{a}{b}",
+				"/x/{na*me}", "/{a}-?-*.{b}", "/a/{b}}", "/a/{:x}"};
+		String[] paths = {"", "/", "test", "/test", "/test/", "tst", "testtest", "test/", "test/a", "/a/b/c",
+				"/bla/bla", "/bla/x/y/bla", "/bla/x/bla/y/bla", "/testbla/test", "/x/x/x/x/bla", "/hotels/42",
+				"/hotels/abc", "/42.html", "/a/b/c.html", "/api/v1/a/b/items/7", "/api/v1/items/7", "/A-b-C",
+				"/test.html", "/foo/x/bar/y/baz", "/foo/bar/y/baz", "/foo/BAR", "/foo//bar", "/foo/\nbar", " /foo/ bar "};
+
+		for (AntPathMatcher matcher : new AntPathMatcher[] {new AntPathMatcher(), caseInsensitiveMatcher(), trimTokensMatcher()}) {
+			for (String pattern : patterns) {
+				AntPathMatcher.CompiledPattern compiled = matcher.compile(pattern);
+				assertEquals(pattern, compiled.getPattern());
+				for (String path : paths) {
+					String message = "'" + pattern + "' vs '" + path + "'";
+					assertEquals(message, matcher.match(pattern, path), compiled.match(path));
+					assertEquals(message, matcher.matchStart(pattern, path), compiled.matchStart(path));
+					if (compiled.match(path)) {
+						assertEquals(message, matcher.extractUriTemplateVariables(pattern, path),
+								compiled.extractUriTemplateVariables(path));
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void compiledPatternExtractUriTemplateVariables() {
+		AntPathMatcher.CompiledPattern compiled = pathMatcher.compile("/hotels/{hotel}/bookings/{booking:\\d+}");
+		Map<String, String> expected = new LinkedHashMap<>();
+		expected.put("hotel", "a");
+		expected.put("booking", "2");
+		assertEquals(expected, compiled.extractUriTemplateVariables("/hotels/a/bookings/2"));
+
+		exception.expect(IllegalStateException.class);
+		compiled.extractUriTemplateVariables("/hotels/a/bookings/b");
+	}
+
+	@Test
+	public void compiledPatternIsCached() {
+		assertSame(pathMatcher.compile("/hotels/{hotel}"), pathMatcher.compile("/hotels/{hotel}"));
+
+		pathMatcher.setCaseSensitive(false);
+		AntPathMatcher.CompiledPattern compiled = pathMatcher.compile("/hotels/{hotel}");
+		assertTrue(compiled.match("/HOTELS/1"));
+		assertSame(compiled, pathMatcher.compile("/hotels/{hotel}"));
+
+		pathMatcher.setCachePatterns(false);
+		assertNotSame(pathMatcher.compile("/hotels/{hotel}"), pathMatcher.compile("/hotels/{hotel}"));
+	}
+
+	private static AntPathMatcher caseInsensitiveMatcher() {
+		AntPathMatcher matcher = new AntPathMatcher();
+		matcher.setCaseSensitive(false);
+		return matcher;
+	}
+
+	private static AntPathMatcher trimTokensMatcher() {
+		AntPathMatcher matcher = new AntPathMatcher();
+		matcher.setTrimTokens(true);
+		return matcher;
+	}
+
 	@Test
 	public void extensionMappingWithDotPathSeparator() {
 		pathMatcher.setPathSeparator(".");
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import org.junit.After;
+import org.junit.Test;
+
+import org.springframework.core.ResolvableType;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link CacheRegistry}.
+ */
+public class CacheRegistryTests {
+
+	@After
+	public void clearSystemProperty() {
+		System.clearProperty(CacheRegistry.SIZE_LIMIT_PROPERTY_PREFIX + "test.configured");
+	}
+
+
+	@Test
+	public void createCache() {
+		ConcurrentLruCache<String, String> cache = CacheRegistry.createCache("test.default", 16);
+		assertEquals(16, cache.sizeLimit());
+		assertSame(cache, CacheRegistry.getCache("test.default"));
+		assertTrue(CacheRegistry.getCacheNames().contains("test.default"));
+	}
+
+	@Test
+	public void createCacheWithConfiguredSizeLimit() {
+		System.setProperty(CacheRegistry.SIZE_LIMIT_PROPERTY_PREFIX + "test.configured", " 3 ");
+		ConcurrentLruCache<String, String> cache = CacheRegistry.createCache("test.configured", 16);
+		assertEquals(3, cache.sizeLimit());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void createCacheWithInvalidSizeLimit() {
+		System.setProperty(CacheRegistry.SIZE_LIMIT_PROPERTY_PREFIX + "test.configured", "many");
+		CacheRegistry.createCache("test.configured", 16);
+	}
+
+	@Test
+	public void statistics() {
+		ConcurrentLruCache<String, String> cache = CacheRegistry.createCache("test.statistics", 1);
+		cache.get("k1");
+		cache.put("k1", "v1");
+		cache.get("k1");
+		cache.put("k2", "v2");
+		assertEquals(new CacheStatistics(1, 1, 1, 1, 1), CacheRegistry.getStatistics().get("test.statistics"));
+	}
+
+	@Test
+	public void frameworkCachesAreRegistered() {
+		ResolvableType.forClass(Object.class);
+		ReflectionUtils.getAllDeclaredMethods(Object.class);
+		assertTrue(CacheRegistry.getCacheNames().contains("ResolvableType"));
+		assertTrue(CacheRegistry.getCacheNames().contains("ReflectionUtils.declaredMethods"));
+	}
+
+}
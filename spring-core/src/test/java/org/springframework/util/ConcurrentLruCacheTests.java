@@ -0,0 +1,197 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link ConcurrentLruCache}.
+ */
+public class ConcurrentLruCacheTests {
+
+	private final ConcurrentLruCache<String, String> cache = new ConcurrentLruCache<>(2);
+
+
+	@Test
+	public void getAndPut() {
+		assertEquals(0, this.cache.size());
+		assertTrue(this.cache.isEmpty());
+		assertNull(this.cache.get("k1"));
+
+		this.cache.put("k1", "v1");
+		this.cache.put("k2", "v2");
+		assertEquals("v1", this.cache.get("k1"));
+		assertEquals("v2", this.cache.get("k2"));
+		assertEquals(2, this.cache.size());
+		assertEquals(2, this.cache.sizeLimit());
+
+		this.cache.put("k1", "v1b");
+		assertEquals("v1b", this.cache.get("k1"));
+		assertEquals(2, this.cache.size());
+	}
+
+	@Test
+	public void evictLeastRecentlyUsed() {
+		this.cache.put("k1", "v1");
+		this.cache.put("k2", "v2");
+		assertEquals("v1", this.cache.get("k1"));
+
+		this.cache.put("k3", "v3");
+		assertEquals(2, this.cache.size());
+		assertEquals("v1", this.cache.get("k1"));
+		assertNull(this.cache.get("k2"));
+		assertEquals("v3", this.cache.get("k3"));
+	}
+
+	@Test
+	public void evictInInsertionOrderWithoutAccess() {
+		this.cache.put("k1", "v1");
+		this.cache.put("k2", "v2");
+		this.cache.put("k3", "v3");
+		assertNull(this.cache.get("k1"));
+		assertEquals("v2", this.cache.get("k2"));
+		assertEquals("v3", this.cache.get("k3"));
+	}
+
+	@Test
+	public void evictWhenAllRecentlyUsed() {
+		this.cache.put("k1", "v1");
+		this.cache.put("k2", "v2");
+		this.cache.get("k1");
+		this.cache.get("k2");
+
+		this.cache.put("k3", "v3");
+		assertEquals(2, this.cache.size());
+		assertNull(this.cache.get("k1"));
+		assertEquals("v3", this.cache.get("k3"));
+	}
+
+	@Test
+	public void removeAndClear() {
+		this.cache.put("k1", "v1");
+		this.cache.put("k2", "v2");
+		assertTrue(this.cache.remove("k1"));
+		assertFalse(this.cache.remove("k1"));
+		assertNull(this.cache.get("k1"));
+		assertEquals(1, this.cache.size());
+
+		this.cache.clear();
+		assertTrue(this.cache.isEmpty());
+		assertNull(this.cache.get("k2"));
+	}
+
+	@Test
+	public void evictAfterRepeatedReplacement() {
+		for (int i = 0; i < 1000; i++) {
+			this.cache.put("k1", "v" + i);
+		}
+		this.cache.put("k2", "v2");
+		assertEquals("v999", this.cache.get("k1"));
+		this.cache.put("k3", "v3");
+		this.cache.put("k4", "v4");
+		assertEquals(2, this.cache.size());
+		assertNull(this.cache.get("k2"));
+		assertEquals("v4", this.cache.get("k4"));
+	}
+
+	@Test
+	public void zeroSizeLimit() {
+		ConcurrentLruCache<String, String> cache = new ConcurrentLruCache<>(0);
+		cache.put("k1", "v1");
+		assertNull(cache.get("k1"));
+		assertTrue(cache.isEmpty());
+	}
+
+	@Test
+	public void unboundedSizeLimit() {
+		ConcurrentLruCache<String, String> cache = new ConcurrentLruCache<>(Integer.MAX_VALUE);
+		for (int i = 0; i < 1000; i++) {
+			cache.put("k" + i, "v" + i);
+			cache.put("k" + i, "v" + i + "b");
+		}
+		assertTrue(cache.remove("k0"));
+		assertEquals(999, cache.size());
+		assertEquals("v999b", cache.get("k999"));
+		assertEquals(0, cache.getStatistics().getEvictionCount());
+
+		assertEquals(Integer.MAX_VALUE, ConcurrentLruCache.purgeThreshold(Integer.MAX_VALUE));
+		assertEquals(Integer.MAX_VALUE, ConcurrentLruCache.purgeThreshold(Integer.MAX_VALUE / 2 + 1));
+		assertEquals(4, ConcurrentLruCache.purgeThreshold(2));
+	}
+
+	@Test
+	public void softReferenceEntries() {
+		ConcurrentLruCache<String, String> cache =
+				new ConcurrentLruCache<>(2, ConcurrentReferenceHashMap.ReferenceType.SOFT);
+		cache.put("k1", "v1");
+		cache.put("k2", "v2");
+		assertEquals("v1", cache.get("k1"));
+		cache.put("k3", "v3");
+		assertEquals(2, cache.size());
+		assertEquals("v1", cache.get("k1"));
+		assertNull(cache.get("k2"));
+		assertEquals("v3", cache.get("k3"));
+		assertTrue(cache.remove("k1"));
+		assertEquals(1, cache.size());
+	}
+
+	@Test
+	public void putIfAbsent() {
+		assertNull(this.cache.putIfAbsent("k1", "v1"));
+		assertEquals("v1", this.cache.putIfAbsent("k1", "v1b"));
+		assertEquals("v1", this.cache.get("k1"));
+		assertNull(this.cache.putIfAbsent("k2", "v2"));
+		assertNull(this.cache.putIfAbsent("k3", "v3"));
+		assertEquals(2, this.cache.size());
+		assertFalse(this.cache.containsKey("k2"));
+	}
+
+	@Test
+	public void removeIf() {
+		this.cache.put("k1", "v1");
+		this.cache.put("x2", "v2");
+		assertTrue(this.cache.removeIf(key -> key.startsWith("k")));
+		assertFalse(this.cache.removeIf(key -> key.startsWith("k")));
+		assertFalse(this.cache.containsKey("k1"));
+		assertTrue(this.cache.containsKey("x2"));
+	}
+
+	@Test
+	public void statistics() {
+		this.cache.put("k1", "v1");
+		this.cache.put("k2", "v2");
+		this.cache.get("k1");
+		this.cache.get("k1");
+		this.cache.get("k3");
+		this.cache.containsKey("k3");
+		this.cache.put("k3", "v3");
+		this.cache.remove("k3");
+
+		CacheStatistics statistics = this.cache.getStatistics();
+		assertEquals(2, statistics.getHitCount());
+		assertEquals(1, statistics.getMissCount());
+		assertEquals(3, statistics.getRequestCount());
+		assertEquals(2.0 / 3, statistics.getHitRatio(), 0.0001);
+		assertEquals(1, statistics.getEvictionCount());
+		assertEquals(1, statistics.getSize());
+		assertEquals(2, statistics.getSizeLimit());
+		assertEquals(new CacheStatistics(2, 1, 1, 1, 2), statistics);
+	}
+
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.expression.spel;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+
+/**
+ * Benchmarks for {@code SpelExpression.getValue}, comparing the interpreted
+ * AST against the compiled form of the same expressions.
+ *
+ * @since 5.1
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+@State(Scope.Benchmark)
+public class SpelExpressionBenchmark {
+
+	@Param({"OFF", "IMMEDIATE"})
+	public SpelCompilerMode compilerMode;
+
+	@Param({"name", "name.length() > 3 and age * 2 == 84", "address.city.toUpperCase()"})
+	public String expressionString;
+
+	public Expression expression;
+
+	public StandardEvaluationContext context;
+
+	public Person root;
+
+
+	@Setup
+	public void setup() {
+		SpelParserConfiguration configuration =
+				new SpelParserConfiguration(this.compilerMode, getClass().getClassLoader());
+		this.expression = new SpelExpressionParser(configuration).parseExpression(this.expressionString);
+		this.root = new Person("Arthur", 42, new Address("Cambridge"));
+		this.context = new StandardEvaluationContext(this.root);
+		// Evaluate once so that IMMEDIATE mode compiles the expression up front
+		this.expression.getValue(this.context);
+	}
+
+
+	@Benchmark
+	public Object getValueWithContext() {
+		return this.expression.getValue(this.context);
+	}
+
+	@Benchmark
+	public Object getValueWithRootObject() {
+		return this.expression.getValue(this.root);
+	}
+
+
+	public static class Person {
+
+		private final String name;
+
+		private final int age;
+
+		private final Address address;
+
+		public Person(String name, int age, Address address) {
+			this.name = name;
+			this.age = age;
+			this.address = address;
+		}
+
+		public String getName() {
+			return this.name;
+		}
+
+		public int getAge() {
+			return this.age;
+		}
+
+		public Address getAddress() {
+			return this.address;
+		}
+	}
+
+
+	public static class Address {
+
+		private final String city;
+
+		public Address(String city) {
+			this.city = city;
+		}
+
+		public String getCity() {
+			return this.city;
+		}
+	}
+
+}
@@ -58,6 +58,14 @@ public class CodeFlow implements Opcodes {
 	 */
 	private final Stack<ArrayList<String>> compilationScopes;
 
+	/**
+	 * Local variable slots holding the object that {@link #loadTarget} should load.
+	 * Empty while generating the top level of the expression, where the target is
+	 * the first argument passed to the generated method; nodes that iterate over
+	 * elements (selection, projection) push the slot holding the current element.
+	 */
+	private final Stack<Integer> targetVariables;
+
 	/**
 	 * As SpEL ast nodes are called to generate code for the main evaluation method
 	 * they can register to add a field to this class. Any registered FieldAdders
@@ -83,9 +91,10 @@ public class CodeFlow implements Opcodes {
 
 	/**
 	 * When code generation requires an intermediate variable within a method,
-	 * this method records the next available variable (variable 0 is 'this').
+	 * this method records the next available variable (variable 0 is 'this', variables
+	 * 1 and 2 are the target and the evaluation context passed to the method).
 	 */
-	private int nextFreeVariableId = 1;
+	private int nextFreeVariableId = 3;
 
 
 	/**
@@ -98,16 +107,38 @@ public class CodeFlow implements Opcodes {
 		this.classWriter = classWriter;
 		this.compilationScopes = new Stack<ArrayList<String>>();
 		this.compilationScopes.add(new ArrayList<String>());
+		this.targetVariables = new Stack<>();
 	}
 
 
 	/**
 	 * Push the byte code to load the target (i.e. what was passed as the first argument
-	 * to CompiledExpression.getValue(target, context))
+	 * to CompiledExpression.getValue(target, context), or the current element whilst
+	 * inside a {@link #enterTargetScope target scope})
 	 * @param mv the visitor into which the load instruction should be inserted
 	 */
 	public void loadTarget(MethodVisitor mv) {
-		mv.visitVarInsn(ALOAD, 1);
+		mv.visitVarInsn(ALOAD, (this.targetVariables.isEmpty() ? 1 : this.targetVariables.peek()));
+	}
+
+	/**
+	 * Enter a scope in which {@link #loadTarget} loads the given local variable rather
+	 * than the target passed to the compiled expression. Used by nodes that evaluate
+	 * a sub-expression against each element of a collection.
+	 * @param variableId the local variable slot holding the new target
+	 * @since 5.1
+	 * @see #nextFreeVariableId()
+	 */
+	public void enterTargetScope(int variableId) {
+		this.targetVariables.push(variableId);
+	}
+
+	/**
+	 * Exit a scope previously entered via {@link #enterTargetScope}.
+	 * @since 5.1
+	 */
+	public void exitTargetScope() {
+		this.targetVariables.pop();
 	}
 
 	/**
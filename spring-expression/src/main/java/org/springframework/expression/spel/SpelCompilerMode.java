@@ -38,7 +38,8 @@ public enum SpelCompilerMode {
 
 	/**
 	 * In mixed mode, expression evaluation silently switches between interpreted and compiled over time.
-	 * After a number of runs the expression gets compiled. If it later fails (possibly due to inferred
+	 * After a {@linkplain SpelParserConfiguration#getCompileThreshold() number of runs} the expression
+	 * gets compiled. If it later fails (possibly due to inferred
 	 * type information changing) then that will be caught internally and the system switches back to
 	 * interpreted mode. It may subsequently compile it again later.
 	 */
@@ -30,12 +30,27 @@ import org.springframework.lang.Nullable;
  */
 public class SpelParserConfiguration {
 
+	/**
+	 * Default number of interpreted evaluations after which an expression
+	 * is compiled in {@link SpelCompilerMode#MIXED} mode.
+	 * @since 5.1
+	 */
+	public static final int DEFAULT_COMPILE_THRESHOLD = 100;
+
+	@Nullable
+	private static final SpelCompilerMode configuredCompilerMode;
+
 	private static final SpelCompilerMode defaultCompilerMode;
 
+	private static final int defaultCompileThreshold;
+
 	static {
 		String compilerMode = SpringProperties.getProperty("spring.expression.compiler.mode");
-		defaultCompilerMode = (compilerMode != null ?
-				SpelCompilerMode.valueOf(compilerMode.toUpperCase()) : SpelCompilerMode.OFF);
+		configuredCompilerMode = (compilerMode != null ? SpelCompilerMode.valueOf(compilerMode.toUpperCase()) : null);
+		defaultCompilerMode = (configuredCompilerMode != null ? configuredCompilerMode : SpelCompilerMode.OFF);
+		String compileThreshold = SpringProperties.getProperty("spring.expression.compiler.threshold");
+		defaultCompileThreshold = (compileThreshold != null ?
+				Integer.parseInt(compileThreshold.trim()) : DEFAULT_COMPILE_THRESHOLD);
 	}
 
 
@@ -50,6 +65,8 @@ public class SpelParserConfiguration {
 
 	private final int maximumAutoGrowSize;
 
+	private final int compileThreshold;
+
 
 	/**
 	 * Create a new {@code SpelParserConfiguration} instance with default settings.
@@ -98,11 +115,48 @@ public class SpelParserConfiguration {
 	public SpelParserConfiguration(@Nullable SpelCompilerMode compilerMode, @Nullable ClassLoader compilerClassLoader,
 			boolean autoGrowNullReferences, boolean autoGrowCollections, int maximumAutoGrowSize) {
 
+		this(compilerMode, compilerClassLoader, autoGrowNullReferences, autoGrowCollections, maximumAutoGrowSize,
+				defaultCompileThreshold);
+	}
+
+	/**
+	 * Create a new {@code SpelParserConfiguration} instance.
+	 * @param compilerMode the compiler mode that parsers using this configuration object should use
+	 * @param compilerClassLoader the ClassLoader to use as the basis for expression compilation
+	 * @param autoGrowNullReferences if null references should automatically grow
+	 * @param autoGrowCollections if collections should automatically grow
+	 * @param maximumAutoGrowSize the maximum size that the collection can auto grow
+	 * @param compileThreshold the number of interpreted evaluations after which
+	 * an expression is compiled in {@link SpelCompilerMode#MIXED} mode
+	 * @since 5.1
+	 */
+	public SpelParserConfiguration(@Nullable SpelCompilerMode compilerMode, @Nullable ClassLoader compilerClassLoader,
+			boolean autoGrowNullReferences, boolean autoGrowCollections, int maximumAutoGrowSize,
+			int compileThreshold) {
+
 		this.compilerMode = (compilerMode != null ? compilerMode : defaultCompilerMode);
 		this.compilerClassLoader = compilerClassLoader;
 		this.autoGrowNullReferences = autoGrowNullReferences;
 		this.autoGrowCollections = autoGrowCollections;
 		this.maximumAutoGrowSize = maximumAutoGrowSize;
+		this.compileThreshold = compileThreshold;
+	}
+
+
+	/**
+	 * Create a configuration for expressions that the framework evaluates on
+	 * behalf of the application, such as cache and event listener conditions
+	 * or bean definition values. These are compiled in
+	 * {@link SpelCompilerMode#MIXED} mode, falling back to interpretation
+	 * whenever a compiled expression fails, unless a compiler mode has been
+	 * set through the {@code spring.expression.compiler.mode} property.
+	 * @param compilerClassLoader the ClassLoader to use as the basis for expression compilation
+	 * @since 5.1
+	 */
+	public static SpelParserConfiguration forFrameworkExpressions(@Nullable ClassLoader compilerClassLoader) {
+		SpelCompilerMode compilerMode =
+				(configuredCompilerMode != null ? configuredCompilerMode : SpelCompilerMode.MIXED);
+		return new SpelParserConfiguration(compilerMode, compilerClassLoader);
 	}
 
 
@@ -142,4 +196,15 @@ public class SpelParserConfiguration {
 		return this.maximumAutoGrowSize;
 	}
 
+	/**
+	 * Return the number of interpreted evaluations after which an expression
+	 * is compiled in {@link SpelCompilerMode#MIXED} mode. Defaults to
+	 * {@value #DEFAULT_COMPILE_THRESHOLD}, or the value of the
+	 * {@code spring.expression.compiler.threshold} property.
+	 * @since 5.1
+	 */
+	public int getCompileThreshold() {
+		return this.compileThreshold;
+	}
+
 }
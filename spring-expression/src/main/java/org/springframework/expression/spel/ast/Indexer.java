@@ -88,6 +88,10 @@ public class Indexer extends SpelNodeImpl {
 	@Nullable
 	private IndexedType indexedType;
 
+	// Whether the last map key had to be converted to the key type of the map,
+	// which compiled code would not do
+	private boolean mapKeyConverted;
+
 
 	public Indexer(int pos, SpelNodeImpl expr) {
 		super(pos, expr);
@@ -146,6 +150,7 @@ public class Indexer extends SpelNodeImpl {
 			if (targetDescriptor.getMapKeyTypeDescriptor() != null) {
 				key = state.convertValue(key, targetDescriptor.getMapKeyTypeDescriptor());
 			}
+			this.mapKeyConverted = (key != index);
 			this.indexedType = IndexedType.MAP;
 			return new MapIndexingValueRef(state.getTypeConverter(), (Map<?, ?>) targetObject, key, targetDescriptor);
 		}
@@ -191,13 +196,14 @@ public class Indexer extends SpelNodeImpl {
 	@Override
 	public boolean isCompilable() {
 		if (this.indexedType == IndexedType.ARRAY) {
-			return (this.exitTypeDescriptor != null);
+			return (this.exitTypeDescriptor != null && isCompilableIntIndex());
 		}
 		else if (this.indexedType == IndexedType.LIST) {
-			return this.children[0].isCompilable();
+			return isCompilableIntIndex();
 		}
 		else if (this.indexedType == IndexedType.MAP) {
-			return (this.children[0] instanceof PropertyOrFieldReference || this.children[0].isCompilable());
+			return (!this.mapKeyConverted &&
+					(this.children[0] instanceof PropertyOrFieldReference || this.children[0].isCompilable()));
 		}
 		else if (this.indexedType == IndexedType.OBJECT) {
 			// If the string name is changing the accessor is clearly going to change (so compilation is not possible)
@@ -210,6 +216,41 @@ public class Indexer extends SpelNodeImpl {
 		return false;
 	}
 	
+	/**
+	 * Return whether the index is compilable and produces a value that compiled code
+	 * can use as an {@code int} without going through the conversion service.
+	 */
+	private boolean isCompilableIntIndex() {
+		SpelNodeImpl index = this.children[0];
+		if (!index.isCompilable()) {
+			return false;
+		}
+		String indexDescriptor = index.exitTypeDescriptor;
+		return ("I".equals(indexDescriptor) || "S".equals(indexDescriptor) || "B".equals(indexDescriptor) ||
+				"C".equals(indexDescriptor) || "Ljava/lang/Integer".equals(indexDescriptor));
+	}
+
+	/**
+	 * Generate the code for the index, evaluated against the root object like
+	 * the interpreted form does, leaving a value of the given type on the stack.
+	 */
+	private void generateIndexCode(MethodVisitor mv, CodeFlow cf, boolean intIndex) {
+		cf.enterTargetScope(1);
+		cf.enterCompilationScope();
+		this.children[0].generateCode(mv, cf);
+		String indexDescriptor = cf.lastDescriptor();
+		if (intIndex) {
+			if (!CodeFlow.isPrimitive(indexDescriptor)) {
+				CodeFlow.insertUnboxInsns(mv, 'I', indexDescriptor);
+			}
+		}
+		else {
+			CodeFlow.insertBoxIfNecessary(mv, indexDescriptor);
+		}
+		cf.exitCompilationScope();
+		cf.exitTargetScope();
+	}
+
 	@Override
 	public void generateCode(MethodVisitor mv, CodeFlow cf) {
 		String descriptor = cf.lastDescriptor();
@@ -254,18 +295,13 @@ public class Indexer extends SpelNodeImpl {
 						//depthPlusOne(exitTypeDescriptor)+"Ljava/lang/Object;");
 				insn = AALOAD;
 			}
-			SpelNodeImpl index = this.children[0];
-			cf.enterCompilationScope();
-			index.generateCode(mv, cf);
-			cf.exitCompilationScope();
+			generateIndexCode(mv, cf, true);
 			mv.visitInsn(insn);
 		}
 
 		else if (this.indexedType == IndexedType.LIST) {
 			mv.visitTypeInsn(CHECKCAST, "java/util/List");
-			cf.enterCompilationScope();
-			this.children[0].generateCode(mv, cf);
-			cf.exitCompilationScope();
+			generateIndexCode(mv, cf, true);
 			mv.visitMethodInsn(INVOKEINTERFACE, "java/util/List", "get", "(I)Ljava/lang/Object;", true);
 		}
 
@@ -279,9 +315,7 @@ public class Indexer extends SpelNodeImpl {
 				mv.visitLdcInsn(mapKeyName);
 			}
 			else {
-				cf.enterCompilationScope();
-				this.children[0].generateCode(mv, cf);
-				cf.exitCompilationScope();
+				generateIndexCode(mv, cf, false);
 			}
 			mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Map", "get", "(Ljava/lang/Object;)Ljava/lang/Object;", true);
 		} 
@@ -66,7 +66,11 @@ public class VariableReference extends SpelNodeImpl {
 	@Override
 	public TypedValue getValueInternal(ExpressionState state) throws SpelEvaluationException {
 		if (this.name.equals(THIS)) {
-			return state.getActiveContextObject();
+			TypedValue result = state.getActiveContextObject();
+			Object value = result.getValue();
+			this.exitTypeDescriptor = (value == null || !Modifier.isPublic(value.getClass().getModifiers()) ?
+					"Ljava/lang/Object" : CodeFlow.toDescriptorFromObject(value));
+			return result;
 		}
 		if (this.name.equals(ROOT)) {
 			TypedValue result = state.getRootContextObject();
@@ -148,6 +152,17 @@ public class VariableReference extends SpelNodeImpl {
 		if (this.name.equals(ROOT)) {
 			mv.visitVarInsn(ALOAD,1);
 		}
+		else if (this.name.equals(THIS)) {
+			String descriptor = cf.lastDescriptor();
+			if (descriptor != null) {
+				// The active context object is what the previous component left on the stack
+				cf.pushDescriptor(descriptor);
+				return;
+			}
+			// The active context object is the target, or the current element within
+			// a selection or projection
+			cf.loadTarget(mv);
+		}
 		else {
 			mv.visitVarInsn(ALOAD, 2);
 			mv.visitLdcInsn(name);
@@ -18,7 +18,10 @@ package org.springframework.expression.spel.standard;
 
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.WeakHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.logging.Log;
@@ -74,6 +77,9 @@ public class SpelCompiler implements Opcodes {
 	// classloader and the child is used to load the compiled expressions.
 	private static final Map<ClassLoader, SpelCompiler> compilers = new ConcurrentReferenceHashMap<>();
 
+	// Expressions with compilation enabled, for statistics
+	private static final Map<SpelExpression, Boolean> expressions = new WeakHashMap<>(64);
+
 	// The child ClassLoader used to load the compiled expression classes
 	private ChildClassLoader ccl;
 
@@ -241,6 +247,35 @@ public class SpelCompiler implements Opcodes {
 		}
 	}
 
+	/**
+	 * Return a snapshot of the compilation statistics of all expressions that
+	 * are in use and have been parsed with compilation enabled, e.g. to find
+	 * expressions that keep running interpreted in
+	 * {@link org.springframework.expression.spel.SpelCompilerMode#MIXED} mode.
+	 * @since 5.1
+	 * @see SpelExpression#getStatistics()
+	 */
+	public static List<SpelExpressionStatistics> getStatistics() {
+		List<SpelExpression> registered;
+		synchronized (expressions) {
+			registered = new ArrayList<>(expressions.keySet());
+		}
+		List<SpelExpressionStatistics> statistics = new ArrayList<>(registered.size());
+		for (SpelExpression expression : registered) {
+			statistics.add(expression.getStatistics());
+		}
+		return statistics;
+	}
+
+	/**
+	 * Register an expression for {@link #getStatistics()}, without keeping it alive.
+	 */
+	static void register(SpelExpression expression) {
+		synchronized (expressions) {
+			expressions.put(expression, Boolean.TRUE);
+		}
+	}
+
 
 	/**
 	 * A ChildClassLoader will load the generated compiled expression classes.
@@ -16,6 +16,9 @@
 
 package org.springframework.expression.spel.standard;
 
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
 import org.springframework.core.convert.TypeDescriptor;
 import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.EvaluationException;
@@ -46,9 +49,6 @@ import org.springframework.util.Assert;
  */
 public class SpelExpression implements Expression {
 
-	// Number of times to interpret an expression before compiling it
-	private static final int INTERPRETED_COUNT_THRESHOLD = 100;
-
 	// Number of times to try compiling an expression before giving up
 	private static final int FAILED_ATTEMPTS_THRESHOLD = 100;
 
@@ -75,6 +75,15 @@ public class SpelExpression implements Expression {
 	// give up trying to compile it when it just doesn't seem to be possible.
 	private volatile int failedAttempts = 0;
 
+	// Statistics, see getStatistics()
+	private final LongAdder totalInterpretedCount = new LongAdder();
+
+	private final AtomicLong compilationCount = new AtomicLong();
+
+	private final AtomicLong failedCompilationCount = new AtomicLong();
+
+	private final AtomicLong fallbackCount = new AtomicLong();
+
 
 	/**
 	 * Construct an expression, only used by the parser.
@@ -83,6 +92,9 @@ public class SpelExpression implements Expression {
 		this.expression = expression;
 		this.ast = ast;
 		this.configuration = configuration;
+		if (configuration.getCompilerMode() != SpelCompilerMode.OFF) {
+			SpelCompiler.register(this);
+		}
 	}
 
 
@@ -126,8 +138,7 @@ public class SpelExpression implements Expression {
 			catch (Throwable ex) {
 				// If running in mixed mode, revert to interpreted
 				if (this.configuration.getCompilerMode() == SpelCompilerMode.MIXED) {
-					this.interpretedCount = 0;
-					this.compiledAst = null;
+					fallBackToInterpreted();
 				}
 				else {
 					// Running in SpelCompilerMode.immediate mode - propagate exception to caller
@@ -156,15 +167,13 @@ public class SpelExpression implements Expression {
 					return (T) result;
 				}
 				else {
-					return ExpressionUtils.convertTypedValue(
-							getEvaluationContext(), new TypedValue(result), expectedResultType);
+					return convertCompiledResult(getEvaluationContext(), result, expectedResultType);
 				}
 			}
 			catch (Throwable ex) {
 				// If running in mixed mode, revert to interpreted
 				if (this.configuration.getCompilerMode() == SpelCompilerMode.MIXED) {
-					this.interpretedCount = 0;
-					this.compiledAst = null;
+					fallBackToInterpreted();
 				}
 				else {
 					// Running in SpelCompilerMode.immediate mode - propagate exception to caller
@@ -190,8 +199,7 @@ public class SpelExpression implements Expression {
 			catch (Throwable ex) {
 				// If running in mixed mode, revert to interpreted
 				if (this.configuration.getCompilerMode() == SpelCompilerMode.MIXED) {
-					this.interpretedCount = 0;
-					this.compiledAst = null;
+					fallBackToInterpreted();
 				}
 				else {
 					// Running in SpelCompilerMode.immediate mode - propagate exception to caller
@@ -218,15 +226,13 @@ public class SpelExpression implements Expression {
 					return (T)result;
 				}
 				else {
-					return ExpressionUtils.convertTypedValue(
-							getEvaluationContext(), new TypedValue(result), expectedResultType);
+					return convertCompiledResult(getEvaluationContext(), result, expectedResultType);
 				}
 			}
 			catch (Throwable ex) {
 				// If running in mixed mode, revert to interpreted
 				if (this.configuration.getCompilerMode() == SpelCompilerMode.MIXED) {
-					this.interpretedCount = 0;
-					this.compiledAst = null;
+					fallBackToInterpreted();
 				}
 				else {
 					// Running in SpelCompilerMode.immediate mode - propagate exception to caller
@@ -256,8 +262,7 @@ public class SpelExpression implements Expression {
 			catch (Throwable ex) {
 				// If running in mixed mode, revert to interpreted
 				if (this.configuration.getCompilerMode() == SpelCompilerMode.MIXED) {
-					this.interpretedCount = 0;
-					this.compiledAst = null;
+					fallBackToInterpreted();
 				}
 				else {
 					// Running in SpelCompilerMode.immediate mode - propagate exception to caller
@@ -283,7 +288,7 @@ public class SpelExpression implements Expression {
 				TypedValue contextRoot = context.getRootObject();
 				Object result = this.compiledAst.getValue(contextRoot.getValue(), context);
 				if (expectedResultType != null) {
-					return ExpressionUtils.convertTypedValue(context, new TypedValue(result), expectedResultType);
+					return convertCompiledResult(context, result, expectedResultType);
 				}
 				else {
 					return (T) result;
@@ -292,8 +297,7 @@ public class SpelExpression implements Expression {
 			catch (Throwable ex) {
 				// If running in mixed mode, revert to interpreted
 				if (this.configuration.getCompilerMode() == SpelCompilerMode.MIXED) {
-					this.interpretedCount = 0;
-					this.compiledAst = null;
+					fallBackToInterpreted();
 				}
 				else {
 					// Running in SpelCompilerMode.immediate mode - propagate exception to caller
@@ -320,8 +324,7 @@ public class SpelExpression implements Expression {
 			catch (Throwable ex) {
 				// If running in mixed mode, revert to interpreted
 				if (this.configuration.getCompilerMode() == SpelCompilerMode.MIXED) {
-					this.interpretedCount = 0;
-					this.compiledAst = null;
+					fallBackToInterpreted();
 				}
 				else {
 					// Running in SpelCompilerMode.immediate mode - propagate exception to caller
@@ -348,7 +351,7 @@ public class SpelExpression implements Expression {
 			try {
 				Object result = this.compiledAst.getValue(rootObject, context);
 				if (expectedResultType != null) {
-					return ExpressionUtils.convertTypedValue(context, new TypedValue(result), expectedResultType);
+					return convertCompiledResult(context, result, expectedResultType);
 				}
 				else {
 					return (T) result;
@@ -357,8 +360,7 @@ public class SpelExpression implements Expression {
 			catch (Throwable ex) {
 				// If running in mixed mode, revert to interpreted
 				if (this.configuration.getCompilerMode() == SpelCompilerMode.MIXED) {
-					this.interpretedCount = 0;
-					this.compiledAst = null;
+					fallBackToInterpreted();
 				}
 				else {
 					// Running in SpelCompilerMode.immediate mode - propagate exception to caller
@@ -480,6 +482,7 @@ public class SpelExpression implements Expression {
 	 */
 	private void checkCompile(ExpressionState expressionState) {
 		this.interpretedCount++;
+		this.totalInterpretedCount.increment();
 		SpelCompilerMode compilerMode = expressionState.getConfiguration().getCompilerMode();
 		if (compilerMode != SpelCompilerMode.OFF) {
 			if (compilerMode == SpelCompilerMode.IMMEDIATE) {
@@ -489,7 +492,7 @@ public class SpelExpression implements Expression {
 			}
 			else {
 				// compilerMode = SpelCompilerMode.MIXED
-				if (this.interpretedCount > INTERPRETED_COUNT_THRESHOLD) {
+				if (this.interpretedCount > expressionState.getConfiguration().getCompileThreshold()) {
 					compileExpression();
 				}
 			}
@@ -515,8 +518,12 @@ public class SpelExpression implements Expression {
 				}
 				SpelCompiler compiler = SpelCompiler.getCompiler(this.configuration.getCompilerClassLoader());
 				this.compiledAst = compiler.compile(this.ast);
-				if (this.compiledAst == null) {
+				if (this.compiledAst != null) {
+					this.compilationCount.incrementAndGet();
+				}
+				else {
 					this.failedAttempts++;
+					this.failedCompilationCount.incrementAndGet();
 				}
 			}
 		}
@@ -534,6 +541,29 @@ public class SpelExpression implements Expression {
 		this.failedAttempts = 0;
 	}
 
+	/**
+	 * Revert to the interpreter after a failure of the compiled form in
+	 * {@link SpelCompilerMode#MIXED} mode; the expression may be compiled again later.
+	 */
+	private void fallBackToInterpreted() {
+		this.interpretedCount = 0;
+		this.compiledAst = null;
+		this.fallbackCount.incrementAndGet();
+	}
+
+	/**
+	 * Return a snapshot of the compilation statistics of this expression:
+	 * how often it has been interpreted, compiled, failed to compile, and
+	 * fallen back to interpretation after a failure of its compiled form.
+	 * @since 5.1
+	 * @see SpelCompiler#getStatistics()
+	 */
+	public SpelExpressionStatistics getStatistics() {
+		return new SpelExpressionStatistics(this.expression, this.configuration.getCompilerMode(),
+				this.compiledAst != null, this.totalInterpretedCount.sum(), this.compilationCount.get(),
+				this.failedCompilationCount.get(), this.fallbackCount.get());
+	}
+
 	/**
 	 * Return the Abstract Syntax Tree for the expression.
 	 */
@@ -551,6 +581,23 @@ public class SpelExpression implements Expression {
 		return this.ast.toStringAST();
 	}
 
+	/**
+	 * Convert the result of the compiled form to the expected result type.
+	 * Compiled code returns plain objects: unless a conversion is actually
+	 * required, return the result as-is rather than wrapping it into a
+	 * {@link TypedValue} for the type converter.
+	 */
+	@SuppressWarnings("unchecked")
+	@Nullable
+	private static <T> T convertCompiledResult(
+			EvaluationContext context, @Nullable Object result, Class<T> expectedResultType) {
+
+		if (result != null && expectedResultType.isInstance(result)) {
+			return (T) result;
+		}
+		return ExpressionUtils.convertTypedValue(context, new TypedValue(result), expectedResultType);
+	}
+
 	private TypedValue toTypedValue(@Nullable Object object) {
 		return (object != null ? new TypedValue(object) : TypedValue.NULL);
 	}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.expression.spel.standard;
+
+import org.springframework.expression.spel.SpelCompilerMode;
+
+/**
+ * Snapshot of the compilation statistics of a {@link SpelExpression}.
+ *
+ * @since 5.1
+ * @see SpelExpression#getStatistics()
+ * @see SpelCompiler#getStatistics()
+ */
+public final class SpelExpressionStatistics {
+
+	private final String expressionString;
+
+	private final SpelCompilerMode compilerMode;
+
+	private final boolean compiled;
+
+	private final long interpretedCount;
+
+	private final long compilationCount;
+
+	private final long failedCompilationCount;
+
+	private final long fallbackCount;
+
+
+	SpelExpressionStatistics(String expressionString, SpelCompilerMode compilerMode, boolean compiled,
+			long interpretedCount, long compilationCount, long failedCompilationCount, long fallbackCount) {
+
+		this.expressionString = expressionString;
+		this.compilerMode = compilerMode;
+		this.compiled = compiled;
+		this.interpretedCount = interpretedCount;
+		this.compilationCount = compilationCount;
+		this.failedCompilationCount = failedCompilationCount;
+		this.fallbackCount = fallbackCount;
+	}
+
+
+	/**
+	 * Return the original string of the expression.
+	 */
+	public String getExpressionString() {
+		return this.expressionString;
+	}
+
+	/**
+	 * Return the compiler mode of the expression.
+	 */
+	public SpelCompilerMode getCompilerMode() {
+		return this.compilerMode;
+	}
+
+	/**
+	 * Return whether the expression currently runs in compiled form.
+	 */
+	public boolean isCompiled() {
+		return this.compiled;
+	}
+
+	/**
+	 * Return the number of times the expression has been evaluated by the interpreter.
+	 */
+	public long getInterpretedCount() {
+		return this.interpretedCount;
+	}
+
+	/**
+	 * Return the number of times the expression has been compiled successfully.
+	 */
+	public long getCompilationCount() {
+		return this.compilationCount;
+	}
+
+	/**
+	 * Return the number of failed attempts to compile the expression,
+	 * e.g. because it contains nodes that cannot be compiled.
+	 */
+	public long getFailedCompilationCount() {
+		return this.failedCompilationCount;
+	}
+
+	/**
+	 * Return the number of times a compiled form of the expression failed
+	 * and the expression fell back to being interpreted.
+	 */
+	public long getFallbackCount() {
+		return this.fallbackCount;
+	}
+
+
+	@Override
+	public String toString() {
+		return "SpelExpressionStatistics [expression='" + this.expressionString + "', compilerMode=" +
+				this.compilerMode + ", compiled=" + this.compiled + ", interpreted=" + this.interpretedCount +
+				", compilations=" + this.compilationCount + ", failedCompilations=" +
+				this.failedCompilationCount + ", fallbacks=" + this.fallbackCount + "]";
+	}
+
+}
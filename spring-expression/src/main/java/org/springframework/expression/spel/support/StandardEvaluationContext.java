@@ -49,6 +49,11 @@ import org.springframework.util.Assert;
  */
 public class StandardEvaluationContext implements EvaluationContext {
 
+	// Stateless defaults, shared across contexts
+	private static final TypeComparator DEFAULT_TYPE_COMPARATOR = new StandardTypeComparator();
+
+	private static final OperatorOverloader DEFAULT_OPERATOR_OVERLOADER = new StandardOperatorOverloader();
+
 	private TypedValue rootObject = TypedValue.NULL;
 
 	@Nullable
@@ -72,9 +77,9 @@ public class StandardEvaluationContext implements EvaluationContext {
 	@Nullable
 	private TypeConverter typeConverter;
 
-	private TypeComparator typeComparator = new StandardTypeComparator();
+	private TypeComparator typeComparator = DEFAULT_TYPE_COMPARATOR;
 
-	private OperatorOverloader operatorOverloader = new StandardOperatorOverloader();
+	private OperatorOverloader operatorOverloader = DEFAULT_OPERATOR_OVERLOADER;
 
 	private final Map<String, Object> variables = new HashMap<>();
 
@@ -246,6 +251,33 @@ public class StandardEvaluationContext implements EvaluationContext {
 		resolver.registerMethodFilter(type, filter);
 	}
 
+	/**
+	 * Apply the internal delegates of this instance to the specified
+	 * evaluation context: property accessors, constructor and method resolvers,
+	 * bean resolver, type locator, type converter, type comparator and
+	 * operator overloader.
+	 * <p>Evaluation contexts are typically created per invocation, for instance
+	 * to expose method arguments as variables. Applying the delegates of a
+	 * long-lived context lets such short-lived contexts share its resolvers
+	 * and accessors, along with the reflective metadata they cache, rather
+	 * than initializing and warming up fresh ones for every evaluation.
+	 * @param evaluationContext the evaluation context to apply the delegates to
+	 * @since 5.1
+	 */
+	public void applyDelegatesTo(StandardEvaluationContext evaluationContext) {
+		// Triggers initialization for default delegates
+		evaluationContext.setConstructorResolvers(new ArrayList<>(getConstructorResolvers()));
+		evaluationContext.setMethodResolvers(new ArrayList<>(getMethodResolvers()));
+		evaluationContext.setPropertyAccessors(new ArrayList<>(getPropertyAccessors()));
+		evaluationContext.setTypeLocator(getTypeLocator());
+		evaluationContext.setTypeConverter(getTypeConverter());
+
+		evaluationContext.beanResolver = this.beanResolver;
+		evaluationContext.operatorOverloader = this.operatorOverloader;
+		evaluationContext.reflectiveMethodResolver = this.reflectiveMethodResolver;
+		evaluationContext.typeComparator = this.typeComparator;
+	}
+
 
 	private List<PropertyAccessor> initPropertyAccessors() {
 		List<PropertyAccessor> accessors = this.propertyAccessors;
@@ -20,6 +20,7 @@ import java.io.IOException;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -4784,6 +4785,182 @@ public class SpelCompilationCoverageTests extends AbstractExpressionTests {
 		assertIsCompiled(exp);
 	}
 
+	@Test
+	public void selection() throws Exception {
+		List<String> strings = Arrays.asList("a", "bb", "ccc", "dddd");
+
+		expression = parser.parseExpression("?[length() > 2]");
+		assertEquals("[ccc, dddd]", expression.getValue(strings).toString());
+		assertCanCompile(expression);
+		assertEquals("[ccc, dddd]", expression.getValue(strings).toString());
+		assertEquals("[eee]", expression.getValue(Arrays.asList("e", "eee")).toString());
+		assertEquals("[]", expression.getValue(Collections.emptyList()).toString());
+
+		expression = parser.parseExpression("^[length() > 1]");
+		assertEquals("bb", expression.getValue(strings));
+		assertCanCompile(expression);
+		assertEquals("bb", expression.getValue(strings));
+		assertNull(expression.getValue(Arrays.asList("a")));
+
+		expression = parser.parseExpression("$[length() > 1]");
+		assertEquals("dddd", expression.getValue(strings));
+		assertCanCompile(expression);
+		assertEquals("dddd", expression.getValue(strings));
+		assertNull(expression.getValue(Arrays.asList("a")));
+
+		expression = parser.parseExpression("?[#this == 'bb' or #this.startsWith('c')].size()");
+		assertEquals(2, expression.getValue(strings));
+		assertCanCompile(expression);
+		assertEquals(2, expression.getValue(strings));
+
+		// Nested selection, the inner criteria is evaluated against the inner element
+		StandardEvaluationContext context = new StandardEvaluationContext();
+		context.setVariable("words", Arrays.asList(Arrays.asList("x", "yy"), Arrays.asList("zzz")));
+		expression = parser.parseExpression("#words.?[?[length() > 1].size() > 0].size()");
+		assertEquals(2, expression.getValue(context));
+		assertCanCompile(expression);
+		assertEquals(2, expression.getValue(context));
+
+		// Selection over an array or a map is not compiled
+		expression = parser.parseExpression("?[length() > 2]");
+		assertEquals(1, ((String[]) expression.getValue(new String[] {"a", "bbb"})).length);
+		assertCantCompile(expression);
+
+		// Result of the criteria must be boolean
+		expression = parser.parseExpression("?[length()]");
+		try {
+			expression.getValue(strings);
+			fail();
+		}
+		catch (SpelEvaluationException ex) {
+			assertEquals(SpelMessage.RESULT_OF_SELECTION_CRITERIA_IS_NOT_BOOLEAN, ex.getMessageCode());
+		}
+		assertCantCompile(expression);
+	}
+
+	@Test
+	public void selectionNullSafe() throws Exception {
+		StandardEvaluationContext context = new StandardEvaluationContext();
+		context.setVariable("strings", Arrays.asList("a", "bb"));
+		expression = parser.parseExpression("#strings?.?[length() > 1]");
+		assertEquals("[bb]", expression.getValue(context).toString());
+		assertCanCompile(expression);
+		assertEquals("[bb]", expression.getValue(context).toString());
+		context.setVariable("strings", null);
+		assertNull(expression.getValue(context));
+	}
+
+	@Test
+	public void projection() throws Exception {
+		List<String> strings = Arrays.asList("a", "bb", "ccc");
+
+		expression = parser.parseExpression("![length()]");
+		assertEquals("[1, 2, 3]", expression.getValue(strings).toString());
+		assertCanCompile(expression);
+		assertEquals("[1, 2, 3]", expression.getValue(strings).toString());
+		assertEquals("[4]", expression.getValue(Collections.singleton("dddd")).toString());
+
+		expression = parser.parseExpression("![#this.toUpperCase() + '!']");
+		assertEquals("[A!, BB!, CCC!]", expression.getValue(strings).toString());
+		assertCanCompile(expression);
+		assertEquals("[A!, BB!, CCC!]", expression.getValue(strings).toString());
+
+		expression = parser.parseExpression("?[length() > 1].![length() * 2]");
+		assertEquals("[4, 6]", expression.getValue(strings).toString());
+		assertCanCompile(expression);
+		assertEquals("[4, 6]", expression.getValue(strings).toString());
+
+		StandardEvaluationContext context = new StandardEvaluationContext();
+		context.setVariable("strings", null);
+		expression = parser.parseExpression("#strings?.![length()]");
+		context.setVariable("strings", strings);
+		assertEquals("[1, 2, 3]", expression.getValue(context).toString());
+		assertCanCompile(expression);
+		context.setVariable("strings", null);
+		assertNull(expression.getValue(context));
+
+		// Projection of an array is not compiled
+		expression = parser.parseExpression("![length()]");
+		assertEquals(2, ((Object[]) expression.getValue(new String[] {"a", "bbb"})).length);
+		assertCantCompile(expression);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void inlineMap() throws Exception {
+		expression = parser.parseExpression("{a:1,'b':'two',c:{3,4},d:{e:null}}");
+		Object value = expression.getValue();
+		assertEquals("{a=1, b=two, c=[3, 4], d={e=null}}", value.toString());
+		assertCanCompile(expression);
+		Object compiledValue = expression.getValue();
+		assertEquals("{a=1, b=two, c=[3, 4], d={e=null}}", compiledValue.toString());
+		assertSame(compiledValue, expression.getValue());
+		try {
+			((Map<Object, Object>) compiledValue).put("x", "y");
+			fail();
+		}
+		catch (UnsupportedOperationException ex) {
+			// constant map is unmodifiable, like the interpreted one
+		}
+
+		StandardEvaluationContext context = new StandardEvaluationContext();
+		context.setVariable("name", "foo");
+		expression = parser.parseExpression("{name:#name,length:#name.length(),#name:true}");
+		assertEquals("{name=foo, length=3, foo=true}", expression.getValue(context).toString());
+		assertCanCompile(expression);
+		assertEquals("{name=foo, length=3, foo=true}", expression.getValue(context).toString());
+		context.setVariable("name", "barbaz");
+		assertEquals("{name=barbaz, length=6, barbaz=true}", expression.getValue(context).toString());
+	}
+
+	@Test
+	public void indexerWithNonLiteralKeys() throws Exception {
+		StandardEvaluationContext context = new StandardEvaluationContext();
+		Map<Object, String> map = new HashMap<>();
+		map.put("one", "1");
+		map.put(2, "2");
+		context.setVariable("map", map);
+		context.setVariable("key", "one");
+		context.setVariable("list", Arrays.asList("a", "b", "c"));
+		context.setVariable("array", new String[] {"x", "y", "z"});
+		context.setVariable("index", 2);
+
+		expression = parser.parseExpression("#map[#key]");
+		assertEquals("1", expression.getValue(context));
+		assertCanCompile(expression);
+		assertEquals("1", expression.getValue(context));
+
+		expression = parser.parseExpression("#map[2]");
+		assertEquals("2", expression.getValue(context));
+		assertCanCompile(expression);
+		assertEquals("2", expression.getValue(context));
+
+		expression = parser.parseExpression("#list[#index]");
+		assertEquals("c", expression.getValue(context));
+		assertCanCompile(expression);
+		assertEquals("c", expression.getValue(context));
+
+		expression = parser.parseExpression("#array[#index - 1]");
+		assertEquals("y", expression.getValue(context));
+		assertCanCompile(expression);
+		assertEquals("y", expression.getValue(context));
+
+		// Index that only works through conversion
+		context.setVariable("index", "1");
+		expression = parser.parseExpression("#list[#index]");
+		assertEquals("b", expression.getValue(context));
+		assertCantCompile(expression);
+
+		// Map key that needs converting to the declared key type
+		expression = parser.parseExpression("numbers['1']");
+		assertEquals("one", expression.getValue(new NumbersHolder()));
+		assertCantCompile(expression);
+		expression = parser.parseExpression("numbers[1]");
+		assertEquals("one", expression.getValue(new NumbersHolder()));
+		assertCanCompile(expression);
+		assertEquals("one", expression.getValue(new NumbersHolder()));
+	}
+
 	@Test
 	public void repeatedCompilation() throws Exception {
 		// Verifying that after a number of compilations, the classloaders
@@ -5852,6 +6029,14 @@ public class SpelCompilationCoverageTests extends AbstractExpressionTests {
 	}
 
 
+	public static class NumbersHolder {
+
+		public Map<Integer, String> getNumbers() {
+			return Collections.singletonMap(1, "one");
+		}
+	}
+
+
 	public static class Foo {
 
 		public String bar() {
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.expression.spel.standard;
+
+import org.junit.Test;
+
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the compile threshold and the compilation statistics of {@link SpelExpression}.
+ */
+public class SpelExpressionStatisticsTests {
+
+	private final SpelExpressionParser parser = new SpelExpressionParser(new SpelParserConfiguration(
+			SpelCompilerMode.MIXED, getClass().getClassLoader(), false, false, Integer.MAX_VALUE, 3));
+
+
+	@Test
+	public void compileAfterThreshold() {
+		SpelExpression expression = this.parser.parseRaw("name.length()");
+		Person person = new Person("foo");
+
+		for (int i = 0; i < 3; i++) {
+			assertEquals(3, expression.getValue(person));
+			assertFalse(expression.getStatistics().isCompiled());
+		}
+		assertEquals(3, expression.getValue(person));
+		assertEquals(3, expression.getValue(person));
+
+		SpelExpressionStatistics statistics = expression.getStatistics();
+		assertEquals("name.length()", statistics.getExpressionString());
+		assertEquals(SpelCompilerMode.MIXED, statistics.getCompilerMode());
+		assertTrue(statistics.isCompiled());
+		assertEquals(4, statistics.getInterpretedCount());
+		assertEquals(1, statistics.getCompilationCount());
+		assertEquals(0, statistics.getFailedCompilationCount());
+		assertEquals(0, statistics.getFallbackCount());
+	}
+
+	@Test
+	public void fallBackToInterpreted() {
+		SpelExpression expression = this.parser.parseRaw("name");
+		for (int i = 0; i < 4; i++) {
+			expression.getValue(new Person("foo"));
+		}
+		assertTrue(expression.getStatistics().isCompiled());
+
+		assertEquals("bar", expression.getValue(new Pet("bar")));
+		SpelExpressionStatistics statistics = expression.getStatistics();
+		assertFalse(statistics.isCompiled());
+		assertEquals(1, statistics.getFallbackCount());
+		assertEquals(5, statistics.getInterpretedCount());
+	}
+
+	@Test
+	public void failedCompilation() {
+		SpelExpression expression = this.parser.parseRaw("#counter = #counter + 1");
+		StandardEvaluationContext context = new StandardEvaluationContext();
+		context.setVariable("counter", 0);
+		for (int i = 0; i < 6; i++) {
+			expression.getValue(context);
+		}
+
+		SpelExpressionStatistics statistics = expression.getStatistics();
+		assertFalse(statistics.isCompiled());
+		assertEquals(6, statistics.getInterpretedCount());
+		assertEquals(0, statistics.getCompilationCount());
+		assertEquals(3, statistics.getFailedCompilationCount());
+	}
+
+	@Test
+	public void registeredWithCompiler() {
+		SpelExpression expression = this.parser.parseRaw("'registered'");
+		SpelExpression notCompiled = new SpelExpressionParser().parseRaw("'not registered'");
+
+		assertTrue(SpelCompiler.getStatistics().stream()
+				.anyMatch(statistics -> statistics.getExpressionString().equals("'registered'")));
+		assertFalse(SpelCompiler.getStatistics().stream()
+				.anyMatch(statistics -> statistics.getExpressionString().equals("'not registered'")));
+		assertNotNull(expression);
+		assertNotNull(notCompiled);
+	}
+
+	@Test
+	public void frameworkExpressionsUseMixedMode() {
+		SpelParserConfiguration configuration = SpelParserConfiguration.forFrameworkExpressions(null);
+		assertEquals(SpelCompilerMode.MIXED, configuration.getCompilerMode());
+		assertEquals(SpelParserConfiguration.DEFAULT_COMPILE_THRESHOLD, configuration.getCompileThreshold());
+	}
+
+
+	public static class Person {
+
+		private final String name;
+
+		public Person(String name) {
+			this.name = name;
+		}
+
+		public String getName() {
+			return this.name;
+		}
+	}
+
+
+	public static class Pet {
+
+		private final String name;
+
+		public Pet(String name) {
+			this.name = name;
+		}
+
+		public String getName() {
+			return this.name;
+		}
+	}
+
+}
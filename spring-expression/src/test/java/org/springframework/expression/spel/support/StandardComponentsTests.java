@@ -46,6 +46,31 @@ public class StandardComponentsTests {
 		assertEquals(tl, context.getTypeLocator());
 	}
 
+	@Test
+	public void testApplyDelegatesTo() {
+		StandardEvaluationContext original = new StandardEvaluationContext();
+		TypeComparator tc = new StandardTypeComparator();
+		original.setTypeComparator(tc);
+		original.addPropertyAccessor(new ReflectivePropertyAccessor());
+
+		StandardEvaluationContext context = new StandardEvaluationContext("root");
+		context.setVariable("foo", "bar");
+		original.applyDelegatesTo(context);
+		assertSame(tc, context.getTypeComparator());
+		assertSame(original.getTypeLocator(), context.getTypeLocator());
+		assertSame(original.getTypeConverter(), context.getTypeConverter());
+		assertEquals(original.getPropertyAccessors(), context.getPropertyAccessors());
+		assertEquals(original.getMethodResolvers(), context.getMethodResolvers());
+		assertEquals(original.getConstructorResolvers(), context.getConstructorResolvers());
+		assertEquals("root", context.getRootObject().getValue());
+		assertEquals("bar", context.lookupVariable("foo"));
+
+		// Lists are copied, so the original context is not affected
+		context.addPropertyAccessor(new ReflectivePropertyAccessor());
+		assertEquals(2, original.getPropertyAccessors().size());
+		assertEquals(3, context.getPropertyAccessors().size());
+	}
+
 	@Test(expected = EvaluationException.class)
 	public void testStandardOperatorOverloader() throws EvaluationException {
 		OperatorOverloader oo = new StandardOperatorOverloader();
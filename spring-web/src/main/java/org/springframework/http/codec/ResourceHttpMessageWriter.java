@@ -92,6 +92,21 @@ public class ResourceHttpMessageWriter implements HttpMessageWriter<Resource> {
 	}
 
 
+	/**
+	 * Set the size from which files, or regions of files, are memory-mapped
+	 * when they cannot be written through {@link ZeroCopyHttpOutputMessage},
+	 * e.g. for multiple byte ranges, or {@code -1} to never map files (the default).
+	 * @param memoryMappingThreshold the size in bytes from which files are mapped
+	 * @since 5.1
+	 * @see ResourceEncoder#setMemoryMappingThreshold
+	 * @see ResourceRegionEncoder#setMemoryMappingThreshold
+	 */
+	public void setMemoryMappingThreshold(long memoryMappingThreshold) {
+		this.encoder.setMemoryMappingThreshold(memoryMappingThreshold);
+		this.regionEncoder.setMemoryMappingThreshold(memoryMappingThreshold);
+	}
+
+
 	@Override
 	public boolean canWrite(ResolvableType elementType, @Nullable MediaType mediaType) {
 		return this.encoder.canEncode(elementType, mediaType);
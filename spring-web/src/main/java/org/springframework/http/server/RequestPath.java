@@ -60,4 +60,14 @@ public interface RequestPath extends PathContainer {
 		return new DefaultRequestPath(uri, contextPath);
 	}
 
+	/**
+	 * Create a new {@code RequestPath} from the given raw (encoded) path.
+	 * @param rawPath the raw path of the request
+	 * @param contextPath the context path, if any
+	 * @since 5.1
+	 */
+	static RequestPath parse(String rawPath, @Nullable String contextPath) {
+		return new DefaultRequestPath(rawPath, contextPath);
+	}
+
 }
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.util;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.http.server.RequestPath;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StringUtils;
+
+/**
+ * Utility methods to parse the path of a Servlet request into a {@link RequestPath}
+ * once and cache it in a request attribute, for matching against pre-parsed
+ * {@link org.springframework.web.util.pattern.PathPattern PathPatterns}.
+ *
+ * <p>The {@link RequestPath#contextPath() context path} of the parsed path
+ * covers the Servlet context path and, for prefix-based Servlet mappings such as
+ * {@code "/app/*"}, also the Servlet path, so that
+ * {@link RequestPath#pathWithinApplication()} corresponds to the lookup path
+ * that {@link UrlPathHelper} would determine, only not decoded.
+ *
+ * @since 5.1
+ */
+public abstract class ServletRequestPathUtils {
+
+	/**
+	 * Name of the request attribute that holds the parsed {@link RequestPath}.
+	 */
+	public static final String PATH_ATTRIBUTE = ServletRequestPathUtils.class.getName() + ".PATH";
+
+
+	/**
+	 * Return the {@link RequestPath} previously parsed for the given request, or
+	 * parse it and cache it in the request attribute {@link #PATH_ATTRIBUTE}.
+	 * <p>A cached path is re-parsed if the request URI has changed in the meantime,
+	 * e.g. as a result of a forward or an include.
+	 * @param request the current request
+	 * @return the parsed request path
+	 */
+	public static RequestPath parseAndCache(HttpServletRequest request) {
+		String requestUri = getRequestUri(request);
+		Object cached = request.getAttribute(PATH_ATTRIBUTE);
+		if (cached instanceof RequestPath && ((RequestPath) cached).value().equals(requestUri)) {
+			return (RequestPath) cached;
+		}
+		RequestPath requestPath = RequestPath.parse(requestUri, getContextPath(request, requestUri));
+		request.setAttribute(PATH_ATTRIBUTE, requestPath);
+		return requestPath;
+	}
+
+	/**
+	 * Return the {@link RequestPath} cached for the given request, if any.
+	 * @param request the current request
+	 * @return the cached request path, or {@code null} if none
+	 */
+	@Nullable
+	public static RequestPath getCachedPath(HttpServletRequest request) {
+		Object cached = request.getAttribute(PATH_ATTRIBUTE);
+		return (cached instanceof RequestPath ? (RequestPath) cached : null);
+	}
+
+	/**
+	 * Remove the {@link RequestPath} cached for the given request, if any.
+	 * @param request the current request
+	 */
+	public static void clearCachedPath(HttpServletRequest request) {
+		request.removeAttribute(PATH_ATTRIBUTE);
+	}
+
+
+	private static String getRequestUri(HttpServletRequest request) {
+		String requestUri = (String) request.getAttribute(WebUtils.INCLUDE_REQUEST_URI_ATTRIBUTE);
+		if (requestUri == null) {
+			requestUri = request.getRequestURI();
+		}
+		return (requestUri != null ? requestUri : "");
+	}
+
+	@Nullable
+	private static String getContextPath(HttpServletRequest request, String requestUri) {
+		boolean include = (request.getAttribute(WebUtils.INCLUDE_REQUEST_URI_ATTRIBUTE) != null);
+		String contextPath = (include ?
+				(String) request.getAttribute(WebUtils.INCLUDE_CONTEXT_PATH_ATTRIBUTE) : request.getContextPath());
+		if (!StringUtils.hasLength(contextPath) || "/".equals(contextPath) || !requestUri.startsWith(contextPath)) {
+			contextPath = "";
+		}
+		String pathInfo = (include ?
+				(String) request.getAttribute(WebUtils.INCLUDE_PATH_INFO_ATTRIBUTE) : request.getPathInfo());
+		String servletPath = (include ?
+				(String) request.getAttribute(WebUtils.INCLUDE_SERVLET_PATH_ATTRIBUTE) : request.getServletPath());
+		if (pathInfo != null && StringUtils.hasLength(servletPath) && !servletPath.endsWith("/")) {
+			// Prefix-based Servlet mapping: the Servlet path is part of the context
+			String prefix = contextPath + servletPath;
+			if (requestUri.startsWith(prefix) &&
+					(requestUri.length() == prefix.length() || requestUri.charAt(prefix.length()) == '/')) {
+				contextPath = prefix;
+			}
+		}
+		return (StringUtils.hasLength(contextPath) ? contextPath : null);
+	}
+
+}
@@ -20,6 +20,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.BeanCreationException;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.config.BeanDefinitionHolder;
 import org.springframework.beans.factory.support.DefaultListableBeanFactory;
@@ -75,6 +76,41 @@ public class RequestScopedProxyTests {
 		}
 	}
 
+	@Test
+	public void testGetFromScopeAcrossRequests() throws Exception {
+		String name = "requestScopedObject";
+		TestBean bean = (TestBean) this.beanFactory.getBean(name);
+
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+		try {
+			bean.setAge(42);
+			assertEquals(42, bean.getAge());
+			assertEquals(42, ((TestBean) request.getAttribute("scopedTarget." + name)).getAge());
+		}
+		finally {
+			RequestContextHolder.setRequestAttributes(null);
+		}
+
+		MockHttpServletRequest request2 = new MockHttpServletRequest();
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request2));
+		try {
+			assertEquals(0, bean.getAge());
+			assertNotSame(request.getAttribute("scopedTarget." + name), request2.getAttribute("scopedTarget." + name));
+		}
+		finally {
+			RequestContextHolder.setRequestAttributes(null);
+		}
+
+		try {
+			bean.getAge();
+			fail("Should have thrown BeanCreationException");
+		}
+		catch (BeanCreationException ex) {
+			// expected: no request bound to the thread
+		}
+	}
+
 	@Test
 	public void testGetFromScopeThroughDynamicProxy() throws Exception {
 		String name = "requestScopedProxy";
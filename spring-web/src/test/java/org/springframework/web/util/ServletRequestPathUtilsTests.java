@@ -0,0 +1,87 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.util;
+
+import org.junit.Test;
+
+import org.springframework.http.server.RequestPath;
+import org.springframework.mock.web.test.MockHttpServletRequest;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link ServletRequestPathUtils}.
+ */
+public class ServletRequestPathUtilsTests {
+
+	@Test
+	public void parseDefaultServletMapping() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/app/a/b");
+		request.setContextPath("/app");
+		request.setServletPath("/a/b");
+
+		RequestPath path = ServletRequestPathUtils.parseAndCache(request);
+		assertEquals("/app", path.contextPath().value());
+		assertEquals("/a/b", path.pathWithinApplication().value());
+	}
+
+	@Test
+	public void parsePrefixServletMapping() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/app/api/a%20b");
+		request.setContextPath("/app");
+		request.setServletPath("/api");
+		request.setPathInfo("/a b");
+
+		RequestPath path = ServletRequestPathUtils.parseAndCache(request);
+		assertEquals("/app/api", path.contextPath().value());
+		assertEquals("/a%20b", path.pathWithinApplication().value());
+	}
+
+	@Test
+	public void parseRootContextPath() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/a");
+		request.setContextPath("/");
+
+		assertEquals("/a", ServletRequestPathUtils.parseAndCache(request).pathWithinApplication().value());
+	}
+
+	@Test
+	public void cachedUntilRequestUriChanges() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/a");
+		RequestPath path = ServletRequestPathUtils.parseAndCache(request);
+
+		assertSame(path, ServletRequestPathUtils.parseAndCache(request));
+		assertSame(path, ServletRequestPathUtils.getCachedPath(request));
+
+		request.setRequestURI("/b");
+		assertEquals("/b", ServletRequestPathUtils.parseAndCache(request).value());
+
+		ServletRequestPathUtils.clearCachedPath(request);
+		assertNull(ServletRequestPathUtils.getCachedPath(request));
+	}
+
+	@Test
+	public void parseInclude() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/app/a");
+		request.setContextPath("/app");
+		request.setAttribute(WebUtils.INCLUDE_REQUEST_URI_ATTRIBUTE, "/app/included");
+		request.setAttribute(WebUtils.INCLUDE_CONTEXT_PATH_ATTRIBUTE, "/app");
+
+		assertEquals("/included", ServletRequestPathUtils.parseAndCache(request).pathWithinApplication().value());
+	}
+
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.servlet.mvc.method.annotation;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.context.support.StaticWebApplicationContext;
+import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.util.ServletRequestPathUtils;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+/**
+ * Benchmarks for {@link RequestMappingHandlerMapping#getHandler} against a
+ * configurable number of registered mappings, half of them literal paths and
+ * half of them URI templates.
+ *
+ * @since 5.1
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+@State(Scope.Benchmark)
+public class RequestMappingHandlerMappingBenchmark {
+
+	@Param({"20", "2000"})
+	public int mappingCount;
+
+	@Param({"false", "true"})
+	public boolean pathPatterns;
+
+	public RequestMappingHandlerMapping handlerMapping;
+
+	public MockHttpServletRequest literalRequest;
+
+	public MockHttpServletRequest patternRequest;
+
+	public MockHttpServletRequest unmatchedRequest;
+
+
+	@Setup
+	public void setup() throws Exception {
+		StaticWebApplicationContext wac = new StaticWebApplicationContext();
+		wac.refresh();
+
+		this.handlerMapping = new RequestMappingHandlerMapping();
+		this.handlerMapping.setApplicationContext(wac);
+		if (this.pathPatterns) {
+			this.handlerMapping.setPatternParser(new PathPatternParser());
+		}
+		this.handlerMapping.afterPropertiesSet();
+
+		RequestMappingInfo.BuilderConfiguration config = new RequestMappingInfo.BuilderConfiguration();
+		config.setUrlPathHelper(this.handlerMapping.getUrlPathHelper());
+		config.setPathMatcher(this.handlerMapping.getPathMatcher());
+		config.setPatternParser(this.handlerMapping.getPatternParser());
+		config.setContentNegotiationManager(this.handlerMapping.getContentNegotiationManager());
+
+		Controller controller = new Controller();
+		Method method = ReflectionUtils.findMethod(Controller.class, "handle");
+		for (int i = 0; i < this.mappingCount / 2; i++) {
+			this.handlerMapping.registerMapping(RequestMappingInfo.paths("/api/resource" + i)
+					.methods(RequestMethod.GET).options(config).build(), controller, method);
+			this.handlerMapping.registerMapping(RequestMappingInfo.paths("/api/resource" + i + "/{id}/items/{item}")
+					.methods(RequestMethod.GET, RequestMethod.PUT).options(config).build(), controller, method);
+		}
+
+		int middle = this.mappingCount / 4;
+		this.literalRequest = new MockHttpServletRequest("GET", "/api/resource" + middle);
+		this.patternRequest = new MockHttpServletRequest("GET", "/api/resource" + middle + "/42/items/7");
+		this.unmatchedRequest = new MockHttpServletRequest("GET", "/api/unknown/42");
+	}
+
+
+	@Benchmark
+	public HandlerExecutionChain literalPath() throws Exception {
+		// Parsed request paths are cached per request: start from scratch like a new request
+		ServletRequestPathUtils.clearCachedPath(this.literalRequest);
+		return this.handlerMapping.getHandler(this.literalRequest);
+	}
+
+	@Benchmark
+	public HandlerExecutionChain patternPath() throws Exception {
+		// Parsed request paths are cached per request: start from scratch like a new request
+		ServletRequestPathUtils.clearCachedPath(this.patternRequest);
+		return this.handlerMapping.getHandler(this.patternRequest);
+	}
+
+	@Benchmark
+	public HandlerExecutionChain noMatch() throws Exception {
+		// Parsed request paths are cached per request: start from scratch like a new request
+		ServletRequestPathUtils.clearCachedPath(this.unmatchedRequest);
+		return this.handlerMapping.getHandler(this.unmatchedRequest);
+	}
+
+
+	public static class Controller {
+
+		public void handle() {
+		}
+	}
+
+}
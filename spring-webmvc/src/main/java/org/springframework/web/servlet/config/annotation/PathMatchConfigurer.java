@@ -19,6 +19,7 @@ package org.springframework.web.servlet.config.annotation;
 import org.springframework.lang.Nullable;
 import org.springframework.util.PathMatcher;
 import org.springframework.web.util.UrlPathHelper;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 /**
  * Helps with configuring HandlerMappings path matching options such as trailing
@@ -53,6 +54,9 @@ public class PathMatchConfigurer {
 	@Nullable
 	private PathMatcher pathMatcher;
 
+	@Nullable
+	private PathPatternParser patternParser;
+
 
 	/**
 	 * Whether to use suffix pattern match (".*") when matching patterns to
@@ -110,6 +114,22 @@ public class PathMatchConfigurer {
 		return this;
 	}
 
+	/**
+	 * Set a {@link PathPatternParser} to parse {@code @RequestMapping} patterns
+	 * into {@link org.springframework.web.util.pattern.PathPattern PathPatterns}
+	 * once, and to match them against the request path parsed once per request,
+	 * instead of {@link #setPathMatcher PathMatcher} String matching.
+	 * <p>This currently applies to annotated controllers only. Suffix pattern
+	 * matching is not supported in this mode, and trailing slash matching is
+	 * configured on the parser itself.
+	 * @since 5.1
+	 * @see org.springframework.web.servlet.handler.AbstractHandlerMapping#setPatternParser
+	 */
+	public PathMatchConfigurer setPatternParser(PathPatternParser patternParser) {
+		this.patternParser = patternParser;
+		return this;
+	}
+
 
 	@Nullable
 	public Boolean isUseSuffixPatternMatch() {
@@ -136,4 +156,13 @@ public class PathMatchConfigurer {
 		return this.pathMatcher;
 	}
 
+	/**
+	 * Return the configured PathPatternParser, if any.
+	 * @since 5.1
+	 */
+	@Nullable
+	public PathPatternParser getPatternParser() {
+		return this.patternParser;
+	}
+
 }
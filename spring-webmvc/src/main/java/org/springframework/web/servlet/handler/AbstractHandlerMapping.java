@@ -30,7 +30,9 @@ import org.springframework.web.cors.*;
 import org.springframework.web.servlet.HandlerExecutionChain;
 import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ServletRequestPathUtils;
 import org.springframework.web.util.UrlPathHelper;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -71,6 +73,9 @@ public abstract class AbstractHandlerMapping extends WebApplicationObjectSupport
 
     private PathMatcher pathMatcher = new AntPathMatcher();
 
+    @Nullable
+    private PathPatternParser patternParser;
+
     private final List<Object> interceptors = new ArrayList<>();
 
     private final List<HandlerInterceptor> adaptedInterceptors = new ArrayList<>();
@@ -182,6 +187,43 @@ public abstract class AbstractHandlerMapping extends WebApplicationObjectSupport
         return this.pathMatcher;
     }
 
+    /**
+     * Set a {@link PathPatternParser} to parse mapped URL patterns into
+     * {@link org.springframework.web.util.pattern.PathPattern PathPatterns} once,
+     * and to match them against the request path parsed once per request, as an
+     * alternative to {@link #setPathMatcher PathMatcher} String matching on the
+     * {@link #setUrlPathHelper decoded lookup path}.
+     * <p>By default this is not set. Support for this option is up to concrete
+     * subclasses; see {@link #usesPathPatterns()}.
+     *
+     * @since 5.1
+     * @see ServletRequestPathUtils#parseAndCache
+     */
+    public void setPatternParser(@Nullable PathPatternParser patternParser) {
+        this.patternParser = patternParser;
+    }
+
+    /**
+     * Return the {@link #setPatternParser configured} PathPatternParser, if any.
+     *
+     * @since 5.1
+     */
+    @Nullable
+    public PathPatternParser getPatternParser() {
+        return this.patternParser;
+    }
+
+    /**
+     * Return whether this handler mapping has been configured to use parsed
+     * {@code PathPatterns}, i.e. whether a {@link #setPatternParser PathPatternParser}
+     * is set.
+     *
+     * @since 5.1
+     */
+    public boolean usesPathPatterns() {
+        return (this.patternParser != null);
+    }
+
     /**
      * Set the interceptors to apply for all handlers mapped by this handler mapping.
      * <p>Supported interceptor types are HandlerInterceptor, WebRequestInterceptor, and MappedInterceptor.
@@ -403,6 +445,23 @@ public abstract class AbstractHandlerMapping extends WebApplicationObjectSupport
     @Nullable
     protected abstract Object getHandlerInternal(HttpServletRequest request) throws Exception;
 
+    /**
+     * Determine the lookup path for the given request: the
+     * {@link ServletRequestPathUtils#parseAndCache parsed} (encoded) path within
+     * the application if {@link #usesPathPatterns() PathPatterns are used}, or else
+     * the lookup path as determined by the configured {@link UrlPathHelper}.
+     *
+     * @param request current HTTP request
+     * @return the lookup path
+     * @since 5.1
+     */
+    protected String initLookupPath(HttpServletRequest request) {
+        if (usesPathPatterns()) {
+            return ServletRequestPathUtils.parseAndCache(request).pathWithinApplication().value();
+        }
+        return this.urlPathHelper.getLookupPathForRequest(request);
+    }
+
     /**
      * Build a {@link HandlerExecutionChain} for the given handler, including
      * applicable interceptors.
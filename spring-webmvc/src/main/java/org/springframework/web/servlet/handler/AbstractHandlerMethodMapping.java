@@ -20,7 +20,9 @@ import org.springframework.aop.support.AopUtils;
 import org.springframework.beans.factory.BeanFactoryUtils;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.core.MethodIntrospector;
+import org.springframework.http.server.PathContainer;
 import org.springframework.lang.Nullable;
+import org.springframework.util.AntPathMatcher;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.LinkedMultiValueMap;
@@ -29,6 +31,7 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsUtils;
 import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ServletRequestPathUtils;
 
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
@@ -320,7 +323,7 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
      */
     @Override
     protected HandlerMethod getHandlerInternal(HttpServletRequest request) throws Exception {
-        String lookupPath = getUrlPathHelper().getLookupPathForRequest(request);
+        String lookupPath = initLookupPath(request);
         if (logger.isDebugEnabled()) {
             logger.debug("Looking up handler method for path " + lookupPath);
         }
@@ -358,8 +361,13 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
             addMatchingMappings(directPathMatches, matches, request);
         }
         if (matches.isEmpty()) {
-            // No choice but to go through all mappings...
-            addMatchingMappings(this.mappingRegistry.getMappings().keySet(), matches, request);
+            Collection<T> candidates = getCandidateMappings(lookupPath, request, true);
+            if (candidates != null) {
+                addMatchingMappings(candidates, matches, request);
+            } else {
+                // No choice but to go through all mappings...
+                addMatchingMappings(this.mappingRegistry.getMappings().keySet(), matches, request);
+            }
         }
 
         if (!matches.isEmpty()) {
@@ -385,8 +393,50 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
             handleMatch(bestMatch.mapping, lookupPath, request);
             return bestMatch.handlerMethod;
         } else {
-            return handleNoMatch(this.mappingRegistry.getMappings().keySet(), lookupPath, request);
+            // Mappings that match by path but not by HTTP method etc. are of interest
+            Set<T> candidates = getCandidateMappings(lookupPath, request, false);
+            return handleNoMatch((candidates != null ? candidates : this.mappingRegistry.getMappings().keySet()),
+                    lookupPath, request);
+        }
+    }
+
+    /**
+     * Narrow down the registered mappings to those that may match the given
+     * lookup path and the HTTP method of the request, based on an index over
+     * the leading literal segments of mapped URL patterns and over the
+     * {@link #getMappingRequestMethods HTTP methods} of mappings.
+     * <p>The index is only consulted if URL patterns are known to be matched
+     * segment by segment, i.e. with {@link #usesPathPatterns() PathPatterns}
+     * or with a plain {@link AntPathMatcher} using "/" as path separator.
+     *
+     * @param matchRequestMethods whether to narrow down by HTTP method as well
+     * @return a superset of the matching mappings, or {@code null} if all
+     * mappings need to be checked
+     */
+    @Nullable
+    private Set<T> getCandidateMappings(String lookupPath, HttpServletRequest request, boolean matchRequestMethods) {
+        List<String> pathSegments;
+        if (usesPathPatterns()) {
+            pathSegments = new ArrayList<>();
+            PathContainer path = ServletRequestPathUtils.parseAndCache(request).pathWithinApplication();
+            for (PathContainer.Element element : path.elements()) {
+                if (element instanceof PathContainer.PathSegment) {
+                    String segment = ((PathContainer.PathSegment) element).valueToMatch();
+                    if (!segment.isEmpty()) {
+                        pathSegments.add(segment);
+                    }
+                }
+            }
+        } else if (getPathMatcher().getClass() == AntPathMatcher.class &&
+                "/".equals(((AntPathMatcher) getPathMatcher()).getPathSeparator())) {
+            pathSegments = PathMappingIndex.tokenizePath(lookupPath);
+        } else {
+            return null;
         }
+        Set<T> candidates = new LinkedHashSet<>();
+        this.mappingRegistry.getPathIndex().collect(pathSegments,
+                (matchRequestMethods ? getRequestMethodsForLookup(request) : null), candidates);
+        return candidates;
     }
 
     private void addMatchingMappings(Collection<T> mappings, List<Match> matches, HttpServletRequest request) {
@@ -400,19 +450,25 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 
     /**
      * Invoked when a matching mapping is found.
+     * <p>Exposes the {@link HandlerMapping#PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE}, which
+     * is the decoded lookup path as determined by the {@link #getUrlPathHelper()
+     * UrlPathHelper} also if {@link #usesPathPatterns() PathPatterns are used}.
      *
      * @param mapping    the matching mapping
      * @param lookupPath mapping lookup path within the current servlet mapping
      * @param request    the current request
      */
     protected void handleMatch(T mapping, String lookupPath, HttpServletRequest request) {
-        request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, lookupPath);
+        String pathWithinMapping = (usesPathPatterns() ?
+                getUrlPathHelper().getLookupPathForRequest(request) : lookupPath);
+        request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, pathWithinMapping);
     }
 
     /**
      * Invoked when no matching mapping is not found.
      *
-     * @param mappings   all registered mappings
+     * @param mappings   all registered mappings, or as of 5.1 only those that
+     *                   may match the lookup path if they can be narrowed down
      * @param lookupPath mapping lookup path within the current servlet mapping
      * @param request    the current request
      * @throws ServletException in case of errors
@@ -467,6 +523,31 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
      */
     protected abstract Set<String> getMappingPathPatterns(T mapping);
 
+    /**
+     * Extract and return the names of the HTTP methods a mapping is restricted to,
+     * for indexing mappings by HTTP method.
+     * <p>The default implementation returns an empty set, i.e. no restriction.
+     *
+     * @since 5.1
+     * @see #getRequestMethodsForLookup
+     */
+    protected Set<String> getMappingRequestMethods(T mapping) {
+        return Collections.emptySet();
+    }
+
+    /**
+     * Return the names of the HTTP methods to look up mappings for, as declared
+     * by {@link #getMappingRequestMethods}, for the given request.
+     * <p>The default implementation returns {@code null} to consider mappings
+     * regardless of their HTTP methods.
+     *
+     * @since 5.1
+     */
+    @Nullable
+    protected Collection<String> getRequestMethodsForLookup(HttpServletRequest request) {
+        return null;
+    }
+
     /**
      * Check if a mapping matches the current request and return a (potentially
      * new) mapping with conditions relevant to the current request.
@@ -502,6 +583,8 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 
         private final MultiValueMap<String, T> urlLookup = new LinkedMultiValueMap<>();
 
+        private final PathMappingIndex<T> pathIndex = new PathMappingIndex<>();
+
         private final Map<String, List<HandlerMethod>> nameLookup = new ConcurrentHashMap<>();
 
         private final Map<HandlerMethod, CorsConfiguration> corsLookup = new ConcurrentHashMap<>();
@@ -527,6 +610,16 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
             return this.urlLookup.get(urlPath);
         }
 
+        /**
+         * Return the index of mappings by path pattern prefix and HTTP method.
+         * Not thread-safe.
+         *
+         * @see #acquireReadLock()
+         */
+        public PathMappingIndex<T> getPathIndex() {
+            return this.pathIndex;
+        }
+
         /**
          * Return handler methods by mapping name. Thread-safe for concurrent use.
          */
@@ -576,6 +669,7 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
                 for (String url : directUrls) {
                     this.urlLookup.add(url, mapping);
                 }
+                this.pathIndex.add(mapping, getMappingPathPatterns(mapping), getMappingRequestMethods(mapping));
 
                 String name = null;
                 if (getNamingStrategy() != null) {
@@ -664,6 +758,8 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
                         }
                     }
                 }
+                this.pathIndex.remove(definition.getMapping(), getMappingPathPatterns(definition.getMapping()),
+                        getMappingRequestMethods(definition.getMapping()));
 
                 removeMappingName(definition);
 
@@ -0,0 +1,239 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.servlet.handler;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Prefix tree over the leading literal segments of "/"-separated URL patterns,
+ * with a secondary index on HTTP methods, used to narrow down the mappings that
+ * need to be checked against a request to those that could possibly match.
+ *
+ * <p>A mapping is registered at the node for the literal segments its pattern
+ * starts with, up to the first segment with a wildcard or URI variable. For a
+ * given path, the mappings along the path of matching nodes are candidates.
+ * To remain a superset of the actual matches, segments are compared ignoring
+ * case and surrounding whitespace, and a path segment with an extension also
+ * descends into the node for the part before the first '.', which covers
+ * suffix pattern matching against literal patterns.
+ *
+ * <p>Not thread-safe: concurrent access must be guarded externally.
+ *
+ * @since 5.1
+ * @param <T> the mapping type
+ */
+final class PathMappingIndex<T> {
+
+	private final Node<T> root = new Node<>();
+
+
+	/**
+	 * Add the given mapping with its URL patterns and HTTP methods.
+	 * @param mapping the mapping to add
+	 * @param patterns the URL patterns of the mapping (none matching any path)
+	 * @param methods the HTTP methods of the mapping (none matching any method)
+	 */
+	public void add(T mapping, Collection<String> patterns, Collection<String> methods) {
+		if (patterns.isEmpty()) {
+			this.root.add(mapping, methods);
+			return;
+		}
+		for (String pattern : patterns) {
+			Node<T> node = this.root;
+			for (String segment : literalPrefix(pattern)) {
+				Node<T> child = node.children.get(segment);
+				if (child == null) {
+					child = new Node<>();
+					node.children.put(segment, child);
+				}
+				node = child;
+			}
+			node.add(mapping, methods);
+		}
+	}
+
+	/**
+	 * Remove the given mapping, previously added with the same patterns and methods.
+	 */
+	public void remove(T mapping, Collection<String> patterns, Collection<String> methods) {
+		if (patterns.isEmpty()) {
+			this.root.remove(mapping, methods);
+			return;
+		}
+		for (String pattern : patterns) {
+			Node<T> node = this.root;
+			for (String segment : literalPrefix(pattern)) {
+				node = node.children.get(segment);
+				if (node == null) {
+					break;
+				}
+			}
+			if (node != null) {
+				node.remove(mapping, methods);
+			}
+		}
+	}
+
+	/**
+	 * Collect the mappings that may match the given path and HTTP methods.
+	 * @param pathSegments the segments of the path to match
+	 * @param methods the HTTP methods to match, or {@code null} to match
+	 * mappings regardless of their HTTP methods
+	 * @param result the collection to add candidate mappings to; should be a
+	 * {@code Set} as a mapping may be found along more than one node
+	 */
+	public void collect(List<String> pathSegments, @Nullable Collection<String> methods, Collection<T> result) {
+		collect(this.root, pathSegments, 0, methods, result);
+	}
+
+	private void collect(Node<T> node, List<String> pathSegments, int index,
+			@Nullable Collection<String> methods, Collection<T> result) {
+
+		node.collect(methods, result);
+		if (index == pathSegments.size() || node.children.isEmpty()) {
+			return;
+		}
+		String segment = pathSegments.get(index);
+		String key = normalize(segment);
+		Node<T> child = node.children.get(key);
+		if (child != null) {
+			collect(child, pathSegments, index + 1, methods, result);
+		}
+		// Suffix pattern matching: the stem may itself contain dots ("/foo.bar" for "foo.bar.json")
+		int dotIndex = key.lastIndexOf('.');
+		while (dotIndex != -1) {
+			Node<T> stemChild = node.children.get(normalize(key.substring(0, dotIndex)));
+			if (stemChild != null && stemChild != child) {
+				collect(stemChild, pathSegments, index + 1, methods, result);
+			}
+			dotIndex = key.lastIndexOf('.', dotIndex - 1);
+		}
+	}
+
+	/**
+	 * Split the given path into its non-empty "/"-separated segments.
+	 */
+	public static List<String> tokenizePath(String path) {
+		List<String> segments = new ArrayList<>();
+		int start = 0;
+		int length = path.length();
+		while (start < length) {
+			int end = path.indexOf('/', start);
+			if (end == -1) {
+				end = length;
+			}
+			if (end > start) {
+				segments.add(path.substring(start, end));
+			}
+			start = end + 1;
+		}
+		return segments;
+	}
+
+	private static List<String> literalPrefix(String pattern) {
+		List<String> segments = tokenizePath(pattern);
+		List<String> prefix = new ArrayList<>(segments.size());
+		for (String segment : segments) {
+			if (segment.indexOf('*') != -1 || segment.indexOf('?') != -1 || segment.indexOf('{') != -1) {
+				break;
+			}
+			prefix.add(normalize(segment));
+		}
+		return prefix;
+	}
+
+	private static String normalize(String segment) {
+		return segment.trim().toLowerCase(Locale.ROOT);
+	}
+
+
+	private static final class Node<T> {
+
+		final Map<String, Node<T>> children = new HashMap<>(4);
+
+		final List<T> anyMethodMappings = new ArrayList<>(1);
+
+		final Map<String, List<T>> methodMappings = new HashMap<>(4);
+
+		void add(T mapping, Collection<String> methods) {
+			if (methods.isEmpty()) {
+				addIfAbsent(this.anyMethodMappings, mapping);
+			}
+			else {
+				for (String method : methods) {
+					List<T> mappings = this.methodMappings.get(method);
+					if (mappings == null) {
+						mappings = new ArrayList<>(1);
+						this.methodMappings.put(method, mappings);
+					}
+					addIfAbsent(mappings, mapping);
+				}
+			}
+		}
+
+		void remove(T mapping, Collection<String> methods) {
+			if (methods.isEmpty()) {
+				this.anyMethodMappings.remove(mapping);
+			}
+			else {
+				for (String method : methods) {
+					List<T> mappings = this.methodMappings.get(method);
+					if (mappings != null) {
+						mappings.remove(mapping);
+						if (mappings.isEmpty()) {
+							this.methodMappings.remove(method);
+						}
+					}
+				}
+			}
+		}
+
+		void collect(@Nullable Collection<String> methods, Collection<T> result) {
+			result.addAll(this.anyMethodMappings);
+			if (this.methodMappings.isEmpty()) {
+				return;
+			}
+			if (methods == null) {
+				for (List<T> mappings : this.methodMappings.values()) {
+					result.addAll(mappings);
+				}
+			}
+			else {
+				for (String method : methods) {
+					List<T> mappings = this.methodMappings.get(method);
+					if (mappings != null) {
+						result.addAll(mappings);
+					}
+				}
+			}
+		}
+
+		private static <T> void addIfAbsent(List<T> mappings, T mapping) {
+			if (!mappings.contains(mapping)) {
+				mappings.add(mapping);
+			}
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,10 +16,15 @@
 
 package org.springframework.web.servlet.handler;
 
+import java.util.Collections;
 import java.util.Map;
 
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.RequestPath;
+import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.PathMatcher;
+import org.springframework.web.util.pattern.PathPattern;
 
 /**
  * Container for the result from request pattern matching via
@@ -31,12 +36,21 @@ import org.springframework.util.PathMatcher;
  */
 public class RequestMatchResult {
 
+	@Nullable
 	private final String matchingPattern;
 
+	@Nullable
 	private final String lookupPath;
 
+	@Nullable
 	private final PathMatcher pathMatcher;
 
+	@Nullable
+	private final PathPattern pathPattern;
+
+	@Nullable
+	private final PathContainer path;
+
 
 	/**
 	 * Create an instance with a matching pattern.
@@ -52,6 +66,24 @@ public class RequestMatchResult {
 		this.matchingPattern = matchingPattern;
 		this.lookupPath = lookupPath;
 		this.pathMatcher = pathMatcher;
+		this.pathPattern = null;
+		this.path = null;
+	}
+
+	/**
+	 * Create an instance with a matching {@link PathPattern}.
+	 * @param pathPattern the matching pattern
+	 * @param path the parsed request path to match against
+	 * @since 5.1
+	 */
+	public RequestMatchResult(PathPattern pathPattern, PathContainer path) {
+		Assert.notNull(pathPattern, "'pathPattern' is required");
+		Assert.notNull(path, "'path' is required");
+		this.matchingPattern = null;
+		this.lookupPath = null;
+		this.pathMatcher = null;
+		this.pathPattern = pathPattern;
+		this.path = path;
 	}
 
 
@@ -61,6 +93,14 @@ public class RequestMatchResult {
 	 * @return a map with URI template variables
 	 */
 	public Map<String, String> extractUriTemplateVariables() {
+		if (this.pathPattern != null && this.path != null) {
+			PathContainer path = (this.path instanceof RequestPath ?
+					((RequestPath) this.path).pathWithinApplication() : this.path);
+			PathPattern.PathMatchInfo info = this.pathPattern.matchAndExtract(path);
+			return (info != null ? info.getUriVariables() : Collections.emptyMap());
+		}
+		Assert.state(this.pathMatcher != null && this.matchingPattern != null && this.lookupPath != null,
+				"No PathMatcher");
 		return this.pathMatcher.extractUriTemplateVariables(this.matchingPattern, this.lookupPath);
 	}
 
@@ -0,0 +1,220 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.servlet.mvc.condition;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.http.server.PathContainer;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StringUtils;
+import org.springframework.web.util.ServletRequestPathUtils;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+/**
+ * A logical disjunction (' || ') request condition that matches a request
+ * against a set of URL path patterns parsed into {@link PathPattern PathPatterns}.
+ *
+ * <p>This is the counterpart of {@link PatternsRequestCondition} for use with a
+ * {@link PathPatternParser}: patterns are parsed once, and requests are matched
+ * against the {@link ServletRequestPathUtils#parseAndCache parsed request path}
+ * rather than through {@code PathMatcher} string matching on a decoded lookup path.
+ * Suffix pattern matching is not supported, while trailing slash matching is
+ * controlled through {@link PathPatternParser#setMatchOptionalTrailingSeparator}.
+ *
+ * @since 5.1
+ * @see org.springframework.web.servlet.handler.AbstractHandlerMapping#setPatternParser
+ */
+public final class PathPatternsRequestCondition extends AbstractRequestCondition<PathPatternsRequestCondition> {
+
+	private final PathPatternParser parser;
+
+	private final SortedSet<PathPattern> patterns;
+
+
+	/**
+	 * Creates a new instance with the given URL patterns, parsed with the given parser.
+	 * Each pattern that is not empty and does not start with "/" is prepended with "/".
+	 * @param parser the parser to use
+	 * @param patterns 0 or more URL patterns; if 0 the condition will match to every request.
+	 */
+	public PathPatternsRequestCondition(PathPatternParser parser, String... patterns) {
+		this(parser, parse(parser, patterns));
+	}
+
+	private PathPatternsRequestCondition(PathPatternParser parser, SortedSet<PathPattern> patterns) {
+		this.parser = parser;
+		this.patterns = patterns;
+	}
+
+	private static SortedSet<PathPattern> parse(PathPatternParser parser, String... patterns) {
+		SortedSet<PathPattern> result = new TreeSet<>();
+		for (String pattern : patterns) {
+			if (StringUtils.hasLength(pattern) && !pattern.startsWith("/")) {
+				pattern = "/" + pattern;
+			}
+			result.add(parser.parse(pattern));
+		}
+		return result;
+	}
+
+
+	/**
+	 * Return the parsed patterns, sorted by specificity.
+	 */
+	public Set<PathPattern> getPatterns() {
+		return this.patterns;
+	}
+
+	/**
+	 * Return the pattern Strings, in the order of {@link #getPatterns()}.
+	 */
+	public Set<String> getPatternValues() {
+		Set<String> values = new LinkedHashSet<>(this.patterns.size());
+		for (PathPattern pattern : this.patterns) {
+			values.add(pattern.getPatternString());
+		}
+		return values;
+	}
+
+	/**
+	 * Return the first (i.e. most specific) pattern, or {@code null} if none.
+	 */
+	@Nullable
+	public PathPattern getFirstPattern() {
+		return (this.patterns.isEmpty() ? null : this.patterns.first());
+	}
+
+	@Override
+	protected Collection<PathPattern> getContent() {
+		return this.patterns;
+	}
+
+	@Override
+	protected String getToStringInfix() {
+		return " || ";
+	}
+
+	/**
+	 * Returns a new instance with URL patterns from the current instance ("this") and
+	 * the "other" instance as follows:
+	 * <ul>
+	 * <li>If there are patterns in both instances, combine the patterns in "this" with
+	 * the patterns in "other" using {@link PathPattern#combine(PathPattern)}.
+	 * <li>If only one instance has patterns, use them.
+	 * <li>If neither instance has patterns, use "" and "/", equivalent to the
+	 * empty String (with trailing slash matching) in {@link PatternsRequestCondition}.
+	 * </ul>
+	 */
+	@Override
+	public PathPatternsRequestCondition combine(PathPatternsRequestCondition other) {
+		if (!this.patterns.isEmpty() && !other.patterns.isEmpty()) {
+			SortedSet<PathPattern> combined = new TreeSet<>();
+			for (PathPattern pattern1 : this.patterns) {
+				for (PathPattern pattern2 : other.patterns) {
+					combined.add(pattern1.combine(pattern2));
+				}
+			}
+			return new PathPatternsRequestCondition(this.parser, combined);
+		}
+		else if (!this.patterns.isEmpty()) {
+			return this;
+		}
+		else if (!other.patterns.isEmpty()) {
+			return other;
+		}
+		else {
+			return new PathPatternsRequestCondition(this.parser, "", "/");
+		}
+	}
+
+	/**
+	 * Checks if any of the patterns match the given request and returns an instance
+	 * that is guaranteed to contain matching patterns, sorted.
+	 * @param request the current request
+	 * @return the same instance if the condition contains no patterns or if all of
+	 * its patterns match; or a new condition with the sorted matching patterns;
+	 * or {@code null} if no patterns match.
+	 */
+	@Override
+	@Nullable
+	public PathPatternsRequestCondition getMatchingCondition(HttpServletRequest request) {
+		if (this.patterns.isEmpty()) {
+			return this;
+		}
+		PathContainer path = ServletRequestPathUtils.parseAndCache(request).pathWithinApplication();
+		if (this.patterns.size() == 1) {
+			return (this.patterns.first().matches(path) ? this : null);
+		}
+		List<PathPattern> matches = null;
+		for (PathPattern pattern : this.patterns) {
+			if (pattern.matches(path)) {
+				if (matches == null) {
+					matches = new ArrayList<>(this.patterns.size());
+				}
+				matches.add(pattern);
+			}
+		}
+		if (matches == null) {
+			return null;
+		}
+		if (matches.size() == this.patterns.size()) {
+			return this;
+		}
+		return new PathPatternsRequestCondition(this.parser, new TreeSet<>(matches));
+	}
+
+	/**
+	 * Compare the two conditions based on the URL patterns they contain.
+	 * Patterns are compared one at a time, from top to bottom. If all compared
+	 * patterns match equally, but one instance has more patterns, it is
+	 * considered a closer match.
+	 * <p>It is assumed that both instances have been obtained via
+	 * {@link #getMatchingCondition(HttpServletRequest)} to ensure they
+	 * contain only patterns that match the request and are sorted with
+	 * the best matches on top.
+	 */
+	@Override
+	public int compareTo(PathPatternsRequestCondition other, HttpServletRequest request) {
+		Iterator<PathPattern> iterator = this.patterns.iterator();
+		Iterator<PathPattern> iteratorOther = other.patterns.iterator();
+		while (iterator.hasNext() && iteratorOther.hasNext()) {
+			int result = PathPattern.SPECIFICITY_COMPARATOR.compare(iterator.next(), iteratorOther.next());
+			if (result != 0) {
+				return result;
+			}
+		}
+		if (iterator.hasNext()) {
+			return -1;
+		}
+		else if (iteratorOther.hasNext()) {
+			return 1;
+		}
+		else {
+			return 0;
+		}
+	}
+
+}
@@ -46,6 +46,9 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 
     private final List<String> fileExtensions = new ArrayList<>();
 
+    @Nullable
+    private volatile List<CompiledPatternVariants> compiledPatterns;
+
 
     /**
      * Creates a new instance with the given URL patterns.
@@ -216,16 +219,52 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
      */
     public List<String> getMatchingPatterns(String lookupPath) {
         List<String> matches = new ArrayList<>();
-        for (String pattern : this.patterns) {
-            String match = getMatchingPattern(pattern, lookupPath);
-            if (match != null) {
-                matches.add(match);
+        List<CompiledPatternVariants> compiledPatterns = getCompiledPatterns();
+        if (compiledPatterns != null) {
+            for (CompiledPatternVariants variants : compiledPatterns) {
+                String match = variants.getMatchingPattern(lookupPath);
+                if (match != null) {
+                    matches.add(match);
+                }
+            }
+        } else {
+            for (String pattern : this.patterns) {
+                String match = getMatchingPattern(pattern, lookupPath);
+                if (match != null) {
+                    matches.add(match);
+                }
             }
         }
-        Collections.sort(matches, this.pathMatcher.getPatternComparator(lookupPath));
+        if (matches.size() > 1) {
+            Collections.sort(matches, this.pathMatcher.getPatternComparator(lookupPath));
+        }
         return matches;
     }
 
+    /**
+     * Lazily compile the patterns and their suffix and trailing slash variants,
+     * provided that the configured {@link PathMatcher} is a plain {@link AntPathMatcher}
+     * (i.e. not a subclass with potentially customized matching).
+     *
+     * @return the compiled patterns, or {@code null} if not applicable
+     */
+    @Nullable
+    private List<CompiledPatternVariants> getCompiledPatterns() {
+        if (this.pathMatcher.getClass() != AntPathMatcher.class) {
+            return null;
+        }
+        List<CompiledPatternVariants> compiledPatterns = this.compiledPatterns;
+        if (compiledPatterns == null) {
+            AntPathMatcher antPathMatcher = (AntPathMatcher) this.pathMatcher;
+            compiledPatterns = new ArrayList<>(this.patterns.size());
+            for (String pattern : this.patterns) {
+                compiledPatterns.add(new CompiledPatternVariants(pattern, antPathMatcher));
+            }
+            this.compiledPatterns = compiledPatterns;
+        }
+        return compiledPatterns;
+    }
+
     @Nullable
     private String getMatchingPattern(String pattern, String lookupPath) {
         if (pattern.equals(lookupPath)) {
@@ -256,6 +295,65 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
         return null;
     }
 
+    /**
+     * A pattern compiled via {@link AntPathMatcher#compile} along with the variants
+     * that {@link #getMatchingPattern(String, String)} would otherwise build and
+     * parse for every lookup path.
+     */
+    private class CompiledPatternVariants {
+
+        private final AntPathMatcher.CompiledPattern pattern;
+
+        @Nullable
+        private final AntPathMatcher.CompiledPattern suffixPattern;
+
+        private final List<AntPathMatcher.CompiledPattern> extensionPatterns = new ArrayList<>();
+
+        @Nullable
+        private final AntPathMatcher.CompiledPattern trailingSlashPattern;
+
+        public CompiledPatternVariants(String pattern, AntPathMatcher pathMatcher) {
+            this.pattern = pathMatcher.compile(pattern);
+            boolean useSuffixPatternMatch = PatternsRequestCondition.this.useSuffixPatternMatch;
+            if (useSuffixPatternMatch) {
+                for (String extension : PatternsRequestCondition.this.fileExtensions) {
+                    this.extensionPatterns.add(pathMatcher.compile(pattern + extension));
+                }
+            }
+            this.suffixPattern = (useSuffixPatternMatch && pattern.indexOf('.') == -1 ?
+                    pathMatcher.compile(pattern + ".*") : null);
+            this.trailingSlashPattern = (PatternsRequestCondition.this.useTrailingSlashMatch &&
+                    !pattern.endsWith("/") ? pathMatcher.compile(pattern + "/") : null);
+        }
+
+        /**
+         * Equivalent to {@link PatternsRequestCondition#getMatchingPattern(String, String)}.
+         */
+        @Nullable
+        public String getMatchingPattern(String lookupPath) {
+            if (this.pattern.getPattern().equals(lookupPath)) {
+                return this.pattern.getPattern();
+            }
+            if (!this.extensionPatterns.isEmpty() && lookupPath.indexOf('.') != -1) {
+                for (AntPathMatcher.CompiledPattern extensionPattern : this.extensionPatterns) {
+                    if (extensionPattern.match(lookupPath)) {
+                        return extensionPattern.getPattern();
+                    }
+                }
+            } else if (this.suffixPattern != null && this.suffixPattern.match(lookupPath)) {
+                return this.suffixPattern.getPattern();
+            }
+            if (this.pattern.match(lookupPath)) {
+                return this.pattern.getPattern();
+            }
+            if (this.trailingSlashPattern != null && this.trailingSlashPattern.match(lookupPath)) {
+                return this.trailingSlashPattern.getPattern();
+            }
+            return null;
+        }
+    }
+
+
     /**
      * Compare the two conditions based on the URL patterns they contain.
      * Patterns are compared one at a time, from top to bottom via
@@ -18,20 +18,24 @@ package org.springframework.web.servlet.mvc.method;
 
 import org.springframework.http.HttpMethod;
 import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
 import org.springframework.util.PathMatcher;
 import org.springframework.util.StringUtils;
 import org.springframework.web.accept.ContentNegotiationManager;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.servlet.mvc.condition.*;
 import org.springframework.web.util.UrlPathHelper;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 import javax.servlet.http.HttpServletRequest;
 import java.util.List;
+import java.util.Set;
 
 /**
  * A {@link RequestCondition} that consists of the following other conditions:
  * <ol>
- * <li>{@link PatternsRequestCondition}
+ * <li>{@link PatternsRequestCondition}, or {@link PathPatternsRequestCondition}
+ * if {@link BuilderConfiguration#setPatternParser parsed PathPatterns} are used
  * <li>{@link RequestMethodsRequestCondition}
  * <li>{@link ParamsRequestCondition}
  * <li>{@link HeadersRequestCondition}
@@ -49,8 +53,12 @@ public final class RequestMappingInfo implements RequestCondition<RequestMapping
     @Nullable
     private final String name;
 
+    @Nullable
     private final PatternsRequestCondition patternsCondition;
 
+    @Nullable
+    private final PathPatternsRequestCondition pathPatternsCondition;
+
     private final RequestMethodsRequestCondition methodsCondition;
 
     private final ParamsRequestCondition paramsCondition;
@@ -63,14 +71,28 @@ public final class RequestMappingInfo implements RequestCondition<RequestMapping
 
     private final RequestConditionHolder customConditionHolder;
 
+    @Nullable
+    private volatile PatternsRequestCondition adaptedPatternsCondition;
+
 
     public RequestMappingInfo(@Nullable String name, @Nullable PatternsRequestCondition patterns,
                               @Nullable RequestMethodsRequestCondition methods, @Nullable ParamsRequestCondition params,
                               @Nullable HeadersRequestCondition headers, @Nullable ConsumesRequestCondition consumes,
                               @Nullable ProducesRequestCondition produces, @Nullable RequestCondition<?> custom) {
 
+        this(name, null, (patterns != null ? patterns : new PatternsRequestCondition()),
+                methods, params, headers, consumes, produces, custom);
+    }
+
+    private RequestMappingInfo(@Nullable String name, @Nullable PathPatternsRequestCondition pathPatterns,
+                               @Nullable PatternsRequestCondition patterns, @Nullable RequestMethodsRequestCondition methods,
+                               @Nullable ParamsRequestCondition params, @Nullable HeadersRequestCondition headers,
+                               @Nullable ConsumesRequestCondition consumes, @Nullable ProducesRequestCondition produces,
+                               @Nullable RequestCondition<?> custom) {
+
         this.name = (StringUtils.hasText(name) ? name : null);
-        this.patternsCondition = (patterns != null ? patterns : new PatternsRequestCondition());
+        this.pathPatternsCondition = pathPatterns;
+        this.patternsCondition = patterns;
         this.methodsCondition = (methods != null ? methods : new RequestMethodsRequestCondition());
         this.paramsCondition = (params != null ? params : new ParamsRequestCondition());
         this.headersCondition = (headers != null ? headers : new HeadersRequestCondition());
@@ -94,8 +116,8 @@ public final class RequestMappingInfo implements RequestCondition<RequestMapping
      * Re-create a RequestMappingInfo with the given custom request condition.
      */
     public RequestMappingInfo(RequestMappingInfo info, @Nullable RequestCondition<?> customRequestCondition) {
-        this(info.name, info.patternsCondition, info.methodsCondition, info.paramsCondition, info.headersCondition,
-                info.consumesCondition, info.producesCondition, customRequestCondition);
+        this(info.name, info.pathPatternsCondition, info.patternsCondition, info.methodsCondition, info.paramsCondition,
+                info.headersCondition, info.consumesCondition, info.producesCondition, customRequestCondition);
     }
 
 
@@ -110,11 +132,65 @@ public final class RequestMappingInfo implements RequestCondition<RequestMapping
     /**
      * Return the URL patterns of this {@link RequestMappingInfo};
      * or instance with 0 patterns (never {@code null}).
+     * <p>If {@link #getPathPatternsCondition() parsed PathPatterns} are used,
+     * this is a String pattern condition with the same pattern values, created
+     * once and for informational purposes only: its matching, comparison and
+     * URI variable extraction follow {@code AntPathMatcher} semantics, which do
+     * not necessarily agree with those of the PathPatterns that are actually
+     * used for requests. Use {@link #getActivePatternsCondition()} instead.
      */
     public PatternsRequestCondition getPatternsCondition() {
+        if (this.pathPatternsCondition != null) {
+            PatternsRequestCondition adaptedCondition = this.adaptedPatternsCondition;
+            if (adaptedCondition == null) {
+                adaptedCondition = new PatternsRequestCondition(
+                        StringUtils.toStringArray(this.pathPatternsCondition.getPatternValues()));
+                this.adaptedPatternsCondition = adaptedCondition;
+            }
+            return adaptedCondition;
+        }
+        Assert.state(this.patternsCondition != null, "No patterns condition");
         return this.patternsCondition;
     }
 
+    /**
+     * Return the parsed URL patterns of this {@link RequestMappingInfo},
+     * or {@code null} if String patterns are used.
+     *
+     * @since 5.1
+     * @see BuilderConfiguration#setPatternParser
+     */
+    @Nullable
+    public PathPatternsRequestCondition getPathPatternsCondition() {
+        return this.pathPatternsCondition;
+    }
+
+    /**
+     * Return whichever of the {@link #getPathPatternsCondition() PathPatterns} or
+     * the {@link #getPatternsCondition() String patterns} condition is in use.
+     *
+     * @since 5.1
+     */
+    public RequestCondition<?> getActivePatternsCondition() {
+        if (this.pathPatternsCondition != null) {
+            return this.pathPatternsCondition;
+        }
+        return getPatternsCondition();
+    }
+
+    /**
+     * Return the URL patterns of the {@link #getActivePatternsCondition() active}
+     * patterns condition as Strings.
+     *
+     * @since 5.1
+     */
+    public Set<String> getPatternValues() {
+        if (this.pathPatternsCondition != null) {
+            return this.pathPatternsCondition.getPatternValues();
+        }
+        return getPatternsCondition().getPatterns();
+    }
+
     /**
      * Return the HTTP request methods of this {@link RequestMappingInfo};
      * or instance with 0 request methods (never {@code null}).
@@ -173,7 +249,16 @@ public final class RequestMappingInfo implements RequestCondition<RequestMapping
     @Override
     public RequestMappingInfo combine(RequestMappingInfo other) {
         String name = combineNames(other);
-        PatternsRequestCondition patterns = this.patternsCondition.combine(other.patternsCondition);
+        PathPatternsRequestCondition pathPatterns = null;
+        PatternsRequestCondition patterns = null;
+        if (this.pathPatternsCondition != null && other.pathPatternsCondition != null) {
+            pathPatterns = this.pathPatternsCondition.combine(other.pathPatternsCondition);
+        } else if (this.pathPatternsCondition == null && other.pathPatternsCondition == null) {
+            patterns = getPatternsCondition().combine(other.getPatternsCondition());
+        } else {
+            throw new IllegalArgumentException(
+                    "Cannot combine PathPatterns and String patterns: " + this + " and " + other);
+        }
         RequestMethodsRequestCondition methods = this.methodsCondition.combine(other.methodsCondition);
         ParamsRequestCondition params = this.paramsCondition.combine(other.paramsCondition);
         HeadersRequestCondition headers = this.headersCondition.combine(other.headersCondition);
@@ -181,7 +266,7 @@ public final class RequestMappingInfo implements RequestCondition<RequestMapping
         ProducesRequestCondition produces = this.producesCondition.combine(other.producesCondition);
         RequestConditionHolder custom = this.customConditionHolder.combine(other.customConditionHolder);
 
-        return new RequestMappingInfo(name, patterns,
+        return new RequestMappingInfo(name, pathPatterns, patterns,
                 methods, params, headers, consumes, produces, custom.getCondition());
     }
 
@@ -218,9 +303,18 @@ public final class RequestMappingInfo implements RequestCondition<RequestMapping
             return null;
         }
 
-        PatternsRequestCondition patterns = this.patternsCondition.getMatchingCondition(request);
-        if (patterns == null) {
-            return null;
+        PathPatternsRequestCondition pathPatterns = null;
+        PatternsRequestCondition patterns = null;
+        if (this.pathPatternsCondition != null) {
+            pathPatterns = this.pathPatternsCondition.getMatchingCondition(request);
+            if (pathPatterns == null) {
+                return null;
+            }
+        } else {
+            patterns = getPatternsCondition().getMatchingCondition(request);
+            if (patterns == null) {
+                return null;
+            }
         }
 
         RequestConditionHolder custom = this.customConditionHolder.getMatchingCondition(request);
@@ -228,7 +322,7 @@ public final class RequestMappingInfo implements RequestCondition<RequestMapping
             return null;
         }
 
-        return new RequestMappingInfo(this.name, patterns,
+        return new RequestMappingInfo(this.name, pathPatterns, patterns,
                 methods, params, headers, consumes, produces, custom.getCondition());
     }
 
@@ -248,7 +342,14 @@ public final class RequestMappingInfo implements RequestCondition<RequestMapping
                 return result;
             }
         }
-        result = this.patternsCondition.compareTo(other.getPatternsCondition(), request);
+        if (this.pathPatternsCondition != null && other.pathPatternsCondition != null) {
+            result = this.pathPatternsCondition.compareTo(other.pathPatternsCondition, request);
+        } else if (this.pathPatternsCondition == null && other.pathPatternsCondition == null) {
+            result = getPatternsCondition().compareTo(other.getPatternsCondition(), request);
+        } else {
+            throw new IllegalArgumentException(
+                    "Cannot compare PathPatterns and String patterns: " + this + " and " + other);
+        }
         if (result != 0) {
             return result;
         }
@@ -289,7 +390,7 @@ public final class RequestMappingInfo implements RequestCondition<RequestMapping
             return false;
         }
         RequestMappingInfo otherInfo = (RequestMappingInfo) other;
-        return (this.patternsCondition.equals(otherInfo.patternsCondition) &&
+        return (getActivePatternsCondition().equals(otherInfo.getActivePatternsCondition()) &&
                 this.methodsCondition.equals(otherInfo.methodsCondition) &&
                 this.paramsCondition.equals(otherInfo.paramsCondition) &&
                 this.headersCondition.equals(otherInfo.headersCondition) &&
@@ -300,7 +401,7 @@ public final class RequestMappingInfo implements RequestCondition<RequestMapping
 
     @Override
     public int hashCode() {
-        return (this.patternsCondition.hashCode() * 31 +  // primary differentiation
+        return (getActivePatternsCondition().hashCode() * 31 +  // primary differentiation
                 this.methodsCondition.hashCode() + this.paramsCondition.hashCode() +
                 this.headersCondition.hashCode() + this.consumesCondition.hashCode() +
                 this.producesCondition.hashCode() + this.customConditionHolder.hashCode());
@@ -309,7 +410,7 @@ public final class RequestMappingInfo implements RequestCondition<RequestMapping
     @Override
     public String toString() {
         StringBuilder builder = new StringBuilder("{");
-        builder.append(this.patternsCondition);
+        builder.append(getActivePatternsCondition());
         if (!this.methodsCondition.isEmpty()) {
             builder.append(",methods=").append(this.methodsCondition);
         }
@@ -488,12 +589,19 @@ public final class RequestMappingInfo implements RequestCondition<RequestMapping
         public RequestMappingInfo build() {
             ContentNegotiationManager manager = this.options.getContentNegotiationManager();
 
-            PatternsRequestCondition patternsCondition = new PatternsRequestCondition(
-                    this.paths, this.options.getUrlPathHelper(), this.options.getPathMatcher(),
-                    this.options.useSuffixPatternMatch(), this.options.useTrailingSlashMatch(),
-                    this.options.getFileExtensions());
+            PathPatternsRequestCondition pathPatternsCondition = null;
+            PatternsRequestCondition patternsCondition = null;
+            PathPatternParser patternParser = this.options.getPatternParser();
+            if (patternParser != null) {
+                pathPatternsCondition = new PathPatternsRequestCondition(patternParser, this.paths);
+            } else {
+                patternsCondition = new PatternsRequestCondition(
+                        this.paths, this.options.getUrlPathHelper(), this.options.getPathMatcher(),
+                        this.options.useSuffixPatternMatch(), this.options.useTrailingSlashMatch(),
+                        this.options.getFileExtensions());
+            }
 
-            return new RequestMappingInfo(this.mappingName, patternsCondition,
+            return new RequestMappingInfo(this.mappingName, pathPatternsCondition, patternsCondition,
                     new RequestMethodsRequestCondition(this.methods),
                     new ParamsRequestCondition(this.params),
                     new HeadersRequestCondition(this.headers),
@@ -520,6 +628,9 @@ public final class RequestMappingInfo implements RequestCondition<RequestMapping
         @Nullable
         private PathMatcher pathMatcher;
 
+        @Nullable
+        private PathPatternParser patternParser;
+
         private boolean trailingSlashMatch = true;
 
         private boolean suffixPatternMatch = true;
@@ -563,6 +674,29 @@ public final class RequestMappingInfo implements RequestCondition<RequestMapping
             return this.pathMatcher;
         }
 
+        /**
+         * Set a PathPatternParser to parse patterns into a
+         * {@link PathPatternsRequestCondition} instead of using a
+         * {@link PatternsRequestCondition}. The UrlPathHelper, PathMatcher,
+         * suffix pattern and trailing slash options do not apply in that case.
+         * <p>By default this is not set.
+         *
+         * @since 5.1
+         */
+        public void setPatternParser(@Nullable PathPatternParser patternParser) {
+            this.patternParser = patternParser;
+        }
+
+        /**
+         * Return the PathPatternParser to use for a PathPatternsRequestCondition, if any.
+         *
+         * @since 5.1
+         */
+        @Nullable
+        public PathPatternParser getPatternParser() {
+            return this.patternParser;
+        }
+
         /**
          * Set whether to apply trailing slash matching in PatternsRequestCondition.
          * <p>By default this is set to 'true'.
@@ -20,6 +20,8 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.InvalidMediaTypeException;
 import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.lang.Nullable;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.MultiValueMap;
 import org.springframework.util.StringUtils;
@@ -28,11 +30,15 @@ import org.springframework.web.HttpMediaTypeNotSupportedException;
 import org.springframework.web.HttpRequestMethodNotSupportedException;
 import org.springframework.web.bind.UnsatisfiedServletRequestParameterException;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.cors.CorsUtils;
 import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.HandlerMapping;
 import org.springframework.web.servlet.handler.AbstractHandlerMethodMapping;
 import org.springframework.web.servlet.mvc.condition.NameValueExpression;
+import org.springframework.web.servlet.mvc.condition.PathPatternsRequestCondition;
+import org.springframework.web.util.ServletRequestPathUtils;
 import org.springframework.web.util.WebUtils;
+import org.springframework.web.util.pattern.PathPattern;
 
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
@@ -72,7 +78,44 @@ public abstract class RequestMappingInfoHandlerMapping extends AbstractHandlerMe
      */
     @Override
     protected Set<String> getMappingPathPatterns(RequestMappingInfo info) {
-        return info.getPatternsCondition().getPatterns();
+        return info.getPatternValues();
+    }
+
+    /**
+     * Get the names of the HTTP methods of this {@link RequestMappingInfo}.
+     */
+    @Override
+    protected Set<String> getMappingRequestMethods(RequestMappingInfo info) {
+        Set<RequestMethod> methods = info.getMethodsCondition().getMethods();
+        if (methods.isEmpty()) {
+            return Collections.emptySet();
+        }
+        Set<String> methodNames = new LinkedHashSet<>(methods.size());
+        for (RequestMethod method : methods) {
+            methodNames.add(method.name());
+        }
+        return methodNames;
+    }
+
+    /**
+     * Return the HTTP methods that mappings may declare to match the given request,
+     * in line with {@link org.springframework.web.servlet.mvc.condition.RequestMethodsRequestCondition}:
+     * the request method, also "GET" for a "HEAD" request, or the method in the
+     * "Access-Control-Request-Method" header for a CORS pre-flight request.
+     */
+    @Override
+    @Nullable
+    protected Collection<String> getRequestMethodsForLookup(HttpServletRequest request) {
+        String method = (CorsUtils.isPreFlightRequest(request) ?
+                request.getHeader(HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD) : request.getMethod());
+        HttpMethod httpMethod = HttpMethod.resolve(method);
+        if (httpMethod == null) {
+            return null;
+        }
+        if (httpMethod == HttpMethod.HEAD) {
+            return Arrays.asList(HttpMethod.HEAD.name(), HttpMethod.GET.name());
+        }
+        return Collections.singletonList(httpMethod.name());
     }
 
     /**
@@ -111,11 +154,45 @@ public abstract class RequestMappingInfoHandlerMapping extends AbstractHandlerMe
     protected void handleMatch(RequestMappingInfo info, String lookupPath, HttpServletRequest request) {
         super.handleMatch(info, lookupPath, request);
 
+        PathPatternsRequestCondition pathPatternsCondition = info.getPathPatternsCondition();
+        if (pathPatternsCondition != null) {
+            handlePathPatternsMatch(pathPatternsCondition, request);
+        } else {
+            handlePatternsMatch(info, lookupPath, request);
+        }
+
+        if (!info.getProducesCondition().getProducibleMediaTypes().isEmpty()) {
+            Set<MediaType> mediaTypes = info.getProducesCondition().getProducibleMediaTypes();
+            request.setAttribute(PRODUCIBLE_MEDIA_TYPES_ATTRIBUTE, mediaTypes);
+        }
+    }
+
+    private void handlePathPatternsMatch(PathPatternsRequestCondition condition, HttpServletRequest request) {
+
+        PathPattern bestPattern = condition.getFirstPattern();
+        PathPattern.PathMatchInfo matchInfo = null;
+        if (bestPattern != null) {
+            PathContainer path = ServletRequestPathUtils.parseAndCache(request).pathWithinApplication();
+            matchInfo = bestPattern.matchAndExtract(path);
+        }
+
+        request.setAttribute(BEST_MATCHING_PATTERN_ATTRIBUTE, (bestPattern != null ? bestPattern.getPatternString() :
+                request.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE)));
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE,
+                (matchInfo != null ? matchInfo.getUriVariables() : Collections.emptyMap()));
+
+        if (isMatrixVariableContentAvailable()) {
+            request.setAttribute(HandlerMapping.MATRIX_VARIABLES_ATTRIBUTE,
+                    (matchInfo != null ? matchInfo.getMatrixVariables() : Collections.emptyMap()));
+        }
+    }
+
+    private void handlePatternsMatch(RequestMappingInfo info, String lookupPath, HttpServletRequest request) {
         String bestPattern;
         Map<String, String> uriVariables;
         Map<String, String> decodedUriVariables;
 
-        Set<String> patterns = info.getPatternsCondition().getPatterns();
+        Set<String> patterns = info.getPatternValues();
         if (patterns.isEmpty()) {
             bestPattern = lookupPath;
             uriVariables = Collections.emptyMap();
@@ -133,11 +210,6 @@ public abstract class RequestMappingInfoHandlerMapping extends AbstractHandlerMe
             Map<String, MultiValueMap<String, String>> matrixVars = extractMatrixVariables(request, uriVariables);
             request.setAttribute(HandlerMapping.MATRIX_VARIABLES_ATTRIBUTE, matrixVars);
         }
-
-        if (!info.getProducesCondition().getProducibleMediaTypes().isEmpty()) {
-            Set<MediaType> mediaTypes = info.getProducesCondition().getProducibleMediaTypes();
-            request.setAttribute(PRODUCIBLE_MEDIA_TYPES_ATTRIBUTE, mediaTypes);
-        }
     }
 
     private boolean isMatrixVariableContentAvailable() {
@@ -236,7 +308,7 @@ public abstract class RequestMappingInfoHandlerMapping extends AbstractHandlerMe
 
         public PartialMatchHelper(Set<RequestMappingInfo> infos, HttpServletRequest request) {
             for (RequestMappingInfo info : infos) {
-                if (info.getPatternsCondition().getMatchingCondition(request) != null) {
+                if (info.getActivePatternsCondition().getMatchingCondition(request) != null) {
                     this.partialMatches.add(new PartialMatch(info, request));
                 }
             }
@@ -35,9 +35,12 @@ import org.springframework.web.servlet.handler.MatchableHandlerMapping;
 import org.springframework.web.servlet.handler.RequestMatchResult;
 import org.springframework.web.servlet.mvc.condition.AbstractRequestCondition;
 import org.springframework.web.servlet.mvc.condition.CompositeRequestCondition;
+import org.springframework.web.servlet.mvc.condition.PathPatternsRequestCondition;
 import org.springframework.web.servlet.mvc.condition.RequestCondition;
 import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
 import org.springframework.web.servlet.mvc.method.RequestMappingInfoHandlerMapping;
+import org.springframework.web.util.ServletRequestPathUtils;
+import org.springframework.web.util.pattern.PathPattern;
 
 import javax.servlet.http.HttpServletRequest;
 import java.lang.reflect.AnnotatedElement;
@@ -139,6 +142,7 @@ public class RequestMappingHandlerMapping extends RequestMappingInfoHandlerMappi
         this.config = new RequestMappingInfo.BuilderConfiguration();
         this.config.setUrlPathHelper(getUrlPathHelper());
         this.config.setPathMatcher(getPathMatcher());
+        this.config.setPatternParser(getPatternParser());
         this.config.setSuffixPatternMatch(this.useSuffixPatternMatch);
         this.config.setTrailingSlashMatch(this.useTrailingSlashMatch);
         this.config.setRegisteredSuffixPatternMatch(this.useRegisteredSuffixPatternMatch);
@@ -315,7 +319,13 @@ public class RequestMappingHandlerMapping extends RequestMappingInfoHandlerMappi
         if (matchingInfo == null) {
             return null;
         }
-        Set<String> patterns = matchingInfo.getPatternsCondition().getPatterns();
+        PathPatternsRequestCondition pathPatternsCondition = matchingInfo.getPathPatternsCondition();
+        if (pathPatternsCondition != null) {
+            PathPattern pathPattern = pathPatternsCondition.getFirstPattern();
+            Assert.state(pathPattern != null, "No matching PathPattern");
+            return new RequestMatchResult(pathPattern, ServletRequestPathUtils.parseAndCache(request));
+        }
+        Set<String> patterns = matchingInfo.getPatternValues();
         String lookupPath = getUrlPathHelper().getLookupPathForRequest(request);
         return new RequestMatchResult(patterns.iterator().next(), lookupPath, getPathMatcher());
     }
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.servlet.handler;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link PathMappingIndex}.
+ */
+public class PathMappingIndexTests {
+
+	private final PathMappingIndex<String> index = new PathMappingIndex<>();
+
+
+	@Test
+	public void tokenizePath() {
+		assertEquals(Arrays.asList("a", "b", "c"), PathMappingIndex.tokenizePath("/a//b/c/"));
+		assertEquals(Collections.emptyList(), PathMappingIndex.tokenizePath(""));
+		assertEquals(Collections.emptyList(), PathMappingIndex.tokenizePath("/"));
+	}
+
+	@Test
+	public void literalPrefix() {
+		add("hotels", "/hotels");
+		add("hotel", "/hotels/{hotel}");
+		add("bookings", "/hotels/{hotel}/bookings");
+		add("users", "/users/{user}");
+		add("all", "/**");
+
+		assertEquals(set("all", "hotels", "hotel", "bookings"), collect("/hotels/42/bookings", null));
+		assertEquals(set("all", "hotels", "hotel", "bookings"), collect("/hotels", null));
+		assertEquals(set("all", "users"), collect("/users/1", null));
+		assertEquals(set("all"), collect("/other/1", null));
+	}
+
+	@Test
+	public void noPatterns() {
+		this.index.add("none", Collections.emptySet(), Collections.emptySet());
+		add("foo", "/foo");
+
+		assertEquals(set("none"), collect("/bar", null));
+		assertEquals(set("none", "foo"), collect("/foo", null));
+	}
+
+	@Test
+	public void wildcardSegmentsNotIndexed() {
+		add("glob", "/ba*/x");
+		add("any", "/?oo");
+
+		assertEquals(set("glob", "any"), collect("/foo", null));
+	}
+
+	@Test
+	public void suffixAndCase() {
+		add("foo", "/foo/bar");
+
+		assertEquals(set("foo"), collect("/foo/bar.json", null));
+		assertEquals(set("foo"), collect("/FOO/Bar", null));
+		assertEquals(set("foo"), collect("/foo/bar/", null));
+		assertEquals(set(), collect("/foo/baz", null));
+	}
+
+	@Test
+	public void suffixWithDotInLiteralPattern() {
+		add("foo", "/foo");
+		add("fooBar", "/foo.bar");
+
+		assertEquals(set("foo", "fooBar"), collect("/foo.bar", null));
+		assertEquals(set("foo", "fooBar"), collect("/foo.bar.json", null));
+		assertEquals(set("foo"), collect("/foo.json", null));
+	}
+
+	@Test
+	public void requestMethods() {
+		this.index.add("get", Collections.singleton("/foo"), Collections.singleton("GET"));
+		this.index.add("put", Collections.singleton("/foo"), Collections.singleton("PUT"));
+		this.index.add("any", Collections.singleton("/foo"), Collections.emptySet());
+
+		assertEquals(set("any", "get"), collect("/foo", Collections.singleton("GET")));
+		assertEquals(set("any", "put"), collect("/foo", Collections.singleton("PUT")));
+		assertEquals(set("any", "get"), collect("/foo", Arrays.asList("HEAD", "GET")));
+		assertEquals(set("any"), collect("/foo", Collections.singleton("DELETE")));
+		assertEquals(set("any", "get", "put"), collect("/foo", null));
+	}
+
+	@Test
+	public void remove() {
+		add("hotel", "/hotels/{hotel}");
+		this.index.add("get", Collections.singleton("/hotels"), Collections.singleton("GET"));
+
+		this.index.remove("hotel", Collections.singleton("/hotels/{hotel}"), Collections.emptySet());
+		this.index.remove("get", Collections.singleton("/hotels"), Collections.singleton("GET"));
+
+		assertEquals(set(), collect("/hotels/1", null));
+	}
+
+
+	private void add(String mapping, String pattern) {
+		this.index.add(mapping, Collections.singleton(pattern), Collections.emptySet());
+	}
+
+	private Set<String> collect(String path, Collection<String> methods) {
+		Set<String> result = new LinkedHashSet<>();
+		this.index.collect(PathMappingIndex.tokenizePath(path), methods, result);
+		return result;
+	}
+
+	private static Set<String> set(String... values) {
+		return new LinkedHashSet<>(Arrays.asList(values));
+	}
+
+}
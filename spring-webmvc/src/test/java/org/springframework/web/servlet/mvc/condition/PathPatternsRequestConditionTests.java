@@ -0,0 +1,174 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.servlet.mvc.condition;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+import org.springframework.mock.web.test.MockHttpServletRequest;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link PathPatternsRequestCondition}.
+ */
+public class PathPatternsRequestConditionTests {
+
+	private final PathPatternParser parser = new PathPatternParser();
+
+
+	@Test
+	public void prependSlash() {
+		PathPatternsRequestCondition c = condition("foo");
+		assertEquals("/foo", c.getPatterns().iterator().next().getPatternString());
+	}
+
+	@Test
+	public void patternValuesSortedBySpecificity() {
+		PathPatternsRequestCondition c = condition("/**", "/foo/{bar}", "/foo/bar");
+		assertEquals(Arrays.asList("/foo/bar", "/foo/{bar}", "/**"), new ArrayList<>(c.getPatternValues()));
+		assertEquals("/foo/bar", c.getFirstPattern().getPatternString());
+	}
+
+	@Test
+	public void combineEmptySets() {
+		PathPatternsRequestCondition c1 = condition();
+		PathPatternsRequestCondition c2 = condition();
+
+		assertEquals(condition("", "/"), c1.combine(c2));
+	}
+
+	@Test
+	public void combineOnePatternWithEmptySet() {
+		PathPatternsRequestCondition c1 = condition("/type1", "/type2");
+		PathPatternsRequestCondition c2 = condition();
+
+		assertEquals(condition("/type1", "/type2"), c1.combine(c2));
+		assertEquals(condition("/type1", "/type2"), c2.combine(c1));
+	}
+
+	@Test
+	public void combineMultiplePatterns() {
+		PathPatternsRequestCondition c1 = condition("/t1", "/t2");
+		PathPatternsRequestCondition c2 = condition("/m1", "/m2");
+
+		assertEquals(condition("/t1/m1", "/t1/m2", "/t2/m1", "/t2/m2"), c1.combine(c2));
+	}
+
+	@Test
+	public void matchDirectPath() {
+		PathPatternsRequestCondition condition = condition("/foo");
+		PathPatternsRequestCondition match = condition.getMatchingCondition(new MockHttpServletRequest("GET", "/foo"));
+
+		assertSame(condition, match);
+	}
+
+	@Test
+	public void matchPattern() {
+		PathPatternsRequestCondition condition = condition("/foo/*");
+		PathPatternsRequestCondition match = condition.getMatchingCondition(new MockHttpServletRequest("GET", "/foo/bar"));
+
+		assertNotNull(match);
+	}
+
+	@Test
+	public void matchSortPatterns() {
+		PathPatternsRequestCondition condition = condition("/**", "/foo/bar", "/foo/*", "/other");
+		PathPatternsRequestCondition match = condition.getMatchingCondition(new MockHttpServletRequest("GET", "/foo/bar"));
+
+		assertEquals(Arrays.asList("/foo/bar", "/foo/*", "/**"), new ArrayList<>(match.getPatternValues()));
+	}
+
+	@Test
+	public void matchTrailingSlash() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/foo/");
+		assertNotNull(condition("/foo").getMatchingCondition(request));
+
+		PathPatternParser strictParser = new PathPatternParser();
+		strictParser.setMatchOptionalTrailingSeparator(false);
+		request = new MockHttpServletRequest("GET", "/foo/");
+		assertNull(new PathPatternsRequestCondition(strictParser, "/foo").getMatchingCondition(request));
+	}
+
+	@Test
+	public void matchWithinContextAndServletPath() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/app/api/foo");
+		request.setContextPath("/app");
+		request.setServletPath("/api");
+		request.setPathInfo("/foo");
+
+		assertNotNull(condition("/foo").getMatchingCondition(request));
+		assertNull(condition("/api/foo").getMatchingCondition(request));
+	}
+
+	@Test
+	public void matchEncodedPath() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/foo%20bar");
+		assertNotNull(condition("/foo bar").getMatchingCondition(request));
+	}
+
+	@Test
+	public void noMatch() {
+		PathPatternsRequestCondition condition = condition("/foo", "/foo/*");
+		assertNull(condition.getMatchingCondition(new MockHttpServletRequest("GET", "/bar")));
+	}
+
+	@Test
+	public void matchEmptyCondition() {
+		PathPatternsRequestCondition condition = condition();
+		assertSame(condition, condition.getMatchingCondition(new MockHttpServletRequest("GET", "/foo")));
+	}
+
+	@Test
+	public void compareToConsistentWithEquals() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/foo");
+		PathPatternsRequestCondition c1 = condition("/foo*");
+		PathPatternsRequestCondition c2 = condition("/foo*");
+
+		assertEquals(0, c1.compareTo(c2, request));
+	}
+
+	@Test
+	public void compareToMoreSpecificFirst() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/foo/bar");
+		PathPatternsRequestCondition c1 = condition("/foo/bar");
+		PathPatternsRequestCondition c2 = condition("/foo/{name}");
+
+		assertTrue(c1.compareTo(c2, request) < 0);
+		assertTrue(c2.compareTo(c1, request) > 0);
+	}
+
+	@Test
+	public void compareNumberOfMatchingPatterns() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/foo");
+		PathPatternsRequestCondition c1 = condition("/foo", "/f*").getMatchingCondition(request);
+		PathPatternsRequestCondition c2 = condition("/foo", "/bar").getMatchingCondition(request);
+
+		assertEquals(-1, c1.compareTo(c2, request));
+		assertEquals(Collections.singleton("/foo"), c2.getPatternValues());
+	}
+
+
+	private PathPatternsRequestCondition condition(String... patterns) {
+		return new PathPatternsRequestCondition(this.parser, patterns);
+	}
+
+}
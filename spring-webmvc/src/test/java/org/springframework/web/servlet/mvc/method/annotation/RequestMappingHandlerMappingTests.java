@@ -32,6 +32,7 @@ import org.junit.Test;
 
 import org.springframework.core.annotation.AliasFor;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.test.MockHttpServletRequest;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.accept.ContentNegotiationManager;
 import org.springframework.web.accept.PathExtensionContentNegotiationStrategy;
@@ -43,12 +44,16 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.context.support.StaticWebApplicationContext;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
 import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -183,6 +188,62 @@ public class RequestMappingHandlerMappingTests {
 		assertComposedAnnotationMapping(RequestMethod.PATCH);
 	}
 
+	@Test
+	@SuppressWarnings("unchecked")
+	public void pathPatterns() throws Exception {
+		this.wac.registerSingleton("hotelController", HotelController.class);
+		this.wac.refresh();
+		this.handlerMapping.setPatternParser(new PathPatternParser());
+		this.handlerMapping.afterPropertiesSet();
+
+		Method method = HotelController.class.getMethod("hotel");
+		RequestMappingInfo info = this.handlerMapping.getMappingForMethod(method, HotelController.class);
+		assertNotNull(info);
+		assertNotNull(info.getPathPatternsCondition());
+		assertSame(info.getPathPatternsCondition(), info.getActivePatternsCondition());
+		assertEquals(Collections.singleton("/hotels/{hotel}"), info.getPatternValues());
+		assertEquals(Collections.singleton("/hotels/{hotel}"), info.getPatternsCondition().getPatterns());
+		assertSame(info.getPatternsCondition(), info.getPatternsCondition());
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/app/hotels/42");
+		request.setContextPath("/app");
+		HandlerMethod handlerMethod = (HandlerMethod) this.handlerMapping.getHandler(request).getHandler();
+		assertEquals("hotel", handlerMethod.getMethod().getName());
+		assertEquals("/hotels/{hotel}", request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE));
+		Map<String, String> uriVariables =
+				(Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+		assertEquals(Collections.singletonMap("hotel", "42"), uriVariables);
+
+		request = new MockHttpServletRequest("GET", "/hotels/search");
+		handlerMethod = (HandlerMethod) this.handlerMapping.getHandler(request).getHandler();
+		assertEquals("search", handlerMethod.getMethod().getName());
+
+		request = new MockHttpServletRequest("GET", "/hotels/42/");
+		handlerMethod = (HandlerMethod) this.handlerMapping.getHandler(request).getHandler();
+		assertEquals("hotel", handlerMethod.getMethod().getName());
+
+		request = new MockHttpServletRequest("GET", "/hotels/42/rooms");
+		assertEquals("42", this.handlerMapping.match(request, "/hotels/{hotel}/**").extractUriTemplateVariables().get("hotel"));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void pathPatternsExposeDecodedPathWithinHandlerMapping() throws Exception {
+		this.wac.registerSingleton("hotelController", HotelController.class);
+		this.wac.refresh();
+		this.handlerMapping.setPatternParser(new PathPatternParser());
+		this.handlerMapping.afterPropertiesSet();
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/app/hotels/grand%20hotel");
+		request.setContextPath("/app");
+		HandlerMethod handlerMethod = (HandlerMethod) this.handlerMapping.getHandler(request).getHandler();
+		assertEquals("hotel", handlerMethod.getMethod().getName());
+		assertEquals("/hotels/grand hotel", request.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE));
+		Map<String, String> uriVariables =
+				(Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+		assertEquals(Collections.singletonMap("hotel", "grand hotel"), uriVariables);
+	}
+
 	private RequestMappingInfo assertComposedAnnotationMapping(RequestMethod requestMethod) throws Exception {
 		String methodName = requestMethod.name().toLowerCase();
 		String path = "/" + methodName;
@@ -245,6 +306,19 @@ public class RequestMappingHandlerMappingTests {
 
 	}
 
+	@Controller
+	@RequestMapping("/hotels")
+	static class HotelController {
+
+		@GetMapping("/{hotel}")
+		public void hotel() {
+		}
+
+		@GetMapping("/search")
+		public void search() {
+		}
+	}
+
 	@RequestMapping(method = RequestMethod.POST,
 			produces = MediaType.APPLICATION_JSON_VALUE,
 			consumes = MediaType.APPLICATION_JSON_VALUE)